@@ -0,0 +1,235 @@
+package donts.ai.tools.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存值的紧凑二进制编码
+ * <p>
+ * 整数使用变长编码，负数先做 ZigZag 变换；字符串为变长长度加 UTF-8 字节。{@link Writer#writeValue(Object)} 为 JSON 风格的值树
+ * （空值、布尔、整数、浮点、字符串、列表、映射）写入一个字节的类型标记，解码后保留 Integer 与 Long 的区别，
+ * 其他类型按 {@code toString()} 写为字符串。
+ */
+public final class BinaryCodec {
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int STRING = 6;
+    private static final int LIST = 7;
+    private static final int MAP = 8;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * 编码器
+     */
+    public static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        public Writer writeBoolean(boolean value) {
+            out.write(value ? 1 : 0);
+            return this;
+        }
+
+        /**
+         * 写入非负整数，每字节7位
+         */
+        public Writer writeVarInt(int value) {
+            return writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        public Writer writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+            return this;
+        }
+
+        /**
+         * 写入可能为负的整数
+         */
+        public Writer writeSignedLong(long value) {
+            return writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * 写入字符串，null 写为长度0，其他字符串的长度加1
+         */
+        public Writer writeString(String value) {
+            if (value == null) {
+                return writeVarInt(0);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        /**
+         * 写入带类型标记的值树
+         */
+        public Writer writeValue(Object value) {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof Boolean b) {
+                out.write(b ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                out.write(INT);
+                writeSignedLong(((Number) value).longValue());
+            } else if (value instanceof Long l) {
+                out.write(LONG);
+                writeSignedLong(l);
+            } else if (value instanceof Double || value instanceof Float) {
+                out.write(DOUBLE);
+                long bits = Double.doubleToRawLongBits(((Number) value).doubleValue());
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) (bits >>> shift));
+                }
+            } else if (value instanceof List<?> list) {
+                out.write(LIST);
+                writeVarInt(list.size());
+                list.forEach(this::writeValue);
+            } else if (value instanceof Map<?, ?> map) {
+                out.write(MAP);
+                writeVarInt(map.size());
+                map.forEach((key, item) -> {
+                    writeValue(key);
+                    writeValue(item);
+                });
+            } else {
+                out.write(STRING);
+                writeString(value.toString());
+            }
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 解码器，读取越界或遇到未知的类型标记时抛出 {@link IllegalArgumentException}
+     */
+    public static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        public Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public boolean readBoolean() {
+            return next() != 0;
+        }
+
+        public int readVarInt() {
+            long value = readVarLong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException("整数超出范围: " + value);
+            }
+            return (int) value;
+        }
+
+        public long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("变长整数过长");
+        }
+
+        public long readSignedLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("字符串长度超出数据范围: " + length);
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * 读取 {@link Writer#writeValue(Object)} 写入的值树，列表和映射分别解码为 {@link ArrayList} 和 {@link LinkedHashMap}
+         */
+        public Object readValue() {
+            int tag = next();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case INT:
+                    return (int) readSignedLong();
+                case LONG:
+                    return readSignedLong();
+                case DOUBLE:
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++) {
+                        bits = (bits << 8) | next();
+                    }
+                    return Double.longBitsToDouble(bits);
+                case STRING:
+                    return readString();
+                case LIST:
+                    int size = readVarInt();
+                    List<Object> list = new ArrayList<>(Math.min(size, bytes.length));
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                case MAP:
+                    int entries = readVarInt();
+                    Map<Object, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < entries; i++) {
+                        map.put(readValue(), readValue());
+                    }
+                    return map;
+                default:
+                    throw new IllegalArgumentException("未知的类型标记: " + tag);
+            }
+        }
+
+        /**
+         * 是否已读完全部数据
+         */
+        public boolean isExhausted() {
+            return position == bytes.length;
+        }
+
+        private int next() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("数据不完整");
+            }
+            return bytes[position++] & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package donts.ai.tools.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 容量固定的LRU缓存，超出容量时淘汰最久未访问的条目
+ * <p>
+ * 基于按访问顺序排列的 {@link LinkedHashMap}，所有操作在同一把锁内完成。适合条目少、计算代价高于加锁代价的场景，
+ * 计算函数在锁外执行，并发计算同一个键时以先写入的结果为准。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public LruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0: " + capacity);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的值，不存在时返回null
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 写入缓存
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * 获取缓存的值，不存在时计算并写入
+     *
+     * @param key 键
+     * @param loader 计算函数，返回null时不写入缓存
+     * @return 缓存的或新计算的值
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                V existing = entries.putIfAbsent(key, value);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 当前条目数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,113 @@
+package donts.ai.tools.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 排序结果的分页存储，为查找结果提供不透明的续页游标
+ * <p>
+ * 第一页查询完成后把完整的排序结果按 (目录版本, 查询条件) 保存在服务端，游标中记录目录版本、查询条件的摘要和下一页的起始位置。
+ * 后续页面直接从保存的结果中截取，不需要重新生成候选和打分。相同目录版本下的相同查询得到相同的游标，重复查询覆盖之前保存的结果。
+ * 结果在容量上限内按LRU淘汰，超过有效期后失效；目录版本变化、查询条件不一致或结果已被淘汰时游标无效，调用方需要重新查找。
+ *
+ * @param <T> 结果类型
+ */
+public class RankedPages<T> {
+
+    private final LruCache<String, Ranking<T>> rankings;
+    private final long ttlMillis;
+
+    /**
+     * @param capacity 最多保存的排序结果数量
+     * @param ttlMillis 排序结果的有效期（毫秒）
+     */
+    public RankedPages(int capacity, long ttlMillis) {
+        this.rankings = new LruCache<>(capacity);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 保存完整的排序结果，返回下一页的游标
+     *
+     * @param version 目录版本
+     * @param query 查询条件，续页时必须一致
+     * @param items 按排名排列的结果
+     * @param scores 与结果一一对应的分数
+     * @param total 结果总数，只保存了排在前面的部分结果时大于结果数量
+     * @param nextOffset 下一页的起始位置
+     * @return 下一页游标，没有更多结果时为null
+     */
+    public String save(long version, String query, List<T> items, List<Integer> scores, int total, int nextOffset) {
+        if (nextOffset >= items.size()) {
+            return null;
+        }
+        rankings.put(key(version, query), new Ranking<>(query, List.copyOf(items), List.copyOf(scores), total,
+                System.currentTimeMillis()));
+        return encode(version, query, nextOffset);
+    }
+
+    /**
+     * 根据游标读取一页结果
+     *
+     * @param cursor 游标
+     * @param version 当前目录版本
+     * @param query 当前查询条件
+     * @param limit 页面大小
+     * @return 页面，游标无效、已过期或与当前目录版本、查询条件不一致时返回null
+     */
+    public Page<T> page(String cursor, long version, String query, int limit) {
+        Position position = decode(cursor);
+        if (position == null || position.version() != version || position.digest() != query.hashCode()) {
+            return null;
+        }
+        Ranking<T> ranking = rankings.get(key(version, query));
+        if (ranking == null || !ranking.query().equals(query)
+                || System.currentTimeMillis() - ranking.createdAt() > ttlMillis) {
+            return null;
+        }
+        int from = Math.min(position.offset(), ranking.items().size());
+        int to = Math.min(from + limit, ranking.items().size());
+        String nextCursor = to < ranking.items().size() ? encode(version, query, to) : null;
+        return new Page<>(ranking.items().subList(from, to), ranking.scores().subList(from, to),
+                ranking.total(), nextCursor);
+    }
+
+    private static String key(long version, String query) {
+        return version + ":" + query;
+    }
+
+    private static String encode(long version, String query, int offset) {
+        String raw = version + ":" + Integer.toHexString(query.hashCode()) + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                return null;
+            }
+            int offset = Integer.parseInt(parts[2]);
+            return offset < 0 ? null
+                    : new Position(Long.parseLong(parts[0]), Integer.parseUnsignedInt(parts[1], 16), offset);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 一页结果
+     *
+     * @param items 本页结果
+     * @param scores 与结果一一对应的分数
+     * @param total 结果总数
+     * @param nextCursor 下一页游标，没有更多结果时为null
+     */
+    public record Page<T>(List<T> items, List<Integer> scores, int total, String nextCursor) {}
+
+    private record Ranking<T>(String query, List<T> items, List<Integer> scores, int total, long createdAt) {}
+
+    private record Position(long version, int digest, int offset) {}
+}
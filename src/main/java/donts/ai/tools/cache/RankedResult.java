@@ -0,0 +1,48 @@
+package donts.ai.tools.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 查找结果的排序：按排名排列的条目ID和分数
+ * <p>
+ * 查找响应是排序上的一页视图，续页游标指向本实例保存的排序，因此跨实例共享的是排序本身，
+ * 命中后按ID在本实例的目录快照中取回条目，再按正常流程分页。
+ *
+ * @param ids 按排名排列的条目ID，可能只包含排在前面的部分结果
+ * @param scores 与ID一一对应的分数
+ * @param total 结果总数，只保存了部分结果时大于ID数量
+ */
+public record RankedResult(List<String> ids, List<Integer> scores, int total) {
+
+    /**
+     * 二进制编码：数量、总数，然后依次为ID和分数
+     */
+    public static final ValueCodec<RankedResult> CODEC = new ValueCodec<>() {
+
+        @Override
+        public byte[] encode(RankedResult value) {
+            BinaryCodec.Writer writer = new BinaryCodec.Writer()
+                    .writeVarInt(value.ids().size())
+                    .writeVarInt(value.total());
+            for (int i = 0; i < value.ids().size(); i++) {
+                writer.writeString(value.ids().get(i)).writeSignedLong(value.scores().get(i));
+            }
+            return writer.toByteArray();
+        }
+
+        @Override
+        public RankedResult decode(byte[] bytes) {
+            BinaryCodec.Reader reader = new BinaryCodec.Reader(bytes);
+            int size = reader.readVarInt();
+            int total = reader.readVarInt();
+            List<String> ids = new ArrayList<>(Math.min(size, bytes.length));
+            List<Integer> scores = new ArrayList<>(Math.min(size, bytes.length));
+            for (int i = 0; i < size; i++) {
+                ids.add(reader.readString());
+                scores.add((int) reader.readSignedLong());
+            }
+            return new RankedResult(ids, scores, total);
+        }
+    };
+}
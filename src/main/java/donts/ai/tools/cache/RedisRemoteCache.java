@@ -0,0 +1,273 @@
+package donts.ai.tools.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 Redis 协议（RESP2）的远程缓存层，只使用 GET 和 SET ... PX 两个命令
+ * <p>
+ * 连接按需建立，用完放回空闲队列复用，空闲连接数量有上限。每次连接和读取都受超时限制，
+ * 出错的连接直接关闭，并在一段退避时间内跳过远程访问，避免远程故障时每个请求都等待超时。
+ * 无法解析的回复与连接错误同样处理：读取视为未命中，连接关闭并进入退避。
+ */
+@Slf4j
+public class RedisRemoteCache implements RemoteCache {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    /**
+     * 出错后跳过远程访问的时间（毫秒）
+     */
+    private static final long BACKOFF_MILLIS = 1000;
+
+    /**
+     * 回复中一行（类型标记之后到行尾）的长度上限，超过时按格式错误处理
+     */
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private final InetSocketAddress address;
+    private final String password;
+    private final int timeoutMillis;
+    private final int maxIdle;
+
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private volatile long backoffUntil;
+    private volatile boolean closed;
+
+    /**
+     * @param host 主机
+     * @param port 端口
+     * @param password 密码，为空时不认证
+     * @param timeoutMillis 连接和读取超时（毫秒）
+     * @param maxIdle 空闲连接数量上限
+     */
+    public RedisRemoteCache(String host, int port, String password, int timeoutMillis, int maxIdle) {
+        this.address = new InetSocketAddress(host, port);
+        this.password = password;
+        this.timeoutMillis = timeoutMillis;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 按 host:port 格式的地址创建
+     */
+    public static RedisRemoteCache of(String address, String password, int timeoutMillis, int maxIdle) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0 || colon == address.length() - 1) {
+            throw new IllegalArgumentException("远程缓存地址格式应为 host:port: " + address);
+        }
+        return new RedisRemoteCache(address.substring(0, colon).trim(),
+                Integer.parseInt(address.substring(colon + 1).trim()), password, timeoutMillis, maxIdle);
+    }
+
+    @Override
+    public byte[] get(String key) {
+        if (unavailable()) {
+            return null;
+        }
+        Connection connection = null;
+        try {
+            connection = borrow();
+            connection.send(bytes("GET"), bytes(key));
+            byte[] value = connection.readBulk();
+            release(connection);
+            return value;
+        } catch (IOException e) {
+            fail(connection, "读取", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) {
+        if (unavailable()) {
+            return;
+        }
+        Connection connection = null;
+        try {
+            connection = borrow();
+            connection.send(bytes("SET"), bytes(key), value, bytes("PX"), bytes(Long.toString(Math.max(1, ttlMillis))));
+            connection.readStatus();
+            release(connection);
+        } catch (IOException e) {
+            fail(connection, "写入", e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return !unavailable();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private boolean unavailable() {
+        return closed || System.currentTimeMillis() < backoffUntil;
+    }
+
+    private Connection borrow() throws IOException {
+        Connection connection = idle.poll();
+        if (connection != null) {
+            idleCount.decrementAndGet();
+            return connection;
+        }
+        connection = new Connection(address, timeoutMillis);
+        if (password != null && !password.isEmpty()) {
+            try {
+                connection.send(bytes("AUTH"), bytes(password));
+                connection.readStatus();
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private void release(Connection connection) {
+        if (closed || idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            connection.close();
+            return;
+        }
+        idle.push(connection);
+    }
+
+    private void fail(Connection connection, String operation, IOException e) {
+        if (connection != null) {
+            connection.close();
+        }
+        backoffUntil = System.currentTimeMillis() + BACKOFF_MILLIS;
+        log.warn("远程缓存{}失败，{}毫秒内跳过远程缓存: {}", operation, BACKOFF_MILLIS, e.toString());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 一条 RESP 连接，同一时刻只由一个线程使用
+     */
+    private static final class Connection {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(InetSocketAddress address, int timeoutMillis) throws IOException {
+            socket = new Socket();
+            try {
+                socket.connect(address, timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                socket.setTcpNoDelay(true);
+                in = new BufferedInputStream(socket.getInputStream());
+                out = new BufferedOutputStream(socket.getOutputStream());
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        void send(byte[]... args) throws IOException {
+            out.write(bytes("*" + args.length));
+            out.write(CRLF);
+            for (byte[] arg : args) {
+                out.write(bytes("$" + arg.length));
+                out.write(CRLF);
+                out.write(arg);
+                out.write(CRLF);
+            }
+            out.flush();
+        }
+
+        /**
+         * 读取状态回复，错误回复抛出异常
+         */
+        void readStatus() throws IOException {
+            int type = readType();
+            String line = readLine();
+            if (type != '+') {
+                throw new IOException("远程缓存返回错误: " + (char) type + line);
+            }
+        }
+
+        /**
+         * 读取批量字符串回复，空回复返回null
+         */
+        byte[] readBulk() throws IOException {
+            int type = readType();
+            String line = readLine();
+            if (type != '$') {
+                throw new IOException("远程缓存返回错误: " + (char) type + line);
+            }
+            int length;
+            try {
+                length = Integer.parseInt(line);
+            } catch (NumberFormatException e) {
+                throw new IOException("远程缓存回复的长度无法解析: " + line);
+            }
+            if (length < 0) {
+                return null;
+            }
+            byte[] value = in.readNBytes(length);
+            if (value.length != length || in.read() != '\r' || in.read() != '\n') {
+                throw new IOException("远程缓存回复不完整");
+            }
+            return value;
+        }
+
+        private int readType() throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                throw new IOException("远程缓存连接已关闭");
+            }
+            return type;
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    throw new IOException("远程缓存连接已关闭");
+                }
+                if (line.size() >= MAX_LINE_LENGTH) {
+                    throw new IOException("远程缓存回复格式错误");
+                }
+                line.write(b);
+            }
+            if (in.read() != '\n') {
+                throw new IOException("远程缓存回复格式错误");
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 连接已不可用
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package donts.ai.tools.cache;
+
+/**
+ * 远程缓存层，多个服务实例共享
+ * <p>
+ * 实现不得抛出异常：远程不可用时读取返回null、写入直接丢弃，缓存只影响命中率，不影响查询结果。
+ */
+public interface RemoteCache extends AutoCloseable {
+
+    /**
+     * 读取缓存值
+     *
+     * @return 缓存的字节，不存在、超时或出错时返回null
+     */
+    byte[] get(String key);
+
+    /**
+     * 当前是否可以访问远程缓存，出错后的退避期间返回false
+     */
+    boolean isAvailable();
+
+    /**
+     * 写入缓存值
+     *
+     * @param ttlMillis 过期时间（毫秒）
+     */
+    void put(String key, byte[] value, long ttlMillis);
+
+    @Override
+    void close();
+}
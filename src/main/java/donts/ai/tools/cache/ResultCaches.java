@@ -0,0 +1,193 @@
+package donts.ai.tools.cache;
+
+import cn.hutool.core.thread.ThreadUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询结果缓存的创建和远程缓存连接的管理
+ * <p>
+ * 配置了远程缓存地址时，各服务创建的 {@link TwoTierCache} 共用一个远程连接池、一组读取线程和一个写回线程，
+ * 多个服务实例之间共享查询结果；未配置时只使用进程内缓存。读取和写回队列都有上限，远程缓存变慢时拒绝新的查询和写入，
+ * 不占用请求线程也不无限堆积。已接受的写入计入待完成数量，{@link #flush} 等待该数量归零，不依赖向已满的队列提交标记任务。
+ */
+@Slf4j
+@Service
+public class ResultCaches {
+
+    /**
+     * 远程缓存地址（host:port），为空时不使用远程缓存
+     */
+    @Value("${cache.remote.address:}")
+    private String remoteAddress = "";
+
+    @Value("${cache.remote.password:}")
+    private String remotePassword = "";
+
+    /**
+     * 远程缓存的连接和读取超时（毫秒），远程查询和写入都在后台线程上进行，超时只占用这些线程
+     */
+    @Value("${cache.remote.timeout-millis:50}")
+    private int remoteTimeoutMillis = 50;
+
+    /**
+     * 远程键的前缀，多个应用共用一个远程缓存时用于区分
+     */
+    @Value("${cache.remote.key-prefix:donts:}")
+    private String keyPrefix = "donts:";
+
+    /**
+     * 异步查询远程的线程数
+     */
+    @Value("${cache.remote.read-threads:2}")
+    private int readThreads = 2;
+
+    /**
+     * 等待查询远程的键数量上限，超出时本次不查询
+     */
+    @Value("${cache.remote.read-queue:1000}")
+    private int readQueue = 1000;
+
+    /**
+     * 等待远程写入的条目数量上限
+     */
+    @Value("${cache.remote.write-behind-queue:10000}")
+    private int writeBehindQueue = 10000;
+
+    /**
+     * 连接池中保留的空闲连接数量上限
+     */
+    @Value("${cache.remote.max-idle:16}")
+    private int maxIdleConnections = 16;
+
+    private RemoteCache remote;
+
+    private ThreadPoolExecutor remoteReads;
+
+    private ThreadPoolExecutor writeBehind;
+
+    private final Object writesLock = new Object();
+
+    /**
+     * 已接受、尚未完成的远程写入数量，归零时通知等待的 {@link #flush}
+     */
+    private int pendingWrites;
+
+    @PostConstruct
+    public void init() {
+        writeBehind = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writeBehindQueue),
+                ThreadUtil.newNamedThreadFactory("result-cache-write-", true),
+                new ThreadPoolExecutor.AbortPolicy());
+        if (remoteAddress != null && !remoteAddress.isBlank()) {
+            remoteReads = new ThreadPoolExecutor(readThreads, readThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(readQueue),
+                    ThreadUtil.newNamedThreadFactory("result-cache-read-", true),
+                    new ThreadPoolExecutor.AbortPolicy());
+            remote = RedisRemoteCache.of(remoteAddress.trim(), remotePassword, remoteTimeoutMillis,
+                    maxIdleConnections);
+            log.info("查询结果缓存使用远程缓存: {}", remoteAddress);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeBehind != null) {
+            flush(1000);
+            writeBehind.shutdownNow();
+        }
+        if (remoteReads != null) {
+            remoteReads.shutdownNow();
+        }
+        if (remote != null) {
+            remote.close();
+        }
+    }
+
+    /**
+     * 创建两级缓存
+     *
+     * @param name 缓存名称，不同用途的缓存不能相同
+     * @param maxTenants 保留本地缓存的租户数量上限
+     * @param localCapacity 每个租户的本地缓存条目数量上限
+     * @param ttlMillis 条目的有效期（毫秒）
+     * @param codec 远程缓存使用的编码
+     * @return 两级缓存，未配置远程缓存时只使用本地缓存
+     */
+    public <V> TwoTierCache<V> create(String name, int maxTenants, int localCapacity, long ttlMillis,
+                                      ValueCodec<V> codec) {
+        return new TwoTierCache<>(keyPrefix + name, maxTenants, localCapacity, ttlMillis, codec, remote, remoteReads,
+                this::submitWrite);
+    }
+
+    /**
+     * 提交一次远程写入，计入待完成数量
+     *
+     * @throws RejectedExecutionException 写回队列已满或线程已停止，本次写入不执行
+     */
+    private void submitWrite(Runnable write) {
+        synchronized (writesLock) {
+            pendingWrites++;
+        }
+        try {
+            writeBehind.execute(() -> {
+                try {
+                    write.run();
+                } finally {
+                    writeDone();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            writeDone();
+            throw e;
+        }
+    }
+
+    private void writeDone() {
+        synchronized (writesLock) {
+            if (--pendingWrites == 0) {
+                writesLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 是否配置了远程缓存
+     */
+    public boolean isRemoteEnabled() {
+        return remote != null;
+    }
+
+    /**
+     * 等待已提交的远程写入完成，队列中的写入全部完成即返回；被拒绝的写入不计入
+     *
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return 是否在超时之前完成
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (writesLock) {
+            while (pendingWrites > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    writesLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package donts.ai.tools.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * 按租户划分的缓存，每个租户使用独立的缓存实例，容量各自计算
+ * <p>
+ * 一个租户的大量查询只会淘汰自己的条目，不影响其他租户的热点数据。租户数量超过上限时，最久未访问的租户的缓存整体丢弃。
+ *
+ * @param <C> 每个租户的缓存类型
+ */
+public class TenantCaches<C> {
+
+    private final LruCache<String, C> tenants;
+
+    private final Supplier<C> factory;
+
+    /**
+     * @param maxTenants 保留缓存的租户数量上限
+     * @param factory 为新租户创建缓存
+     */
+    public TenantCaches(int maxTenants, Supplier<C> factory) {
+        this.tenants = new LruCache<>(maxTenants);
+        this.factory = factory;
+    }
+
+    /**
+     * 获取租户的缓存，不存在时创建
+     */
+    public C get(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, id -> factory.get());
+    }
+}
@@ -0,0 +1,145 @@
+package donts.ai.tools.cache;
+
+import cn.hutool.crypto.SecureUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 两级缓存：进程内的LRU缓存加上多个实例共享的远程缓存
+ * <p>
+ * 本地缓存按租户划分（{@link TenantCaches}），每个租户有独立的容量，一个租户的大量查询只淘汰自己的条目；
+ * 远程缓存按键共享，内容相同的目录上的结果可以在租户和实例之间复用。
+ * 读取只查本地，调用方线程从不等待远程：本地未命中时立即按未命中返回，同时在读取线程上异步查询远程，
+ * 远程命中的值解码后填入本地，供之后的读取使用。同一个键同时只有一个远程查询，读取队列已满或远程出错后的退避期间不查询。
+ * 写入只同步写本地，编码和远程写入交给写回线程异步完成，调用方不等待远程；写回队列已满时直接丢弃。
+ * 键由调用方保证包含决定结果的全部输入（如目录内容摘要），缓存本身不做失效，条目只按有效期过期。
+ *
+ * @param <V> 值类型，必须不可变
+ */
+@Slf4j
+public class TwoTierCache<V> {
+
+    private final String name;
+    private final TenantCaches<LruCache<String, Entry<V>>> local;
+    private final long ttlMillis;
+    private final ValueCodec<V> codec;
+    private final RemoteCache remote;
+    private final Executor remoteReads;
+    private final Executor writeBehind;
+
+    /**
+     * 正在异步查询远程的租户和键
+     */
+    private final Set<String> pendingReads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param name 缓存名称，作为远程键的前缀，不同用途的缓存不能相同
+     * @param maxTenants 保留本地缓存的租户数量上限
+     * @param localCapacity 每个租户的本地缓存条目数量上限
+     * @param ttlMillis 条目的有效期（毫秒）
+     * @param codec 远程缓存使用的编码
+     * @param remote 远程缓存，为null时只使用本地缓存
+     * @param remoteReads 执行远程查询的线程池
+     * @param writeBehind 执行远程写入的线程池
+     */
+    public TwoTierCache(String name, int maxTenants, int localCapacity, long ttlMillis, ValueCodec<V> codec,
+                        RemoteCache remote, Executor remoteReads, Executor writeBehind) {
+        this.name = name;
+        this.local = new TenantCaches<>(maxTenants, () -> new LruCache<>(localCapacity));
+        this.ttlMillis = ttlMillis;
+        this.codec = codec;
+        this.remote = remote;
+        this.remoteReads = remoteReads;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * 读取本地缓存值，本地未命中时异步查询远程，不等待查询结果
+     *
+     * @param tenantId 租户，决定使用哪一份本地缓存
+     * @param key 键
+     * @return 本地缓存的值，未命中或已过期时返回null
+     */
+    public V get(String tenantId, String key) {
+        LruCache<String, Entry<V>> tenantLocal = local.get(tenantId);
+        Entry<V> entry = tenantLocal.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.value();
+        }
+        if (remote != null && remote.isAvailable()) {
+            fetchLater(tenantLocal, tenantId, key);
+        }
+        return null;
+    }
+
+    private void fetchLater(LruCache<String, Entry<V>> tenantLocal, String tenantId, String key) {
+        String pending = tenantId + "\n" + key;
+        if (!pendingReads.add(pending)) {
+            return;
+        }
+        try {
+            remoteReads.execute(() -> {
+                try {
+                    fill(tenantLocal, key);
+                } finally {
+                    pendingReads.remove(pending);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 读取队列已满或线程已停止，本次不查询远程
+            pendingReads.remove(pending);
+        }
+    }
+
+    /**
+     * 查询远程并填入本地，本地在查询期间已经有了未过期的条目时保留本地条目
+     */
+    private void fill(LruCache<String, Entry<V>> tenantLocal, String key) {
+        byte[] bytes = remote.get(remoteKey(key));
+        if (bytes == null) {
+            return;
+        }
+        V value;
+        try {
+            value = codec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            log.warn("远程缓存 {} 的条目无法解码: {}", name, e.getMessage());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Entry<V> current = tenantLocal.get(key);
+        if (current == null || current.expiresAt() <= now) {
+            // 远程条目的剩余有效期未知，本地按完整有效期保存
+            tenantLocal.put(key, new Entry<>(value, now + ttlMillis));
+        }
+    }
+
+    /**
+     * 写入缓存值，远程写入异步完成
+     *
+     * @param tenantId 租户，决定写入哪一份本地缓存
+     * @param key 键
+     * @param value 值
+     */
+    public void put(String tenantId, String key, V value) {
+        local.get(tenantId).put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        if (remote == null) {
+            return;
+        }
+        try {
+            writeBehind.execute(() -> remote.put(remoteKey(key), codec.encode(value), ttlMillis));
+        } catch (RejectedExecutionException e) {
+            // 写回队列已满或线程已停止，只保留本地条目
+        }
+    }
+
+    private String remoteKey(String key) {
+        return name + ":" + SecureUtil.md5(key);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,19 @@
+package donts.ai.tools.cache;
+
+/**
+ * 缓存值与字节之间的转换，用于远程缓存层
+ *
+ * @param <V> 值类型
+ */
+public interface ValueCodec<V> {
+
+    /**
+     * 编码缓存值
+     */
+    byte[] encode(V value);
+
+    /**
+     * 解码缓存值，数据损坏时抛出 {@link IllegalArgumentException}
+     */
+    V decode(byte[] bytes);
+}
@@ -0,0 +1,212 @@
+package donts.ai.tools.cluster;
+
+import cn.hutool.core.thread.ThreadUtil;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+import donts.ai.tools.service.ApiFinderService;
+import donts.ai.tools.service.ModelFinderService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 多节点目录的查询分发：全局查询分发到所有节点后合并前K个结果，按数据模型的查询转发到其所属节点
+ * <p>
+ * 各节点的请求同时发出，每个节点单独施加超时；超时或失败的节点记为不可用，其余节点的结果照常合并返回，
+ * 由调用方在响应中标记结果不完整。本节点的查询同样经由线程池执行，与远程节点并行。
+ */
+@Slf4j
+@Service
+public class CatalogCluster {
+
+    @Autowired
+    private ClusterTopology topology;
+
+    /**
+     * 查找服务同时依赖本类分发查询，延迟注入以打破循环依赖
+     */
+    @Lazy
+    @Autowired
+    private ModelFinderService modelFinderService;
+
+    @Lazy
+    @Autowired
+    private ApiFinderService apiFinderService;
+
+    /**
+     * 每个节点的超时（毫秒）
+     */
+    @Value("${cluster.timeout-millis:500}")
+    private long timeoutMillis = 500;
+
+    /**
+     * 按配置顺序排列的节点，单节点模式下为空
+     */
+    private Map<String, CatalogNode> nodes = Map.of();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if (!topology.isEnabled()) {
+            return;
+        }
+        executor = Executors.newCachedThreadPool(ThreadUtil.newNamedThreadFactory("catalog-cluster-", true));
+        List<CatalogNode> configured = new ArrayList<>();
+        for (String nodeId : topology.getNodeIds()) {
+            configured.add(nodeId.equals(topology.getSelf())
+                    ? new LocalCatalogNode(nodeId, modelFinderService, apiFinderService, executor)
+                    : new HttpCatalogNode(nodeId, topology.url(nodeId), (int) timeoutMillis, executor));
+        }
+        configure(topology, configured, timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 以给定的节点组成集群，用于同一进程内的多个实例
+     *
+     * @param topology 分区方式
+     * @param nodes 全部节点，包括本节点
+     * @param timeoutMillis 每个节点的超时（毫秒）
+     */
+    public void configure(ClusterTopology topology, List<CatalogNode> nodes, long timeoutMillis) {
+        Map<String, CatalogNode> byId = new LinkedHashMap<>();
+        nodes.forEach(node -> byId.put(node.getId(), node));
+        this.topology = topology;
+        this.nodes = byId;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 是否为多节点模式
+     */
+    public boolean isEnabled() {
+        return !nodes.isEmpty();
+    }
+
+    /**
+     * 本节点是否拥有该数据模型
+     */
+    public boolean isLocalModel(String modelId) {
+        return topology.getSelf().equals(topology.ownerOfModel(modelId));
+    }
+
+    /**
+     * 把按数据模型查找API接口的请求转发到数据模型所属的节点
+     *
+     * @param request 查找请求
+     * @return 所属节点的响应，节点超时或失败时返回失败响应
+     */
+    public ApiFinderResponse forwardFindApis(ApiFinderRequest request) {
+        String owner = topology.ownerOfModel(request.getModelId());
+        try {
+            return withTimeout(() -> nodes.get(owner).findApis(request)).join();
+        } catch (CompletionException e) {
+            log.warn("节点 {} 查找API接口失败: {}", owner, request.getModelId(), e.getCause());
+            return ApiFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("数据模型所在节点不可用: " + owner)
+                    .unavailableNodes(List.of(owner))
+                    .build();
+        }
+    }
+
+    /**
+     * 把查询分发到所有节点并合并前K个结果
+     * <p>
+     * 结果按分数降序排列，分数相同时按节点的配置顺序、再按节点内的排名，合并结果与节点的响应先后无关。
+     *
+     * @param query 在单个节点上执行的查询
+     * @param k 返回数量
+     * @return 合并的结果和不可用的节点
+     */
+    public <T> Gathered<T> gather(Function<CatalogNode, CompletableFuture<ShardHits<T>>> query, int k) {
+        List<String> nodeIds = new ArrayList<>(nodes.keySet());
+        List<CompletableFuture<ShardHits<T>>> futures = new ArrayList<>(nodeIds.size());
+        for (CatalogNode node : nodes.values()) {
+            futures.add(withTimeout(() -> query.apply(node)));
+        }
+
+        List<Ranked<T>> ranked = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        int totalHits = 0;
+        for (int n = 0; n < futures.size(); n++) {
+            ShardHits<T> hits;
+            try {
+                hits = futures.get(n).join();
+            } catch (CompletionException e) {
+                log.warn("节点 {} 未能返回查询结果: {}", nodeIds.get(n), e.getCause().toString());
+                unavailable.add(nodeIds.get(n));
+                continue;
+            }
+            totalHits += hits.getTotalHits();
+            for (int i = 0; i < hits.getItems().size(); i++) {
+                ranked.add(new Ranked<>(hits.getItems().get(i), hits.getScores().get(i), n, i));
+            }
+        }
+
+        ranked.sort(Comparator.<Ranked<T>>comparingInt(Ranked::score).reversed()
+                .thenComparingInt(Ranked::node)
+                .thenComparingInt(Ranked::rank));
+        List<Ranked<T>> top = ranked.subList(0, Math.min(k, ranked.size()));
+        return new Gathered<>(top.stream().map(Ranked::item).toList(), top.stream().map(Ranked::score).toList(),
+                totalHits, List.copyOf(unavailable), unavailable.size() == nodeIds.size());
+    }
+
+    /**
+     * 为节点调用施加超时，调用本身抛出的异常同样视为节点失败
+     */
+    private <R> CompletableFuture<R> withTimeout(Supplier<CompletableFuture<R>> call) {
+        try {
+            return call.get().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private record Ranked<T>(T item, int score, int node, int rank) {}
+
+    /**
+     * 合并后的查询结果
+     *
+     * @param items 前K个结果
+     * @param scores 与结果一一对应的分数
+     * @param totalHits 可用节点上的候选总数
+     * @param unavailableNodes 超时或失败的节点
+     * @param allUnavailable 是否所有节点都不可用
+     */
+    public record Gathered<T>(List<T> items, List<Integer> scores, int totalHits, List<String> unavailableNodes,
+                              boolean allUnavailable) {
+
+        /**
+         * 是否有节点没有返回结果
+         */
+        public boolean partial() {
+            return !unavailableNodes.isEmpty();
+        }
+    }
+}
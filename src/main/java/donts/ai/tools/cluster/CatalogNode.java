@@ -0,0 +1,34 @@
+package donts.ai.tools.cluster;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 保存一部分目录的节点，查询异步执行，由 {@link CatalogCluster} 统一施加超时
+ */
+public interface CatalogNode {
+
+    /**
+     * 节点ID
+     */
+    String getId();
+
+    /**
+     * 在节点的目录分片上按描述查找数据模型
+     */
+    CompletableFuture<ShardHits<DataModel>> searchModels(ShardQuery query);
+
+    /**
+     * 在节点的目录分片上全局搜索API接口
+     */
+    CompletableFuture<ShardHits<ApiInterface>> searchApis(ShardQuery query);
+
+    /**
+     * 查找节点上某个数据模型的API接口，数据模型必须属于该节点
+     */
+    CompletableFuture<ApiFinderResponse> findApis(ApiFinderRequest request);
+}
@@ -0,0 +1,159 @@
+package donts.ai.tools.cluster;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 多节点部署时的目录分区方式：各节点的ID和地址，以及数据模型到节点的一致性哈希分配
+ * <p>
+ * 数据模型按ID分配给节点，API接口跟随其关联的数据模型，没有关联模型的接口按自身ID分配，
+ * 因此按数据模型查找接口只需访问一个节点。每个节点只保存分配给自己的条目，全局查询由 {@link CatalogCluster} 分发到所有节点。
+ * 没有配置节点时为单节点模式，本节点拥有全部条目。
+ */
+@Slf4j
+@Service
+public class ClusterTopology {
+
+    /**
+     * 本节点ID，必须是节点列表中的一个
+     */
+    @Getter
+    @Value("${cluster.self:}")
+    private String self = "";
+
+    /**
+     * 节点列表，格式为 ID=地址，以逗号分隔，如：a=http://10.0.0.1:8080,b=http://10.0.0.2:8080
+     */
+    @Value("${cluster.nodes:}")
+    private String nodes = "";
+
+    /**
+     * 每个节点在哈希环上的虚拟节点数量
+     */
+    @Value("${cluster.virtual-nodes:128}")
+    private int virtualNodes = 128;
+
+    /**
+     * 节点ID到地址
+     */
+    private Map<String, String> nodeUrls = Map.of();
+
+    /**
+     * 全部节点ID，按配置顺序排列
+     */
+    private List<String> nodeOrder = List.of();
+
+    private HashRing ring;
+
+    @PostConstruct
+    public void init() {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String node : nodes == null ? new String[0] : nodes.split(",")) {
+            if (node.isBlank()) {
+                continue;
+            }
+            int separator = node.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("节点配置格式应为 ID=地址: " + node);
+            }
+            urls.put(node.substring(0, separator).trim(), node.substring(separator + 1).trim());
+        }
+        configure(self, urls);
+        if (isEnabled()) {
+            log.info("多节点目录分区，本节点: {}, 节点: {}", self, nodeUrls.keySet());
+        }
+    }
+
+    /**
+     * 以给定的节点创建分区方式，用于同一进程内的多个实例
+     *
+     * @param self 本节点ID
+     * @param nodeIds 全部节点ID
+     * @param virtualNodes 每个节点的虚拟节点数量
+     * @return 分区方式
+     */
+    public static ClusterTopology of(String self, List<String> nodeIds, int virtualNodes) {
+        ClusterTopology topology = new ClusterTopology();
+        topology.virtualNodes = virtualNodes;
+        Map<String, String> urls = new LinkedHashMap<>();
+        nodeIds.forEach(id -> urls.put(id, ""));
+        topology.configure(self, urls);
+        return topology;
+    }
+
+    private void configure(String self, Map<String, String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        if (!urls.containsKey(self)) {
+            throw new IllegalArgumentException("本节点ID不在节点列表中: " + self);
+        }
+        this.self = self;
+        this.nodeUrls = Map.copyOf(urls);
+        this.nodeOrder = List.copyOf(urls.keySet());
+        this.ring = HashRing.of(nodeOrder, virtualNodes);
+    }
+
+    /**
+     * 是否为多节点模式
+     */
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    /**
+     * 全部节点ID，按配置顺序排列
+     */
+    public List<String> getNodeIds() {
+        return nodeOrder;
+    }
+
+    /**
+     * 节点地址
+     */
+    public String url(String nodeId) {
+        return nodeUrls.get(nodeId);
+    }
+
+    /**
+     * 数据模型所属的节点，单节点模式下为本节点
+     */
+    public String ownerOfModel(String modelId) {
+        return isEnabled() ? ring.owner(modelId) : self;
+    }
+
+    /**
+     * 本节点是否拥有该数据模型
+     */
+    public boolean ownsModel(DataModel model) {
+        return !isEnabled() || self.equals(ring.owner(model.getId()));
+    }
+
+    /**
+     * 本节点是否拥有该API接口：有关联模型时跟随模型，否则按接口ID分配
+     */
+    public boolean ownsApi(ApiInterface api) {
+        if (!isEnabled()) {
+            return true;
+        }
+        String key = api.getRelatedModelId() != null ? api.getRelatedModelId() : api.getId();
+        return self.equals(ring.owner(key));
+    }
+
+    /**
+     * 分区方式的指纹，节点或本节点变化后目录镜像失效；单节点模式为0
+     */
+    public long fingerprint() {
+        return isEnabled() ? Objects.hash(self, nodeOrder, virtualNodes) : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package donts.ai.tools.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希环，把键分配给节点
+ * <p>
+ * 每个节点在环上放置若干个虚拟节点，键顺时针归属于遇到的第一个虚拟节点。增减节点时只有相邻区间的键改变归属，
+ * 其余键保持原节点不变。哈希取MD5摘要的前8个字节，同一组节点在任何实例上得到相同的分配。创建后不可变。
+ */
+public final class HashRing {
+
+    private final NavigableMap<Long, String> ring;
+
+    private HashRing(NavigableMap<Long, String> ring) {
+        this.ring = ring;
+    }
+
+    /**
+     * 创建哈希环
+     *
+     * @param nodeIds 节点ID，不能为空
+     * @param virtualNodes 每个节点的虚拟节点数量
+     * @return 哈希环
+     */
+    public static HashRing of(List<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("哈希环至少需要一个节点");
+        }
+        NavigableMap<Long, String> ring = new TreeMap<>();
+        for (String nodeId : nodeIds) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                // 虚拟节点哈希冲突时保留ID较小的节点，节点的配置顺序不影响分配结果
+                ring.merge(hash(nodeId + "#" + i), nodeId, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        return new HashRing(ring);
+    }
+
+    /**
+     * 键所属的节点
+     */
+    public String owner(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5不可用", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package donts.ai.tools.cluster;
+
+import cn.hutool.core.lang.TypeReference;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpUtil;
+import cn.hutool.json.JSONUtil;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+import lombok.Cleanup;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 远程节点，通过HTTP调用对方的 {@code /cluster} 接口
+ */
+public class HttpCatalogNode implements CatalogNode {
+
+    private static final Type MODEL_HITS = new TypeReference<ShardHits<DataModel>>() {}.getType();
+    private static final Type API_HITS = new TypeReference<ShardHits<ApiInterface>>() {}.getType();
+
+    private final String id;
+    private final String baseUrl;
+    private final int timeoutMillis;
+    private final Executor executor;
+
+    /**
+     * @param id 节点ID
+     * @param baseUrl 节点地址，如 http://10.0.0.2:8080
+     * @param timeoutMillis HTTP连接和读取超时（毫秒）
+     * @param executor 执行阻塞HTTP调用的线程池
+     */
+    public HttpCatalogNode(String id, String baseUrl, int timeoutMillis, Executor executor) {
+        this.id = id;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public CompletableFuture<ShardHits<DataModel>> searchModels(ShardQuery query) {
+        return post("/cluster/models/search", query, MODEL_HITS);
+    }
+
+    @Override
+    public CompletableFuture<ShardHits<ApiInterface>> searchApis(ShardQuery query) {
+        return post("/cluster/apis/search", query, API_HITS);
+    }
+
+    @Override
+    public CompletableFuture<ApiFinderResponse> findApis(ApiFinderRequest request) {
+        return post("/cluster/apis/find", request, ApiFinderResponse.class);
+    }
+
+    private <T> CompletableFuture<T> post(String path, Object body, Type type) {
+        return CompletableFuture.supplyAsync(() -> {
+            @Cleanup
+            HttpResponse response = HttpUtil.createPost(baseUrl + path)
+                    .header("Content-Type", "application/json")
+                    .body(JSONUtil.toJsonStr(body))
+                    .timeout(timeoutMillis)
+                    .execute();
+            if (!response.isOk()) {
+                throw new IllegalStateException("节点 " + id + " 返回状态码: " + response.getStatus());
+            }
+            return JSONUtil.toBean(response.body(), type, false);
+        }, executor);
+    }
+}
@@ -0,0 +1,50 @@
+package donts.ai.tools.cluster;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+import donts.ai.tools.service.ApiFinderService;
+import donts.ai.tools.service.ModelFinderService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 同一进程内的节点，直接调用该节点的查找服务；查询在给定的线程池上执行，与其他节点的请求并行
+ */
+public class LocalCatalogNode implements CatalogNode {
+
+    private final String id;
+    private final ModelFinderService modelFinderService;
+    private final ApiFinderService apiFinderService;
+    private final Executor executor;
+
+    public LocalCatalogNode(String id, ModelFinderService modelFinderService, ApiFinderService apiFinderService,
+                            Executor executor) {
+        this.id = id;
+        this.modelFinderService = modelFinderService;
+        this.apiFinderService = apiFinderService;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public CompletableFuture<ShardHits<DataModel>> searchModels(ShardQuery query) {
+        return CompletableFuture.supplyAsync(() -> modelFinderService.searchShard(query), executor);
+    }
+
+    @Override
+    public CompletableFuture<ShardHits<ApiInterface>> searchApis(ShardQuery query) {
+        return CompletableFuture.supplyAsync(() -> apiFinderService.searchShard(query), executor);
+    }
+
+    @Override
+    public CompletableFuture<ApiFinderResponse> findApis(ApiFinderRequest request) {
+        return CompletableFuture.supplyAsync(() -> apiFinderService.findApisByModelIdLocally(request), executor);
+    }
+}
@@ -0,0 +1,35 @@
+package donts.ai.tools.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 一个节点返回的分片查询结果
+ *
+ * @param <T> 结果类型
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardHits<T> {
+
+    /**
+     * 节点上匹配度最高的结果，按分数降序排列
+     */
+    private List<T> items;
+
+    /**
+     * 与结果一一对应的匹配度分数
+     */
+    private List<Integer> scores;
+
+    /**
+     * 节点上的候选总数
+     */
+    private int totalHits;
+}
@@ -0,0 +1,41 @@
+package donts.ai.tools.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分发到各节点的分片查询，查询文本由各节点按自己的目录分片规范化
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardQuery {
+
+    /**
+     * 发起查询的用户ID，各节点在该用户所属租户的目录上查询
+     */
+    private String userId;
+
+    /**
+     * 查询文本
+     */
+    private String query;
+
+    /**
+     * 操作类型，只用于API接口查询
+     */
+    private String operationType;
+
+    /**
+     * 每个节点返回的结果数量
+     */
+    private int limit;
+
+    /**
+     * 是否包含详细信息
+     */
+    private boolean includeDetails;
+}
@@ -2,7 +2,10 @@ package donts.ai.tools.config;
 
 import donts.ai.tools.mcp.ApiExecutorMcpServer;
 import donts.ai.tools.mcp.ApiFinderMcpServer;
+import donts.ai.tools.mcp.ApiPipelineMcpServer;
 import donts.ai.tools.mcp.ModelFinderMcpServer;
+import donts.ai.tools.mcp.ModelRelationMcpServer;
+import donts.ai.tools.mcp.SuggestMcpServer;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.context.annotation.Bean;
@@ -20,19 +23,28 @@ public class DataModelToolConfig {
      * @param modelFinderMcpServer 数据模型查找工具
      * @param apiFinderMcpServer API接口查找工具
      * @param apiExecutorMcpServer API执行工具
+     * @param apiPipelineMcpServer 一站式解析并执行API工具
+     * @param modelRelationMcpServer 数据模型关系查找工具
+     * @param suggestMcpServer 输入补全工具
      * @return ToolCallbackProvider
      */
     @Bean
     public ToolCallbackProvider allToolsProvider(
             ModelFinderMcpServer modelFinderMcpServer,
             ApiFinderMcpServer apiFinderMcpServer,
-            ApiExecutorMcpServer apiExecutorMcpServer) {
+            ApiExecutorMcpServer apiExecutorMcpServer,
+            ApiPipelineMcpServer apiPipelineMcpServer,
+            ModelRelationMcpServer modelRelationMcpServer,
+            SuggestMcpServer suggestMcpServer) {
         
         return MethodToolCallbackProvider.builder()
                 .toolObjects(
                         modelFinderMcpServer,
                         apiFinderMcpServer,
-                        apiExecutorMcpServer
+                        apiExecutorMcpServer,
+                        apiPipelineMcpServer,
+                        modelRelationMcpServer,
+                        suggestMcpServer
                 )
                 .build();
     }
@@ -0,0 +1,189 @@
+package donts.ai.tools.controller;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.CatalogAdminRequest;
+import donts.ai.tools.response.CatalogAdminResponse;
+import donts.ai.tools.service.CatalogAdminService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据目录管理接口，在运行时注册、更新和删除数据模型及API接口，无需修改代码重新部署
+ * <p>
+ * 开启多租户时通过 {@value #TENANT_HEADER} 请求头指定修改的租户目录，未指定时修改共享目录。
+ * 该请求头不做认证，能访问管理接口的调用方可以修改任意租户的目录，部署时需要在网关等处限制访问。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/catalog")
+public class CatalogAdminController {
+
+    /**
+     * 指定租户的请求头
+     */
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    @Autowired
+    private CatalogAdminService catalogAdminService;
+
+    /**
+     * 导入的OpenAPI文档的大小上限（MB）
+     */
+    @Value("${catalog.openapi.max-size-mb:64}")
+    private long openApiMaxSizeMb = 64;
+
+    /**
+     * 注册数据模型
+     */
+    @PostMapping("/models")
+    public ResponseEntity<CatalogAdminResponse> registerDataModel(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @RequestBody DataModel model) {
+        return toEntity(catalogAdminService.registerDataModel(newRequest(tenantId, null).dataModel(model).build()));
+    }
+
+    /**
+     * 更新数据模型
+     */
+    @PutMapping("/models/{modelId}")
+    public ResponseEntity<CatalogAdminResponse> updateDataModel(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @PathVariable String modelId,
+            @RequestBody DataModel model) {
+        if (model.getId() == null) {
+            model.setId(modelId);
+        }
+        return toEntity(catalogAdminService.updateDataModel(newRequest(tenantId, modelId).dataModel(model).build()));
+    }
+
+    /**
+     * 删除数据模型
+     */
+    @DeleteMapping("/models/{modelId}")
+    public ResponseEntity<CatalogAdminResponse> removeDataModel(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @PathVariable String modelId) {
+        return toEntity(catalogAdminService.removeDataModel(newRequest(tenantId, modelId).build()));
+    }
+
+    /**
+     * 注册API接口
+     */
+    @PostMapping("/apis")
+    public ResponseEntity<CatalogAdminResponse> registerApiInterface(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @RequestBody ApiInterface api) {
+        return toEntity(catalogAdminService.registerApiInterface(newRequest(tenantId, null).apiInterface(api).build()));
+    }
+
+    /**
+     * 更新API接口
+     */
+    @PutMapping("/apis/{apiId}")
+    public ResponseEntity<CatalogAdminResponse> updateApiInterface(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @PathVariable String apiId,
+            @RequestBody ApiInterface api) {
+        if (api.getId() == null) {
+            api.setId(apiId);
+        }
+        return toEntity(catalogAdminService.updateApiInterface(newRequest(tenantId, apiId).apiInterface(api).build()));
+    }
+
+    /**
+     * 删除API接口
+     */
+    @DeleteMapping("/apis/{apiId}")
+    public ResponseEntity<CatalogAdminResponse> removeApiInterface(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @PathVariable String apiId) {
+        return toEntity(catalogAdminService.removeApiInterface(newRequest(tenantId, apiId).build()));
+    }
+
+    /**
+     * 导入OpenAPI文档，请求体为文档内容（JSON或YAML）
+     * <p>
+     * 请求体不经过编解码器聚合，按数据块直接写入临时文件，不受内存缓冲上限的限制，导入器从文件流式读取，
+     * 导入结束后删除临时文件。超过大小上限时停止接收并拒绝导入。合并和重建索引完成前不占用事件循环线程。
+     */
+    @PostMapping("/openapi")
+    public Mono<ResponseEntity<CatalogAdminResponse>> importOpenApi(
+            @RequestHeader(value = TENANT_HEADER, required = false) String tenantId,
+            @RequestBody Flux<DataBuffer> body) {
+        CatalogAdminRequest.CatalogAdminRequestBuilder<?, ?> request = newRequest(tenantId, null);
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> Files.createTempFile("openapi-", ".upload"))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                file -> DataBufferUtils.write(limit(body), file)
+                        .then(Mono.fromCallable(() -> catalogAdminService.importOpenApi(
+                                request.openApiSpec(new FileSystemResource(file)).build()))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                        .flatMap(Mono::fromFuture)
+                        .map(this::toEntity),
+                file -> Mono.fromCallable(() -> Files.deleteIfExists(file))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(DataBufferLimitException.class, e -> Mono.just(ResponseEntity
+                        .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(CatalogAdminResponse.builder()
+                                .requestId(request.build().getRequestId())
+                                .success(false)
+                                .errorMessage(e.getMessage())
+                                .build())));
+    }
+
+    /**
+     * 累计接收的字节数超过上限时释放当前数据块并以 {@link DataBufferLimitException} 结束
+     */
+    private Flux<DataBuffer> limit(Flux<DataBuffer> body) {
+        long maxBytes = openApiMaxSizeMb * 1024 * 1024;
+        AtomicLong received = new AtomicLong();
+        return body.handle((buffer, sink) -> {
+            if (received.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                DataBufferUtils.release(buffer);
+                sink.error(new DataBufferLimitException("OpenAPI文档超过大小上限: " + openApiMaxSizeMb + "MB"));
+            } else {
+                sink.next(buffer);
+            }
+        });
+    }
+
+    private CatalogAdminRequest.CatalogAdminRequestBuilder<?, ?> newRequest(String tenantId, String id) {
+        return CatalogAdminRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(tenantId == null || tenantId.isBlank() ? MockDataRepository.DEFAULT_TENANT : tenantId)
+                .timestamp(System.currentTimeMillis())
+                .id(id);
+    }
+
+    private ResponseEntity<CatalogAdminResponse> toEntity(CatalogAdminResponse response) {
+        if (!response.isSuccess()) {
+            log.warn("数据目录管理操作失败: {}", response.getErrorMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,53 @@
+package donts.ai.tools.controller;
+
+import donts.ai.tools.cluster.ShardHits;
+import donts.ai.tools.cluster.ShardQuery;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+import donts.ai.tools.service.ApiFinderService;
+import donts.ai.tools.service.ModelFinderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 多节点模式下节点之间的查询接口，只在本节点的目录分片上执行，不再转发
+ */
+@RestController
+@RequestMapping("/cluster")
+public class ClusterController {
+
+    @Autowired
+    private ModelFinderService modelFinderService;
+
+    @Autowired
+    private ApiFinderService apiFinderService;
+
+    /**
+     * 在本节点按描述查找数据模型
+     */
+    @PostMapping("/models/search")
+    public ShardHits<DataModel> searchModels(@RequestBody ShardQuery query) {
+        return modelFinderService.searchShard(query);
+    }
+
+    /**
+     * 在本节点全局搜索API接口
+     */
+    @PostMapping("/apis/search")
+    public ShardHits<ApiInterface> searchApis(@RequestBody ShardQuery query) {
+        return apiFinderService.searchShard(query);
+    }
+
+    /**
+     * 在本节点根据数据模型ID查找API接口
+     */
+    @PostMapping("/apis/find")
+    public ApiFinderResponse findApis(@RequestBody ApiFinderRequest request) {
+        return apiFinderService.findApisByModelIdLocally(request);
+    }
+}
@@ -0,0 +1,153 @@
+package donts.ai.tools.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 基于编辑距离（Levenshtein距离）的BK树，用于在词典中查找与拼写错误的词项相近的词
+ * <p>
+ * 每个子节点按与父节点的编辑距离挂在父节点下。查询距离上限为k时，由三角不等式，
+ * 只需访问与父节点距离在 [d-k, d+k] 之间的子节点（d为查询词与父节点的距离），不必与词典中的每个词计算距离。
+ * 创建后不可变。
+ */
+public final class BkTree {
+
+    private static final BkTree EMPTY = new BkTree(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private BkTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * 构建词典，重复的词只保留一个
+     */
+    public static BkTree build(Collection<String> terms) {
+        Node root = null;
+        int size = 0;
+        // 按字典序插入，使同一词典构建出的树结构确定
+        for (String term : new TreeSet<>(terms)) {
+            if (root == null) {
+                root = new Node(term, 0);
+            } else {
+                insert(root, term);
+            }
+            size++;
+        }
+        return root == null ? EMPTY : new BkTree(root, size);
+    }
+
+    private static void insert(Node root, String term) {
+        Node node = root;
+        while (true) {
+            int distance = distance(node.term, term);
+            Node child = node.firstChild;
+            while (child != null && child.distance != distance) {
+                child = child.nextSibling;
+            }
+            if (child == null) {
+                Node added = new Node(term, distance);
+                added.nextSibling = node.firstChild;
+                node.firstChild = added;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * 词典中的词数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 查找与词项编辑距离不超过上限的词
+     *
+     * @param term 查询词
+     * @param maxDistance 编辑距离上限
+     * @return 按距离升序、距离相同时按字典序排列的结果，包括与查询词相同的词（距离为0）
+     */
+    public List<Match> search(String term, int maxDistance) {
+        List<Match> result = new ArrayList<>();
+        if (root == null || maxDistance < 0) {
+            return result;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(node.term, term);
+            if (distance <= maxDistance) {
+                result.add(new Match(node.term, distance));
+            }
+            for (Node child = node.firstChild; child != null; child = child.nextSibling) {
+                if (Math.abs(child.distance - distance) <= maxDistance) {
+                    pending.push(child);
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::term));
+        return result;
+    }
+
+    /**
+     * 两个字符串的编辑距离（插入、删除、替换各计1）
+     */
+    public static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] t = previous;
+            previous = current;
+            current = t;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * 查询结果
+     *
+     * @param term 词典中的词
+     * @param distance 与查询词的编辑距离
+     */
+    public record Match(String term, int distance) {}
+
+    /**
+     * 树节点，子节点以链表保存，大多数节点只有很少的子节点
+     */
+    private static final class Node {
+        private final String term;
+        private final int distance;
+        private Node firstChild;
+        private Node nextSibling;
+
+        private Node(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.TextNormalizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 前缀补全字典，为模型名称、API名称和关键词提供按前缀的自动补全
+ * <p>
+ * 词条按规范化形式（{@link TextNormalizer#fold}）排序后构建为扁平数组表示的字典树：同一节点的子节点编号连续、
+ * 按字符升序排列，查找子节点时在字符数组上二分。每个节点预先保存其子树中权重最高的若干个词条，
+ * 查询只需沿前缀走到对应节点再读出预存的结果，耗时与前缀长度和返回数量成正比，与词条总数无关。
+ * <p>
+ * 相同规范化形式的词条合并为一个，权重累加，类型和ID取权重最高的一条。创建后不可变。
+ */
+public final class CompletionTrie {
+
+    /**
+     * 每个节点预存的补全数量上限，也是单次查询能返回的最大数量
+     */
+    public static final int MAX_COMPLETIONS = 20;
+
+    private static final CompletionTrie EMPTY = new CompletionTrie(new Entry[0], new int[]{0}, new int[]{0},
+            new char[1], new int[]{0, 0}, new int[0]);
+
+    private final Entry[] entries;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final char[] labels;
+    private final int[] topStart;
+    private final int[] topEntries;
+
+    private CompletionTrie(Entry[] entries, int[] childStart, int[] childCount, char[] labels,
+                           int[] topStart, int[] topEntries) {
+        this.entries = entries;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.labels = labels;
+        this.topStart = topStart;
+        this.topEntries = topEntries;
+    }
+
+    /**
+     * 构建补全字典，文本为空的词条被忽略
+     *
+     * @param entries 词条，权重为静态权重
+     * @return 补全字典
+     */
+    public static CompletionTrie build(Iterable<Entry> entries) {
+        Map<String, Entry> merged = mergeByKey(entries);
+        if (merged.isEmpty()) {
+            return EMPTY;
+        }
+
+        String[] keys = merged.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        Entry[] sorted = new Entry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = merged.get(keys[i]);
+        }
+        Comparator<Integer> ranking = (a, b) -> compare(sorted, keys, a, b);
+
+        // 广度优先分配节点编号，使同一节点的子节点编号连续；节点覆盖排序后键的区间 [lo, hi)
+        IntList childStart = new IntList();
+        IntList childCount = new IntList();
+        StringBuilder labels = new StringBuilder();
+        IntList topStart = new IntList();
+        IntList topEntries = new IntList();
+        Deque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[]{0, keys.length, 0});
+        labels.append('\0');
+        int nextNode = 1;
+        while (!queue.isEmpty()) {
+            int[] node = queue.poll();
+            int lo = node[0];
+            int hi = node[1];
+            int depth = node[2];
+
+            topStart.append(topEntries.size());
+            for (int entry : top(lo, hi, ranking)) {
+                topEntries.append(entry);
+            }
+
+            // 排序后长度等于深度的键（即节点本身对应的词条）只可能在区间开头
+            int start = lo < hi && keys[lo].length() == depth ? lo + 1 : lo;
+            childStart.append(nextNode);
+            int children = 0;
+            for (int i = start; i < hi; ) {
+                char c = keys[i].charAt(depth);
+                int j = i + 1;
+                while (j < hi && keys[j].charAt(depth) == c) {
+                    j++;
+                }
+                queue.add(new int[]{i, j, depth + 1});
+                labels.append(c);
+                children++;
+                i = j;
+            }
+            childCount.append(children);
+            nextNode += children;
+        }
+        topStart.append(topEntries.size());
+
+        return new CompletionTrie(sorted, childStart.toArray(), childCount.toArray(), labels.toString().toCharArray(),
+                topStart.toArray(), topEntries.toArray());
+    }
+
+    /**
+     * 合并多个字典的补全结果：相同规范化形式的词条按 {@link #build} 的规则合并，再按权重重新排序
+     *
+     * @param entries 各字典的补全结果
+     * @param limit 返回数量
+     * @return 按权重降序排列的词条
+     */
+    public static List<Entry> merge(Iterable<Entry> entries, int limit) {
+        Map<String, Entry> merged = mergeByKey(entries);
+        String[] keys = merged.keySet().toArray(new String[0]);
+        Entry[] values = new Entry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = merged.get(keys[i]);
+        }
+        List<Entry> result = new ArrayList<>(Math.min(limit, keys.length));
+        for (int i : top(0, keys.length, (a, b) -> compare(values, keys, a, b))) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 按规范化形式合并词条，权重累加，类型和ID取权重最高的一条；文本为空的词条被忽略
+     */
+    private static Map<String, Entry> mergeByKey(Iterable<Entry> entries) {
+        Map<String, Entry> merged = new HashMap<>();
+        for (Entry entry : entries) {
+            String key = TextNormalizer.fold(entry.text()).trim();
+            if (key.isEmpty()) {
+                continue;
+            }
+            merged.merge(key, entry, (a, b) -> {
+                Entry best = b.weight() > a.weight() ? b : a;
+                return new Entry(best.text(), best.type(), best.id(), a.weight() + b.weight());
+            });
+        }
+        return merged;
+    }
+
+    /**
+     * 区间内按权重排在最前的词条编号
+     */
+    private static List<Integer> top(int lo, int hi, Comparator<Integer> ranking) {
+        List<Integer> candidates = new ArrayList<>(hi - lo);
+        for (int i = lo; i < hi; i++) {
+            candidates.add(i);
+        }
+        candidates.sort(ranking);
+        return candidates.subList(0, Math.min(MAX_COMPLETIONS, candidates.size()));
+    }
+
+    /**
+     * 权重高的在前，权重相同时较短的在前，再按规范化形式的字典序
+     */
+    private static int compare(Entry[] entries, String[] keys, int a, int b) {
+        int byWeight = Integer.compare(entries[b].weight(), entries[a].weight());
+        if (byWeight != 0) {
+            return byWeight;
+        }
+        int byLength = Integer.compare(keys[a].length(), keys[b].length());
+        return byLength != 0 ? byLength : keys[a].compareTo(keys[b]);
+    }
+
+    /**
+     * 词条数量
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * 查找以该前缀开头的词条，前缀先做全角转半角和小写化
+     *
+     * @param prefix 前缀，为空时返回全部词条中权重最高的若干个
+     * @param limit 返回数量，不超过 {@link #MAX_COMPLETIONS}
+     * @return 按权重降序排列的词条
+     */
+    public List<Entry> complete(String prefix, int limit) {
+        String key = TextNormalizer.fold(prefix).trim();
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0 || limit <= 0) {
+            return List.of();
+        }
+        int from = topStart[node];
+        int to = Math.min(topStart[node + 1], from + Math.min(limit, MAX_COMPLETIONS));
+        List<Entry> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(entries[topEntries[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * 节点下标签为该字符的子节点，不存在时返回-1
+     */
+    private int child(int node, char c) {
+        int lo = childStart[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (labels[mid] < c) {
+                lo = mid + 1;
+            } else if (labels[mid] > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 补全词条
+     *
+     * @param text 原文
+     * @param type 类型，如 model、api、keyword
+     * @param id 对应的数据模型或API接口ID，关键词为null
+     * @param weight 静态权重，越大越靠前
+     */
+    public record Entry(String text, String type, String id, int weight) {}
+}
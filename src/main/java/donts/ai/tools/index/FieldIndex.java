@@ -0,0 +1,165 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.CompactModelField;
+
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据模型字段的二级索引，支持按字段名、字段类型和字段描述查找数据模型
+ * <p>
+ * 索引以字段为单位：每个字段分配全局字段编号，字段名和字段类型（均忽略大小写）各自建立精确倒排表，
+ * 字段描述建立片段倒排表支持子串匹配。多个条件对字段编号求交，因此"名为createTime的Date字段"
+ * 要求同一个字段同时满足两个条件，最后再把字段映射回所属的数据模型。
+ * <p>
+ * 索引构建完成后只读，可以被多个线程并发查询。
+ */
+public class FieldIndex {
+
+    private final List<CompactDataModel> models;
+    private final IntBuffer fieldOwners;
+    private final Postings namePostings;
+    private final Postings typePostings;
+    private final TextColumn descriptions;
+    private final GramIndex descriptionIndex;
+
+    private FieldIndex(List<CompactDataModel> models, IntBuffer fieldOwners, Postings namePostings,
+                       Postings typePostings, TextColumn descriptions, GramIndex descriptionIndex) {
+        this.models = models;
+        this.fieldOwners = fieldOwners;
+        this.namePostings = namePostings;
+        this.typePostings = typePostings;
+        this.descriptions = descriptions;
+        this.descriptionIndex = descriptionIndex;
+    }
+
+    /**
+     * 构建字段索引
+     *
+     * @param dataModels 数据模型集合
+     * @return 构建好的索引
+     */
+    public static FieldIndex build(Collection<CompactDataModel> dataModels) {
+        List<CompactDataModel> models = List.copyOf(dataModels);
+        List<Integer> owners = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        Map<String, IntList> names = new HashMap<>();
+        Map<String, IntList> types = new HashMap<>();
+
+        for (int modelId = 0; modelId < models.size(); modelId++) {
+            List<CompactModelField> fields = models.get(modelId).getFields();
+            if (fields == null) {
+                continue;
+            }
+            for (CompactModelField field : fields) {
+                int fieldId = owners.size();
+                owners.add(modelId);
+                descriptions.add(lower(field.getDescription()));
+                names.computeIfAbsent(lower(field.getName()), k -> new IntList()).add(fieldId);
+                types.computeIfAbsent(lower(field.getTypeName()), k -> new IntList()).add(fieldId);
+            }
+        }
+
+        String[] descriptionColumn = descriptions.toArray(new String[0]);
+        return new FieldIndex(models,
+                IntBuffer.wrap(owners.stream().mapToInt(Integer::intValue).toArray()),
+                Postings.of(GramIndex.toPostings(names)),
+                Postings.of(GramIndex.toPostings(types)),
+                TextColumn.of(descriptionColumn),
+                GramIndex.build(descriptionColumn));
+    }
+
+    /**
+     * 写入目录镜像，数据模型本身由调用方另行保存
+     */
+    public void writeTo(ImageOutput out) {
+        int[] owners = new int[fieldOwners.limit()];
+        fieldOwners.get(0, owners);
+        out.writeInts(owners);
+        Postings.write(namePostings, out);
+        Postings.write(typePostings, out);
+        TextColumn.write(descriptions, out);
+        descriptionIndex.writeTo(out);
+    }
+
+    /**
+     * 从目录镜像读取字段索引
+     *
+     * @param in 位于 {@link #writeTo} 写入位置的读取器
+     * @param models 与写入时顺序一致的数据模型列表，可以是按需解码的视图
+     * @return 读取的索引
+     */
+    public static FieldIndex read(ImageInput in, List<CompactDataModel> models) {
+        return new FieldIndex(models, in.readInts(), Postings.read(in), Postings.read(in), TextColumn.read(in),
+                GramIndex.read(in));
+    }
+
+    /**
+     * 查找拥有满足全部条件的字段的数据模型，为空的条件不参与过滤
+     *
+     * @param fieldName 字段名（精确匹配，忽略大小写）
+     * @param fieldType 字段类型（精确匹配，忽略大小写）
+     * @param fieldDescription 字段描述（按空白分词，每个词项子串匹配）
+     * @return 匹配的数据模型和各自命中的字段数量，按模型在索引中的顺序排列
+     */
+    public List<FieldMatch> search(String fieldName, String fieldType, String fieldDescription) {
+        int[] fieldIds = null;
+        if (fieldName != null && !fieldName.isBlank()) {
+            fieldIds = orEmpty(namePostings.get(lower(fieldName.trim())));
+        }
+        if (fieldType != null && !fieldType.isBlank()) {
+            fieldIds = and(fieldIds, orEmpty(typePostings.get(lower(fieldType.trim()))));
+        }
+        if (fieldDescription != null && !fieldDescription.isBlank()) {
+            for (String term : KeywordIndex.tokenize(fieldDescription.trim())) {
+                byte[] utf8 = term.getBytes(StandardCharsets.UTF_8);
+                fieldIds = and(fieldIds, descriptionIndex.containing(term,
+                        (fieldId, t) -> descriptions.contains(fieldId, t, utf8)));
+            }
+        }
+        if (fieldIds == null) {
+            return List.of();
+        }
+
+        // 字段编号按模型顺序分配，同一模型的字段连续出现
+        List<FieldMatch> matches = new ArrayList<>();
+        int lastOwner = -1;
+        for (int fieldId : fieldIds) {
+            int owner = fieldOwners.get(fieldId);
+            if (owner == lastOwner) {
+                FieldMatch last = matches.get(matches.size() - 1);
+                matches.set(matches.size() - 1, new FieldMatch(last.model(), last.matchedFields() + 1));
+            } else {
+                matches.add(new FieldMatch(models.get(owner), 1));
+                lastOwner = owner;
+            }
+        }
+        return matches;
+    }
+
+    private static int[] orEmpty(int[] postings) {
+        return postings == null ? GramIndex.EMPTY_POSTINGS : postings;
+    }
+
+    private static int[] and(int[] current, int[] postings) {
+        return current == null ? postings : GramIndex.intersect(current, postings);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    /**
+     * 字段查询命中的数据模型
+     *
+     * @param model 数据模型
+     * @param matchedFields 满足条件的字段数量
+     */
+    public record FieldMatch(CompactDataModel model, int matchedFields) {}
+}
@@ -0,0 +1,144 @@
+package donts.ai.tools.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单字和双字片段倒排索引，用于快速查找包含某个子串的文本
+ * <p>
+ * 查询时对子串所有双字片段的倒排表求交（从最短的开始），再由调用方校验候选文本是否确实包含子串，
+ * 结果与逐个文本做 contains 完全一致。空白字符不参与片段切分，因此查询子串不能包含空白。
+ * <p>
+ * 索引只保存倒排表，不保存文本副本，校验时使用调用方已有的文本。倒排表既可以在堆内构建，也可以直接从目录镜像中读取。
+ */
+final class GramIndex {
+
+    static final int[] EMPTY_POSTINGS = new int[0];
+
+    private final int size;
+    private final Postings postings;
+
+    private GramIndex(int size, Postings postings) {
+        this.size = size;
+        this.postings = postings;
+    }
+
+    /**
+     * 构建索引，文本编号即数组下标
+     */
+    static GramIndex build(String[] texts) {
+        Map<String, IntList> grams = new HashMap<>();
+        for (int id = 0; id < texts.length; id++) {
+            String text = texts[id];
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    continue;
+                }
+                grams.computeIfAbsent(String.valueOf(c), k -> new IntList()).add(id);
+                if (i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                    grams.computeIfAbsent(text.substring(i, i + 2), k -> new IntList()).add(id);
+                }
+            }
+        }
+        return new GramIndex(texts.length, Postings.of(toPostings(grams)));
+    }
+
+    /**
+     * 写入目录镜像
+     */
+    void writeTo(ImageOutput out) {
+        out.writeInt(size);
+        Postings.write(postings, out);
+    }
+
+    /**
+     * 从目录镜像读取索引，倒排表在查询时才从镜像中读取
+     */
+    static GramIndex read(ImageInput in) {
+        return new GramIndex(in.readInt(), Postings.read(in));
+    }
+
+    /**
+     * 查找包含该子串的文本编号
+     *
+     * @param term 不含空白的子串
+     * @param verifier 校验编号对应的文本是否包含子串
+     * @return 升序排列的文本编号
+     */
+    int[] containing(String term, Verifier verifier) {
+        if (term.isEmpty()) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        if (term.length() == 1) {
+            int[] list = postings.get(term);
+            return list == null ? EMPTY_POSTINGS : list;
+        }
+
+        // 对所有双字片段的倒排表求交，从最短的倒排表开始
+        int[][] lists = new int[term.length() - 1][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(term.substring(i, i + 2));
+            if (lists[i] == null) {
+                return EMPTY_POSTINGS;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+
+        // 片段全部命中不代表连续出现，需要校验
+        int[] result = new int[candidates.length];
+        int n = 0;
+        for (int id : candidates) {
+            if (verifier.contains(id, term)) {
+                result[n++] = id;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 候选文本校验
+     */
+    @FunctionalInterface
+    interface Verifier {
+
+        /**
+         * 编号对应的文本是否包含子串
+         */
+        boolean contains(int id, String term);
+    }
+
+    static Map<String, int[]> toPostings(Map<String, IntList> lists) {
+        Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((key, list) -> postings.put(key, list.toArray()));
+        return postings;
+    }
+
+    /**
+     * 求两个升序数组的交集
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
@@ -0,0 +1,124 @@
+package donts.ai.tools.index;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 目录镜像的读取器，直接在（通常是内存映射的）缓冲区上按位置读取，不复制数据
+ * <p>
+ * 读取器本身带有当前位置，不能在线程之间共享；需要随机访问时用 {@link #at(int)} 创建新的读取器。
+ */
+public final class ImageInput {
+
+    private final ByteBuffer buffer;
+    private final StringTable strings;
+    private final int base;
+    private int position;
+
+    private ImageInput(ByteBuffer buffer, StringTable strings, int base) {
+        this.buffer = buffer;
+        this.strings = strings;
+        this.base = base;
+        this.position = base;
+    }
+
+    /**
+     * 打开 {@link ImageOutput#toByteArray()} 生成的镜像
+     *
+     * @param buffer 镜像所在的缓冲区
+     * @param start 镜像在缓冲区中的起始位置
+     * @return 位于正文起点的读取器
+     */
+    public static ImageInput open(ByteBuffer buffer, int start) {
+        StringTable strings = new StringTable(buffer, start);
+        return new ImageInput(buffer, strings, start + strings.byteLength());
+    }
+
+    public StringTable strings() {
+        return strings;
+    }
+
+    /**
+     * 当前位置，相对于所在块的起点
+     */
+    public int position() {
+        return position - base;
+    }
+
+    /**
+     * 在同一块内的指定位置创建新的读取器
+     */
+    public ImageInput at(int blockPosition) {
+        ImageInput input = new ImageInput(buffer, strings, base);
+        input.position = base + blockPosition;
+        return input;
+    }
+
+    /**
+     * 读取块内指定位置的整数，不改变当前位置，供按固定布局随机访问的享元视图使用
+     */
+    public int intAt(int blockPosition) {
+        return buffer.getInt(base + blockPosition);
+    }
+
+    /**
+     * 读取块内指定位置的字符串编号并解码，不改变当前位置
+     */
+    public String stringAt(int blockPosition) {
+        return strings.get(intAt(blockPosition));
+    }
+
+    public int readInt() {
+        int value = buffer.getInt(position);
+        position += 4;
+        return value;
+    }
+
+    public long readLong() {
+        long value = buffer.getLong(position);
+        position += 8;
+        return value;
+    }
+
+    public boolean readBoolean() {
+        return buffer.get(position++) != 0;
+    }
+
+    public String readString() {
+        return strings.get(readInt());
+    }
+
+    public List<String> readStrings() {
+        int size = readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return List.copyOf(values);
+    }
+
+    /**
+     * 读取 {@link ImageOutput#writeInts(int[])} 写入的数组，返回映射到原缓冲区的视图
+     */
+    public IntBuffer readInts() {
+        int length = readInt();
+        IntBuffer values = buffer.slice(position, length * 4).asIntBuffer();
+        position += length * 4;
+        return values;
+    }
+
+    /**
+     * 读取 {@link ImageOutput#writeBlock} 写入的块，返回位于块起点的读取器，当前读取器跳过整个块
+     */
+    public ImageInput readBlock() {
+        int length = readInt();
+        ImageInput block = new ImageInput(buffer, strings, position);
+        position += length;
+        return block;
+    }
+}
@@ -0,0 +1,122 @@
+package donts.ai.tools.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 目录镜像的顺序写入器，字符串统一写入字符串表，正文中只保存编号
+ * <p>
+ * 所有数值按大端序写入，与 {@link ImageInput} 对应。
+ */
+public final class ImageOutput {
+
+    private final StringTable.Builder strings;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    public ImageOutput() {
+        this(new StringTable.Builder());
+    }
+
+    private ImageOutput(StringTable.Builder strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * 当前写入位置，相对于所在块的起点
+     */
+    public int position() {
+        return out.size();
+    }
+
+    public void writeInt(int value) {
+        try {
+            out.writeInt(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeLong(long value) {
+        try {
+            out.writeLong(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        try {
+            out.writeByte(value ? 1 : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写入字符串编号，null写为-1
+     */
+    public void writeString(String value) {
+        writeInt(stringId(value));
+    }
+
+    /**
+     * 字符串在字符串表中的编号，null为-1
+     */
+    public int stringId(String value) {
+        return strings.id(value);
+    }
+
+    /**
+     * 写入字符串列表，null写为长度-1
+     */
+    public void writeStrings(List<String> values) {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        writeInt(values.size());
+        values.forEach(this::writeString);
+    }
+
+    /**
+     * 写入整型数组，读取时可以直接映射为 {@link IntBuffer}
+     */
+    public void writeInts(int[] values) {
+        writeInt(values.length);
+        for (int value : values) {
+            writeInt(value);
+        }
+    }
+
+    /**
+     * 写入一个带长度前缀的块，块内位置从0开始计算，读取时可以整体跳过
+     */
+    public void writeBlock(Consumer<ImageOutput> writer) {
+        ImageOutput block = new ImageOutput(strings);
+        writer.accept(block);
+        writeInt(block.position());
+        try {
+            block.bytes.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 生成完整镜像：字符串表在前，正文在后
+     */
+    public byte[] toByteArray() {
+        byte[] table = strings.toByteArray();
+        byte[] body = bytes.toByteArray();
+        byte[] image = new byte[table.length + body.length];
+        System.arraycopy(table, 0, image, 0, table.length);
+        System.arraycopy(body, 0, image, table.length, body.length);
+        return image;
+    }
+}
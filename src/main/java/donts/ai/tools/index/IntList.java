@@ -0,0 +1,34 @@
+package donts.ai.tools.index;
+
+import java.util.Arrays;
+
+/**
+ * 按编号递增追加、自动去重的整型列表，用于构建倒排表；也可以不去重地追加，用于拼接多个倒排表
+ */
+final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size > 0 && values[size - 1] == value) {
+            return;
+        }
+        append(value);
+    }
+
+    void append(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
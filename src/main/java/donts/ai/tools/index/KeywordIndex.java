@@ -0,0 +1,463 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.TextNormalizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * 关键词倒排索引，为数据模型或API接口提供子串匹配的候选生成和匹配度打分
+ * <p>
+ * 构建时记录每个文档小写的名称、描述和关键词（词项向量），这些小写形式由文档自身预先计算，查询时不再重复小写化。
+ * 文档文本的单字和双字片段建立倒排表：搜索词项先对其所有双字片段的倒排表求交得到候选，再在词项向量上用 contains 校验，
+ * 结果与逐个文档做 contains 完全一致。关键词另建精确倒排表，用于查找被搜索词项包含的关键词（如"取消订单"包含"取消"）。
+ * <p>
+ * 构建时关键词按 {@link SynonymDictionary} 替换为规范词，查询时词项对应的规范词只与关键词匹配和计分，
+ * 名称和描述仍按词项原文匹配。
+ * <p>
+ * 索引构建完成后只读，可以被多个线程并发查询。索引可以写入目录镜像，下次启动时直接在映射的镜像上查询，
+ * 此时词项以UTF-8编码后直接与镜像中的字节比较，不解码文档文本。
+ *
+ * @param <T> 文档类型
+ */
+public class KeywordIndex<T> {
+
+    /**
+     * 名称匹配的分数
+     */
+    public static final int NAME_SCORE = 30;
+    
+    /**
+     * 描述匹配的分数
+     */
+    public static final int DESCRIPTION_SCORE = 20;
+    
+    /**
+     * 关键词匹配的分数
+     */
+    public static final int KEYWORD_SCORE = 25;
+
+    private final List<T> documents;
+    private final TextColumn names;
+    private final TextColumn descriptions;
+    private final TextLists keywords;
+    private final GramIndex textIndex;
+    private final Postings keywordPostings;
+    private final int maxKeywordLength;
+    private final SynonymDictionary synonyms;
+
+    private KeywordIndex(List<T> documents, TextColumn names, TextColumn descriptions, TextLists keywords,
+                         GramIndex textIndex, Postings keywordPostings, int maxKeywordLength,
+                         SynonymDictionary synonyms) {
+        this.documents = documents;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.keywords = keywords;
+        this.textIndex = textIndex;
+        this.keywordPostings = keywordPostings;
+        this.maxKeywordLength = maxKeywordLength;
+        this.synonyms = synonyms;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param documents 文档集合，文档编号按集合的迭代顺序分配
+     * @param nameFunction 小写名称提取函数
+     * @param descriptionFunction 小写描述提取函数
+     * @param keywordsFunction 小写关键词提取函数
+     * @return 构建好的索引
+     */
+    public static <T> KeywordIndex<T> build(Collection<T> documents,
+                                            Function<T, String> nameFunction,
+                                            Function<T, String> descriptionFunction,
+                                            Function<T, String[]> keywordsFunction) {
+        return build(documents, nameFunction, descriptionFunction, keywordsFunction, SynonymDictionary.EMPTY);
+    }
+
+    /**
+     * 构建索引，关键词替换为同义词的规范词后再建立倒排表
+     *
+     * @param documents 文档集合，文档编号按集合的迭代顺序分配
+     * @param nameFunction 小写名称提取函数
+     * @param descriptionFunction 小写描述提取函数
+     * @param keywordsFunction 小写关键词提取函数
+     * @param synonyms 同义词词典，查询时使用同一个词典补充规范词
+     * @return 构建好的索引
+     */
+    public static <T> KeywordIndex<T> build(Collection<T> documents,
+                                            Function<T, String> nameFunction,
+                                            Function<T, String> descriptionFunction,
+                                            Function<T, String[]> keywordsFunction,
+                                            SynonymDictionary synonyms) {
+        List<T> docs = List.copyOf(documents);
+        int size = docs.size();
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        String[][] keywords = new String[size][];
+        String[] texts = new String[size];
+        Map<String, IntList> keywordDocs = new HashMap<>();
+        int maxKeywordLength = 0;
+
+        for (int docId = 0; docId < size; docId++) {
+            T doc = docs.get(docId);
+            names[docId] = nameFunction.apply(doc);
+            descriptions[docId] = descriptionFunction.apply(doc);
+            keywords[docId] = synonyms.canonicalize(keywordsFunction.apply(doc));
+            texts[docId] = names[docId] + " " + descriptions[docId] + " " + String.join(" ", keywords[docId]);
+
+            for (String keyword : keywords[docId]) {
+                if (!keyword.isEmpty()) {
+                    keywordDocs.computeIfAbsent(keyword, k -> new IntList()).add(docId);
+                    maxKeywordLength = Math.max(maxKeywordLength, keyword.length());
+                }
+            }
+        }
+
+        return new KeywordIndex<>(docs, TextColumn.of(names), TextColumn.of(descriptions), TextLists.of(keywords),
+                GramIndex.build(texts), Postings.of(GramIndex.toPostings(keywordDocs)), maxKeywordLength, synonyms);
+    }
+
+    /**
+     * 写入目录镜像，包括小写化的词项向量、片段倒排表和关键词倒排表，文档本身由调用方另行保存
+     */
+    public void writeTo(ImageOutput out) {
+        out.writeInt(size());
+        TextColumn.write(names, out);
+        TextColumn.write(descriptions, out);
+        TextLists.write(keywords, size(), out);
+        textIndex.writeTo(out);
+        Postings.write(keywordPostings, out);
+        out.writeInt(maxKeywordLength);
+    }
+
+    /**
+     * 从目录镜像读取索引，不重新切分片段或构建倒排表
+     *
+     * @param in 位于 {@link #writeTo} 写入位置的读取器
+     * @param documents 与写入时顺序一致的文档列表，可以是按需解码的视图
+     * @param synonyms 写入时索引使用的同义词词典
+     * @return 读取的索引
+     */
+    public static <T> KeywordIndex<T> read(ImageInput in, List<T> documents, SynonymDictionary synonyms) {
+        int size = in.readInt();
+        if (size != documents.size()) {
+            throw new IllegalStateException("索引文档数量与目录不一致: " + size + " != " + documents.size());
+        }
+        TextColumn names = TextColumn.read(in);
+        TextColumn descriptions = TextColumn.read(in);
+        TextLists keywords = TextLists.read(in);
+        GramIndex textIndex = GramIndex.read(in);
+        Postings keywordPostings = Postings.read(in);
+        return new KeywordIndex<>(documents, names, descriptions, keywords, textIndex, keywordPostings, in.readInt(),
+                synonyms);
+    }
+
+    /**
+     * 将搜索文本切分为小写词项，全角字符先转为半角（见 {@link TextNormalizer#fold}）
+     */
+    public static String[] tokenize(String text) {
+        return TextNormalizer.fold(text).trim().split("\\s+");
+    }
+
+    /**
+     * 文档数量
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * 根据文档编号获取文档
+     */
+    public T document(int docId) {
+        return documents.get(docId);
+    }
+
+    /**
+     * 查找文本（名称、描述、关键词）包含任一词项、或关键词包含词项对应的同义词规范词的文档
+     *
+     * @param terms 小写词项
+     * @return 按文档编号升序排列的匹配文档
+     */
+    public List<T> matchAny(String[] terms) {
+        BitSet matched = new BitSet(size());
+        for (String term : terms) {
+            collectContaining(term, utf8(term), matched);
+        }
+        for (String canonical : synonyms.canonicalTerms(terms)) {
+            collectKeywordsContaining(canonical, utf8(canonical), matched);
+        }
+
+        List<T> result = new ArrayList<>(matched.cardinality());
+        for (int docId = matched.nextSetBit(0); docId >= 0; docId = matched.nextSetBit(docId + 1)) {
+            result.add(documents.get(docId));
+        }
+        return result;
+    }
+
+    /**
+     * 查找文本包含任一词项的文档并计算匹配度，匹配规则同 {@link #matchAny}，分数同 {@link #score}
+     *
+     * @param terms 小写词项
+     * @return 按文档编号升序排列的命中结果
+     */
+    public List<Hit<T>> matchAnyHits(String[] terms) {
+        byte[][] utf8 = utf8(terms);
+        String[] canonicals = synonyms.canonicalTerms(terms);
+        byte[][] canonicalUtf8 = utf8(canonicals);
+        BitSet matched = new BitSet(size());
+        for (int i = 0; i < terms.length; i++) {
+            collectContaining(terms[i], utf8[i], matched);
+        }
+        for (int i = 0; i < canonicals.length; i++) {
+            collectKeywordsContaining(canonicals[i], canonicalUtf8[i], matched);
+        }
+
+        List<Hit<T>> result = new ArrayList<>(matched.cardinality());
+        for (int docId = matched.nextSetBit(0); docId >= 0; docId = matched.nextSetBit(docId + 1)) {
+            result.add(new Hit<>(docId, documents.get(docId),
+                    score(docId, terms, utf8, canonicals, canonicalUtf8)));
+        }
+        return result;
+    }
+
+    /**
+     * 批量查找，每组词项的结果与单独调用 {@link #matchAnyHits(String[])} 相同
+     * <p>
+     * 批次内重复出现的词项和规范词只在倒排表上查找一次，命中的文档编号在各组之间共用；每组只对自己命中的文档打分，
+     * 中间结果与命中数量成正比，不随文档总数与词项数量的乘积增长。
+     *
+     * @param termGroups 各组小写词项
+     * @return 与各组一一对应的命中结果，每组按文档编号升序排列
+     */
+    public List<List<Hit<T>>> matchAnyHits(List<String[]> termGroups) {
+        Map<String, int[]> containing = new HashMap<>();
+        Map<String, int[]> keywordsContaining = new HashMap<>();
+        List<List<Hit<T>>> results = new ArrayList<>(termGroups.size());
+        for (String[] terms : termGroups) {
+            byte[][] utf8 = utf8(terms);
+            String[] canonicals = synonyms.canonicalTerms(terms);
+            byte[][] canonicalUtf8 = utf8(canonicals);
+            List<int[]> postings = new ArrayList<>(terms.length + canonicals.length);
+            for (int i = 0; i < terms.length; i++) {
+                byte[] encoded = utf8[i];
+                postings.add(containing.computeIfAbsent(terms[i],
+                        term -> textIndex.containing(term, (id, t) -> contains(id, t, encoded))));
+            }
+            for (int i = 0; i < canonicals.length; i++) {
+                byte[] encoded = canonicalUtf8[i];
+                postings.add(keywordsContaining.computeIfAbsent(canonicals[i],
+                        term -> textIndex.containing(term, (id, t) -> keywords.anyContains(id, t, encoded))));
+            }
+
+            int[] matched = union(postings);
+            List<Hit<T>> hits = new ArrayList<>(matched.length);
+            for (int docId : matched) {
+                hits.add(new Hit<>(docId, documents.get(docId), score(docId, terms, utf8, canonicals, canonicalUtf8)));
+            }
+            results.add(hits);
+        }
+        return results;
+    }
+
+    /**
+     * 多个升序倒排表的并集，升序且不重复
+     */
+    private static int[] union(List<int[]> postings) {
+        int total = 0;
+        for (int[] list : postings) {
+            total += list.length;
+        }
+        int[] all = new int[total];
+        int n = 0;
+        for (int[] list : postings) {
+            System.arraycopy(list, 0, all, n, list.length);
+            n += list.length;
+        }
+        Arrays.sort(all);
+        IntList distinct = new IntList();
+        for (int docId : all) {
+            distinct.add(docId);
+        }
+        return distinct.toArray();
+    }
+
+    /**
+     * 计算文档与词项的匹配度：名称包含词项+30，描述包含词项+20，每个与词项互相包含的关键词+25，上限100
+     * <p>
+     * 词项对应的同义词规范词只参与关键词的计分，每个与规范词互相包含的关键词同样+25。
+     *
+     * @param docId 文档编号
+     * @param terms 小写词项
+     * @return 匹配度分数（0-100）
+     */
+    public int score(int docId, String[] terms) {
+        String[] canonicals = synonyms.canonicalTerms(terms);
+        return score(docId, terms, utf8(terms), canonicals, utf8(canonicals));
+    }
+
+    private int score(int docId, String[] terms, byte[][] utf8, String[] canonicals, byte[][] canonicalUtf8) {
+        int score = 0;
+        for (int i = 0; i < terms.length; i++) {
+            if (names.contains(docId, terms[i], utf8[i])) {
+                score += NAME_SCORE;
+            }
+            if (descriptions.contains(docId, terms[i], utf8[i])) {
+                score += DESCRIPTION_SCORE;
+            }
+            score += KEYWORD_SCORE * keywords.countMutual(docId, terms[i], utf8[i]);
+        }
+        for (int i = 0; i < canonicals.length; i++) {
+            score += KEYWORD_SCORE * keywords.countMutual(docId, canonicals[i], canonicalUtf8[i]);
+        }
+        return Math.min(score, 100);
+    }
+
+    /**
+     * 搜索匹配度最高的K个文档
+     * <p>
+     * 候选为文本包含任一词项、或有关键词被词项包含的文档；候选打分后用大小为K的小顶堆选出前K个，
+     * 不对全部候选排序。分数相同时文档编号小的在前。
+     *
+     * @param terms 小写词项
+     * @param k 返回数量
+     * @param filter 文档过滤条件
+     * @return 前K个结果和候选总数
+     */
+    public TopK<T> search(String[] terms, int k, Predicate<T> filter) {
+        return search(terms, k, filter, doc -> 0);
+    }
+
+    /**
+     * 搜索匹配度最高的K个文档，候选的匹配度加上文档的先验加分（如使用热度）后再选出前K个，上限100
+     *
+     * @param terms 小写词项
+     * @param k 返回数量
+     * @param filter 文档过滤条件
+     * @param prior 文档的先验加分
+     * @return 前K个结果和候选总数
+     */
+    public TopK<T> search(String[] terms, int k, Predicate<T> filter, ToIntFunction<T> prior) {
+        byte[][] utf8 = utf8(terms);
+        String[] canonicals = synonyms.canonicalTerms(terms);
+        byte[][] canonicalUtf8 = utf8(canonicals);
+        BitSet candidates = new BitSet(size());
+        for (int i = 0; i < terms.length; i++) {
+            collectContaining(terms[i], utf8[i], candidates);
+            collectKeywordsContainedIn(terms[i], candidates);
+        }
+        for (int i = 0; i < canonicals.length; i++) {
+            collectKeywordsContaining(canonicals[i], canonicalUtf8[i], candidates);
+            collectKeywordsContainedIn(canonicals[i], candidates);
+        }
+
+        Comparator<Hit<T>> worstFirst = Comparator.<Hit<T>>comparingInt(Hit::score)
+                .thenComparing(Comparator.<Hit<T>>comparingInt(Hit::docId).reversed());
+        PriorityQueue<Hit<T>> heap = new PriorityQueue<>(Math.max(k, 1), worstFirst);
+        int totalHits = 0;
+
+        for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+            T doc = documents.get(docId);
+            if (!filter.test(doc)) {
+                continue;
+            }
+            totalHits++;
+            int score = Math.min(score(docId, terms, utf8, canonicals, canonicalUtf8) + prior.applyAsInt(doc), 100);
+            Hit<T> hit = new Hit<>(docId, doc, score);
+            if (heap.size() < k) {
+                heap.add(hit);
+            } else if (k > 0 && worstFirst.compare(hit, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        }
+
+        List<Hit<T>> hits = new ArrayList<>(heap);
+        hits.sort(worstFirst.reversed());
+        return new TopK<>(hits, totalHits);
+    }
+
+    /**
+     * 收集文本包含该词项的文档
+     */
+    private void collectContaining(String term, byte[] utf8, BitSet out) {
+        for (int docId : textIndex.containing(term, (id, t) -> contains(id, t, utf8))) {
+            out.set(docId);
+        }
+    }
+
+    /**
+     * 收集有关键词包含该词项的文档
+     */
+    private void collectKeywordsContaining(String term, byte[] utf8, BitSet out) {
+        for (int docId : textIndex.containing(term, (id, t) -> keywords.anyContains(id, t, utf8))) {
+            out.set(docId);
+        }
+    }
+
+    /**
+     * 文档的名称、描述或某个关键词是否包含该词项，等价于在以空格连接的全文上做 contains
+     */
+    private boolean contains(int docId, String term, byte[] utf8) {
+        return names.contains(docId, term, utf8) || descriptions.contains(docId, term, utf8)
+                || keywords.anyContains(docId, term, utf8);
+    }
+
+    private static byte[] utf8(String term) {
+        return term.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] utf8(String[] terms) {
+        byte[][] encoded = new byte[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            encoded[i] = utf8(terms[i]);
+        }
+        return encoded;
+    }
+
+    /**
+     * 收集有关键词被该词项包含的文档
+     */
+    private void collectKeywordsContainedIn(String term, BitSet out) {
+        for (int start = 0; start < term.length(); start++) {
+            int maxEnd = Math.min(term.length(), start + maxKeywordLength);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                int[] postings = keywordPostings.get(term.substring(start, end));
+                if (postings != null) {
+                    for (int docId : postings) {
+                        out.set(docId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 搜索命中的文档
+     *
+     * @param docId 文档编号
+     * @param document 文档
+     * @param score 匹配度分数（0-100）
+     */
+    public record Hit<T>(int docId, T document, int score) {}
+
+    /**
+     * 前K个搜索结果
+     *
+     * @param hits 按分数降序排列的结果
+     * @param totalHits 候选总数
+     */
+    public record TopK<T>(List<Hit<T>> hits, int totalHits) {}
+}
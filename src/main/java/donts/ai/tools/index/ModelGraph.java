@@ -0,0 +1,274 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactApiParameter;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.CompactModelField;
+import donts.ai.tools.model.HttpMethod;
+import donts.ai.tools.model.ModelRelation;
+import donts.ai.tools.model.RelationHop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据模型关系图，在目录加载时预先计算，以紧凑的基本类型数组保存
+ * <p>
+ * 外键的识别有两个来源：一是API参数通过 modelFieldName 映射到某个模型的 id 字段（如 api_user_get 的参数 userId
+ * 映射到用户模型的 id），说明参数名 userId 指向用户模型；二是按模型ID推导的默认外键名（model_user -> userId）。
+ * 其他模型中同名的字段（如订单的 userId）即产生一条 订单 -> 用户 的正向边，同时生成一条 用户 -> 订单 的反向边。
+ * <p>
+ * 每条边记录完成这一跳可调用的API：正向边使用目标模型按该外键查询的接口，反向边使用持有外键的模型中
+ * 以该字段为参数的GET接口。边以CSR格式（偏移数组 + 边数组）保存，字段名、API ID和参数名存在同一张字符串表中，边上只保存下标。
+ * <p>
+ * 构建完成后只读，可以被多个线程并发遍历。
+ */
+public class ModelGraph {
+
+    private static final String DEFAULT_MODEL_PREFIX = "model_";
+
+    private final List<CompactDataModel> models;
+    private final Map<String, Integer> modelIndexes;
+    private final String[] strings;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] edgeFields;
+    private final int[] edgeApis;
+    private final int[] edgeParameters;
+    private final boolean[] edgeForward;
+
+    private ModelGraph(List<CompactDataModel> models, Map<String, Integer> modelIndexes, String[] strings,
+                       int[] edgeOffsets, int[] edgeTargets, int[] edgeFields, int[] edgeApis,
+                       int[] edgeParameters, boolean[] edgeForward) {
+        this.models = models;
+        this.modelIndexes = modelIndexes;
+        this.strings = strings;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeFields = edgeFields;
+        this.edgeApis = edgeApis;
+        this.edgeParameters = edgeParameters;
+        this.edgeForward = edgeForward;
+    }
+
+    /**
+     * 根据数据模型和API接口构建关系图
+     *
+     * @param dataModels 数据模型集合
+     * @param apis API接口集合
+     * @return 构建好的关系图
+     */
+    public static ModelGraph build(Collection<CompactDataModel> dataModels, Collection<CompactApiInterface> apis) {
+        List<CompactDataModel> models = List.copyOf(dataModels);
+        Map<String, Integer> modelIndexes = new HashMap<>();
+        for (int i = 0; i < models.size(); i++) {
+            modelIndexes.put(models.get(i).getId(), i);
+        }
+
+        // 外键名 -> 被引用的模型，以及被引用模型中按该外键查询的接口
+        Map<String, Integer> foreignKeys = new HashMap<>();
+        Map<String, ApiCall> lookupApis = new HashMap<>();
+        for (CompactApiInterface api : apis) {
+            Integer target = modelIndexes.get(api.getRelatedModelId());
+            if (target == null || api.getParameters() == null) {
+                continue;
+            }
+            for (CompactApiParameter param : api.getParameters()) {
+                if ("id".equalsIgnoreCase(param.getModelFieldName()) && !"id".equalsIgnoreCase(param.getName())) {
+                    String key = param.getName().toLowerCase();
+                    foreignKeys.putIfAbsent(key, target);
+                    lookupApis.merge(key, new ApiCall(api, param.getName()), ModelGraph::preferGet);
+                }
+            }
+        }
+        for (int i = 0; i < models.size(); i++) {
+            String id = models.get(i).getId();
+            String entity = id.startsWith(DEFAULT_MODEL_PREFIX) ? id.substring(DEFAULT_MODEL_PREFIX.length()) : id;
+            foreignKeys.putIfAbsent((entity + "id").toLowerCase(), i);
+        }
+
+        // 持有外键的模型中，以外键字段为参数的GET接口：模型下标 + 字段名 -> 接口
+        Map<String, ApiCall> reverseApis = new HashMap<>();
+        for (CompactApiInterface api : apis) {
+            if (api.getMethod() != HttpMethod.GET || api.getParameters() == null) {
+                continue;
+            }
+            for (CompactApiParameter param : api.getParameters()) {
+                String fieldName = param.getModelFieldName() != null ? param.getModelFieldName() : param.getName();
+                reverseApis.putIfAbsent(api.getRelatedModelId() + "#" + fieldName.toLowerCase(), new ApiCall(api, param.getName()));
+            }
+        }
+
+        // 收集边：每个外键字段产生一条正向边和一条反向边，边上的字符串都存为字符串表下标
+        StringTable strings = new StringTable();
+        List<List<int[]>> adjacency = new ArrayList<>();
+        for (int i = 0; i < models.size(); i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int source = 0; source < models.size(); source++) {
+            CompactDataModel model = models.get(source);
+            if (model.getFields() == null) {
+                continue;
+            }
+            for (CompactModelField field : model.getFields()) {
+                String key = field.getName().toLowerCase();
+                Integer target = foreignKeys.get(key);
+                if (target == null || target == source) {
+                    continue;
+                }
+                int fieldId = strings.intern(field.getName());
+
+                ApiCall forwardApi = lookupApis.get(key);
+                adjacency.get(source).add(new int[]{target, fieldId,
+                        strings.internApi(forwardApi), strings.internParameter(forwardApi), 1});
+
+                ApiCall reverseApi = reverseApis.get(model.getId() + "#" + key);
+                adjacency.get(target).add(new int[]{source, fieldId,
+                        strings.internApi(reverseApi), strings.internParameter(reverseApi), 0});
+            }
+        }
+
+        // 转换为CSR数组
+        int edgeCount = adjacency.stream().mapToInt(List::size).sum();
+        int[] offsets = new int[models.size() + 1];
+        int[] targets = new int[edgeCount];
+        int[] edgeFields = new int[edgeCount];
+        int[] edgeApis = new int[edgeCount];
+        int[] edgeParameters = new int[edgeCount];
+        boolean[] forward = new boolean[edgeCount];
+        int e = 0;
+        for (int i = 0; i < models.size(); i++) {
+            offsets[i] = e;
+            for (int[] edge : adjacency.get(i)) {
+                targets[e] = edge[0];
+                edgeFields[e] = edge[1];
+                edgeApis[e] = edge[2];
+                edgeParameters[e] = edge[3];
+                forward[e] = edge[4] == 1;
+                e++;
+            }
+        }
+        offsets[models.size()] = e;
+
+        return new ModelGraph(models, modelIndexes, strings.toArray(),
+                offsets, targets, edgeFields, edgeApis, edgeParameters, forward);
+    }
+
+    /**
+     * 边的数量
+     */
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    /**
+     * 从起点模型出发做广度优先遍历，返回maxDepth跳以内可达的模型及到达路径
+     *
+     * @param modelId 起点模型ID
+     * @param maxDepth 最大跳数
+     * @return 可达模型列表，按跳数升序排列；起点模型不存在时返回空列表
+     */
+    public List<ModelRelation> traverse(String modelId, int maxDepth) {
+        Integer start = modelIndexes.get(modelId);
+        if (start == null) {
+            return List.of();
+        }
+
+        int[] depth = new int[models.size()];
+        int[] parentEdge = new int[models.size()];
+        int[] parentNode = new int[models.size()];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[models.size()];
+        int head = 0, tail = 0;
+        depth[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int node = queue[head++];
+            if (depth[node] >= maxDepth) {
+                continue;
+            }
+            for (int e = edgeOffsets[node]; e < edgeOffsets[node + 1]; e++) {
+                int next = edgeTargets[e];
+                if (depth[next] < 0) {
+                    depth[next] = depth[node] + 1;
+                    parentEdge[next] = e;
+                    parentNode[next] = node;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        List<ModelRelation> relations = new ArrayList<>(tail - 1);
+        for (int i = 1; i < tail; i++) {
+            int node = queue[i];
+            List<RelationHop> path = new ArrayList<>(depth[node]);
+            for (int current = node; current != start; current = parentNode[current]) {
+                path.add(toHop(parentNode[current], parentEdge[current]));
+            }
+            Collections.reverse(path);
+            relations.add(ModelRelation.builder()
+                    .modelId(models.get(node).getId())
+                    .modelName(models.get(node).getName())
+                    .depth(depth[node])
+                    .path(path)
+                    .build());
+        }
+        return relations;
+    }
+
+    private RelationHop toHop(int from, int edge) {
+        int to = edgeTargets[edge];
+        return RelationHop.builder()
+                .fromModelId(models.get(from).getId())
+                .toModelId(models.get(to).getId())
+                .fieldName(strings[edgeFields[edge]])
+                .fieldModelId(models.get(edgeForward[edge] ? from : to).getId())
+                .forward(edgeForward[edge])
+                .apiId(edgeApis[edge] < 0 ? null : strings[edgeApis[edge]])
+                .apiParameter(edgeParameters[edge] < 0 ? null : strings[edgeParameters[edge]])
+                .build();
+    }
+
+    private static ApiCall preferGet(ApiCall current, ApiCall candidate) {
+        return current.api().getMethod() != HttpMethod.GET && candidate.api().getMethod() == HttpMethod.GET
+                ? candidate : current;
+    }
+
+    /**
+     * 构建期使用的API调用方式：接口及需要填入外键值的参数名
+     */
+    private record ApiCall(CompactApiInterface api, String parameter) {}
+
+    /**
+     * 构建期使用的字符串表，将字符串映射为连续下标
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int internApi(ApiCall call) {
+            return call == null ? -1 : intern(call.api().getId());
+        }
+
+        int internParameter(ApiCall call) {
+            return call == null ? -1 : intern(call.parameter());
+        }
+
+        String[] toArray() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
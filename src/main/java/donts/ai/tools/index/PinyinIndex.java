@@ -0,0 +1,104 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 拼音索引，把目录中含汉字的词（名称、关键词）的拼音映射回原词，用于把拼音查询转换为汉字词项
+ * <p>
+ * 拼音不带声调、音节之间不加分隔，如"用户"对应"yonghu"。查询时在拼音词项的子串上查找，
+ * 因此"quxiaodingdan"也能找到"取消"和"订单"。创建后不可变。
+ */
+public final class PinyinIndex {
+
+    /**
+     * 参与索引的拼音最短长度，过短的拼音（如单个音节）容易被英文单词误包含
+     */
+    static final int MIN_PINYIN_LENGTH = 4;
+
+    public static final PinyinIndex EMPTY = new PinyinIndex(Map.of(), 0);
+
+    private final Map<String, String[]> terms;
+    private final int maxLength;
+
+    private PinyinIndex(Map<String, String[]> terms, int maxLength) {
+        this.terms = terms;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * 构建索引，不含汉字或拼音过短的词被忽略
+     *
+     * @param words 小写的目录词
+     * @return 索引
+     */
+    public static PinyinIndex build(Iterable<String> words) {
+        Map<String, Set<String>> grouped = new HashMap<>();
+        for (String word : words) {
+            if (word == null || !TextNormalizer.containsChinese(word)) {
+                continue;
+            }
+            String pinyin = TextNormalizer.pinyin(word);
+            if (pinyin.length() >= MIN_PINYIN_LENGTH && isLetters(pinyin)) {
+                grouped.computeIfAbsent(pinyin, k -> new TreeSet<>()).add(word);
+            }
+        }
+        if (grouped.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, String[]> terms = new HashMap<>();
+        int maxLength = 0;
+        for (Map.Entry<String, Set<String>> entry : grouped.entrySet()) {
+            terms.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+            maxLength = Math.max(maxLength, entry.getKey().length());
+        }
+        return new PinyinIndex(terms, maxLength);
+    }
+
+    /**
+     * 已索引的拼音数量
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * 查找拼音为该词项子串的目录词
+     *
+     * @param term 小写词项，只有全部由字母组成时才查找
+     * @return 按首次命中顺序排列的目录词，没有时为空列表
+     */
+    public List<String> lookup(String term) {
+        if (terms.isEmpty() || term.length() < MIN_PINYIN_LENGTH || !isLetters(term)) {
+            return List.of();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (int start = 0; start + MIN_PINYIN_LENGTH <= term.length(); start++) {
+            int maxEnd = Math.min(term.length(), start + maxLength);
+            for (int end = start + MIN_PINYIN_LENGTH; end <= maxEnd; end++) {
+                String[] words = terms.get(term.substring(start, end));
+                if (words != null) {
+                    result.addAll(List.of(words));
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static boolean isLetters(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package donts.ai.tools.index;
+
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 词项到倒排表的映射，可以是堆内的哈希表，也可以是目录镜像中按词项排序的数组
+ */
+interface Postings {
+
+    /**
+     * 词项对应的升序文档编号，不存在时返回null
+     */
+    int[] get(String key);
+
+    /**
+     * 遍历全部词项及其倒排表
+     */
+    void forEach(BiConsumer<String, int[]> action);
+
+    static Postings of(Map<String, int[]> postings) {
+        return new Postings() {
+            @Override
+            public int[] get(String key) {
+                return postings.get(key);
+            }
+
+            @Override
+            public void forEach(BiConsumer<String, int[]> action) {
+                postings.forEach(action);
+            }
+        };
+    }
+
+    /**
+     * 按词项排序写入：词项编号数组、偏移数组和拼接后的文档编号数组
+     */
+    static void write(Postings source, ImageOutput out) {
+        Map<String, int[]> postings = new HashMap<>();
+        source.forEach(postings::put);
+        String[] keys = postings.keySet().toArray(new String[0]);
+        Arrays.sort(keys, StringTable::compareCodePoints);
+        int[] keyIds = new int[keys.length];
+        int[] offsets = new int[keys.length + 1];
+        IntList values = new IntList();
+        for (int i = 0; i < keys.length; i++) {
+            keyIds[i] = out.stringId(keys[i]);
+            offsets[i] = values.size();
+            for (int docId : postings.get(keys[i])) {
+                values.append(docId);
+            }
+        }
+        offsets[keys.length] = values.size();
+        out.writeInts(keyIds);
+        out.writeInts(offsets);
+        out.writeInts(values.toArray());
+    }
+
+    /**
+     * 读取 {@link #write} 写入的倒排表，查找时在排序的词项上二分，直接比较UTF-8字节而不解码词项
+     */
+    static Postings read(ImageInput in) {
+        StringTable strings = in.strings();
+        IntBuffer keyIds = in.readInts();
+        IntBuffer offsets = in.readInts();
+        IntBuffer values = in.readInts();
+        return new Postings() {
+            @Override
+            public int[] get(String key) {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                int low = 0;
+                int high = keyIds.limit() - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    int cmp = strings.compare(keyIds.get(mid), bytes);
+                    if (cmp < 0) {
+                        low = mid + 1;
+                    } else if (cmp > 0) {
+                        high = mid - 1;
+                    } else {
+                        return docIds(mid);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void forEach(BiConsumer<String, int[]> action) {
+                for (int i = 0; i < keyIds.limit(); i++) {
+                    action.accept(strings.get(keyIds.get(i)), docIds(i));
+                }
+            }
+
+            private int[] docIds(int index) {
+                int start = offsets.get(index);
+                int[] docIds = new int[offsets.get(index + 1) - start];
+                values.get(start, docIds);
+                return docIds;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.ScoreContribution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 {@link KeywordIndex#score} 的规则逐项列出词项对匹配度的贡献，用于查找工具的说明模式
+ * <p>
+ * 与索引的打分分开实现，只在请求说明时对最终返回的少量结果调用，不影响正常查找的开销。
+ * 文本使用文档预先计算的小写形式，关键词需先按同义词词典替换为规范词，与索引中保存的一致。
+ */
+public final class ScoreExplainer {
+
+    private ScoreExplainer() {
+    }
+
+    /**
+     * 列出词项和同义词规范词的加分
+     *
+     * @param name 小写名称
+     * @param description 小写描述
+     * @param keywords 替换为规范词的小写关键词
+     * @param terms 小写词项
+     * @param canonicals 词项对应的同义词规范词
+     * @return 各项加分，未截断
+     */
+    public static List<ScoreContribution> explain(String name, String description, String[] keywords,
+                                                  String[] terms, String[] canonicals) {
+        List<ScoreContribution> contributions = new ArrayList<>();
+        for (String term : terms) {
+            if (name.contains(term)) {
+                contributions.add(new ScoreContribution("name", term, null, KeywordIndex.NAME_SCORE));
+            }
+            if (description.contains(term)) {
+                contributions.add(new ScoreContribution("description", term, null, KeywordIndex.DESCRIPTION_SCORE));
+            }
+            addKeywords(contributions, "keyword", term, keywords);
+        }
+        for (String canonical : canonicals) {
+            addKeywords(contributions, "synonym", canonical, keywords);
+        }
+        return contributions;
+    }
+
+    /**
+     * 命中的词项，保持首次出现的顺序
+     */
+    public static List<String> matchedTerms(List<ScoreContribution> contributions) {
+        List<String> terms = new ArrayList<>();
+        for (ScoreContribution contribution : contributions) {
+            if (contribution.getTerm() != null && !terms.contains(contribution.getTerm())) {
+                terms.add(contribution.getTerm());
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 各项加分之和
+     */
+    public static int total(List<ScoreContribution> contributions) {
+        int total = 0;
+        for (ScoreContribution contribution : contributions) {
+            total += contribution.getPoints();
+        }
+        return total;
+    }
+
+    private static void addKeywords(List<ScoreContribution> contributions, String field, String term,
+                                    String[] keywords) {
+        for (String keyword : keywords) {
+            if (keyword.contains(term) || term.contains(keyword)) {
+                contributions.add(new ScoreContribution(field, term, keyword, KeywordIndex.KEYWORD_SCORE));
+            }
+        }
+    }
+}
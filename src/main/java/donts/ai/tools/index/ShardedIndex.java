@@ -0,0 +1,278 @@
+package donts.ai.tools.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * 分片的关键词索引，把文档按编号切分为若干个连续区间，每个区间各自构建一个 {@link KeywordIndex}
+ * <p>
+ * 查询在 {@link ForkJoinPool} 上分治地派发到各分片：每个分片独立生成候选、打分并用自己的小顶堆选出前K个，
+ * 再两两归并为全局的前K个。分片的文档编号加上分片起始编号即为全局编号，分数相同时仍按全局编号排序，
+ * 查询结果与不分片的索引完全一致。
+ * <p>
+ * 文档数量低于 {@link Partitioning#parallelThreshold()} 时只建一个分片，查询在调用线程上直接执行，
+ * 小目录不承担任务派发的开销。索引构建完成后只读，可以被多个线程并发查询。
+ *
+ * @param <T> 文档类型
+ */
+public final class ShardedIndex<T> {
+
+    private final KeywordIndex<T>[] shards;
+    private final int[] offsets;
+    private final int size;
+    private final ForkJoinPool pool;
+
+    private ShardedIndex(KeywordIndex<T>[] shards, ForkJoinPool pool) {
+        this.shards = shards;
+        this.offsets = new int[shards.length];
+        int total = 0;
+        for (int i = 0; i < shards.length; i++) {
+            offsets[i] = total;
+            total += shards[i].size();
+        }
+        this.size = total;
+        this.pool = pool;
+    }
+
+    /**
+     * 由单个索引组成的不分片索引，如从目录镜像读取的索引
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ShardedIndex<T> of(KeywordIndex<T> index) {
+        return new ShardedIndex<>(new KeywordIndex[]{index}, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 按分片配置构建索引，文档数量低于并行阈值时只建一个分片；多个分片在分片线程池上并行构建
+     *
+     * @param documents 文档集合，文档编号按集合的迭代顺序分配
+     * @param nameFunction 小写名称提取函数
+     * @param descriptionFunction 小写描述提取函数
+     * @param keywordsFunction 小写关键词提取函数
+     * @param synonyms 同义词词典
+     * @param partitioning 分片配置
+     * @return 构建好的索引
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ShardedIndex<T> build(Collection<T> documents,
+                                            Function<T, String> nameFunction,
+                                            Function<T, String> descriptionFunction,
+                                            Function<T, String[]> keywordsFunction,
+                                            SynonymDictionary synonyms,
+                                            Partitioning partitioning) {
+        List<T> docs = List.copyOf(documents);
+        int shardCount = partitioning.shardCount(docs.size());
+        if (shardCount == 1) {
+            return of(KeywordIndex.build(docs, nameFunction, descriptionFunction, keywordsFunction, synonyms));
+        }
+
+        KeywordIndex<T>[] shards = new KeywordIndex[shardCount];
+        IntFunction<Void> buildShard = shard -> {
+            List<T> range = docs.subList(docs.size() * shard / shardCount, docs.size() * (shard + 1) / shardCount);
+            shards[shard] = KeywordIndex.build(range, nameFunction, descriptionFunction, keywordsFunction, synonyms);
+            return null;
+        };
+        partitioning.pool().invoke(new ShardTask<>(0, shardCount, buildShard, (a, b) -> null));
+        return new ShardedIndex<>(shards, partitioning.pool());
+    }
+
+    /**
+     * 文档数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 分片数量
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 不分片时唯一的索引
+     *
+     * @throws IllegalStateException 索引有多个分片
+     */
+    public KeywordIndex<T> single() {
+        if (shards.length != 1) {
+            throw new IllegalStateException("索引有 " + shards.length + " 个分片");
+        }
+        return shards[0];
+    }
+
+    /**
+     * 查找文本包含任一词项的文档，见 {@link KeywordIndex#matchAny}
+     *
+     * @param terms 小写词项
+     * @return 按全局文档编号升序排列的匹配文档
+     */
+    public List<T> matchAny(String[] terms) {
+        return fanOut(shard -> shards[shard].matchAny(terms), ShardedIndex::concat);
+    }
+
+    /**
+     * 查找文本包含任一词项的文档并计算匹配度，见 {@link KeywordIndex#matchAnyHits}
+     *
+     * @param terms 小写词项
+     * @return 按全局文档编号升序排列的命中结果
+     */
+    public List<KeywordIndex.Hit<T>> matchAnyHits(String[] terms) {
+        return fanOut(shard -> globalHits(shard, shards[shard].matchAnyHits(terms)), ShardedIndex::concat);
+    }
+
+    /**
+     * 批量查找，每组的结果与单独调用 {@link #matchAnyHits(String[])} 相同，见 {@link KeywordIndex#matchAnyHits(List)}
+     *
+     * @param termGroups 各组小写词项
+     * @return 与各组一一对应的命中结果，每组按全局文档编号升序排列
+     */
+    public List<List<KeywordIndex.Hit<T>>> matchAnyHits(List<String[]> termGroups) {
+        return fanOut(shard -> shards[shard].matchAnyHits(termGroups).stream()
+                .map(hits -> globalHits(shard, hits))
+                .toList(), (left, right) -> {
+            List<List<KeywordIndex.Hit<T>>> merged = new ArrayList<>(left.size());
+            for (int i = 0; i < left.size(); i++) {
+                merged.add(concat(left.get(i), right.get(i)));
+            }
+            return merged;
+        });
+    }
+
+    /**
+     * 搜索匹配度最高的K个文档，每个分片选出前K个后归并，见 {@link KeywordIndex#search(String[], int, Predicate, ToIntFunction)}
+     *
+     * @param terms 小写词项
+     * @param k 返回数量
+     * @param filter 文档过滤条件
+     * @param prior 文档的先验加分
+     * @return 前K个结果和候选总数
+     */
+    public KeywordIndex.TopK<T> search(String[] terms, int k, Predicate<T> filter, ToIntFunction<T> prior) {
+        return fanOut(shard -> {
+            KeywordIndex.TopK<T> topK = shards[shard].search(terms, k, filter, prior);
+            return new KeywordIndex.TopK<>(globalHits(shard, topK.hits()), topK.totalHits());
+        }, (a, b) -> mergeTopK(a, b, k));
+    }
+
+    /**
+     * 在每个分片上执行查询并合并结果，只有一个分片时直接在调用线程上执行
+     */
+    private <R> R fanOut(IntFunction<R> perShard, BinaryOperator<R> merge) {
+        if (shards.length == 1) {
+            return perShard.apply(0);
+        }
+        return pool.invoke(new ShardTask<>(0, shards.length, perShard, merge));
+    }
+
+    private List<KeywordIndex.Hit<T>> globalHits(int shard, List<KeywordIndex.Hit<T>> hits) {
+        int offset = offsets[shard];
+        if (offset == 0) {
+            return hits;
+        }
+        List<KeywordIndex.Hit<T>> result = new ArrayList<>(hits.size());
+        for (KeywordIndex.Hit<T> hit : hits) {
+            result.add(new KeywordIndex.Hit<>(hit.docId() + offset, hit.document(), hit.score()));
+        }
+        return result;
+    }
+
+    private static <E> List<E> concat(List<E> left, List<E> right) {
+        if (right.isEmpty()) {
+            return left;
+        }
+        if (left.isEmpty()) {
+            return right;
+        }
+        List<E> result = new ArrayList<>(left.size() + right.size());
+        result.addAll(left);
+        result.addAll(right);
+        return result;
+    }
+
+    /**
+     * 归并两个按分数降序、全局编号升序排列的前K个结果
+     */
+    private static <T> KeywordIndex.TopK<T> mergeTopK(KeywordIndex.TopK<T> left, KeywordIndex.TopK<T> right, int k) {
+        Comparator<KeywordIndex.Hit<T>> order = Comparator.<KeywordIndex.Hit<T>>comparingInt(KeywordIndex.Hit::score)
+                .reversed().thenComparingInt(KeywordIndex.Hit::docId);
+        List<KeywordIndex.Hit<T>> a = left.hits();
+        List<KeywordIndex.Hit<T>> b = right.hits();
+        List<KeywordIndex.Hit<T>> merged = new ArrayList<>(Math.min(k, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < k && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && order.compare(a.get(i), b.get(j)) <= 0)) {
+                merged.add(a.get(i++));
+            } else {
+                merged.add(b.get(j++));
+            }
+        }
+        return new KeywordIndex.TopK<>(merged, left.totalHits() + right.totalHits());
+    }
+
+    /**
+     * 对分片区间 [from, to) 分治执行的任务：区间只剩一个分片时直接执行，否则拆成两半，左半派发、右半在当前线程执行后合并
+     */
+    private static final class ShardTask<R> extends RecursiveTask<R> {
+
+        private final int from;
+        private final int to;
+        private final IntFunction<R> perShard;
+        private final BinaryOperator<R> merge;
+
+        ShardTask(int from, int to, IntFunction<R> perShard, BinaryOperator<R> merge) {
+            this.from = from;
+            this.to = to;
+            this.perShard = perShard;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                return perShard.apply(from);
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask<R> left = new ShardTask<>(from, mid, perShard, merge);
+            left.fork();
+            R right = new ShardTask<>(mid, to, perShard, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * 分片配置
+     *
+     * @param shards 分片数量，不大于1时不分片
+     * @param parallelThreshold 文档数量达到该值时才分片，较小的目录在调用线程上直接查询
+     * @param pool 执行分片查询和构建的线程池
+     */
+    public record Partitioning(int shards, int parallelThreshold, ForkJoinPool pool) {
+
+        /**
+         * 不分片
+         */
+        public static final Partitioning NONE = new Partitioning(1, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+
+        /**
+         * 该文档数量实际使用的分片数量，每个分片至少有一个文档
+         */
+        int shardCount(int documents) {
+            if (shards <= 1 || documents < parallelThreshold) {
+                return 1;
+            }
+            return Math.max(1, Math.min(shards, documents));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package donts.ai.tools.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目录镜像中的字符串表，镜像中的其他部分只保存字符串编号
+ * <p>
+ * 布局：字符串数量、每个字符串的起始字节偏移（多一个结束偏移）、UTF-8字节。
+ * 读取时按编号直接定位，不预先解码全部字符串。
+ */
+public final class StringTable {
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int offsetsPosition;
+    private final int dataPosition;
+    private final int byteLength;
+
+    StringTable(ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(position);
+        this.offsetsPosition = position + 4;
+        this.dataPosition = offsetsPosition + (count + 1) * 4;
+        this.byteLength = dataPosition - position + buffer.getInt(offsetsPosition + count * 4);
+    }
+
+    /**
+     * 字符串数量
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 字符串表占用的字节数
+     */
+    int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * 按编号解码字符串，编号为-1时返回null
+     */
+    public String get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        int start = buffer.getInt(offsetsPosition + id * 4);
+        int end = buffer.getInt(offsetsPosition + id * 4 + 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(dataPosition + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 按UTF-8字节的无符号顺序比较字符串与给定字节，不解码字符串；该顺序与 {@link #compareCodePoints} 一致
+     *
+     * @param id 字符串编号，不能为-1
+     * @param bytes UTF-8编码的字节
+     */
+    public int compare(int id, byte[] bytes) {
+        int start = dataPosition + buffer.getInt(offsetsPosition + id * 4);
+        int length = dataPosition + buffer.getInt(offsetsPosition + id * 4 + 4) - start;
+        int n = Math.min(length, bytes.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Byte.toUnsignedInt(buffer.get(start + i)) - Byte.toUnsignedInt(bytes[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - bytes.length;
+    }
+
+    /**
+     * 字符串是否包含给定的子串，直接在UTF-8字节上比较，不解码字符串；编号为-1时返回false
+     *
+     * @param id 字符串编号
+     * @param bytes 子串的UTF-8编码
+     */
+    public boolean contains(int id, byte[] bytes) {
+        if (id < 0) {
+            return false;
+        }
+        int start = dataPosition + buffer.getInt(offsetsPosition + id * 4);
+        int end = dataPosition + buffer.getInt(offsetsPosition + id * 4 + 4);
+        for (int from = start; from + bytes.length <= end; from++) {
+            if (matches(from, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 字符串是否是给定文本的子串，直接在UTF-8字节上比较；编号为-1时返回false
+     *
+     * @param id 字符串编号
+     * @param bytes 文本的UTF-8编码
+     */
+    public boolean containedIn(int id, byte[] bytes) {
+        if (id < 0) {
+            return false;
+        }
+        int start = dataPosition + buffer.getInt(offsetsPosition + id * 4);
+        int length = dataPosition + buffer.getInt(offsetsPosition + id * 4 + 4) - start;
+        for (int from = 0; from + length <= bytes.length; from++) {
+            int i = 0;
+            while (i < length && buffer.get(start + i) == bytes[from + i]) {
+                i++;
+            }
+            if (i == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(int from, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(from + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按码点顺序比较两个字符串，与UTF-8字节的无符号顺序一致；镜像中需要二分查找的字符串都按此顺序排列
+     */
+    public static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /**
+     * 写入镜像时收集字符串并分配编号，相同的字符串只保存一次
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return ids.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        byte[] toByteArray() {
+            List<byte[]> encoded = new ArrayList<>(values.size());
+            values.forEach(value -> encoded.add(value.getBytes(StandardCharsets.UTF_8)));
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(encoded.size());
+                int offset = 0;
+                for (byte[] value : encoded) {
+                    out.writeInt(offset);
+                    offset += value.length;
+                }
+                out.writeInt(offset);
+                for (byte[] value : encoded) {
+                    out.write(value);
+                }
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
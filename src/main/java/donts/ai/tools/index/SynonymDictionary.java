@@ -0,0 +1,154 @@
+package donts.ai.tools.index;
+
+import donts.ai.tools.model.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 同义词词典，把每组同义词映射为组内的第一个词（规范词）
+ * <p>
+ * 构建关键词索引时，文档的关键词先替换为规范词并去重，同一组同义词在每个文档中只保留一个，
+ * 关键词倒排表只以规范词为键，不再为"用户"、"客户"、"user"、"customer"等分别保存倒排表。
+ * 查询时为词项找出它对应的规范词，以及词项中包含的同义词对应的规范词（如"我的客户"对应"用户"），
+ * 这些规范词只与关键词匹配，一次就能命中关键词中写了任一同义词的文档；查找只需按词项的子串查哈希表。
+ * <p>
+ * 每个目录的索引构建和查询使用同一个词典，由仓库在加载目录时读取并随索引配置传给快照。词典创建后不可变。
+ */
+public final class SynonymDictionary {
+
+    /**
+     * 空词典，不做任何替换
+     */
+    public static final SynonymDictionary EMPTY = new SynonymDictionary(Map.of(), 0, List.of());
+
+    private static final String[] NO_TERMS = new String[0];
+
+    /**
+     * 小写的同义词到规范词，规范词本身不在其中
+     */
+    private final Map<String, String> canonicals;
+    private final int maxLength;
+    private final List<List<String>> groups;
+
+    private SynonymDictionary(Map<String, String> canonicals, int maxLength, List<List<String>> groups) {
+        this.canonicals = canonicals;
+        this.maxLength = maxLength;
+        this.groups = groups;
+    }
+
+    /**
+     * 由同义词组创建词典，词统一转为半角小写，每组的第一个词为规范词
+     * <p>
+     * 同一个词出现在多个组中时以先出现的组为准；少于两个词的组被忽略。
+     *
+     * @param groups 同义词组
+     * @return 词典
+     */
+    public static SynonymDictionary of(Collection<? extends Collection<String>> groups) {
+        Map<String, String> canonicals = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        List<List<String>> normalized = new ArrayList<>();
+        int maxLength = 0;
+        for (Collection<String> group : groups) {
+            List<String> words = new ArrayList<>();
+            for (String word : group) {
+                String lower = TextNormalizer.fold(word).trim();
+                if (!lower.isEmpty() && seen.add(lower)) {
+                    words.add(lower);
+                }
+            }
+            if (words.size() < 2) {
+                continue;
+            }
+            String canonical = words.get(0);
+            for (String word : words.subList(1, words.size())) {
+                canonicals.put(word, canonical);
+                maxLength = Math.max(maxLength, word.length());
+            }
+            normalized.add(List.copyOf(words));
+        }
+        return new SynonymDictionary(canonicals, maxLength, Collections.unmodifiableList(normalized));
+    }
+
+    /**
+     * 同义词组数量
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    /**
+     * 小写词对应的规范词，不属于任何同义词组时返回原词
+     */
+    public String canonical(String term) {
+        return canonicals.getOrDefault(term, term);
+    }
+
+    /**
+     * 把小写关键词替换为规范词并去重，保持首次出现的顺序
+     *
+     * @param keywords 小写关键词
+     * @return 规范化后的关键词，没有变化时返回原数组
+     */
+    public String[] canonicalize(String[] keywords) {
+        boolean changed = false;
+        for (String keyword : keywords) {
+            if (canonicals.containsKey(keyword)) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return keywords;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            result.add(canonical(keyword));
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * 小写词项本身以及词项中包含的同义词对应的规范词，不包括已经在词项中的词
+     *
+     * @param terms 小写词项
+     * @return 需要补充的规范词，没有时为空数组
+     */
+    public String[] canonicalTerms(String[] terms) {
+        if (canonicals.isEmpty()) {
+            return NO_TERMS;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String term : terms) {
+            for (int start = 0; start < term.length(); start++) {
+                int maxEnd = Math.min(term.length(), start + maxLength);
+                for (int end = start + 1; end <= maxEnd; end++) {
+                    String canonical = canonicals.get(term.substring(start, end));
+                    if (canonical != null) {
+                        result.add(canonical);
+                    }
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            return NO_TERMS;
+        }
+        result.removeAll(List.of(terms));
+        return result.toArray(NO_TERMS);
+    }
+
+    /**
+     * 词典内容的指纹，词典变化后基于旧词典构建的目录镜像不再可用
+     */
+    public long fingerprint() {
+        return groups.hashCode();
+    }
+}
@@ -0,0 +1,77 @@
+package donts.ai.tools.index;
+
+import java.nio.IntBuffer;
+
+/**
+ * 按编号访问的文本列，可以来自堆内数组，也可以来自目录镜像
+ */
+interface TextColumn {
+
+    int size();
+
+    String get(int id);
+
+    /**
+     * 第id个文本是否包含词项
+     *
+     * @param term 词项
+     * @param utf8 词项的UTF-8编码，镜像中的列直接在字节上比较，不解码文本
+     */
+    boolean contains(int id, String term, byte[] utf8);
+
+    static TextColumn of(String[] values) {
+        return new TextColumn() {
+            @Override
+            public int size() {
+                return values.length;
+            }
+
+            @Override
+            public String get(int id) {
+                return values[id];
+            }
+
+            @Override
+            public boolean contains(int id, String term, byte[] utf8) {
+                return values[id].contains(term);
+            }
+        };
+    }
+
+    /**
+     * 写入字符串编号数组
+     */
+    static void write(TextColumn column, ImageOutput out) {
+        int[] ids = new int[column.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = out.stringId(column.get(id));
+        }
+        out.writeInts(ids);
+    }
+
+    /**
+     * 读取 {@link #write} 写入的列，文本在访问时才从字符串表解码
+     */
+    static TextColumn read(ImageInput in) {
+        return mapped(in.strings(), in.readInts());
+    }
+
+    private static TextColumn mapped(StringTable strings, IntBuffer ids) {
+        return new TextColumn() {
+            @Override
+            public int size() {
+                return ids.limit();
+            }
+
+            @Override
+            public String get(int id) {
+                return strings.get(ids.get(id));
+            }
+
+            @Override
+            public boolean contains(int id, String term, byte[] utf8) {
+                return strings.contains(ids.get(id), utf8);
+            }
+        };
+    }
+}
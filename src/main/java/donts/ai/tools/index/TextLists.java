@@ -0,0 +1,114 @@
+package donts.ai.tools.index;
+
+import java.nio.IntBuffer;
+
+/**
+ * 按编号访问的文本列表列（如每个文档的关键词），可以来自堆内数组，也可以来自目录镜像
+ */
+interface TextLists {
+
+    String[] get(int id);
+
+    /**
+     * 第id个列表中是否有文本包含词项
+     *
+     * @param term 词项
+     * @param utf8 词项的UTF-8编码，镜像中的列直接在字节上比较，不解码文本
+     */
+    boolean anyContains(int id, String term, byte[] utf8);
+
+    /**
+     * 第id个列表中与词项互相包含（文本包含词项或词项包含文本）的文本数量，参数同 {@link #anyContains}
+     */
+    int countMutual(int id, String term, byte[] utf8);
+
+    static TextLists of(String[][] values) {
+        return new TextLists() {
+            @Override
+            public String[] get(int id) {
+                return values[id];
+            }
+
+            @Override
+            public boolean anyContains(int id, String term, byte[] utf8) {
+                for (String value : values[id]) {
+                    if (value.contains(term)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public int countMutual(int id, String term, byte[] utf8) {
+                int count = 0;
+                for (String value : values[id]) {
+                    if (value.contains(term) || term.contains(value)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+        };
+    }
+
+    /**
+     * 写入为偏移数组和字符串编号数组
+     */
+    static void write(TextLists lists, int size, ImageOutput out) {
+        int[] offsets = new int[size + 1];
+        IntList ids = new IntList();
+        int total = 0;
+        for (int id = 0; id < size; id++) {
+            offsets[id] = total;
+            for (String value : lists.get(id)) {
+                ids.append(out.stringId(value));
+                total++;
+            }
+        }
+        offsets[size] = total;
+        out.writeInts(offsets);
+        out.writeInts(ids.toArray());
+    }
+
+    /**
+     * 读取 {@link #write} 写入的列表列，访问时才解码
+     */
+    static TextLists read(ImageInput in) {
+        StringTable strings = in.strings();
+        IntBuffer offsets = in.readInts();
+        IntBuffer ids = in.readInts();
+        return new TextLists() {
+            @Override
+            public String[] get(int id) {
+                int start = offsets.get(id);
+                String[] values = new String[offsets.get(id + 1) - start];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = strings.get(ids.get(start + i));
+                }
+                return values;
+            }
+
+            @Override
+            public boolean anyContains(int id, String term, byte[] utf8) {
+                for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+                    if (strings.contains(ids.get(i), utf8)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public int countMutual(int id, String term, byte[] utf8) {
+                int count = 0;
+                for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+                    if (strings.contains(ids.get(i), utf8) || strings.containedIn(ids.get(i), utf8)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package donts.ai.tools.mcp;
 
+import donts.ai.tools.repository.MockDataRepository;
 import donts.ai.tools.request.ApiExecutorRequest;
 import donts.ai.tools.response.ApiExecutorResponse;
 import donts.ai.tools.service.ApiExecutorService;
@@ -7,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -21,6 +23,12 @@ public class ApiExecutorMcpServer {
 
     @Autowired
     private ApiExecutorService apiExecutorService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
     
     /**
      * 执行API接口调用
@@ -35,12 +43,15 @@ public class ApiExecutorMcpServer {
         // 构建服务请求
         ApiExecutorRequest serviceRequest = ApiExecutorRequest.builder()
                 .requestId(UUID.randomUUID().toString())
-                .userId("system")
+                .userId(userIdOf(request.userId()))
                 .timestamp(System.currentTimeMillis())
                 .apiId(request.apiId())
                 .parameters(request.parameters())
                 .validateParameters(request.validateParameters())
                 .detailedResponse(request.detailedResponse())
+                .fetchAllPages(request.fetchAllPages())
+                .maxConcurrency(request.maxConcurrency())
+                .maxRecords(request.maxRecords())
                 .build();
         
         // 调用服务
@@ -133,6 +144,13 @@ public class ApiExecutorMcpServer {
         }
     }
     
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
+    }
+    
     /**
      * API执行工具的请求记录类
      */
@@ -144,6 +162,14 @@ public class ApiExecutorMcpServer {
             @ToolParam(description = "是否验证参数")
             boolean validateParameters,
             @ToolParam(description = "是否返回详细响应")
-            boolean detailedResponse
+            boolean detailedResponse,
+            @ToolParam(description = "是否自动拉取列表接口的所有分页并按页码顺序合并", required = false)
+            boolean fetchAllPages,
+            @ToolParam(description = "自动分页时的最大并发页数", required = false)
+            int maxConcurrency,
+            @ToolParam(description = "自动分页时最多返回的记录数", required = false)
+            int maxRecords,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
     ) {}
 }
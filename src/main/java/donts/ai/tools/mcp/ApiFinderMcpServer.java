@@ -1,12 +1,15 @@
 package donts.ai.tools.mcp;
 
+import donts.ai.tools.repository.MockDataRepository;
 import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.request.ApiSearchRequest;
 import donts.ai.tools.response.ApiFinderResponse;
 import donts.ai.tools.service.ApiFinderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -20,6 +23,12 @@ public class ApiFinderMcpServer {
 
     @Autowired
     private ApiFinderService apiFinderService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
     
     /**
      * 根据数据模型ID查找API接口
@@ -34,12 +43,14 @@ public class ApiFinderMcpServer {
         // 构建服务请求
         ApiFinderRequest serviceRequest = ApiFinderRequest.builder()
                 .requestId(UUID.randomUUID().toString())
-                .userId("system")
+                .userId(userIdOf(request.userId()))
                 .timestamp(System.currentTimeMillis())
                 .modelId(request.modelId())
                 .operationType(request.operationType())
                 .maxResults(request.maxResults())
                 .includeDetails(request.includeDetails())
+                .explain(request.explain())
+                .cursor(request.cursor())
                 .build();
         
         // 调用服务
@@ -59,6 +70,64 @@ public class ApiFinderMcpServer {
             return result.toString();
         }
         
+        appendApis(result, response, request.includeDetails());
+        
+        return result.toString();
+    }
+    
+    /**
+     * 在全部API接口中按文本搜索
+     * 
+     * @param request 请求参数
+     * @return 搜索结果
+     */
+    @Tool(description = "根据描述在全部接口中搜索API接口，不需要先查找数据模型，如：取消订单")
+    public String searchApis(@ToolParam(description = "参数对象") ApiSearchToolRequest request) {
+        log.info("接收到API接口搜索请求: {}", request);
+        
+        // 构建服务请求
+        ApiSearchRequest serviceRequest = ApiSearchRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .query(request.query())
+                .operationType(request.operationType())
+                .maxResults(request.maxResults())
+                .includeDetails(request.includeDetails())
+                .explain(request.explain())
+                .cursor(request.cursor())
+                .build();
+        
+        // 调用服务
+        ApiFinderResponse response = apiFinderService.searchApis(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("API接口搜索结果：\n\n");
+        
+        if (!response.isSuccess()) {
+            result.append("搜索失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        if (response.getApis() == null || response.getApis().isEmpty()) {
+            result.append("未找到匹配的API接口。");
+            return result.toString();
+        }
+        
+        appendApis(result, response, request.includeDetails());
+        
+        return result.toString();
+    }
+    
+    /**
+     * 格式化API接口列表
+     */
+    private void appendApis(StringBuilder result, ApiFinderResponse response, boolean includeDetails) {
+        if (response.isPartial()) {
+            result.append("注意：节点 ").append(String.join(", ", response.getUnavailableNodes()))
+                  .append(" 未响应，结果可能不完整。\n\n");
+        }
         result.append("找到 ").append(response.getTotalResults()).append(" 个匹配的API接口，显示前 ")
               .append(response.getApis().size()).append(" 个结果：\n\n");
         
@@ -72,9 +141,15 @@ public class ApiFinderMcpServer {
             result.append("- 描述: ").append(api.getDescription()).append("\n");
             result.append("- 路径: ").append(api.getPath()).append("\n");
             result.append("- 方法: ").append(api.getMethod()).append("\n");
+            if (response.getModelId() == null) {
+                result.append("- 数据模型: ").append(api.getRelatedModelId()).append("\n");
+            }
             result.append("- 匹配度: ").append(score).append("%\n");
+            if (response.getExplanations() != null) {
+                ExplanationFormatter.append(result, response.getExplanations().get(i));
+            }
             
-            if (request.includeDetails() && api.getParameters() != null) {
+            if (includeDetails && api.getParameters() != null) {
                 result.append("- 参数列表:\n");
                 for (var param : api.getParameters()) {
                     result.append("  * ").append(param.getName())
@@ -93,7 +168,16 @@ public class ApiFinderMcpServer {
             result.append("\n");
         }
         
-        return result.toString();
+        if (response.getNextCursor() != null) {
+            result.append("还有更多结果，续页游标: ").append(response.getNextCursor()).append("\n\n");
+        }
+    }
+    
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
     }
     
     /**
@@ -107,6 +191,32 @@ public class ApiFinderMcpServer {
             @ToolParam(description = "最大结果数量")
             int maxResults,
             @ToolParam(description = "是否包含详细参数信息")
-            boolean includeDetails
+            boolean includeDetails,
+            @ToolParam(description = "是否返回每个结果的分数说明", required = false)
+            boolean explain,
+            @ToolParam(description = "续页游标，取自上一次结果末尾；其余参数需与上一次一致", required = false)
+            String cursor,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+    
+    /**
+     * API接口搜索工具的请求记录类
+     */
+    public record ApiSearchToolRequest(
+            @ToolParam(description = "搜索文本，如：取消订单")
+            String query,
+            @ToolParam(description = "操作类型", required = false)
+            String operationType,
+            @ToolParam(description = "最大结果数量")
+            int maxResults,
+            @ToolParam(description = "是否包含详细参数信息")
+            boolean includeDetails,
+            @ToolParam(description = "是否返回每个结果的分数说明", required = false)
+            boolean explain,
+            @ToolParam(description = "续页游标，取自上一次结果末尾；其余参数需与上一次一致", required = false)
+            String cursor,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
     ) {}
 }
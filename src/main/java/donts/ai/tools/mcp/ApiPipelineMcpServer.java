@@ -0,0 +1,142 @@
+package donts.ai.tools.mcp;
+
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ApiPipelineRequest;
+import donts.ai.tools.response.ApiPipelineResponse;
+import donts.ai.tools.service.ApiPipelineService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 一站式解析并执行API工具的MCP服务器实现
+ */
+@Slf4j
+@Service
+public class ApiPipelineMcpServer {
+
+    @Autowired
+    private ApiPipelineService apiPipelineService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
+    
+    /**
+     * 根据用户描述、操作类型和参数，在服务端完成模型查找、接口查找和接口执行
+     * 
+     * @param request 请求参数
+     * @return 执行结果或候选列表
+     */
+    @Tool(description = "根据用户描述和操作类型一次性找到数据模型和接口并执行，置信度不足时返回候选模型和接口列表")
+    public String resolveAndExecuteApi(@ToolParam(description = "参数对象") ApiPipelineToolRequest request) {
+        log.info("接收到一站式API执行请求: {}", request);
+        
+        // 构建服务请求
+        ApiPipelineRequest serviceRequest = ApiPipelineRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .description(request.description())
+                .operationType(request.operationType())
+                .parameters(request.parameters())
+                .minConfidence(request.minConfidence())
+                .maxCandidates(request.maxCandidates())
+                .validateParameters(request.validateParameters())
+                .detailedResponse(request.detailedResponse())
+                .build();
+        
+        // 调用服务
+        ApiPipelineResponse response = apiPipelineService.resolveAndExecute(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("一站式API执行结果：\n\n");
+        
+        if (!response.isSuccess() && !response.isExecuted()) {
+            result.append("执行失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        if (!response.isExecuted()) {
+            result.append("未执行: ").append(response.getLowConfidenceReason()).append("\n");
+            result.append("请从以下候选中选择后调用executeApi。\n\n");
+            
+            if (response.getCandidateModels() != null && !response.getCandidateModels().isEmpty()) {
+                result.append("候选数据模型：\n");
+                for (int i = 0; i < response.getCandidateModels().size(); i++) {
+                    var model = response.getCandidateModels().get(i);
+                    result.append("- ").append(model.getId()).append(" (").append(model.getName()).append(")")
+                          .append(" 匹配度: ").append(response.getCandidateModelScores().get(i)).append("%\n");
+                }
+                result.append("\n");
+            }
+            
+            if (response.getCandidateApis() != null && !response.getCandidateApis().isEmpty()) {
+                result.append("候选API接口（模型 ").append(response.getModelId()).append("）：\n");
+                for (int i = 0; i < response.getCandidateApis().size(); i++) {
+                    var api = response.getCandidateApis().get(i);
+                    result.append("- ").append(api.getId()).append(" (").append(api.getName()).append(")")
+                          .append(" ").append(api.getMethod()).append(" ").append(api.getPath())
+                          .append(" 匹配度: ").append(response.getCandidateApiScores().get(i)).append("%\n");
+                }
+            }
+            return result.toString();
+        }
+        
+        result.append("- 数据模型: ").append(response.getModelId())
+              .append(" (匹配度: ").append(response.getModelScore()).append("%)\n");
+        result.append("- API接口: ").append(response.getApiId())
+              .append(" (匹配度: ").append(response.getApiScore()).append("%)\n");
+        result.append("- 置信度: ").append(response.getConfidence()).append("%\n\n");
+        
+        var executorResponse = response.getResult();
+        if (!executorResponse.isSuccess()) {
+            result.append("执行失败: ").append(executorResponse.getErrorMessage());
+            return result.toString();
+        }
+        
+        result.append("执行成功！\n");
+        result.append("- 执行时间: ").append(executorResponse.getExecutionTime()).append("ms\n\n");
+        result.append("响应数据：\n").append(executorResponse.getResponseData());
+        
+        return result.toString();
+    }
+    
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
+    }
+    
+    /**
+     * 一站式API执行工具的请求记录类
+     */
+    public record ApiPipelineToolRequest(
+            @ToolParam(description = "用户描述，用于查找数据模型")
+            String description,
+            @ToolParam(description = "操作类型（如：查询、创建、更新、删除）")
+            String operationType,
+            @ToolParam(description = "参数对象")
+            Map<String, Object> parameters,
+            @ToolParam(description = "直接执行所需的最低置信度（0-100）", required = false)
+            int minConfidence,
+            @ToolParam(description = "置信度不足时返回的候选数量", required = false)
+            int maxCandidates,
+            @ToolParam(description = "是否验证参数")
+            boolean validateParameters,
+            @ToolParam(description = "是否返回详细响应")
+            boolean detailedResponse,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+}
@@ -0,0 +1,33 @@
+package donts.ai.tools.mcp;
+
+import donts.ai.tools.model.ScoreContribution;
+import donts.ai.tools.model.ScoreExplanation;
+
+/**
+ * 查找工具共用的分数说明格式化方法
+ */
+final class ExplanationFormatter {
+
+    private ExplanationFormatter() {
+    }
+
+    /**
+     * 追加一个结果的分数说明
+     */
+    static void append(StringBuilder result, ScoreExplanation explanation) {
+        result.append("- 分数说明: 命中词项 ").append(explanation.getMatchedTerms())
+              .append("，原始分 ").append(explanation.getRawScore())
+              .append("，热度加分 ").append(explanation.getUsageBoost()).append("\n");
+        for (ScoreContribution contribution : explanation.getContributions()) {
+            result.append("  * ").append(contribution.getField());
+            if (contribution.getTerm() != null) {
+                result.append(" [").append(contribution.getTerm()).append("]");
+            }
+            if (contribution.getMatched() != null) {
+                result.append(" ~ ").append(contribution.getMatched());
+            }
+            result.append(": ").append(contribution.getPoints() > 0 ? "+" : "").append(contribution.getPoints())
+                  .append("\n");
+        }
+    }
+}
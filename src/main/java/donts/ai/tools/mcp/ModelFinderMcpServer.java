@@ -1,14 +1,19 @@
 package donts.ai.tools.mcp;
 
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.BatchModelFinderRequest;
 import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.BatchModelFinderResponse;
 import donts.ai.tools.response.ModelFinderResponse;
 import donts.ai.tools.service.ModelFinderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -20,6 +25,12 @@ public class ModelFinderMcpServer {
 
     @Autowired
     private ModelFinderService modelFinderService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
     
     /**
      * 根据用户描述查找数据模型
@@ -34,11 +45,13 @@ public class ModelFinderMcpServer {
         // 构建服务请求
         ModelFinderRequest serviceRequest = ModelFinderRequest.builder()
                 .requestId(UUID.randomUUID().toString())
-                .userId("system")
+                .userId(userIdOf(request.userId()))
                 .timestamp(System.currentTimeMillis())
                 .description(request.description())
                 .maxResults(request.maxResults())
                 .includeDetails(request.includeDetails())
+                .explain(request.explain())
+                .cursor(request.cursor())
                 .build();
         
         // 调用服务
@@ -58,6 +71,110 @@ public class ModelFinderMcpServer {
             return result.toString();
         }
         
+        appendModels(result, response, request.includeDetails());
+        
+        return result.toString();
+    }
+    
+    /**
+     * 根据字段名、字段类型或字段描述查找数据模型
+     * 
+     * @param request 请求参数
+     * @return 查找结果
+     */
+    @Tool(description = "根据字段查找数据模型，如：有email字段的模型、有名为createTime的Date字段的模型")
+    public String findModelsByField(@ToolParam(description = "参数对象") FieldModelFinderToolRequest request) {
+        log.info("接收到字段查找数据模型请求: {}", request);
+        
+        // 构建服务请求
+        ModelFinderRequest serviceRequest = ModelFinderRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .fieldName(request.fieldName())
+                .fieldType(request.fieldType())
+                .fieldDescription(request.fieldDescription())
+                .maxResults(request.maxResults())
+                .includeDetails(request.includeDetails())
+                .cursor(request.cursor())
+                .build();
+        
+        // 调用服务
+        ModelFinderResponse response = modelFinderService.findModelsByFields(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("字段查找数据模型结果：\n\n");
+        
+        if (!response.isSuccess()) {
+            result.append("查找失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        if (response.getModels() == null || response.getModels().isEmpty()) {
+            result.append("未找到包含该字段的数据模型。");
+            return result.toString();
+        }
+        
+        appendModels(result, response, request.includeDetails());
+        
+        return result.toString();
+    }
+    
+    /**
+     * 批量根据多个用户描述查找数据模型
+     * 
+     * @param request 请求参数
+     * @return 每个描述的查找结果
+     */
+    @Tool(description = "根据多个描述一次性找到各自对应的数据模型，适用于同时涉及多个实体的请求")
+    public String findModels(@ToolParam(description = "参数对象") BatchModelFinderToolRequest request) {
+        log.info("接收到批量数据模型查找请求: {}", request);
+        
+        // 构建服务请求
+        BatchModelFinderRequest serviceRequest = BatchModelFinderRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .descriptions(request.descriptions())
+                .maxResults(request.maxResults())
+                .includeDetails(request.includeDetails())
+                .build();
+        
+        // 调用服务
+        BatchModelFinderResponse response = modelFinderService.findModelsByDescriptions(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("批量数据模型查找结果：\n\n");
+        
+        if (!response.isSuccess()) {
+            result.append("查找失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        for (int i = 0; i < response.getResults().size(); i++) {
+            ModelFinderResponse item = response.getResults().get(i);
+            result.append("### 描述 ").append(i + 1).append("：").append(request.descriptions().get(i)).append("\n\n");
+            
+            if (item.getModels() == null || item.getModels().isEmpty()) {
+                result.append("未找到匹配的数据模型。\n\n");
+                continue;
+            }
+            appendModels(result, item, request.includeDetails());
+        }
+        
+        return result.toString();
+    }
+    
+    /**
+     * 格式化数据模型列表
+     */
+    private void appendModels(StringBuilder result, ModelFinderResponse response, boolean includeDetails) {
+        if (response.isPartial()) {
+            result.append("注意：节点 ").append(String.join(", ", response.getUnavailableNodes()))
+                  .append(" 未响应，结果可能不完整。\n\n");
+        }
         result.append("找到 ").append(response.getTotalResults()).append(" 个匹配的数据模型，显示前 ")
               .append(response.getModels().size()).append(" 个结果：\n\n");
         
@@ -70,8 +187,11 @@ public class ModelFinderMcpServer {
             result.append("- 名称: ").append(model.getName()).append("\n");
             result.append("- 描述: ").append(model.getDescription()).append("\n");
             result.append("- 匹配度: ").append(score).append("%\n");
+            if (response.getExplanations() != null) {
+                ExplanationFormatter.append(result, response.getExplanations().get(i));
+            }
             
-            if (request.includeDetails() && model.getFields() != null) {
+            if (includeDetails && model.getFields() != null) {
                 result.append("- 字段列表:\n");
                 for (var field : model.getFields()) {
                     result.append("  * ").append(field.getName())
@@ -84,7 +204,16 @@ public class ModelFinderMcpServer {
             result.append("\n");
         }
         
-        return result.toString();
+        if (response.getNextCursor() != null) {
+            result.append("还有更多结果，续页游标: ").append(response.getNextCursor()).append("\n\n");
+        }
+    }
+    
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
     }
     
     /**
@@ -96,6 +225,46 @@ public class ModelFinderMcpServer {
             @ToolParam(description = "最大返回结果数量")
             int maxResults,
             @ToolParam(description = "是否包含详细信息")
-            boolean includeDetails
+            boolean includeDetails,
+            @ToolParam(description = "是否返回每个结果的分数说明", required = false)
+            boolean explain,
+            @ToolParam(description = "续页游标，取自上一次结果末尾；其余参数需与上一次一致", required = false)
+            String cursor,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+    
+    /**
+     * 字段查找数据模型工具的请求记录类
+     */
+    public record FieldModelFinderToolRequest(
+            @ToolParam(description = "字段名，如：email、createTime", required = false)
+            String fieldName,
+            @ToolParam(description = "字段类型，如：String、Integer、Date", required = false)
+            String fieldType,
+            @ToolParam(description = "字段描述，如：邮箱", required = false)
+            String fieldDescription,
+            @ToolParam(description = "最大返回结果数量")
+            int maxResults,
+            @ToolParam(description = "是否包含详细信息")
+            boolean includeDetails,
+            @ToolParam(description = "续页游标，取自上一次结果末尾；其余参数需与上一次一致", required = false)
+            String cursor,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+    
+    /**
+     * 批量数据模型查找工具的请求记录类
+     */
+    public record BatchModelFinderToolRequest(
+            @ToolParam(description = "多个用户描述，每个描述对应一个实体")
+            List<String> descriptions,
+            @ToolParam(description = "每个描述的最大返回结果数量")
+            int maxResults,
+            @ToolParam(description = "是否包含详细信息")
+            boolean includeDetails,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
     ) {}
 }
@@ -0,0 +1,112 @@
+package donts.ai.tools.mcp;
+
+import donts.ai.tools.model.ModelRelation;
+import donts.ai.tools.model.RelationHop;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ModelRelationRequest;
+import donts.ai.tools.response.ModelRelationResponse;
+import donts.ai.tools.service.ModelRelationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * 数据模型关系查找工具的MCP服务器实现
+ */
+@Slf4j
+@Service
+public class ModelRelationMcpServer {
+
+    @Autowired
+    private ModelRelationService modelRelationService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
+    
+    /**
+     * 查找关联的数据模型以及模型之间的API调用路径
+     * 
+     * @param request 请求参数
+     * @return 查找结果
+     */
+    @Tool(description = "查找与数据模型关联的其他模型，以及通过外键字段和API接口从一个模型跳转到另一个模型的路径，适用于多实体关联查询")
+    public String findRelatedModels(@ToolParam(description = "参数对象") ModelRelationToolRequest request) {
+        log.info("接收到关联数据模型查找请求: {}", request);
+        
+        // 构建服务请求
+        ModelRelationRequest serviceRequest = ModelRelationRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .modelId(request.modelId())
+                .targetModelId(request.targetModelId())
+                .maxDepth(request.maxDepth())
+                .build();
+        
+        // 调用服务
+        ModelRelationResponse response = modelRelationService.findRelatedModels(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("关联数据模型查找结果：\n\n");
+        
+        if (!response.isSuccess()) {
+            result.append("查找失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        if (response.getRelations() == null || response.getRelations().isEmpty()) {
+            result.append("未找到关联的数据模型。");
+            return result.toString();
+        }
+        
+        for (ModelRelation relation : response.getRelations()) {
+            result.append("模型 ").append(relation.getModelId()).append(" (").append(relation.getModelName()).append(")")
+                  .append("，距离 ").append(relation.getDepth()).append(" 跳：\n");
+            
+            for (RelationHop hop : relation.getPath()) {
+                result.append("  * ").append(hop.getFromModelId()).append(" -> ").append(hop.getToModelId())
+                      .append(" 经由 ").append(hop.getFieldModelId()).append(".").append(hop.getFieldName());
+                if (hop.getApiId() != null) {
+                    result.append("，调用 ").append(hop.getApiId())
+                          .append("(").append(hop.getApiParameter()).append(")");
+                } else {
+                    result.append("，暂无可用接口");
+                }
+                result.append("\n");
+            }
+            result.append("\n");
+        }
+        
+        return result.toString();
+    }
+    
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
+    }
+    
+    /**
+     * 关联数据模型查找工具的请求记录类
+     */
+    public record ModelRelationToolRequest(
+            @ToolParam(description = "起点数据模型ID")
+            String modelId,
+            @ToolParam(description = "目标数据模型ID，指定时只返回到达该模型的路径", required = false)
+            String targetModelId,
+            @ToolParam(description = "最大跳数", required = false)
+            int maxDepth,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+}
@@ -0,0 +1,98 @@
+package donts.ai.tools.mcp;
+
+import donts.ai.tools.model.Suggestion;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.SuggestRequest;
+import donts.ai.tools.response.SuggestResponse;
+import donts.ai.tools.service.SuggestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * 输入补全工具的MCP服务器实现
+ */
+@Slf4j
+@Service
+public class SuggestMcpServer {
+
+    @Autowired
+    private SuggestService suggestService;
+
+    /**
+     * 工具请求未指定用户ID时使用的用户ID
+     */
+    @Value("${mcp.user-id:" + MockDataRepository.DEFAULT_TENANT + "}")
+    private String defaultUserId = MockDataRepository.DEFAULT_TENANT;
+    
+    /**
+     * 根据已输入的前缀给出补全建议
+     * 
+     * @param request 请求参数
+     * @return 补全结果
+     */
+    @Tool(description = "根据已输入的前缀补全数据模型名称、API名称和关键词，如输入\"订\"得到\"订单\"，适合边输入边提示")
+    public String suggest(@ToolParam(description = "参数对象") SuggestToolRequest request) {
+        log.debug("接收到补全请求: {}", request);
+        
+        // 构建服务请求
+        SuggestRequest serviceRequest = SuggestRequest.builder()
+                .requestId(UUID.randomUUID().toString())
+                .userId(userIdOf(request.userId()))
+                .timestamp(System.currentTimeMillis())
+                .prefix(request.prefix())
+                .maxResults(request.maxResults())
+                .build();
+        
+        // 调用服务
+        SuggestResponse response = suggestService.suggest(serviceRequest);
+        
+        // 格式化响应
+        StringBuilder result = new StringBuilder();
+        result.append("补全建议：\n\n");
+        
+        if (!response.isSuccess()) {
+            result.append("补全失败: ").append(response.getErrorMessage());
+            return result.toString();
+        }
+        
+        if (response.getSuggestions() == null || response.getSuggestions().isEmpty()) {
+            result.append("没有以该前缀开头的名称或关键词。");
+            return result.toString();
+        }
+        
+        for (Suggestion suggestion : response.getSuggestions()) {
+            result.append("* ").append(suggestion.getText()).append(" [").append(suggestion.getType());
+            if (suggestion.getId() != null) {
+                result.append(": ").append(suggestion.getId());
+            }
+            result.append("]\n");
+        }
+        
+        return result.toString();
+    }
+    
+    /**
+     * 请求指定了用户ID时使用请求的用户ID，否则使用配置的默认用户ID
+     */
+    private String userIdOf(String requested) {
+        return requested == null || requested.isBlank() ? defaultUserId : requested;
+    }
+    
+    /**
+     * 输入补全工具的请求记录类
+     */
+    public record SuggestToolRequest(
+            @ToolParam(description = "已输入的前缀")
+            String prefix,
+            @ToolParam(description = "最大结果数量", required = false)
+            int maxResults,
+            @ToolParam(description = "用户ID，决定查询哪个租户的目录，不提供时使用服务端配置的默认用户", required = false)
+            String userId
+    ) {}
+}
@@ -0,0 +1,239 @@
+package donts.ai.tools.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * API接口在目录中的紧凑表示，目录快照和索引内部只保存这种形式，对外返回时再转换为 {@link ApiInterface}
+ * <p>
+ * 请求方法以枚举表示，只在无法识别或写法不同时保留原文。本类只定义访问方法，有两种实现：
+ * {@link #of} 创建的堆内对象，参数使用数组保存，关键词引用所在目录的 {@link KeywordDictionary} 中登记的实例，
+ * 名称和描述的小写形式在创建时计算一次；以及目录镜像中的享元视图，访问方法直接从堆外缓冲区读取。
+ * 两种实现内容相同时互相相等。创建后不可变。
+ */
+public abstract class CompactApiInterface {
+
+    protected CompactApiInterface() {
+    }
+
+    /**
+     * 由模型类转换
+     *
+     * @param keywords 所在目录的关键词字典
+     */
+    public static CompactApiInterface of(ApiInterface api, KeywordDictionary keywords) {
+        HttpMethod method = HttpMethod.of(api.getMethod());
+        CompactApiParameter[] parameters = api.getParameters() == null ? null
+                : api.getParameters().stream().map(CompactApiParameter::of).toArray(CompactApiParameter[]::new);
+        return new Heap(api.getId(), api.getName(), CompactValues.lower(api.getName()),
+                api.getDescription(), CompactValues.lower(api.getDescription()), api.getPath(), method,
+                CompactValues.rawIfDifferent(api.getMethod(), method == null ? null : method.label()),
+                parameters, api.getResponseType(), api.getRelatedModelId(), keywords.intern(api.getKeywords()));
+    }
+
+    public abstract String getId();
+
+    public abstract String getName();
+
+    /**
+     * 名称的小写形式，名称为null时为空串
+     */
+    public abstract String getLowerName();
+
+    public abstract String getDescription();
+
+    /**
+     * 描述的小写形式，描述为null时为空串
+     */
+    public abstract String getLowerDescription();
+
+    public abstract String getPath();
+
+    /**
+     * 请求方法，无法识别时为null
+     */
+    public abstract HttpMethod getMethod();
+
+    /**
+     * 与枚举文本形式不一致时保留的请求方法原文，一致时为null
+     */
+    public abstract String getRawMethod();
+
+    /**
+     * 参数列表的只读视图，没有参数定义时为null
+     */
+    public abstract List<CompactApiParameter> getParameters();
+
+    public abstract String getResponseType();
+
+    public abstract String getRelatedModelId();
+
+    /**
+     * 关键词原文，没有定义时为null
+     */
+    public abstract List<String> getKeywords();
+
+    /**
+     * 关键词数量
+     */
+    public abstract int keywordCount();
+
+    /**
+     * 第i个关键词的原文
+     */
+    public abstract String keyword(int i);
+
+    /**
+     * 第i个关键词的小写形式
+     */
+    public abstract String lowerKeyword(int i);
+
+    /**
+     * 请求方法的文本形式，与转换前的模型类一致
+     */
+    public String getMethodName() {
+        String rawMethod = getRawMethod();
+        HttpMethod method = getMethod();
+        return rawMethod != null || method == null ? rawMethod : method.label();
+    }
+
+    /**
+     * 全部关键词的小写形式
+     */
+    public String[] lowerKeywords() {
+        String[] lowers = new String[keywordCount()];
+        for (int i = 0; i < lowers.length; i++) {
+            lowers[i] = lowerKeyword(i);
+        }
+        return lowers;
+    }
+
+    /**
+     * 转换为模型类，包含全部信息
+     */
+    public ApiInterface toApiInterface() {
+        return toApiInterface(true);
+    }
+
+    /**
+     * 转换为模型类
+     *
+     * @param includeDetails 是否包含参数和关键词，为false时两者均为null
+     */
+    public ApiInterface toApiInterface(boolean includeDetails) {
+        List<ApiParameter> apiParameters = null;
+        List<CompactApiParameter> parameters = includeDetails ? getParameters() : null;
+        if (parameters != null) {
+            apiParameters = new ArrayList<>(parameters.size());
+            for (CompactApiParameter parameter : parameters) {
+                apiParameters.add(parameter.toApiParameter());
+            }
+        }
+        return new ApiInterface(getId(), getName(), getDescription(), getPath(), getMethodName(), apiParameters,
+                getResponseType(), getRelatedModelId(), includeDetails ? getKeywords() : null);
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactApiInterface other)) {
+            return false;
+        }
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getName(), other.getName())
+                && Objects.equals(getDescription(), other.getDescription())
+                && Objects.equals(getPath(), other.getPath())
+                && getMethod() == other.getMethod()
+                && Objects.equals(getRawMethod(), other.getRawMethod())
+                && Objects.equals(getParameters(), other.getParameters())
+                && Objects.equals(getResponseType(), other.getResponseType())
+                && Objects.equals(getRelatedModelId(), other.getRelatedModelId())
+                && Objects.equals(getKeywords(), other.getKeywords());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(getId(), getName(), getDescription(), getPath(), getMethod(), getRawMethod(),
+                getParameters(), getResponseType(), getRelatedModelId(), getKeywords());
+    }
+
+    @Override
+    public String toString() {
+        return "CompactApiInterface(id=" + getId() + ", name=" + getName() + ", description=" + getDescription()
+                + ", path=" + getPath() + ", method=" + getMethodName() + ", parameters=" + getParameters()
+                + ", responseType=" + getResponseType() + ", relatedModelId=" + getRelatedModelId()
+                + ", keywords=" + getKeywords() + ")";
+    }
+
+    /**
+     * 堆内实现
+     */
+    @Getter
+    private static final class Heap extends CompactApiInterface {
+
+        private final String id;
+        private final String name;
+        private final String lowerName;
+        private final String description;
+        private final String lowerDescription;
+        private final String path;
+        private final HttpMethod method;
+        private final String rawMethod;
+        @Getter(AccessLevel.NONE)
+        private final CompactApiParameter[] parameters;
+        private final String responseType;
+        private final String relatedModelId;
+        @Getter(AccessLevel.NONE)
+        private final KeywordDictionary.Keyword[] keywords;
+
+        private Heap(String id, String name, String lowerName, String description, String lowerDescription,
+                     String path, HttpMethod method, String rawMethod, CompactApiParameter[] parameters,
+                     String responseType, String relatedModelId, KeywordDictionary.Keyword[] keywords) {
+            this.id = id;
+            this.name = name;
+            this.lowerName = lowerName;
+            this.description = description;
+            this.lowerDescription = lowerDescription;
+            this.path = path;
+            this.method = method;
+            this.rawMethod = rawMethod;
+            this.parameters = parameters;
+            this.responseType = responseType;
+            this.relatedModelId = relatedModelId;
+            this.keywords = keywords;
+        }
+
+        @Override
+        public List<CompactApiParameter> getParameters() {
+            return parameters == null ? null : Collections.unmodifiableList(Arrays.asList(parameters));
+        }
+
+        @Override
+        public List<String> getKeywords() {
+            return CompactValues.keywords(keywords);
+        }
+
+        @Override
+        public int keywordCount() {
+            return keywords == null ? 0 : keywords.length;
+        }
+
+        @Override
+        public String keyword(int i) {
+            return keywords[i].text();
+        }
+
+        @Override
+        public String lowerKeyword(int i) {
+            return keywords[i].lower();
+        }
+    }
+}
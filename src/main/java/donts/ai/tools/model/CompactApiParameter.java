@@ -0,0 +1,78 @@
+package donts.ai.tools.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * API参数的紧凑表示，类型和位置以枚举保存，只在无法识别或写法不同时保留原文
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CompactApiParameter {
+
+    private final String name;
+    private final ValueType type;
+    private final String rawType;
+    private final String description;
+    private final boolean required;
+    private final ParameterLocation location;
+    private final String rawLocation;
+    private final String defaultValue;
+    private final String exampleValue;
+    private final String modelFieldName;
+
+    /**
+     * 由各部分直接创建，供目录镜像解码使用；类型和原文须符合 {@link #of} 的约定
+     */
+    public CompactApiParameter(String name, ValueType type, String rawType, String description, boolean required,
+                               ParameterLocation location, String rawLocation, String defaultValue,
+                               String exampleValue, String modelFieldName) {
+        this.name = name;
+        this.type = type;
+        this.rawType = rawType;
+        this.description = description;
+        this.required = required;
+        this.location = location;
+        this.rawLocation = rawLocation;
+        this.defaultValue = defaultValue;
+        this.exampleValue = exampleValue;
+        this.modelFieldName = modelFieldName;
+    }
+
+    /**
+     * 由模型类转换
+     */
+    public static CompactApiParameter of(ApiParameter parameter) {
+        ValueType type = ValueType.of(parameter.getType());
+        ParameterLocation location = ParameterLocation.of(parameter.getLocation());
+        return new CompactApiParameter(parameter.getName(), type,
+                CompactValues.rawIfDifferent(parameter.getType(), type == null ? null : type.label()),
+                parameter.getDescription(), parameter.isRequired(), location,
+                CompactValues.rawIfDifferent(parameter.getLocation(), location == null ? null : location.label()),
+                parameter.getDefaultValue(), parameter.getExampleValue(), parameter.getModelFieldName());
+    }
+
+    /**
+     * 类型的文本形式，与转换前的模型类一致
+     */
+    public String getTypeName() {
+        return rawType != null || type == null ? rawType : type.label();
+    }
+
+    /**
+     * 位置的文本形式，与转换前的模型类一致
+     */
+    public String getLocationName() {
+        return rawLocation != null || location == null ? rawLocation : location.label();
+    }
+
+    /**
+     * 转换为模型类
+     */
+    public ApiParameter toApiParameter() {
+        return new ApiParameter(name, getTypeName(), description, required, getLocationName(),
+                defaultValue, exampleValue, modelFieldName);
+    }
+}
@@ -0,0 +1,219 @@
+package donts.ai.tools.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 数据模型在目录中的紧凑表示，目录快照和索引内部只保存这种形式，对外返回时再转换为 {@link DataModel}
+ * <p>
+ * 本类只定义访问方法，有两种实现：{@link #of} 创建的堆内对象，字段和关联API使用数组保存，
+ * 关键词引用所在目录的 {@link KeywordDictionary} 中登记的实例，名称和描述的小写形式在创建时计算一次；
+ * 以及目录镜像中的享元视图，访问方法直接从堆外缓冲区读取，不创建堆内副本。
+ * 两种实现内容相同时互相相等。创建后不可变。
+ */
+public abstract class CompactDataModel {
+
+    protected CompactDataModel() {
+    }
+
+    /**
+     * 由模型类转换
+     *
+     * @param keywords 所在目录的关键词字典
+     */
+    public static CompactDataModel of(DataModel model, KeywordDictionary keywords) {
+        CompactModelField[] fields = model.getFields() == null ? null
+                : model.getFields().stream().map(CompactModelField::of).toArray(CompactModelField[]::new);
+        return new Heap(model.getId(), model.getName(), CompactValues.lower(model.getName()),
+                model.getDescription(), CompactValues.lower(model.getDescription()), fields,
+                CompactValues.toArray(model.getRelatedApiIds()), keywords.intern(model.getKeywords()));
+    }
+
+    public abstract String getId();
+
+    public abstract String getName();
+
+    /**
+     * 名称的小写形式，名称为null时为空串
+     */
+    public abstract String getLowerName();
+
+    public abstract String getDescription();
+
+    /**
+     * 描述的小写形式，描述为null时为空串
+     */
+    public abstract String getLowerDescription();
+
+    /**
+     * 字段列表的只读视图，没有字段定义时为null
+     */
+    public abstract List<CompactModelField> getFields();
+
+    /**
+     * 关联API ID的只读视图，没有定义时为null
+     */
+    public abstract List<String> getRelatedApiIds();
+
+    /**
+     * 关键词原文，没有定义时为null
+     */
+    public abstract List<String> getKeywords();
+
+    /**
+     * 关键词数量
+     */
+    public abstract int keywordCount();
+
+    /**
+     * 第i个关键词的原文
+     */
+    public abstract String keyword(int i);
+
+    /**
+     * 第i个关键词的小写形式
+     */
+    public abstract String lowerKeyword(int i);
+
+    /**
+     * 全部关键词的小写形式
+     */
+    public String[] lowerKeywords() {
+        String[] lowers = new String[keywordCount()];
+        for (int i = 0; i < lowers.length; i++) {
+            lowers[i] = lowerKeyword(i);
+        }
+        return lowers;
+    }
+
+    /**
+     * 替换关联API列表，返回堆内对象
+     *
+     * @param keywords 所在目录的关键词字典
+     */
+    public CompactDataModel withRelatedApiIds(List<String> relatedApiIds, KeywordDictionary keywords) {
+        List<CompactModelField> fields = getFields();
+        return new Heap(getId(), getName(), getLowerName(), getDescription(), getLowerDescription(),
+                fields == null ? null : fields.toArray(new CompactModelField[0]),
+                CompactValues.toArray(relatedApiIds), keywords.intern(getKeywords()));
+    }
+
+    /**
+     * 转换为模型类，包含全部信息
+     */
+    public DataModel toDataModel() {
+        return toDataModel(true);
+    }
+
+    /**
+     * 转换为模型类
+     *
+     * @param includeFields 是否包含字段定义，为false时fields为null
+     */
+    public DataModel toDataModel(boolean includeFields) {
+        List<ModelField> modelFields = null;
+        List<CompactModelField> fields = includeFields ? getFields() : null;
+        if (fields != null) {
+            modelFields = new ArrayList<>(fields.size());
+            for (CompactModelField field : fields) {
+                modelFields.add(field.toModelField());
+            }
+        }
+        return new DataModel(getId(), getName(), getDescription(), modelFields, getRelatedApiIds(), getKeywords());
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactDataModel other)) {
+            return false;
+        }
+        return Objects.equals(getId(), other.getId())
+                && Objects.equals(getName(), other.getName())
+                && Objects.equals(getDescription(), other.getDescription())
+                && Objects.equals(getFields(), other.getFields())
+                && Objects.equals(getRelatedApiIds(), other.getRelatedApiIds())
+                && Objects.equals(getKeywords(), other.getKeywords());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(getId(), getName(), getDescription(), getFields(), getRelatedApiIds(), getKeywords());
+    }
+
+    @Override
+    public String toString() {
+        return "CompactDataModel(id=" + getId() + ", name=" + getName() + ", description=" + getDescription()
+                + ", fields=" + getFields() + ", relatedApiIds=" + getRelatedApiIds()
+                + ", keywords=" + getKeywords() + ")";
+    }
+
+    /**
+     * 堆内实现
+     */
+    @Getter
+    private static final class Heap extends CompactDataModel {
+
+        private final String id;
+        private final String name;
+        private final String lowerName;
+        private final String description;
+        private final String lowerDescription;
+        @Getter(AccessLevel.NONE)
+        private final CompactModelField[] fields;
+        @Getter(AccessLevel.NONE)
+        private final String[] relatedApiIds;
+        @Getter(AccessLevel.NONE)
+        private final KeywordDictionary.Keyword[] keywords;
+
+        private Heap(String id, String name, String lowerName, String description, String lowerDescription,
+                     CompactModelField[] fields, String[] relatedApiIds, KeywordDictionary.Keyword[] keywords) {
+            this.id = id;
+            this.name = name;
+            this.lowerName = lowerName;
+            this.description = description;
+            this.lowerDescription = lowerDescription;
+            this.fields = fields;
+            this.relatedApiIds = relatedApiIds;
+            this.keywords = keywords;
+        }
+
+        @Override
+        public List<CompactModelField> getFields() {
+            return fields == null ? null : Collections.unmodifiableList(Arrays.asList(fields));
+        }
+
+        @Override
+        public List<String> getRelatedApiIds() {
+            return CompactValues.toList(relatedApiIds);
+        }
+
+        @Override
+        public List<String> getKeywords() {
+            return CompactValues.keywords(keywords);
+        }
+
+        @Override
+        public int keywordCount() {
+            return keywords == null ? 0 : keywords.length;
+        }
+
+        @Override
+        public String keyword(int i) {
+            return keywords[i].text();
+        }
+
+        @Override
+        public String lowerKeyword(int i) {
+            return keywords[i].lower();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package donts.ai.tools.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 数据模型字段的紧凑表示，常用类型以枚举保存，只在类型无法识别或写法不同时保留原文
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CompactModelField {
+
+    private final String name;
+    private final ValueType type;
+    private final String rawType;
+    private final String description;
+    private final boolean required;
+    private final String defaultValue;
+    private final String exampleValue;
+
+    /**
+     * 由各部分直接创建，供目录镜像解码使用；类型和原文须符合 {@link #of} 的约定
+     */
+    public CompactModelField(String name, ValueType type, String rawType, String description, boolean required,
+                             String defaultValue, String exampleValue) {
+        this.name = name;
+        this.type = type;
+        this.rawType = rawType;
+        this.description = description;
+        this.required = required;
+        this.defaultValue = defaultValue;
+        this.exampleValue = exampleValue;
+    }
+
+    /**
+     * 由模型类转换
+     */
+    public static CompactModelField of(ModelField field) {
+        ValueType type = ValueType.of(field.getType());
+        return new CompactModelField(field.getName(), type,
+                CompactValues.rawIfDifferent(field.getType(), type == null ? null : type.label()),
+                field.getDescription(), field.isRequired(), field.getDefaultValue(), field.getExampleValue());
+    }
+
+    /**
+     * 类型的文本形式，与转换前的模型类一致
+     */
+    public String getTypeName() {
+        return rawType != null || type == null ? rawType : type.label();
+    }
+
+    /**
+     * 转换为模型类
+     */
+    public ModelField toModelField() {
+        return new ModelField(name, getTypeName(), description, required, defaultValue, exampleValue);
+    }
+}
@@ -0,0 +1,50 @@
+package donts.ai.tools.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 紧凑表示的公共转换方法
+ */
+final class CompactValues {
+
+    private CompactValues() {
+    }
+
+    /**
+     * 全角转半角后的小写形式，与原文相同时共享同一个实例；null视为空串
+     */
+    static String lower(String value) {
+        return TextNormalizer.fold(value);
+    }
+
+    /**
+     * 原文与枚举的文本形式不一致时保留原文，一致时返回null不再单独保存
+     *
+     * @param value 原文
+     * @param label 解析得到的枚举的文本形式，无法解析时为null
+     */
+    static String rawIfDifferent(String value, String label) {
+        return label != null && label.equals(value) ? null : value;
+    }
+
+    static String[] toArray(List<String> values) {
+        return values == null ? null : values.toArray(new String[0]);
+    }
+
+    static List<String> toList(String[] values) {
+        return values == null ? null : Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    static List<String> keywords(KeywordDictionary.Keyword[] keywords) {
+        if (keywords == null) {
+            return null;
+        }
+        String[] texts = new String[keywords.length];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = keywords[i].text();
+        }
+        return Arrays.asList(texts);
+    }
+}
@@ -0,0 +1,170 @@
+package donts.ai.tools.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * 条目内容的128位摘要，只由内容决定，在任何进程、实例上都相同，可以作为跨实例共享缓存键的一部分
+ * <p>
+ * 对条目的规范编码计算SHA-256并取前128位。规范编码中字符串写为UTF-8字节数加内容，null写为-1；
+ * 枚举写名称，不使用每个进程各不相同的散列码；列表写元素数量加各元素。堆内和堆外的同一条目摘要相同。
+ * <p>
+ * 多个条目的摘要按128位整数相加合并，与顺序无关，替换或删除条目时减去旧条目的摘要即可修正。
+ */
+public record ContentDigest(long high, long low) {
+
+    public static final ContentDigest ZERO = new ContentDigest(0, 0);
+
+    private static final byte DATA_MODEL = 1;
+    private static final byte API_INTERFACE = 2;
+
+    /**
+     * 数据模型的摘要
+     */
+    public static ContentDigest of(CompactDataModel model) {
+        Encoder encoder = new Encoder(DATA_MODEL);
+        encoder.string(model.getId());
+        encoder.string(model.getName());
+        encoder.string(model.getDescription());
+        List<CompactModelField> fields = model.getFields();
+        encoder.count(fields);
+        if (fields != null) {
+            for (CompactModelField field : fields) {
+                encoder.string(field.getName());
+                encoder.name(field.getType());
+                encoder.string(field.getRawType());
+                encoder.string(field.getDescription());
+                encoder.bool(field.isRequired());
+                encoder.string(field.getDefaultValue());
+                encoder.string(field.getExampleValue());
+            }
+        }
+        encoder.strings(model.getRelatedApiIds());
+        encoder.strings(model.getKeywords());
+        return encoder.digest();
+    }
+
+    /**
+     * API接口的摘要
+     */
+    public static ContentDigest of(CompactApiInterface api) {
+        Encoder encoder = new Encoder(API_INTERFACE);
+        encoder.string(api.getId());
+        encoder.string(api.getName());
+        encoder.string(api.getDescription());
+        encoder.string(api.getPath());
+        encoder.name(api.getMethod());
+        encoder.string(api.getRawMethod());
+        List<CompactApiParameter> parameters = api.getParameters();
+        encoder.count(parameters);
+        if (parameters != null) {
+            for (CompactApiParameter parameter : parameters) {
+                encoder.string(parameter.getName());
+                encoder.name(parameter.getType());
+                encoder.string(parameter.getRawType());
+                encoder.string(parameter.getDescription());
+                encoder.bool(parameter.isRequired());
+                encoder.name(parameter.getLocation());
+                encoder.string(parameter.getRawLocation());
+                encoder.string(parameter.getDefaultValue());
+                encoder.string(parameter.getExampleValue());
+                encoder.string(parameter.getModelFieldName());
+            }
+        }
+        encoder.string(api.getResponseType());
+        encoder.string(api.getRelatedModelId());
+        encoder.strings(api.getKeywords());
+        return encoder.digest();
+    }
+
+    public ContentDigest plus(ContentDigest other) {
+        long sumLow = low + other.low;
+        long carry = Long.compareUnsigned(sumLow, low) < 0 ? 1 : 0;
+        return new ContentDigest(high + other.high + carry, sumLow);
+    }
+
+    public ContentDigest minus(ContentDigest other) {
+        long borrow = Long.compareUnsigned(low, other.low) < 0 ? 1 : 0;
+        return new ContentDigest(high - other.high - borrow, low - other.low);
+    }
+
+    /**
+     * 32位十六进制文本
+     */
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    /**
+     * 规范编码直接写入摘要计算，不生成中间字节数组
+     */
+    private static final class Encoder {
+
+        private final MessageDigest digest;
+
+        private Encoder(byte kind) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256不可用", e);
+            }
+            digest.update(kind);
+        }
+
+        void string(String value) {
+            if (value == null) {
+                integer(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            integer(bytes.length);
+            digest.update(bytes);
+        }
+
+        void strings(List<String> values) {
+            count(values);
+            if (values != null) {
+                for (String value : values) {
+                    string(value);
+                }
+            }
+        }
+
+        void name(Enum<?> value) {
+            string(value == null ? null : value.name());
+        }
+
+        void bool(boolean value) {
+            digest.update((byte) (value ? 1 : 0));
+        }
+
+        void count(List<?> values) {
+            integer(values == null ? -1 : values.size());
+        }
+
+        private void integer(int value) {
+            digest.update((byte) (value >>> 24));
+            digest.update((byte) (value >>> 16));
+            digest.update((byte) (value >>> 8));
+            digest.update((byte) value);
+        }
+
+        ContentDigest digest() {
+            byte[] hash = digest.digest();
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (hash[i] & 0xFF);
+                low = (low << 8) | (hash[i + 8] & 0xFF);
+            }
+            return new ContentDigest(high, low);
+        }
+    }
+}
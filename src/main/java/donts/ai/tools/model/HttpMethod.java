@@ -0,0 +1,44 @@
+package donts.ai.tools.model;
+
+import java.util.Locale;
+
+/**
+ * API接口的请求方法
+ */
+public enum HttpMethod {
+    GET,
+    POST,
+    PUT,
+    PATCH,
+    DELETE,
+    HEAD,
+    OPTIONS;
+
+    private static final HttpMethod[] VALUES = values();
+
+    /**
+     * 解析请求方法，忽略大小写
+     *
+     * @param value 请求方法文本
+     * @return 对应的请求方法，无法识别时返回null
+     */
+    public static HttpMethod of(String value) {
+        if (value == null) {
+            return null;
+        }
+        String upper = value.toUpperCase(Locale.ROOT);
+        for (HttpMethod method : VALUES) {
+            if (method.name().equals(upper)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 文本形式，与模型类中的取值一致
+     */
+    public String label() {
+        return name();
+    }
+}
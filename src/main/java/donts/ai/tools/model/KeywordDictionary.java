@@ -0,0 +1,91 @@
+package donts.ai.tools.model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 关键词字典，同一个目录中相同的关键词只保存一份
+ * <p>
+ * 每个目录（租户）持有自己的字典，条目中直接引用字典登记的关键词，每个关键词的小写形式在登记时计算一次。
+ * 字典对关键词只持有弱引用，条目被删除、替换或所在分段被合并后不再被引用的关键词随之回收，
+ * 字典的大小跟随目录中现存的关键词，不会随写入只增不减。登记与读取可以并发进行。
+ */
+public final class KeywordDictionary {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<Keyword> cleared = new ReferenceQueue<>();
+
+    /**
+     * 登记关键词，已登记且仍被引用的关键词返回原实例
+     */
+    Keyword intern(String text) {
+        expunge();
+        while (true) {
+            Entry entry = entries.get(text);
+            Keyword keyword = entry == null ? null : entry.get();
+            if (keyword != null) {
+                return keyword;
+            }
+            Keyword created = new Keyword(text, TextNormalizer.fold(text));
+            Entry fresh = new Entry(created, cleared);
+            if (entry == null ? entries.putIfAbsent(text, fresh) == null : entries.replace(text, entry, fresh)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * 登记一组关键词，忽略其中的null
+     *
+     * @return 关键词数组，列表为null时返回null
+     */
+    Keyword[] intern(List<String> keywords) {
+        if (keywords == null) {
+            return null;
+        }
+        return keywords.stream()
+                .filter(Objects::nonNull)
+                .map(this::intern)
+                .toArray(Keyword[]::new);
+    }
+
+    /**
+     * 仍被条目引用的关键词数量
+     */
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * 移除已被回收的关键词的登记项
+     */
+    private void expunge() {
+        Reference<? extends Keyword> reference;
+        while ((reference = cleared.poll()) != null) {
+            Entry entry = (Entry) reference;
+            entries.remove(entry.text, entry);
+        }
+    }
+
+    /**
+     * 登记的关键词，原文和小写形式
+     */
+    record Keyword(String text, String lower) {}
+
+    private static final class Entry extends WeakReference<Keyword> {
+
+        private final String text;
+
+        private Entry(Keyword keyword, ReferenceQueue<Keyword> queue) {
+            super(keyword, queue);
+            this.text = keyword.text();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package donts.ai.tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 数据模型之间的关联关系，包含从起点模型到达该模型的路径
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelRelation {
+    
+    /**
+     * 关联的数据模型ID
+     */
+    private String modelId;
+    
+    /**
+     * 关联的数据模型名称
+     */
+    private String modelName;
+    
+    /**
+     * 距离起点模型的跳数
+     */
+    private int depth;
+    
+    /**
+     * 从起点模型到该模型的路径
+     */
+    private List<RelationHop> path;
+}
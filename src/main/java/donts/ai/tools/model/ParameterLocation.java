@@ -0,0 +1,46 @@
+package donts.ai.tools.model;
+
+/**
+ * API参数的位置
+ */
+public enum ParameterLocation {
+    QUERY("query"),
+    PATH("path"),
+    BODY("body"),
+    HEADER("header"),
+    COOKIE("cookie"),
+    FORM("form");
+
+    private static final ParameterLocation[] VALUES = values();
+
+    private final String label;
+
+    ParameterLocation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * 解析参数位置，忽略大小写
+     *
+     * @param value 参数位置文本
+     * @return 对应的参数位置，无法识别时返回null
+     */
+    public static ParameterLocation of(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (ParameterLocation location : VALUES) {
+            if (location.label.equalsIgnoreCase(value)) {
+                return location;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 文本形式，与模型类中的取值一致
+     */
+    public String label() {
+        return label;
+    }
+}
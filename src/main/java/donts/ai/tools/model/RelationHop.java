@@ -0,0 +1,51 @@
+package donts.ai.tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 数据模型关系图中的一跳，表示从一个模型经由某个字段到达另一个模型
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationHop {
+    
+    /**
+     * 起点数据模型ID
+     */
+    private String fromModelId;
+    
+    /**
+     * 终点数据模型ID
+     */
+    private String toModelId;
+    
+    /**
+     * 建立关联的外键字段名（如订单的userId）
+     */
+    private String fieldName;
+    
+    /**
+     * 外键字段所在的数据模型ID
+     */
+    private String fieldModelId;
+    
+    /**
+     * 是否为正向引用：为true时起点模型持有外键字段，为false时终点模型持有外键字段
+     */
+    private boolean forward;
+    
+    /**
+     * 完成这一跳可调用的API接口ID（没有可用接口时为null）
+     */
+    private String apiId;
+    
+    /**
+     * 调用API接口时需要填入外键值的参数名
+     */
+    private String apiParameter;
+}
@@ -0,0 +1,36 @@
+package donts.ai.tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 匹配度分数中的一项加分或减分
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreContribution {
+    
+    /**
+     * 来源，如 name、description、keyword、synonym、base、method
+     */
+    private String field;
+    
+    /**
+     * 命中的查询词项，与词项无关的规则为null
+     */
+    private String term;
+    
+    /**
+     * 与词项匹配的关键词或文本，按整个字段匹配时为null
+     */
+    private String matched;
+    
+    /**
+     * 分数
+     */
+    private int points;
+}
@@ -0,0 +1,48 @@
+package donts.ai.tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 单个查找结果的匹配度分数说明
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreExplanation {
+    
+    /**
+     * 数据模型或API接口ID
+     */
+    private String id;
+    
+    /**
+     * 命中的查询词项（含同义词规范词）
+     */
+    private List<String> matchedTerms;
+    
+    /**
+     * 各项加分，按计分顺序排列
+     */
+    private List<ScoreContribution> contributions;
+    
+    /**
+     * 热度加分
+     */
+    private int usageBoost;
+    
+    /**
+     * 截断到100之前的总分
+     */
+    private int rawScore;
+    
+    /**
+     * 最终匹配度分数（0-100），与结果列表中的分数一致
+     */
+    private int score;
+}
@@ -0,0 +1,36 @@
+package donts.ai.tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 输入补全建议
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+    
+    /**
+     * 补全的文本
+     */
+    private String text;
+    
+    /**
+     * 类型：model（模型名称）、api（API名称）或 keyword（关键词）
+     */
+    private String type;
+    
+    /**
+     * 对应的数据模型或API接口ID，关键词为null
+     */
+    private String id;
+    
+    /**
+     * 静态权重，越大越靠前
+     */
+    private int weight;
+}
@@ -0,0 +1,68 @@
+package donts.ai.tools.model;
+
+import cn.hutool.extra.pinyin.PinyinUtil;
+
+/**
+ * 目录文本和查询文本共用的规范化方法：全角转半角、大小写折叠和汉字转拼音
+ * <p>
+ * 目录中的名称、描述和关键词在转换为紧凑表示时折叠一次，查询词项在分词时折叠，两边使用同一套规则，
+ * 因此全角的"ＵＳＥＲ"与半角的"user"可以互相匹配。
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * 全角字符转为半角后转为小写，没有需要转换的字符时返回原字符串；null视为空串
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char half = halfWidth(c);
+            if (half != c) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = half;
+            }
+        }
+        return (chars == null ? text : new String(chars)).toLowerCase();
+    }
+
+    /**
+     * 全角ASCII字符和全角空格对应的半角字符，其他字符原样返回
+     */
+    static char halfWidth(char c) {
+        if (c == '　') {
+            return ' ';
+        }
+        if (c >= '！' && c <= '～') {
+            return (char) (c - 0xFEE0);
+        }
+        return c;
+    }
+
+    /**
+     * 是否包含汉字
+     */
+    public static boolean containsChinese(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.UnicodeScript.of(text.charAt(i)) == Character.UnicodeScript.HAN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 汉字转为不带声调的小写拼音，音节之间不加分隔，非汉字字符原样保留；多音字取第一个读音
+     */
+    public static String pinyin(String text) {
+        return PinyinUtil.getPinyin(text, "").toLowerCase();
+    }
+}
@@ -0,0 +1,52 @@
+package donts.ai.tools.model;
+
+/**
+ * 字段和参数的常用值类型，自定义的DTO类型等不在此列
+ */
+public enum ValueType {
+    STRING("String"),
+    INTEGER("Integer"),
+    LONG("Long"),
+    DOUBLE("Double"),
+    FLOAT("Float"),
+    BOOLEAN("Boolean"),
+    DATE("Date"),
+    BIG_DECIMAL("BigDecimal"),
+    LIST("List"),
+    ARRAY("Array"),
+    MAP("Map"),
+    OBJECT("Object");
+
+    private static final ValueType[] VALUES = values();
+
+    private final String label;
+
+    ValueType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * 解析值类型，忽略大小写
+     *
+     * @param value 类型文本
+     * @return 对应的值类型，无法识别时返回null
+     */
+    public static ValueType of(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (ValueType type : VALUES) {
+            if (type.label.equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 文本形式，与模型类中的取值一致
+     */
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,11 @@
+package donts.ai.tools.repository;
+
+/**
+ * 目录写入的前置条件在发布时不成立（如条目已存在、条目不存在），写入被放弃，目录保持不变
+ */
+public class CatalogConflictException extends IllegalStateException {
+
+    public CatalogConflictException(String message) {
+        super(message);
+    }
+}
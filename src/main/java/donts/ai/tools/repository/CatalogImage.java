@@ -0,0 +1,175 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.ImageInput;
+import donts.ai.tools.index.ImageOutput;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 目录镜像：完整构建好的目录基础分段的二进制格式，用于快速冷启动
+ * <p>
+ * 文件由固定长度的文件头和正文组成。文件头包含魔数、格式版本、目录来源指纹、正文长度和正文的CRC32校验和；
+ * 正文依次为字符串表、数据模型、API接口、数据模型关键词索引、API接口关键词索引和字段索引。
+ * 启动时把文件整体映射到内存，校验通过后直接在映射的缓冲区上查询：索引的倒排表和小写词项向量按需读取，
+ * 数据模型和API接口以享元视图（{@link OffHeapDataModel}、{@link OffHeapApiInterface}）访问，不在启动时重建对象图。
+ * 同样的正文也可以写入堆外直接缓冲区（{@link #offHeap}），用于不落盘的堆外存储模式。
+ * <p>
+ * 文件先写入临时文件再原子替换，已经映射旧文件的进程不受影响。单个镜像文件不能超过2GB。
+ */
+@Slf4j
+public final class CatalogImage {
+
+    /**
+     * 文件魔数 "DCAT"
+     */
+    private static final int MAGIC = 0x44434154;
+
+    /**
+     * 格式版本，布局不兼容地变化时递增，旧版本的镜像会被忽略并重新生成
+     */
+    static final int FORMAT_VERSION = 4;
+
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 8;
+
+    private CatalogImage() {
+    }
+
+    /**
+     * 将目录快照的基础分段写入镜像文件，快照中不能有未合并的增量
+     *
+     * @param file 镜像文件
+     * @param fingerprint 目录来源指纹，启动时与当前来源比较
+     * @param snapshot 目录快照
+     */
+    public static void write(Path file, long fingerprint, CatalogSnapshot snapshot) throws IOException {
+        long start = System.currentTimeMillis();
+        byte[] body = encode(snapshot.baseSegment());
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(fingerprint)
+                .putLong(body.length)
+                .putLong(crc.getValue())
+                .flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(body)});
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("写入目录镜像: {}, 大小: {} 字节, 耗时: {}ms", file, HEADER_LENGTH + body.length,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 映射镜像文件并创建目录快照
+     *
+     * @param file 镜像文件
+     * @param fingerprint 当前目录来源指纹
+     * @param version 快照版本号
+     * @param indexing 所在目录的索引配置，须与写入镜像时的同义词词典一致
+     * @return 基础分段直接基于映射缓冲区的快照；文件不存在、格式版本或指纹不匹配、校验失败时返回null
+     */
+    public static CatalogSnapshot open(Path file, long fingerprint, long version, CatalogIndexing indexing) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                log.warn("目录镜像大小无效，忽略: {}", file);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                log.info("目录镜像格式版本不匹配，忽略: {}", file);
+                return null;
+            }
+            if (buffer.getLong(8) != fingerprint) {
+                log.info("目录来源已变化，忽略旧镜像: {}", file);
+                return null;
+            }
+            long bodyLength = buffer.getLong(16);
+            if (bodyLength != channel.size() - HEADER_LENGTH) {
+                log.warn("目录镜像长度不一致，忽略: {}", file);
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_LENGTH, (int) bodyLength));
+            if (crc.getValue() != buffer.getLong(24)) {
+                log.warn("目录镜像校验失败，忽略: {}", file);
+                return null;
+            }
+            return CatalogSnapshot.of(version, read(ImageInput.open(buffer, HEADER_LENGTH), indexing), indexing);
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取目录镜像失败，忽略: {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 将目录快照的基础分段复制到堆外直接缓冲区，快照中不能有未合并的增量
+     * <p>
+     * 编码格式与镜像文件的正文相同，返回的快照中数据模型、API接口和索引都只在堆内保留少量的视图对象。
+     *
+     * @param snapshot 目录快照
+     * @return 基础分段位于堆外的同版本快照
+     */
+    public static CatalogSnapshot offHeap(CatalogSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        byte[] body = encode(snapshot.baseSegment());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length).put(body).flip();
+        CatalogSnapshot result = CatalogSnapshot.of(snapshot.getVersion(),
+                read(ImageInput.open(buffer, 0), snapshot.getIndexing()), snapshot.getIndexing());
+        log.info("目录复制到堆外缓冲区，大小: {} 字节, 耗时: {}ms", body.length, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private static byte[] encode(CatalogSegment segment) {
+        ImageOutput out = new ImageOutput();
+        MappedEntries.write(out, segment.getDataModels().values(), CompactDataModel::getId, OffHeapDataModel::write);
+        MappedEntries.write(out, segment.getApiInterfaces().values(), CompactApiInterface::getId,
+                OffHeapApiInterface::write);
+        segment.wholeModelIndex().writeTo(out);
+        segment.wholeApiIndex().writeTo(out);
+        segment.getFieldIndex().writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static CatalogSegment read(ImageInput in, CatalogIndexing indexing) {
+        MappedEntries<CompactDataModel> models = MappedEntries.read(in, OffHeapDataModel::new);
+        MappedEntries<CompactApiInterface> apis = MappedEntries.read(in, OffHeapApiInterface::new);
+        KeywordIndex<CompactDataModel> modelIndex = KeywordIndex.read(in, models.asList(), indexing.synonyms());
+        KeywordIndex<CompactApiInterface> apiIndex = KeywordIndex.read(in, apis.asList(), indexing.synonyms());
+        FieldIndex fieldIndex = FieldIndex.read(in, models.asList());
+        return CatalogSegment.mapped(models, apis, modelIndex, apiIndex, fieldIndex, indexing);
+    }
+
+    /**
+     * 枚举按序号写入，null写为-1；新增枚举值只能追加在末尾，否则需要递增格式版本
+     */
+    static void writeEnum(ImageOutput out, Enum<?> value) {
+        out.writeInt(value == null ? -1 : value.ordinal());
+    }
+
+    static <E extends Enum<E>> E enumOf(int ordinal, E[] values) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,22 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+
+/**
+ * 目录构建和查询索引时使用的配置
+ * <p>
+ * 由 {@link MockDataRepository} 在加载目录时创建，随快照传给其中的每个分段，租户目录沿用共享目录的配置。
+ * 同一进程中的多个仓库实例各自持有，互不影响。
+ *
+ * @param synonyms 同义词词典，构建关键词索引和规范化查询词项使用同一个词典
+ * @param partitioning 堆内构建的关键词索引的分片方式
+ */
+public record CatalogIndexing(SynonymDictionary synonyms, ShardedIndex.Partitioning partitioning) {
+
+    /**
+     * 不使用同义词、不分片
+     */
+    public static final CatalogIndexing DEFAULT =
+            new CatalogIndexing(SynonymDictionary.EMPTY, ShardedIndex.Partitioning.NONE);
+}
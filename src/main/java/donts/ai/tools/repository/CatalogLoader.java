@@ -0,0 +1,336 @@
+package donts.ai.tools.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ModelField;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 数据目录加载器，从JSON/YAML文件中读取数据模型和API接口定义
+ * <p>
+ * 每个目录文件的顶层包含 {@code dataModels} 和 {@code apiInterfaces} 两个数组，字段与模型类一致。
+ * 使用流式解析器逐个读取词法单元直接构建模型对象，不在内存中生成整个文件的树结构；
+ * 多个文件在并行流中同时解析，结果按文件名顺序合并。
+ * 类型、参数位置、关键词等大量重复的短字符串在所有文件之间共享同一个实例。
+ */
+@Slf4j
+public class CatalogLoader {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final JsonFactory yamlFactory = new YAMLFactory();
+
+    /**
+     * 重复字符串的共享实例，解析线程并发写入
+     */
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * 加载匹配路径模式的全部目录文件
+     *
+     * @param locationPattern 资源路径模式，如 {@code classpath*:catalog/*} 或 {@code file:/data/catalog/*}
+     * @return 按文件名顺序合并的目录数据
+     */
+    public CatalogData load(String locationPattern) {
+        long start = System.currentTimeMillis();
+        List<Resource> files = listFiles(locationPattern);
+        List<CatalogData> parsed = files.parallelStream()
+                .map(this::parse)
+                .toList();
+
+        List<DataModel> dataModels = new ArrayList<>();
+        List<ApiInterface> apiInterfaces = new ArrayList<>();
+        parsed.forEach(data -> {
+            dataModels.addAll(data.dataModels());
+            apiInterfaces.addAll(data.apiInterfaces());
+        });
+        log.info("加载数据目录文件: {} 个, 数据模型: {}, API接口: {}, 耗时: {}ms", files.size(),
+                dataModels.size(), apiInterfaces.size(), System.currentTimeMillis() - start);
+        return new CatalogData(dataModels, apiInterfaces);
+    }
+
+    /**
+     * 计算目录文件的指纹，由文件名、大小和修改时间得出，不读取文件内容
+     * <p>
+     * 任一目录文件增加、删除或修改后指纹都会变化，用于判断目录镜像是否仍与目录文件一致。
+     *
+     * @param locationPattern 资源路径模式
+     * @return 指纹
+     */
+    public long fingerprint(String locationPattern) {
+        long hash = 1125899906842597L;
+        try {
+            for (Resource file : listFiles(locationPattern)) {
+                hash = 31 * hash + file.getFilename().hashCode();
+                hash = 31 * hash + file.contentLength();
+                hash = 31 * hash + file.lastModified();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("读取目录文件属性失败: " + locationPattern, e);
+        }
+        return hash;
+    }
+
+    /**
+     * 加载同义词文件，每行一组以逗号分隔的同义词，第一个词为规范词，空行和以 # 开头的行被忽略
+     *
+     * @param location 资源路径，如 {@code classpath:synonyms.txt}，为空或文件不存在时返回空词典
+     * @return 同义词词典
+     */
+    public SynonymDictionary loadSynonyms(String location) {
+        if (location == null || location.isBlank()) {
+            return SynonymDictionary.EMPTY;
+        }
+        Resource resource = new PathMatchingResourcePatternResolver().getResource(location);
+        if (!resource.exists()) {
+            log.warn("同义词文件不存在: {}", location);
+            return SynonymDictionary.EMPTY;
+        }
+        List<List<String>> groups = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    groups.add(Arrays.asList(line.split("\\s*[,，]\\s*")));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("读取同义词文件失败: " + location, e);
+        }
+        SynonymDictionary dictionary = SynonymDictionary.of(groups);
+        log.info("加载同义词文件: {}, 同义词组: {}", location, dictionary.size());
+        return dictionary;
+    }
+
+    /**
+     * 列出匹配路径模式且格式受支持的目录文件，按文件名排序
+     */
+    private List<Resource> listFiles(String locationPattern) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取目录文件列表失败: " + locationPattern, e);
+        }
+        return Arrays.stream(resources)
+                .filter(resource -> factoryFor(resource.getFilename()) != null)
+                .sorted(Comparator.comparing(Resource::getFilename))
+                .toList();
+    }
+
+    /**
+     * 解析单个目录文件
+     */
+    private CatalogData parse(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return parse(in, resource.getFilename());
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("解析目录文件失败: " + resource.getFilename() + ", " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从输入流解析目录文件，格式由文件扩展名决定
+     *
+     * @param in 文件内容
+     * @param filename 文件名，扩展名为 .json、.yml 或 .yaml
+     * @return 文件中的目录数据
+     */
+    public CatalogData parse(InputStream in, String filename) throws IOException {
+        JsonFactory factory = factoryFor(filename);
+        if (factory == null) {
+            throw new IllegalArgumentException("不支持的目录文件格式: " + filename);
+        }
+
+        List<DataModel> dataModels = new ArrayList<>();
+        List<ApiInterface> apiInterfaces = new ArrayList<>();
+        try (JsonParser parser = factory.createParser(in)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("dataModels".equals(field) && token == JsonToken.START_ARRAY) {
+                    dataModels.addAll(readArray(parser, this::readDataModel));
+                } else if ("apiInterfaces".equals(field) && token == JsonToken.START_ARRAY) {
+                    apiInterfaces.addAll(readArray(parser, this::readApiInterface));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new CatalogData(dataModels, apiInterfaces);
+    }
+
+    private DataModel readDataModel(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        DataModel model = new DataModel();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> model.setId(intern(parser.getValueAsString()));
+                case "name" -> model.setName(parser.getValueAsString());
+                case "description" -> model.setDescription(parser.getValueAsString());
+                case "fields" -> model.setFields(readArray(parser, this::readModelField));
+                case "relatedApiIds" -> model.setRelatedApiIds(readStrings(parser));
+                case "keywords" -> model.setKeywords(readStrings(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return model;
+    }
+
+    private ModelField readModelField(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        ModelField modelField = new ModelField();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> modelField.setName(intern(parser.getValueAsString()));
+                case "type" -> modelField.setType(intern(parser.getValueAsString()));
+                case "description" -> modelField.setDescription(intern(parser.getValueAsString()));
+                case "required" -> modelField.setRequired(parser.getValueAsBoolean());
+                case "defaultValue" -> modelField.setDefaultValue(intern(parser.getValueAsString()));
+                case "exampleValue" -> modelField.setExampleValue(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return modelField;
+    }
+
+    private ApiInterface readApiInterface(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        ApiInterface api = new ApiInterface();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> api.setId(intern(parser.getValueAsString()));
+                case "name" -> api.setName(parser.getValueAsString());
+                case "description" -> api.setDescription(parser.getValueAsString());
+                case "path" -> api.setPath(parser.getValueAsString());
+                case "method" -> api.setMethod(intern(parser.getValueAsString()));
+                case "parameters" -> api.setParameters(readArray(parser, this::readApiParameter));
+                case "responseType" -> api.setResponseType(intern(parser.getValueAsString()));
+                case "relatedModelId" -> api.setRelatedModelId(intern(parser.getValueAsString()));
+                case "keywords" -> api.setKeywords(readStrings(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return api;
+    }
+
+    private ApiParameter readApiParameter(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        ApiParameter parameter = new ApiParameter();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> parameter.setName(intern(parser.getValueAsString()));
+                case "type" -> parameter.setType(intern(parser.getValueAsString()));
+                case "description" -> parameter.setDescription(intern(parser.getValueAsString()));
+                case "required" -> parameter.setRequired(parser.getValueAsBoolean());
+                case "location" -> parameter.setLocation(intern(parser.getValueAsString()));
+                case "defaultValue" -> parameter.setDefaultValue(intern(parser.getValueAsString()));
+                case "exampleValue" -> parameter.setExampleValue(parser.getValueAsString());
+                case "modelFieldName" -> parameter.setModelFieldName(intern(parser.getValueAsString()));
+                default -> parser.skipChildren();
+            }
+        }
+        return parameter;
+    }
+
+    /**
+     * 读取数组，当前词法单元为数组开始或null
+     */
+    private <T> List<T> readArray(JsonParser parser, ElementReader<T> reader) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        List<T> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            T value = reader.read(parser);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 读取字符串数组，元素全部共享实例
+     */
+    private List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> values = readArray(parser, element -> intern(element.getValueAsString()));
+        return values == null ? null : List.copyOf(values);
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = strings.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("期望 " + expected + "，实际为 " + actual + "，位置: " + parser.currentLocation());
+        }
+    }
+
+    private JsonFactory factoryFor(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".json")) {
+            return jsonFactory;
+        }
+        if (lower.endsWith(".yml") || lower.endsWith(".yaml")) {
+            return yamlFactory;
+        }
+        return null;
+    }
+
+    /**
+     * 从解析器当前位置读取一个数组元素
+     */
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * 目录文件中的数据
+     *
+     * @param dataModels 数据模型，按文件中出现的顺序
+     * @param apiInterfaces API接口，按文件中出现的顺序
+     */
+    public record CatalogData(List<DataModel> dataModels, List<ApiInterface> apiInterfaces) {}
+}
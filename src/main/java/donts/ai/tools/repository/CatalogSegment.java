@@ -0,0 +1,305 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.BkTree;
+import donts.ai.tools.index.CompletionTrie;
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.PinyinIndex;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.ContentDigest;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 目录分段：一组数据模型、API接口以及基于它们构建的关键词索引和字段索引，创建后不可变
+ * <p>
+ * 快照由一个较大的基础分段和一个较小的增量分段组成，运行时注册的条目只重建增量分段，
+ * 代价与增量分段大小成正比，与目录总规模无关。
+ * <p>
+ * 关键词索引中的关键词按所在目录的 {@link SynonymDictionary} 替换为规范词，同一组同义词只建一份倒排表。
+ * 堆内构建的关键词索引按所在目录 {@link CatalogIndexing} 中的配置分片，大目录的查询在多个分片上并行执行。
+ */
+@Getter
+final class CatalogSegment {
+
+    static final CatalogSegment EMPTY = build(Map.of(), Map.of(), CatalogIndexing.DEFAULT);
+
+    /**
+     * 参与模糊匹配的词：只由英文字母组成，中文等没有拼写错误的概念
+     */
+    private static final Pattern FUZZY_WORD = Pattern.compile("[a-z]{3,}");
+
+    private static final Pattern NON_LETTER = Pattern.compile("[^a-z]+");
+
+    /**
+     * 补全词条的静态权重：模型名称、API名称和关键词每出现一次分别累加的权重
+     */
+    private static final int MODEL_NAME_WEIGHT = 3;
+    private static final int API_NAME_WEIGHT = 2;
+    private static final int KEYWORD_WEIGHT = 1;
+
+    private final Map<String, CompactDataModel> dataModels;
+    private final Map<String, CompactApiInterface> apiInterfaces;
+    private final ShardedIndex<CompactDataModel> modelIndex;
+    private final ShardedIndex<CompactApiInterface> apiIndex;
+    private final FieldIndex fieldIndex;
+
+    /**
+     * 构建索引时使用的配置
+     */
+    private final CatalogIndexing indexing;
+
+    /**
+     * 名称和关键词的拼音索引；堆内构建的分段随索引一起构建，映射的分段在首次使用时构建，避免启动时解码全部条目
+     */
+    private volatile PinyinIndex pinyinIndex;
+
+    /**
+     * 数据模型英文词典（关键词以及名称、描述中的英文单词），首次模糊匹配时构建
+     */
+    private volatile BkTree modelTerms;
+
+    /**
+     * 模型名称、API名称和关键词的前缀补全字典，首次补全时构建
+     */
+    private volatile CompletionTrie completions;
+
+    /**
+     * 全部条目的内容摘要，首次使用时计算，null表示尚未计算
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile ContentDigest contentDigest;
+
+    private CatalogSegment(Map<String, CompactDataModel> dataModels,
+                           Map<String, CompactApiInterface> apiInterfaces, CatalogIndexing indexing) {
+        this(dataModels, apiInterfaces,
+                ShardedIndex.build(dataModels.values(), CompactDataModel::getLowerName,
+                        CompactDataModel::getLowerDescription, CompactDataModel::lowerKeywords,
+                        indexing.synonyms(), indexing.partitioning()),
+                ShardedIndex.build(apiInterfaces.values(), CompactApiInterface::getLowerName,
+                        CompactApiInterface::getLowerDescription, CompactApiInterface::lowerKeywords,
+                        indexing.synonyms(), indexing.partitioning()),
+                FieldIndex.build(dataModels.values()), indexing);
+        this.pinyinIndex = buildPinyinIndex();
+    }
+
+    private CatalogSegment(Map<String, CompactDataModel> dataModels, Map<String, CompactApiInterface> apiInterfaces,
+                           ShardedIndex<CompactDataModel> modelIndex, ShardedIndex<CompactApiInterface> apiIndex,
+                           FieldIndex fieldIndex, CatalogIndexing indexing) {
+        this.dataModels = dataModels;
+        this.apiInterfaces = apiInterfaces;
+        this.modelIndex = modelIndex;
+        this.apiIndex = apiIndex;
+        this.fieldIndex = fieldIndex;
+        this.indexing = indexing;
+    }
+
+    /**
+     * 根据数据模型和API接口构建分段及其索引
+     *
+     * @param dataModels 按ID存放的数据模型，构建时复制
+     * @param apiInterfaces 按ID存放的API接口，构建时复制
+     * @param indexing 索引配置
+     * @return 构建好的分段
+     */
+    static CatalogSegment build(Map<String, CompactDataModel> dataModels,
+                                Map<String, CompactApiInterface> apiInterfaces, CatalogIndexing indexing) {
+        return new CatalogSegment(Collections.unmodifiableMap(new LinkedHashMap<>(dataModels)),
+                Collections.unmodifiableMap(new LinkedHashMap<>(apiInterfaces)), indexing);
+    }
+
+    /**
+     * 根据数据模型和API接口集合构建分段及其索引
+     */
+    static CatalogSegment build(Collection<CompactDataModel> dataModels,
+                                Collection<CompactApiInterface> apiInterfaces, CatalogIndexing indexing) {
+        Map<String, CompactDataModel> models = new LinkedHashMap<>();
+        dataModels.forEach(model -> models.put(model.getId(), model));
+        Map<String, CompactApiInterface> apis = new LinkedHashMap<>();
+        apiInterfaces.forEach(api -> apis.put(api.getId(), api));
+        return new CatalogSegment(Collections.unmodifiableMap(models), Collections.unmodifiableMap(apis), indexing);
+    }
+
+    /**
+     * 由目录镜像中读出的条目和索引组成分段，索引的文档编号必须与条目的遍历顺序一致
+     */
+    static CatalogSegment mapped(Map<String, CompactDataModel> dataModels,
+                                 Map<String, CompactApiInterface> apiInterfaces,
+                                 KeywordIndex<CompactDataModel> modelIndex, KeywordIndex<CompactApiInterface> apiIndex,
+                                 FieldIndex fieldIndex, CatalogIndexing indexing) {
+        return new CatalogSegment(dataModels, apiInterfaces, ShardedIndex.of(modelIndex), ShardedIndex.of(apiIndex),
+                fieldIndex, indexing);
+    }
+
+    /**
+     * 不分片的数据模型索引，用于写入目录镜像；索引分片时临时构建一个完整的索引
+     */
+    KeywordIndex<CompactDataModel> wholeModelIndex() {
+        return modelIndex.shardCount() == 1 ? modelIndex.single()
+                : KeywordIndex.build(dataModels.values(), CompactDataModel::getLowerName,
+                        CompactDataModel::getLowerDescription, CompactDataModel::lowerKeywords,
+                        indexing.synonyms());
+    }
+
+    /**
+     * 不分片的API接口索引，规则同 {@link #wholeModelIndex()}
+     */
+    KeywordIndex<CompactApiInterface> wholeApiIndex() {
+        return apiIndex.shardCount() == 1 ? apiIndex.single()
+                : KeywordIndex.build(apiInterfaces.values(), CompactApiInterface::getLowerName,
+                        CompactApiInterface::getLowerDescription, CompactApiInterface::lowerKeywords,
+                        indexing.synonyms());
+    }
+
+    /**
+     * 获取拼音索引
+     */
+    PinyinIndex getPinyinIndex() {
+        PinyinIndex index = pinyinIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = pinyinIndex;
+                if (index == null) {
+                    index = buildPinyinIndex();
+                    pinyinIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private PinyinIndex buildPinyinIndex() {
+        List<String> words = new ArrayList<>();
+        for (CompactDataModel model : dataModels.values()) {
+            words.add(model.getLowerName());
+            words.addAll(List.of(model.lowerKeywords()));
+        }
+        for (CompactApiInterface api : apiInterfaces.values()) {
+            words.add(api.getLowerName());
+            words.addAll(List.of(api.lowerKeywords()));
+        }
+        return PinyinIndex.build(words);
+    }
+
+    /**
+     * 获取数据模型英文词典
+     */
+    BkTree getModelTerms() {
+        BkTree terms = modelTerms;
+        if (terms == null) {
+            synchronized (this) {
+                terms = modelTerms;
+                if (terms == null) {
+                    terms = BkTree.build(modelWords());
+                    modelTerms = terms;
+                }
+            }
+        }
+        return terms;
+    }
+
+    private List<String> modelWords() {
+        List<String> words = new ArrayList<>();
+        for (CompactDataModel model : dataModels.values()) {
+            addWords(words, model.getLowerName());
+            addWords(words, model.getLowerDescription());
+            for (int i = 0; i < model.keywordCount(); i++) {
+                addWords(words, model.lowerKeyword(i));
+            }
+        }
+        return words;
+    }
+
+    private static void addWords(List<String> words, String text) {
+        for (String word : NON_LETTER.split(text)) {
+            if (FUZZY_WORD.matcher(word).matches()) {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * 获取前缀补全字典
+     * <p>
+     * 词条的权重按出现次数累加：名称同时是多个条目的关键词时（如"订单"），排在只出现一次的词条之前。
+     */
+    CompletionTrie getCompletions() {
+        CompletionTrie trie = completions;
+        if (trie == null) {
+            synchronized (this) {
+                trie = completions;
+                if (trie == null) {
+                    trie = CompletionTrie.build(completionEntries());
+                    completions = trie;
+                }
+            }
+        }
+        return trie;
+    }
+
+    private List<CompletionTrie.Entry> completionEntries() {
+        List<CompletionTrie.Entry> entries = new ArrayList<>();
+        for (CompactDataModel model : dataModels.values()) {
+            entries.add(new CompletionTrie.Entry(model.getName(), "model", model.getId(), MODEL_NAME_WEIGHT));
+            for (int i = 0; i < model.keywordCount(); i++) {
+                entries.add(new CompletionTrie.Entry(model.keyword(i), "keyword", null, KEYWORD_WEIGHT));
+            }
+        }
+        for (CompactApiInterface api : apiInterfaces.values()) {
+            entries.add(new CompletionTrie.Entry(api.getName(), "api", api.getId(), API_NAME_WEIGHT));
+            for (int i = 0; i < api.keywordCount(); i++) {
+                entries.add(new CompletionTrie.Entry(api.keyword(i), "keyword", null, KEYWORD_WEIGHT));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 预先构建旧分段上已经用到的词典和补全字典，用于合并得到的新基础分段，
+     * 使查询不必在合并后首次使用时承担全量构建
+     */
+    void warmUpLike(CatalogSegment previous) {
+        if (previous.modelTerms != null) {
+            getModelTerms();
+        }
+        if (previous.completions != null) {
+            getCompletions();
+        }
+    }
+
+    /**
+     * 全部条目的内容摘要，与条目顺序无关，见 {@link ContentDigest}
+     */
+    ContentDigest contentDigest() {
+        ContentDigest digest = contentDigest;
+        if (digest == null) {
+            digest = ContentDigest.ZERO;
+            for (CompactDataModel model : dataModels.values()) {
+                digest = digest.plus(ContentDigest.of(model));
+            }
+            for (CompactApiInterface api : apiInterfaces.values()) {
+                digest = digest.plus(ContentDigest.of(api));
+            }
+            contentDigest = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * 分段中的条目数量
+     */
+    int size() {
+        return dataModels.size() + apiInterfaces.size();
+    }
+}
@@ -0,0 +1,740 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.cache.LruCache;
+import donts.ai.tools.index.BkTree;
+import donts.ai.tools.index.CompletionTrie;
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ModelGraph;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.ContentDigest;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.KeywordDictionary;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 数据目录的不可变快照，包含数据模型、API接口以及基于它们构建的全部索引
+ * <p>
+ * 快照创建后不再修改，通过 {@link MockDataRepository} 中的原子引用整体发布。
+ * 读取方每次请求只取一次快照引用，之后的所有查询都基于同一个版本，无需加锁；
+ * 目录更新时在后台构建新的快照再整体替换，读取方不会看到构建到一半的数据。
+ * <p>
+ * 快照由基础分段、增量分段和删除标记组成：运行时注册、更新的条目写入增量分段并遮盖基础分段中的同ID条目，
+ * 删除的条目记录删除标记。新快照与旧快照共享基础分段，只重建增量分段，
+ * 增量积累到一定数量后再由仓库在后台合并为新的基础分段。
+ * <p>
+ * 快照内部只保存数据模型和API接口的紧凑表示（{@link CompactDataModel}、{@link CompactApiInterface}），
+ * 查询方法也返回紧凑表示，由调用方在构造对外响应时再转换为模型类。
+ * <p>
+ * 查询文本通过 {@link #normalizeQuery} 转换为词项：全角转半角、小写化，并把拼音词项（如"yonghu"）补充为目录中的汉字词，
+ * 转换结果按快照缓存，目录替换后随旧快照一起失效。
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * 参与模糊匹配的词：只由英文字母组成，中文等没有拼写错误的概念
+     */
+    private static final Pattern FUZZY_WORD = Pattern.compile("[a-z]{3,}");
+
+    /**
+     * 每个快照缓存的规范化查询数量
+     */
+    private static final int NORMALIZED_QUERY_CACHE_SIZE = 256;
+
+    /**
+     * 快照版本号，每次发布新快照时递增，可用于缓存失效判断
+     */
+    @Getter
+    private final long version;
+
+    /**
+     * 全量构建或合并得到的基础分段
+     */
+    private final CatalogSegment base;
+
+    /**
+     * 上次合并之后注册或更新的条目
+     */
+    private final CatalogSegment delta;
+
+    /**
+     * 从基础分段中删除的数据模型ID
+     */
+    private final Set<String> removedModelIds;
+
+    /**
+     * 从基础分段中删除的API接口ID
+     */
+    private final Set<String> removedApiIds;
+
+    /**
+     * 构建分段和查询使用的同义词词典和分片方式
+     */
+    @Getter
+    private final CatalogIndexing indexing;
+
+    /**
+     * 数据模型关系图，外键关系跨越全部模型，按本快照的全量数据构建
+     */
+    private volatile ModelGraph modelGraph;
+
+    /**
+     * 之前快照的关系图，本快照的关系图构建完成之前代替使用
+     */
+    private volatile ModelGraph previousGraph;
+
+    /**
+     * 目录的内容摘要，首次使用时计算，null表示尚未计算
+     */
+    private volatile ContentDigest contentDigest;
+
+    /**
+     * 查询文本到规范化词项的缓存，热点查询不必重复做宽度折叠和拼音查找
+     */
+    private final LruCache<String, String[]> normalizedQueries = new LruCache<>(NORMALIZED_QUERY_CACHE_SIZE);
+
+    private CatalogSnapshot(long version, CatalogSegment base, CatalogSegment delta,
+                            Set<String> removedModelIds, Set<String> removedApiIds, CatalogIndexing indexing) {
+        this.version = version;
+        this.base = base;
+        this.delta = delta;
+        this.removedModelIds = removedModelIds;
+        this.removedApiIds = removedApiIds;
+        this.indexing = indexing;
+    }
+
+    /**
+     * 根据数据模型和API接口构建快照及全部索引，模型类在构建时转换为紧凑表示，快照不持有传入的对象
+     *
+     * @param version 快照版本号
+     * @param dataModels 数据模型
+     * @param apiInterfaces API接口
+     * @param keywords 所在目录的关键词字典
+     * @param indexing 所在目录的索引配置
+     * @return 构建好的快照
+     */
+    public static CatalogSnapshot build(long version, Collection<DataModel> dataModels,
+                                        Collection<ApiInterface> apiInterfaces, KeywordDictionary keywords,
+                                        CatalogIndexing indexing) {
+        return buildCompact(version, dataModels.stream().map(model -> CompactDataModel.of(model, keywords)).toList(),
+                apiInterfaces.stream().map(api -> CompactApiInterface.of(api, keywords)).toList(), indexing);
+    }
+
+    /**
+     * 根据紧凑表示的数据模型和API接口构建快照及全部索引
+     */
+    static CatalogSnapshot buildCompact(long version, Collection<CompactDataModel> dataModels,
+                                        Collection<CompactApiInterface> apiInterfaces, CatalogIndexing indexing) {
+        return new CatalogSnapshot(version, CatalogSegment.build(dataModels, apiInterfaces, indexing),
+                CatalogSegment.EMPTY, Set.of(), Set.of(), indexing);
+    }
+
+    /**
+     * 以目录镜像中读出的分段作为基础分段创建快照
+     *
+     * @param version 快照版本号
+     * @param base 基础分段
+     * @param indexing 所在目录的索引配置，之后的增量分段和合并按该配置构建
+     * @return 快照
+     */
+    static CatalogSnapshot of(long version, CatalogSegment base, CatalogIndexing indexing) {
+        return new CatalogSnapshot(version, base, CatalogSegment.EMPTY, Set.of(), Set.of(), indexing);
+    }
+
+    /**
+     * 构建索引和规范化查询词项使用的同义词词典
+     */
+    public SynonymDictionary getSynonyms() {
+        return indexing.synonyms();
+    }
+
+    /**
+     * 基础分段是否位于堆外（映射的目录镜像或直接缓冲区），而不是堆内构建的对象
+     */
+    public boolean isOffHeap() {
+        return base.getDataModels() instanceof MappedEntries;
+    }
+
+    /**
+     * 根据ID获取数据模型
+     */
+    public CompactDataModel getDataModel(String id) {
+        CompactDataModel model = delta.getDataModels().get(id);
+        if (model != null || removedModelIds.contains(id)) {
+            return model;
+        }
+        return base.getDataModels().get(id);
+    }
+
+    /**
+     * 根据ID获取API接口
+     */
+    public CompactApiInterface getApiInterface(String id) {
+        CompactApiInterface api = delta.getApiInterfaces().get(id);
+        if (api != null || removedApiIds.contains(id)) {
+            return api;
+        }
+        return base.getApiInterfaces().get(id);
+    }
+
+    /**
+     * 获取全部数据模型，更新过的模型保持原来的位置，新注册的模型排在最后
+     */
+    public List<CompactDataModel> getAllDataModels() {
+        return merge(base.getDataModels(), delta.getDataModels(), removedModelIds);
+    }
+
+    /**
+     * 获取全部API接口，顺序规则同 {@link #getAllDataModels()}
+     */
+    public List<CompactApiInterface> getAllApiInterfaces() {
+        return merge(base.getApiInterfaces(), delta.getApiInterfaces(), removedApiIds);
+    }
+
+    /**
+     * 数据模型数量
+     */
+    public int getDataModelCount() {
+        return countVisible(base.getDataModels().keySet(), delta.getDataModels().keySet(), removedModelIds);
+    }
+
+    /**
+     * API接口数量
+     */
+    public int getApiInterfaceCount() {
+        return countVisible(base.getApiInterfaces().keySet(), delta.getApiInterfaces().keySet(), removedApiIds);
+    }
+
+    /**
+     * 查找名称、描述或关键词包含任一词项的数据模型
+     *
+     * @param terms 小写词项
+     * @return 匹配的数据模型，基础分段的结果在前
+     */
+    public List<CompactDataModel> matchDataModels(String[] terms) {
+        return matchAny(base.getModelIndex(), delta.getModelIndex(), terms, this::isVisibleModel);
+    }
+
+    /**
+     * 查找名称、描述或关键词包含任一词项的数据模型并计算匹配度，分数规则见 {@link KeywordIndex#score}
+     *
+     * @param terms 小写词项
+     * @return 命中结果，基础分段的结果在前，增量分段的文档编号排在基础分段之后
+     */
+    public List<KeywordIndex.Hit<CompactDataModel>> matchDataModelHits(String[] terms) {
+        List<KeywordIndex.Hit<CompactDataModel>> result = new ArrayList<>();
+        for (KeywordIndex.Hit<CompactDataModel> hit : base.getModelIndex().matchAnyHits(terms)) {
+            if (isVisibleModel(hit.document())) {
+                result.add(hit);
+            }
+        }
+        int offset = base.getModelIndex().size();
+        delta.getModelIndex().matchAnyHits(terms).forEach(hit ->
+                result.add(new KeywordIndex.Hit<>(hit.docId() + offset, hit.document(), hit.score())));
+        return result;
+    }
+
+    /**
+     * 批量查找数据模型，每组的结果与单独调用 {@link #matchDataModelHits(String[])} 相同，
+     * 批次内相同的词项在每个分段的倒排表上只查找一次，见 {@link KeywordIndex#matchAnyHits(List)}
+     *
+     * @param termGroups 各组小写词项
+     * @return 与各组一一对应的命中结果
+     */
+    public List<List<KeywordIndex.Hit<CompactDataModel>>> matchDataModelHits(List<String[]> termGroups) {
+        List<List<KeywordIndex.Hit<CompactDataModel>>> baseHits = base.getModelIndex().matchAnyHits(termGroups);
+        List<List<KeywordIndex.Hit<CompactDataModel>>> deltaHits = delta.getModelIndex().matchAnyHits(termGroups);
+        int offset = base.getModelIndex().size();
+        List<List<KeywordIndex.Hit<CompactDataModel>>> results = new ArrayList<>(termGroups.size());
+        for (int i = 0; i < termGroups.size(); i++) {
+            List<KeywordIndex.Hit<CompactDataModel>> result = new ArrayList<>();
+            for (KeywordIndex.Hit<CompactDataModel> hit : baseHits.get(i)) {
+                if (isVisibleModel(hit.document())) {
+                    result.add(hit);
+                }
+            }
+            deltaHits.get(i).forEach(hit ->
+                    result.add(new KeywordIndex.Hit<>(hit.docId() + offset, hit.document(), hit.score())));
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 查找名称、描述或关键词包含任一词项的API接口
+     *
+     * @param terms 小写词项
+     * @return 匹配的API接口，基础分段的结果在前
+     */
+    public List<CompactApiInterface> matchApiInterfaces(String[] terms) {
+        return matchAny(base.getApiIndex(), delta.getApiIndex(), terms, this::isVisibleApi);
+    }
+
+    /**
+     * 搜索匹配度最高的K个API接口，分别在基础分段和增量分段中取前K个后合并
+     *
+     * @param terms 小写词项
+     * @param k 返回数量
+     * @param filter API接口过滤条件
+     * @return 前K个结果和候选总数
+     */
+    public KeywordIndex.TopK<CompactApiInterface> searchApiInterfaces(String[] terms, int k, Predicate<CompactApiInterface> filter) {
+        return searchApiInterfaces(terms, k, filter, api -> 0);
+    }
+
+    /**
+     * 搜索匹配度最高的K个API接口，匹配度加上接口的先验加分，见 {@link KeywordIndex#search(String[], int, Predicate, ToIntFunction)}
+     */
+    public KeywordIndex.TopK<CompactApiInterface> searchApiInterfaces(String[] terms, int k, Predicate<CompactApiInterface> filter,
+                                                                      ToIntFunction<CompactApiInterface> prior) {
+        KeywordIndex.TopK<CompactApiInterface> baseTopK = base.getApiIndex()
+                .search(terms, k, api -> isVisibleApi(api) && filter.test(api), prior);
+        KeywordIndex.TopK<CompactApiInterface> deltaTopK = delta.getApiIndex().search(terms, k, filter, prior);
+        if (deltaTopK.totalHits() == 0) {
+            return baseTopK;
+        }
+
+        // 增量分段的文档编号排在基础分段之后，分数相同时基础分段优先
+        int offset = base.getApiIndex().size();
+        List<KeywordIndex.Hit<CompactApiInterface>> hits = new ArrayList<>(baseTopK.hits());
+        deltaTopK.hits().forEach(hit ->
+                hits.add(new KeywordIndex.Hit<>(hit.docId() + offset, hit.document(), hit.score())));
+        hits.sort(Comparator.<KeywordIndex.Hit<CompactApiInterface>>comparingInt(KeywordIndex.Hit::score).reversed()
+                .thenComparingInt(KeywordIndex.Hit::docId));
+        return new KeywordIndex.TopK<>(hits.subList(0, Math.min(k, hits.size())),
+                baseTopK.totalHits() + deltaTopK.totalHits());
+    }
+
+    /**
+     * 把查询文本转换为小写词项：全角字符转为半角后按空白切分，拼音词项补充拼音与之相符的目录词
+     * <p>
+     * 拼音在词项的子串上查找，"quxiaodingdan"会补充"取消"和"订单"；补充的词排在原词项之后。
+     * 结果被缓存并在调用方之间共享，调用方不能修改返回的数组。
+     *
+     * @param text 查询文本
+     * @return 规范化的词项
+     */
+    public String[] normalizeQuery(String text) {
+        return normalizedQueries.computeIfAbsent(text == null ? "" : text, this::normalize);
+    }
+
+    private String[] normalize(String text) {
+        String[] terms = KeywordIndex.tokenize(text);
+        Set<String> expanded = new LinkedHashSet<>(List.of(terms));
+        for (String term : terms) {
+            expanded.addAll(base.getPinyinIndex().lookup(term));
+            expanded.addAll(delta.getPinyinIndex().lookup(term));
+        }
+        return expanded.size() == terms.length ? terms : expanded.toArray(new String[0]);
+    }
+
+    /**
+     * 为拼写错误的英文词项补充数据模型词典中的相近词，用于扩大候选范围
+     * <p>
+     * 只处理至少3个字母、且不在词典中的英文词项；编辑距离上限取配置值和词项长度的三分之一中的较小者，
+     * 避免短词匹配到大量无关的词。补充的词排在原词项之后，原词项保持不变。
+     *
+     * @param terms 小写词项
+     * @param maxEditDistance 编辑距离上限，为0时不做模糊匹配
+     * @return 原词项加上补充的相近词，没有补充时返回原数组
+     */
+    public String[] withFuzzyModelTerms(String[] terms, int maxEditDistance) {
+        if (maxEditDistance <= 0) {
+            return terms;
+        }
+        Set<String> expanded = new LinkedHashSet<>(List.of(terms));
+        for (String term : terms) {
+            if (!FUZZY_WORD.matcher(term).matches()) {
+                continue;
+            }
+            List<BkTree.Match> matches = searchModelTerms(term, Math.min(maxEditDistance, term.length() / 3));
+            if (!matches.isEmpty() && matches.get(0).distance() == 0) {
+                continue;
+            }
+            matches.forEach(match -> expanded.add(match.term()));
+        }
+        return expanded.size() == terms.length ? terms : expanded.toArray(new String[0]);
+    }
+
+    /**
+     * 在基础分段和增量分段的英文词典中查找相近词，合并后按编辑距离和词排序
+     * <p>
+     * 基础分段的词典在合并之前保留被更新或删除的模型中的词，这些词仍可能被补充为查询词项；
+     * 补充的词只扩大候选范围，结果仍以可见的条目为准。
+     */
+    private List<BkTree.Match> searchModelTerms(String term, int maxDistance) {
+        List<BkTree.Match> matches = base.getModelTerms().search(term, maxDistance);
+        if (delta.getDataModels().isEmpty()) {
+            return matches;
+        }
+        Set<BkTree.Match> merged = new LinkedHashSet<>(matches);
+        merged.addAll(delta.getModelTerms().search(term, maxDistance));
+        List<BkTree.Match> result = new ArrayList<>(merged);
+        result.sort(Comparator.comparingInt(BkTree.Match::distance).thenComparing(BkTree.Match::term));
+        return result;
+    }
+
+    /**
+     * 查找以该前缀开头的补全词条，分别在基础分段和增量分段的补全字典中查找后合并，规则见 {@link CompletionTrie#merge}
+     * <p>
+     * 基础分段中被更新或删除的模型、API名称词条被剔除；关键词词条不带ID，合并之前保留基础分段中的权重，
+     * 条目更新后关键词的排序可能暂时偏离全量构建的结果，合并为新的基础分段后恢复。
+     *
+     * @param prefix 前缀
+     * @param limit 返回数量，不超过 {@link CompletionTrie#MAX_COMPLETIONS}
+     * @return 按权重降序排列的词条
+     */
+    public List<CompletionTrie.Entry> complete(String prefix, int limit) {
+        if (pendingChanges() == 0) {
+            return base.getCompletions().complete(prefix, limit);
+        }
+        List<CompletionTrie.Entry> entries = new ArrayList<>();
+        for (CompletionTrie.Entry entry : base.getCompletions().complete(prefix, CompletionTrie.MAX_COMPLETIONS)) {
+            if (!isHiddenCompletion(entry)) {
+                entries.add(entry);
+            }
+        }
+        entries.addAll(delta.getCompletions().complete(prefix, CompletionTrie.MAX_COMPLETIONS));
+        return CompletionTrie.merge(entries, Math.min(limit, CompletionTrie.MAX_COMPLETIONS));
+    }
+
+    /**
+     * 基础分段的补全词条是否指向已被增量分段遮盖或已删除的条目
+     */
+    private boolean isHiddenCompletion(CompletionTrie.Entry entry) {
+        if ("model".equals(entry.type())) {
+            return delta.getDataModels().containsKey(entry.id()) || removedModelIds.contains(entry.id());
+        }
+        if ("api".equals(entry.type())) {
+            return delta.getApiInterfaces().containsKey(entry.id()) || removedApiIds.contains(entry.id());
+        }
+        return false;
+    }
+
+    /**
+     * 按字段条件查找数据模型，参数含义见 {@link FieldIndex#search(String, String, String)}
+     */
+    public List<FieldIndex.FieldMatch> searchFields(String fieldName, String fieldType, String fieldDescription) {
+        List<FieldIndex.FieldMatch> result = new ArrayList<>();
+        for (FieldIndex.FieldMatch match : base.getFieldIndex().search(fieldName, fieldType, fieldDescription)) {
+            if (isVisibleModel(match.model())) {
+                result.add(match);
+            }
+        }
+        result.addAll(delta.getFieldIndex().search(fieldName, fieldType, fieldDescription));
+        return result;
+    }
+
+    /**
+     * 获取数据模型关系图
+     * <p>
+     * 关系图跨越全部模型，不能按分段拆分。本快照的关系图尚未构建时返回之前快照的关系图，
+     * 由仓库在后台构建本快照的关系图，因此注册或删除条目后关系查询可能短暂地反映变更之前的目录；
+     * 没有可用的旧关系图时当场构建。
+     */
+    public ModelGraph getModelGraph() {
+        ModelGraph graph = modelGraph;
+        if (graph != null) {
+            return graph;
+        }
+        ModelGraph previous = previousGraph;
+        return previous != null ? previous : buildModelGraph();
+    }
+
+    /**
+     * 按本快照的全量数据构建关系图，已构建时直接返回
+     */
+    ModelGraph buildModelGraph() {
+        ModelGraph graph = modelGraph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = modelGraph;
+                if (graph == null) {
+                    graph = ModelGraph.build(getAllDataModels(), getAllApiInterfaces());
+                    modelGraph = graph;
+                    previousGraph = null;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * 是否正在代替使用之前快照的关系图，需要在后台构建本快照的关系图
+     */
+    boolean isModelGraphStale() {
+        return modelGraph == null && previousGraph != null;
+    }
+
+    /**
+     * 本快照的关系图构建完成之前，代替使用之前快照的关系图
+     */
+    void inheritModelGraph(CatalogSnapshot previous) {
+        ModelGraph graph = previous.modelGraph;
+        previousGraph = graph != null ? graph : previous.previousGraph;
+    }
+
+    /**
+     * 目录的内容摘要，与版本号无关：内容相同的快照摘要相同，不论在哪个实例或租户上、经过怎样的变更得到，
+     * 可以作为跨实例共享的查询结果的键
+     * <p>
+     * 基础分段的摘要在首次使用时计算一次，之后每个快照只按增量分段和删除标记修正，代价与增量大小相关。
+     */
+    public ContentDigest contentDigest() {
+        ContentDigest digest = contentDigest;
+        if (digest == null) {
+            digest = base.contentDigest();
+            for (CompactDataModel model : delta.getDataModels().values()) {
+                CompactDataModel replaced = base.getDataModels().get(model.getId());
+                digest = digest.plus(ContentDigest.of(model));
+                digest = replaced == null ? digest : digest.minus(ContentDigest.of(replaced));
+            }
+            for (String id : removedModelIds) {
+                CompactDataModel removed = base.getDataModels().get(id);
+                digest = removed == null ? digest : digest.minus(ContentDigest.of(removed));
+            }
+            for (CompactApiInterface api : delta.getApiInterfaces().values()) {
+                CompactApiInterface replaced = base.getApiInterfaces().get(api.getId());
+                digest = digest.plus(ContentDigest.of(api));
+                digest = replaced == null ? digest : digest.minus(ContentDigest.of(replaced));
+            }
+            for (String id : removedApiIds) {
+                CompactApiInterface removed = base.getApiInterfaces().get(id);
+                digest = removed == null ? digest : digest.minus(ContentDigest.of(removed));
+            }
+            contentDigest = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * 基础分段，只在没有未合并变更时代表完整目录
+     */
+    CatalogSegment baseSegment() {
+        if (pendingChanges() > 0) {
+            throw new IllegalStateException("快照包含未合并的变更，版本: " + version);
+        }
+        return base;
+    }
+
+    /**
+     * 尚未合并到基础分段的变更数量
+     */
+    int pendingChanges() {
+        return delta.size() + removedModelIds.size() + removedApiIds.size();
+    }
+
+    /**
+     * 注册或更新数据模型，只重建增量分段
+     */
+    CatalogSnapshot withDataModel(long version, CompactDataModel model) {
+        Map<String, CompactDataModel> models = new LinkedHashMap<>(delta.getDataModels());
+        models.put(model.getId(), model);
+        return inherit(new CatalogSnapshot(version, base, CatalogSegment.build(models, delta.getApiInterfaces(), indexing),
+                without(removedModelIds, model.getId()), removedApiIds, indexing));
+    }
+
+    /**
+     * 删除数据模型，只重建增量分段
+     */
+    CatalogSnapshot withoutDataModel(long version, String modelId) {
+        Map<String, CompactDataModel> models = new LinkedHashMap<>(delta.getDataModels());
+        models.remove(modelId);
+        Set<String> removed = base.getDataModels().containsKey(modelId)
+                ? with(removedModelIds, modelId) : removedModelIds;
+        return inherit(new CatalogSnapshot(version, base, CatalogSegment.build(models, delta.getApiInterfaces(), indexing),
+                removed, removedApiIds, indexing));
+    }
+
+    /**
+     * 注册或更新API接口，只重建增量分段
+     */
+    CatalogSnapshot withApiInterface(long version, CompactApiInterface api) {
+        Map<String, CompactApiInterface> apis = new LinkedHashMap<>(delta.getApiInterfaces());
+        apis.put(api.getId(), api);
+        return inherit(new CatalogSnapshot(version, base, CatalogSegment.build(delta.getDataModels(), apis, indexing),
+                removedModelIds, without(removedApiIds, api.getId()), indexing));
+    }
+
+    /**
+     * 删除API接口，只重建增量分段
+     */
+    CatalogSnapshot withoutApiInterface(long version, String apiId) {
+        Map<String, CompactApiInterface> apis = new LinkedHashMap<>(delta.getApiInterfaces());
+        apis.remove(apiId);
+        Set<String> removed = base.getApiInterfaces().containsKey(apiId)
+                ? with(removedApiIds, apiId) : removedApiIds;
+        return inherit(new CatalogSnapshot(version, base, CatalogSegment.build(delta.getDataModels(), apis, indexing),
+                removedModelIds, removed, indexing));
+    }
+
+    /**
+     * 将增量分段和删除标记合并为新的基础分段
+     */
+    CatalogSnapshot compact(long version) {
+        return buildCompact(version, getAllDataModels(), getAllApiInterfaces(), indexing);
+    }
+
+    /**
+     * 预先构建之前的基础分段上已经用到的词典和补全字典，用于合并得到的快照
+     */
+    void warmUpLike(CatalogSnapshot previous) {
+        base.warmUpLike(previous.base);
+    }
+
+    /**
+     * 是否与另一个快照共享同一个基础分段
+     */
+    boolean sharesBase(CatalogSnapshot other) {
+        return base == other.base;
+    }
+
+    /**
+     * 把本快照相对于 since 的变更重放到合并得到的快照上，用于合并期间又发布了新变更的情况
+     * <p>
+     * 本快照与 since 必须共享基础分段，此时两者只可能在各自的增量分段和删除标记涉及的ID上不同，
+     * 重放的代价与增量大小相关。
+     *
+     * @param since 合并时使用的快照
+     * @param compacted 由 since 合并得到的快照
+     * @param version 新快照的版本号
+     * @return 以合并得到的基础分段为基础、内容与本快照相同的快照
+     */
+    CatalogSnapshot rebase(CatalogSnapshot since, CatalogSnapshot compacted, long version) {
+        Set<String> modelIds = new LinkedHashSet<>(since.delta.getDataModels().keySet());
+        modelIds.addAll(since.removedModelIds);
+        modelIds.addAll(delta.getDataModels().keySet());
+        modelIds.addAll(removedModelIds);
+        Map<String, CompactDataModel> models = new LinkedHashMap<>();
+        Set<String> removedModels = new HashSet<>();
+        for (String id : modelIds) {
+            CompactDataModel before = since.getDataModel(id);
+            CompactDataModel after = getDataModel(id);
+            if (!Objects.equals(after, before)) {
+                if (after != null) {
+                    models.put(id, after);
+                } else {
+                    removedModels.add(id);
+                }
+            }
+        }
+
+        Set<String> apiIds = new LinkedHashSet<>(since.delta.getApiInterfaces().keySet());
+        apiIds.addAll(since.removedApiIds);
+        apiIds.addAll(delta.getApiInterfaces().keySet());
+        apiIds.addAll(removedApiIds);
+        Map<String, CompactApiInterface> apis = new LinkedHashMap<>();
+        Set<String> removedApis = new HashSet<>();
+        for (String id : apiIds) {
+            CompactApiInterface before = since.getApiInterface(id);
+            CompactApiInterface after = getApiInterface(id);
+            if (!Objects.equals(after, before)) {
+                if (after != null) {
+                    apis.put(id, after);
+                } else {
+                    removedApis.add(id);
+                }
+            }
+        }
+        return new CatalogSnapshot(version, compacted.base, CatalogSegment.build(models, apis, indexing),
+                Collections.unmodifiableSet(removedModels), Collections.unmodifiableSet(removedApis), indexing);
+    }
+
+    private CatalogSnapshot inherit(CatalogSnapshot next) {
+        next.inheritModelGraph(this);
+        return next;
+    }
+
+    /**
+     * 基础分段中的数据模型是否可见；没有增量和删除标记时不必读取ID（堆外存储时读取ID需要解码）
+     */
+    private boolean isVisibleModel(CompactDataModel model) {
+        if (delta.getDataModels().isEmpty() && removedModelIds.isEmpty()) {
+            return true;
+        }
+        String id = model.getId();
+        return !delta.getDataModels().containsKey(id) && !removedModelIds.contains(id);
+    }
+
+    /**
+     * 基础分段中的API接口是否可见，规则同 {@link #isVisibleModel}
+     */
+    private boolean isVisibleApi(CompactApiInterface api) {
+        if (delta.getApiInterfaces().isEmpty() && removedApiIds.isEmpty()) {
+            return true;
+        }
+        String id = api.getId();
+        return !delta.getApiInterfaces().containsKey(id) && !removedApiIds.contains(id);
+    }
+
+    private static <T> List<T> matchAny(ShardedIndex<T> baseIndex, ShardedIndex<T> deltaIndex, String[] terms,
+                                        Predicate<T> visible) {
+        List<T> result = new ArrayList<>();
+        for (T document : baseIndex.matchAny(terms)) {
+            if (visible.test(document)) {
+                result.add(document);
+            }
+        }
+        result.addAll(deltaIndex.matchAny(terms));
+        return result;
+    }
+
+    private static <T> List<T> merge(Map<String, T> base, Map<String, T> delta, Set<String> removed) {
+        List<T> result = new ArrayList<>(base.size() + delta.size());
+        base.forEach((id, value) -> {
+            if (!removed.contains(id)) {
+                result.add(delta.getOrDefault(id, value));
+            }
+        });
+        delta.forEach((id, value) -> {
+            if (!base.containsKey(id)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    private static int countVisible(Set<String> base, Set<String> delta, Set<String> removed) {
+        int count = base.size() - removed.size();
+        for (String id : delta) {
+            if (!base.contains(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Set<String> with(Set<String> ids, String id) {
+        Set<String> copy = new HashSet<>(ids);
+        copy.add(id);
+        return Collections.unmodifiableSet(copy);
+    }
+
+    private static Set<String> without(Set<String> ids, String id) {
+        if (!ids.contains(id)) {
+            return ids;
+        }
+        Set<String> copy = new HashSet<>(ids);
+        copy.remove(id);
+        return Collections.unmodifiableSet(copy);
+    }
+}
@@ -0,0 +1,195 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.ImageInput;
+import donts.ai.tools.index.ImageOutput;
+import donts.ai.tools.index.StringTable;
+
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 目录镜像中的一组条目，以只读Map的形式按ID访问，条目在访问时由解码器创建（通常是直接读取镜像的享元视图）
+ * <p>
+ * 镜像中保存条目记录、每条记录的位置、每条记录的ID编号以及按ID排序的记录序号，
+ * 按ID查找时在排序的序号上二分（直接比较UTF-8字节，不解码ID），遍历时按写入顺序逐条解码。
+ *
+ * @param <T> 条目类型
+ */
+final class MappedEntries<T> extends AbstractMap<String, T> {
+
+    private final ImageInput records;
+    private final IntBuffer offsets;
+    private final IntBuffer idIds;
+    private final IntBuffer sortedOrdinals;
+    private final StringTable strings;
+    private final Decoder<T> decoder;
+
+    private MappedEntries(ImageInput records, IntBuffer offsets, IntBuffer idIds, IntBuffer sortedOrdinals,
+                          Decoder<T> decoder) {
+        this.records = records;
+        this.offsets = offsets;
+        this.idIds = idIds;
+        this.sortedOrdinals = sortedOrdinals;
+        this.strings = records.strings();
+        this.decoder = decoder;
+    }
+
+    /**
+     * 写入一组条目
+     *
+     * @param out 镜像写入器
+     * @param entries 按写入顺序排列的条目
+     * @param idFunction 条目ID
+     * @param encoder 条目编码器
+     */
+    static <T> void write(ImageOutput out, Collection<T> entries, Function<T, String> idFunction,
+                          BiConsumer<ImageOutput, T> encoder) {
+        int size = entries.size();
+        int[] offsets = new int[size];
+        int[] idIds = new int[size];
+        String[] ids = new String[size];
+        out.writeBlock(block -> {
+            int ordinal = 0;
+            for (T entry : entries) {
+                offsets[ordinal] = block.position();
+                ids[ordinal] = idFunction.apply(entry);
+                encoder.accept(block, entry);
+                ordinal++;
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            idIds[i] = out.stringId(ids[i]);
+        }
+        Integer[] sorted = new Integer[size];
+        Arrays.setAll(sorted, i -> i);
+        Arrays.sort(sorted, (a, b) -> StringTable.compareCodePoints(ids[a], ids[b]));
+
+        out.writeInts(offsets);
+        out.writeInts(idIds);
+        out.writeInts(Arrays.stream(sorted).mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * 读取 {@link #write} 写入的条目
+     */
+    static <T> MappedEntries<T> read(ImageInput in, Decoder<T> decoder) {
+        ImageInput records = in.readBlock();
+        return new MappedEntries<>(records, in.readInts(), in.readInts(), in.readInts(), decoder);
+    }
+
+    /**
+     * 按写入顺序访问条目的列表视图，与索引中的文档编号一致
+     */
+    List<T> asList() {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                return decode(index);
+            }
+
+            @Override
+            public int size() {
+                return offsets.limit();
+            }
+        };
+    }
+
+    @Override
+    public T get(Object key) {
+        int ordinal = find(key);
+        return ordinal < 0 ? null : decode(ordinal);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return offsets.limit();
+    }
+
+    @Override
+    public Set<Map.Entry<String, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, T>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < offsets.limit();
+                    }
+
+                    @Override
+                    public Map.Entry<String, T> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int ordinal = next++;
+                        return new SimpleImmutableEntry<>(strings.get(idIds.get(ordinal)), decode(ordinal));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return offsets.limit();
+            }
+        };
+    }
+
+    private T decode(int ordinal) {
+        return decoder.decode(records, offsets.get(ordinal));
+    }
+
+    private int find(Object key) {
+        if (!(key instanceof String id)) {
+            return -1;
+        }
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = sortedOrdinals.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int ordinal = sortedOrdinals.get(mid);
+            int cmp = strings.compare(idIds.get(ordinal), bytes);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 条目解码器
+     */
+    @FunctionalInterface
+    interface Decoder<T> {
+
+        /**
+         * @param block 条目记录所在的块
+         * @param position 条目记录在块内的位置
+         * @return 条目
+         */
+        T decode(ImageInput block, int position);
+    }
+}
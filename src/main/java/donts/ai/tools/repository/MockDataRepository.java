@@ -1,404 +1,849 @@
 package donts.ai.tools.repository;
 
+import cn.hutool.core.thread.ThreadUtil;
+import donts.ai.tools.cluster.ClusterTopology;
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ModelGraph;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
 import donts.ai.tools.model.ApiInterface;
-import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
 import donts.ai.tools.model.DataModel;
-import donts.ai.tools.model.ModelField;
+import donts.ai.tools.model.KeywordDictionary;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * 模拟数据仓库，用于存储和检索数据模型和API接口
+ * <p>
+ * 目录在内部以紧凑表示保存，按ID获取、列出全部等对外方法在返回时转换为模型类；
+ * 查找服务通过 {@link #getSnapshot()} 直接在紧凑表示上查询，只把最终结果转换为模型类。
+ * 多节点模式下加载目录后只保留按 {@link ClusterTopology} 分配给本节点的条目。
+ * 开启多租户后，本实例保存默认租户的共享目录，其他租户的目录通过 {@link #forTenant(String)} 获取，
+ * 各自独立发布快照和索引，由 {@link TenantCatalogs} 管理配额以及冷租户换出到磁盘。
  */
+@Slf4j
 @Repository
 public class MockDataRepository {
     
-    private final Map<String, DataModel> dataModels = new HashMap<>();
-    private final Map<String, ApiInterface> apiInterfaces = new HashMap<>();
+    /**
+     * 增量分段中未合并的变更超过该数量时，在后台合并为新的基础分段
+     */
+    private static final int COMPACT_THRESHOLD = 1024;
+    
+    /**
+     * 不附加前置条件的写入
+     */
+    private static final Function<CatalogSnapshot, String> NO_CHECK = current -> null;
+    
+    /**
+     * 默认的目录文件位置，内置用户、订单、商品三组示例数据
+     */
+    public static final String DEFAULT_CATALOG_LOCATION = "classpath*:catalog/*";
+    
+    /**
+     * 默认的同义词文件位置
+     */
+    public static final String DEFAULT_SYNONYMS_LOCATION = "classpath:synonyms.txt";
+    
+    /**
+     * 默认租户，未指定用户或未开启多租户时使用共享目录
+     */
+    public static final String DEFAULT_TENANT = "system";
+    
+    /**
+     * 目录文件位置，支持 classpath*: 和 file: 路径模式
+     */
+    @Value("${catalog.location:" + DEFAULT_CATALOG_LOCATION + "}")
+    private String catalogLocation = DEFAULT_CATALOG_LOCATION;
+    
+    /**
+     * 目录镜像文件路径，为空时不使用镜像
+     * <p>
+     * 启动时若镜像存在且与目录文件一致，直接映射镜像提供查询；否则从目录文件加载，发布后写入镜像供下次启动使用。
+     */
+    @Value("${catalog.snapshot-file:}")
+    private String snapshotFile = "";
+    
+    /**
+     * 是否把目录的基础分段保存在堆外直接缓冲区中
+     * <p>
+     * 开启后全量构建和合并得到的基础分段编码为与目录镜像相同的格式并复制到堆外，数据模型和API接口通过享元视图读取，
+     * 堆内只保留少量视图对象，适合几十万条API接口的大目录；增量分段仍在堆内。映射的目录镜像本身就位于堆外。
+     */
+    @Value("${catalog.off-heap:false}")
+    private boolean offHeap;
+    
+    /**
+     * 同义词文件位置，为空时不使用同义词
+     * <p>
+     * 加载后作为本目录的 {@link SynonymDictionary} 随快照传递，构建索引时关键词替换为规范词，查询时补充规范词。
+     */
+    @Value("${catalog.synonyms:" + DEFAULT_SYNONYMS_LOCATION + "}")
+    private String synonymsLocation = DEFAULT_SYNONYMS_LOCATION;
+    
+    /**
+     * 按关键词查找数据模型时，拼写错误的英文词项允许的最大编辑距离，为0时关闭模糊匹配
+     */
+    @Getter
+    @Value("${catalog.fuzzy.max-edit-distance:2}")
+    private int fuzzyMaxEditDistance = 2;
+    
+    /**
+     * 关键词索引的分片数量，不大于1时不分片
+     * <p>
+     * 分片后每次查询在多个分片上并行生成候选和打分，再合并各分片的前K个结果，适合单次查询耗时较长的大目录。
+     * 只对堆内构建的基础分段生效，开启堆外存储或映射目录镜像时不分片。
+     */
+    @Value("${catalog.shards.count:1}")
+    private int shardCount = 1;
+    
+    /**
+     * 条目数量达到该值时才分片，较小的目录在调用线程上直接查询，不承担任务派发的开销
+     */
+    @Value("${catalog.shards.parallel-threshold:20000}")
+    private int shardParallelThreshold = 20000;
+    
+    /**
+     * 执行分片查询的线程数，为0时使用公共的 {@link ForkJoinPool}
+     */
+    @Value("${catalog.shards.parallelism:0}")
+    private int shardParallelism;
+    
+    /**
+     * 独立的分片线程池，使用公共线程池时为null
+     */
+    private ForkJoinPool shardPool;
+    
+    /**
+     * 本目录的同义词词典和分片方式，加载目录时创建；租户目录沿用共享目录的配置
+     */
+    @Getter
+    private CatalogIndexing indexing = CatalogIndexing.DEFAULT;
+    
+    /**
+     * 是否按请求的用户ID为每个租户维护独立的目录，关闭时所有请求共用本实例的目录
+     */
+    @Value("${catalog.tenants.enabled:false}")
+    private boolean tenantsEnabled;
+    
+    /**
+     * 新租户的目录是否以共享目录为初始内容，继承的条目只在租户修改时复制
+     */
+    @Value("${catalog.tenants.inherit-shared:true}")
+    private boolean tenantsInheritShared = true;
+    
+    /**
+     * 常驻内存的租户数量上限，超出时最久未访问的租户目录写入磁盘并从内存中移除
+     */
+    @Value("${catalog.tenants.max-resident:16}")
+    private int maxResidentTenants = 16;
+    
+    /**
+     * 每个租户目录中数据模型和API接口的总数上限（包括继承自共享目录的条目），为0时不限制
+     */
+    @Value("${catalog.tenants.max-entries:50000}")
+    private int tenantMaxEntries = 50000;
+    
+    /**
+     * 换出的租户目录镜像所在目录，为空时使用临时目录
+     */
+    @Value("${catalog.tenants.spill-dir:}")
+    private String tenantSpillDir = "";
+    
+    /**
+     * 本实例所属的租户
+     */
+    @Getter
+    private String tenantId = DEFAULT_TENANT;
+    
+    /**
+     * 本实例的条目数量上限，为0时不限制；共享目录不限制
+     */
+    private int maxEntries;
+    
+    /**
+     * 租户目录是否已换出到磁盘，换出后的实例拒绝写入
+     */
+    private volatile boolean evicted;
+    
+    /**
+     * 各租户的目录，未开启多租户时为null
+     */
+    private TenantCatalogs tenants;
+    
+    /**
+     * 多节点模式下的目录分区方式，未注入时本节点保存全部条目
+     */
+    @Autowired(required = false)
+    private ClusterTopology clusterTopology;
+    
+    /**
+     * 本目录条目共用的关键词字典，每个租户目录各自持有，不被其他租户的写入撑大
+     */
+    private final KeywordDictionary keywordDictionary = new KeywordDictionary();
+    
+    /**
+     * 当前发布的目录快照，读取方无锁访问
+     */
+    private final AtomicReference<CatalogSnapshot> snapshot =
+            new AtomicReference<>(CatalogSnapshot.buildCompact(0, List.of(), List.of(), CatalogIndexing.DEFAULT));
+    
+    /**
+     * 发布新快照时使用的写锁，保证版本号按发布顺序递增
+     */
+    private final Object publishLock = new Object();
+    
+    /**
+     * 在后台重建目录快照的线程
+     */
+    private final ExecutorService reloadExecutor =
+            Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("catalog-reload-", true));
+    
+    /**
+     * 是否已安排后台合并，避免重复提交
+     */
+    private final AtomicBoolean compactScheduled = new AtomicBoolean();
+    
+    /**
+     * 是否已安排后台构建关系图，避免重复提交
+     */
+    private final AtomicBoolean graphScheduled = new AtomicBoolean();
     
     @PostConstruct
     public void init() {
-        // 初始化一些模拟数据
-        initializeUserModel();
-        initializeOrderModel();
-        initializeProductModel();
-    }
-    
-    private void initializeUserModel() {
-        // 创建用户模型
-        List<ModelField> userFields = new ArrayList<>();
-        userFields.add(new ModelField("id", "String", "用户ID", true, null, "u123456"));
-        userFields.add(new ModelField("username", "String", "用户名", true, null, "zhangsan"));
-        userFields.add(new ModelField("email", "String", "电子邮箱", true, null, "zhangsan@example.com"));
-        userFields.add(new ModelField("phone", "String", "手机号码", false, null, "13800138000"));
-        userFields.add(new ModelField("age", "Integer", "年龄", false, null, "28"));
-        userFields.add(new ModelField("createTime", "Date", "创建时间", false, "当前时间", "2025-03-28T10:00:00"));
-        
-        DataModel userModel = new DataModel(
-                "model_user",
-                "用户",
-                "系统用户数据模型，包含用户基本信息",
-                userFields,
-                List.of("api_user_get", "api_user_create", "api_user_update", "api_user_delete"),
-                List.of("用户", "客户", "会员", "账号", "user", "customer", "account")
-        );
-        
-        dataModels.put(userModel.getId(), userModel);
-        
-        // 创建用户相关API
-        // 1. 获取用户API
-        List<ApiParameter> getUserParams = new ArrayList<>();
-        getUserParams.add(new ApiParameter("userId", "String", "用户ID", true, "path", null, "u123456", "id"));
-        
-        ApiInterface getUserApi = new ApiInterface(
-                "api_user_get",
-                "获取用户信息",
-                "根据用户ID获取用户详细信息",
-                "/api/users/{userId}",
-                "GET",
-                getUserParams,
-                "UserDTO",
-                "model_user",
-                List.of("获取", "查询", "用户", "get", "query", "user")
-        );
-        
-        apiInterfaces.put(getUserApi.getId(), getUserApi);
-        
-        // 2. 创建用户API
-        List<ApiParameter> createUserParams = new ArrayList<>();
-        createUserParams.add(new ApiParameter("username", "String", "用户名", true, "body", null, "zhangsan", "username"));
-        createUserParams.add(new ApiParameter("email", "String", "电子邮箱", true, "body", null, "zhangsan@example.com", "email"));
-        createUserParams.add(new ApiParameter("phone", "String", "手机号码", false, "body", null, "13800138000", "phone"));
-        createUserParams.add(new ApiParameter("age", "Integer", "年龄", false, "body", null, "28", "age"));
-        
-        ApiInterface createUserApi = new ApiInterface(
-                "api_user_create",
-                "创建用户",
-                "创建新用户",
-                "/api/users",
-                "POST",
-                createUserParams,
-                "UserDTO",
-                "model_user",
-                List.of("创建", "新建", "添加", "用户", "create", "add", "user")
-        );
-        
-        apiInterfaces.put(createUserApi.getId(), createUserApi);
-        
-        // 3. 更新用户API
-        List<ApiParameter> updateUserParams = new ArrayList<>();
-        updateUserParams.add(new ApiParameter("userId", "String", "用户ID", true, "path", null, "u123456", "id"));
-        updateUserParams.add(new ApiParameter("email", "String", "电子邮箱", false, "body", null, "zhangsan@example.com", "email"));
-        updateUserParams.add(new ApiParameter("phone", "String", "手机号码", false, "body", null, "13800138000", "phone"));
-        updateUserParams.add(new ApiParameter("age", "Integer", "年龄", false, "body", null, "28", "age"));
-        
-        ApiInterface updateUserApi = new ApiInterface(
-                "api_user_update",
-                "更新用户信息",
-                "根据用户ID更新用户信息",
-                "/api/users/{userId}",
-                "PUT",
-                updateUserParams,
-                "UserDTO",
-                "model_user",
-                List.of("更新", "修改", "编辑", "用户", "update", "edit", "user")
-        );
-        
-        apiInterfaces.put(updateUserApi.getId(), updateUserApi);
-        
-        // 4. 删除用户API
-        List<ApiParameter> deleteUserParams = new ArrayList<>();
-        deleteUserParams.add(new ApiParameter("userId", "String", "用户ID", true, "path", null, "u123456", "id"));
-        
-        ApiInterface deleteUserApi = new ApiInterface(
-                "api_user_delete",
-                "删除用户",
-                "根据用户ID删除用户",
-                "/api/users/{userId}",
-                "DELETE",
-                deleteUserParams,
-                "Boolean",
-                "model_user",
-                List.of("删除", "移除", "用户", "delete", "remove", "user")
-        );
-        
-        apiInterfaces.put(deleteUserApi.getId(), deleteUserApi);
-    }
-    
-    private void initializeOrderModel() {
-        // 创建订单模型
-        List<ModelField> orderFields = new ArrayList<>();
-        orderFields.add(new ModelField("id", "String", "订单ID", true, null, "o987654"));
-        orderFields.add(new ModelField("userId", "String", "用户ID", true, null, "u123456"));
-        orderFields.add(new ModelField("totalAmount", "Double", "订单总金额", true, null, "299.99"));
-        orderFields.add(new ModelField("status", "String", "订单状态", true, "待支付", "待支付"));
-        orderFields.add(new ModelField("createTime", "Date", "创建时间", false, "当前时间", "2025-03-28T10:00:00"));
-        orderFields.add(new ModelField("payTime", "Date", "支付时间", false, null, "2025-03-28T10:15:00"));
-        
-        DataModel orderModel = new DataModel(
-                "model_order",
-                "订单",
-                "用户订单数据模型，包含订单基本信息",
-                orderFields,
-                List.of("api_order_get", "api_order_create", "api_order_update", "api_order_cancel"),
-                List.of("订单", "购买", "交易", "order", "purchase", "transaction")
-        );
-        
-        dataModels.put(orderModel.getId(), orderModel);
-        
-        // 创建订单相关API
-        // 1. 获取订单API
-        List<ApiParameter> getOrderParams = new ArrayList<>();
-        getOrderParams.add(new ApiParameter("orderId", "String", "订单ID", true, "path", null, "o987654", "id"));
-        
-        ApiInterface getOrderApi = new ApiInterface(
-                "api_order_get",
-                "获取订单信息",
-                "根据订单ID获取订单详细信息",
-                "/api/orders/{orderId}",
-                "GET",
-                getOrderParams,
-                "OrderDTO",
-                "model_order",
-                List.of("获取", "查询", "订单", "get", "query", "order")
-        );
-        
-        apiInterfaces.put(getOrderApi.getId(), getOrderApi);
-        
-        // 2. 创建订单API
-        List<ApiParameter> createOrderParams = new ArrayList<>();
-        createOrderParams.add(new ApiParameter("userId", "String", "用户ID", true, "body", null, "u123456", "userId"));
-        createOrderParams.add(new ApiParameter("products", "List", "商品列表", true, "body", null, "[{\"productId\":\"p123\",\"quantity\":2}]", null));
-        
-        ApiInterface createOrderApi = new ApiInterface(
-                "api_order_create",
-                "创建订单",
-                "创建新订单",
-                "/api/orders",
-                "POST",
-                createOrderParams,
-                "OrderDTO",
-                "model_order",
-                List.of("创建", "新建", "添加", "订单", "create", "add", "order")
-        );
-        
-        apiInterfaces.put(createOrderApi.getId(), createOrderApi);
-        
-        // 3. 更新订单API
-        List<ApiParameter> updateOrderParams = new ArrayList<>();
-        updateOrderParams.add(new ApiParameter("orderId", "String", "订单ID", true, "path", null, "o987654", "id"));
-        updateOrderParams.add(new ApiParameter("status", "String", "订单状态", false, "body", null, "已支付", "status"));
-        
-        ApiInterface updateOrderApi = new ApiInterface(
-                "api_order_update",
-                "更新订单信息",
-                "根据订单ID更新订单信息",
-                "/api/orders/{orderId}",
-                "PUT",
-                updateOrderParams,
-                "OrderDTO",
-                "model_order",
-                List.of("更新", "修改", "编辑", "订单", "update", "edit", "order")
-        );
-        
-        apiInterfaces.put(updateOrderApi.getId(), updateOrderApi);
-        
-        // 4. 取消订单API
-        List<ApiParameter> cancelOrderParams = new ArrayList<>();
-        cancelOrderParams.add(new ApiParameter("orderId", "String", "订单ID", true, "path", null, "o987654", "id"));
-        cancelOrderParams.add(new ApiParameter("reason", "String", "取消原因", false, "query", null, "商品缺货", null));
-        
-        ApiInterface cancelOrderApi = new ApiInterface(
-                "api_order_cancel",
-                "取消订单",
-                "根据订单ID取消订单",
-                "/api/orders/{orderId}/cancel",
-                "POST",
-                cancelOrderParams,
-                "Boolean",
-                "model_order",
-                List.of("取消", "撤销", "订单", "cancel", "revoke", "order")
-        );
-        
-        apiInterfaces.put(cancelOrderApi.getId(), cancelOrderApi);
-    }
-    
-    private void initializeProductModel() {
-        // 创建商品模型
-        List<ModelField> productFields = new ArrayList<>();
-        productFields.add(new ModelField("id", "String", "商品ID", true, null, "p123456"));
-        productFields.add(new ModelField("name", "String", "商品名称", true, null, "智能手机"));
-        productFields.add(new ModelField("price", "Double", "商品价格", true, null, "3999.00"));
-        productFields.add(new ModelField("stock", "Integer", "库存数量", true, "0", "100"));
-        productFields.add(new ModelField("category", "String", "商品类别", false, null, "电子产品"));
-        productFields.add(new ModelField("description", "String", "商品描述", false, null, "最新款智能手机，性能强劲"));
-        
-        DataModel productModel = new DataModel(
-                "model_product",
-                "商品",
-                "商品数据模型，包含商品基本信息",
-                productFields,
-                List.of("api_product_get", "api_product_list", "api_product_create", "api_product_update"),
-                List.of("商品", "产品", "货物", "product", "goods", "item")
-        );
-        
-        dataModels.put(productModel.getId(), productModel);
-        
-        // 创建商品相关API
-        // 1. 获取商品API
-        List<ApiParameter> getProductParams = new ArrayList<>();
-        getProductParams.add(new ApiParameter("productId", "String", "商品ID", true, "path", null, "p123456", "id"));
-        
-        ApiInterface getProductApi = new ApiInterface(
-                "api_product_get",
-                "获取商品信息",
-                "根据商品ID获取商品详细信息",
-                "/api/products/{productId}",
-                "GET",
-                getProductParams,
-                "ProductDTO",
-                "model_product",
-                List.of("获取", "查询", "商品", "get", "query", "product")
-        );
-        
-        apiInterfaces.put(getProductApi.getId(), getProductApi);
-        
-        // 2. 商品列表API
-        List<ApiParameter> listProductParams = new ArrayList<>();
-        listProductParams.add(new ApiParameter("category", "String", "商品类别", false, "query", null, "电子产品", "category"));
-        listProductParams.add(new ApiParameter("page", "Integer", "页码", false, "query", "1", "1", null));
-        listProductParams.add(new ApiParameter("size", "Integer", "每页数量", false, "query", "10", "10", null));
-        
-        ApiInterface listProductApi = new ApiInterface(
-                "api_product_list",
-                "获取商品列表",
-                "获取商品列表，支持分页和类别过滤",
-                "/api/products",
-                "GET",
-                listProductParams,
-                "Page<ProductDTO>",
-                "model_product",
-                List.of("列表", "查询", "商品", "list", "query", "product")
-        );
-        
-        apiInterfaces.put(listProductApi.getId(), listProductApi);
-        
-        // 3. 创建商品API
-        List<ApiParameter> createProductParams = new ArrayList<>();
-        createProductParams.add(new ApiParameter("name", "String", "商品名称", true, "body", null, "智能手机", "name"));
-        createProductParams.add(new ApiParameter("price", "Double", "商品价格", true, "body", null, "3999.00", "price"));
-        createProductParams.add(new ApiParameter("stock", "Integer", "库存数量", true, "body", "0", "100", "stock"));
-        createProductParams.add(new ApiParameter("category", "String", "商品类别", false, "body", null, "电子产品", "category"));
-        createProductParams.add(new ApiParameter("description", "String", "商品描述", false, "body", null, "最新款智能手机，性能强劲", "description"));
-        
-        ApiInterface createProductApi = new ApiInterface(
-                "api_product_create",
-                "创建商品",
-                "创建新商品",
-                "/api/products",
-                "POST",
-                createProductParams,
-                "ProductDTO",
-                "model_product",
-                List.of("创建", "新建", "添加", "商品", "create", "add", "product")
-        );
+        CatalogLoader loader = new CatalogLoader();
+        SynonymDictionary synonyms = loader.loadSynonyms(synonymsLocation);
+        indexing = new CatalogIndexing(synonyms, partitioning());
+        Path imageFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        // 镜像中的关键词索引按同义词规范化，同义词变化后镜像同样失效
+        long fingerprint = imageFile == null ? 0 : 31 * loader.fingerprint(catalogLocation) + synonyms.fingerprint();
+        // 镜像只包含本节点的分区，分区方式变化后镜像同样失效
+        if (clusterTopology != null) {
+            fingerprint = 31 * fingerprint + clusterTopology.fingerprint();
+        }
         
-        apiInterfaces.put(createProductApi.getId(), createProductApi);
+        // 优先映射与目录文件一致的镜像，无需解析文件和重建索引
+        if (imageFile != null) {
+            CatalogSnapshot mapped = CatalogImage.open(imageFile, fingerprint, 1, indexing);
+            if (mapped != null) {
+                synchronized (publishLock) {
+                    snapshot.set(mapped);
+                }
+                log.info("映射数据目录镜像: {}, 数据模型: {}, API接口: {}",
+                        imageFile, mapped.getDataModelCount(), mapped.getApiInterfaceCount());
+                initTenants();
+                return;
+            }
+        }
         
-        // 4. 更新商品API
-        List<ApiParameter> updateProductParams = new ArrayList<>();
-        updateProductParams.add(new ApiParameter("productId", "String", "商品ID", true, "path", null, "p123456", "id"));
-        updateProductParams.add(new ApiParameter("name", "String", "商品名称", false, "body", null, "智能手机", "name"));
-        updateProductParams.add(new ApiParameter("price", "Double", "商品价格", false, "body", null, "3999.00", "price"));
-        updateProductParams.add(new ApiParameter("stock", "Integer", "库存数量", false, "body", null, "100", "stock"));
-        updateProductParams.add(new ApiParameter("category", "String", "商品类别", false, "body", null, "电子产品", "category"));
-        updateProductParams.add(new ApiParameter("description", "String", "商品描述", false, "body", null, "最新款智能手机，性能强劲", "description"));
+        // 从目录文件加载模拟数据
+        CatalogLoader.CatalogData data = loader.load(catalogLocation);
         
-        ApiInterface updateProductApi = new ApiInterface(
-                "api_product_update",
-                "更新商品信息",
-                "根据商品ID更新商品信息",
-                "/api/products/{productId}",
-                "PUT",
-                updateProductParams,
-                "ProductDTO",
-                "model_product",
-                List.of("更新", "修改", "编辑", "商品", "update", "edit", "product")
-        );
+        // 数据加载完成后构建索引并发布
+        CatalogSnapshot published = publish(data.dataModels(), data.apiInterfaces());
         
-        apiInterfaces.put(updateProductApi.getId(), updateProductApi);
+        // 写入镜像供下次启动使用，失败不影响本次启动
+        if (imageFile != null) {
+            try {
+                CatalogImage.write(imageFile, fingerprint, published);
+            } catch (IOException | RuntimeException e) {
+                log.warn("写入数据目录镜像失败: {}", imageFile, e);
+            }
+        }
+        initTenants();
+    }
+    
+    /**
+     * 开启多租户时创建租户目录的管理器
+     */
+    private void initTenants() {
+        if (!tenantsEnabled) {
+            return;
+        }
+        try {
+            Path spillDir = tenantSpillDir == null || tenantSpillDir.isBlank() ? null : Path.of(tenantSpillDir);
+            tenants = new TenantCatalogs(this, tenantsInheritShared, maxResidentTenants, spillDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("创建租户目录的换出目录失败: " + tenantSpillDir, e);
+        }
+        log.info("开启多租户目录，常驻租户上限: {}, 每个租户条目上限: {}", maxResidentTenants, tenantMaxEntries);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+        if (tenants != null) {
+            tenants.close();
+        }
+        if (shardPool != null) {
+            shardPool.shutdownNow();
+        }
+    }
+    
+    /**
+     * 关键词索引的分片配置，堆外存储的基础分段不分片
+     */
+    private ShardedIndex.Partitioning partitioning() {
+        if (shardCount <= 1) {
+            return ShardedIndex.Partitioning.NONE;
+        }
+        if (offHeap) {
+            log.warn("开启堆外存储时关键词索引不分片，忽略分片数量: {}", shardCount);
+            return ShardedIndex.Partitioning.NONE;
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (shardParallelism > 0) {
+            shardPool = new ForkJoinPool(shardParallelism);
+            pool = shardPool;
+        }
+        log.info("关键词索引分片: {}, 分片阈值: {}, 并行度: {}", shardCount, shardParallelThreshold, pool.getParallelism());
+        return new ShardedIndex.Partitioning(shardCount, shardParallelThreshold, pool);
+    }
+    
+    /**
+     * 获取用户所属租户的目录
+     * <p>
+     * 未开启多租户、用户ID为空或为默认租户时返回本实例；否则返回该租户独立的目录，已换出到磁盘的租户在此时重新映射。
+     * 同一次请求中应只获取一次并基于它完成所有查询和修改。
+     * 
+     * @param userId 请求中的用户ID
+     * @return 租户的目录
+     */
+    public MockDataRepository forTenant(String userId) {
+        if (tenants == null || userId == null || userId.isBlank() || DEFAULT_TENANT.equals(userId)) {
+            return this;
+        }
+        return tenants.catalog(userId);
+    }
+    
+    /**
+     * 本目录和常驻内存的各租户目录的当前快照，按租户索引；不载入换出的租户
+     */
+    public Map<String, CatalogSnapshot> residentSnapshots() {
+        Map<String, CatalogSnapshot> snapshots = tenants == null ? new HashMap<>() : tenants.residentSnapshots();
+        snapshots.put(tenantId, snapshot.get());
+        return snapshots;
+    }
+    
+    /**
+     * 创建租户的目录实例，以给定快照为初始内容，不加载目录文件
+     * 
+     * @param tenantId 租户
+     * @param initial 初始快照
+     * @return 租户的目录
+     */
+    MockDataRepository newTenantCatalog(String tenantId, CatalogSnapshot initial) {
+        MockDataRepository catalog = new MockDataRepository();
+        catalog.tenantId = tenantId;
+        catalog.maxEntries = tenantMaxEntries;
+        catalog.offHeap = offHeap;
+        catalog.fuzzyMaxEditDistance = fuzzyMaxEditDistance;
+        catalog.clusterTopology = clusterTopology;
+        catalog.indexing = indexing;
+        catalog.snapshot.set(initial);
+        return catalog;
+    }
+    
+    /**
+     * 把租户目录的当前快照交给换出操作，之后本实例拒绝写入
+     * <p>
+     * 在写锁内标记，换出前已开始的写入都包含在返回的快照中，不会丢失。
+     * 
+     * @return 换出时的快照
+     */
+    CatalogSnapshot evict() {
+        synchronized (publishLock) {
+            evicted = true;
+            reloadExecutor.shutdown();
+            return snapshot.get();
+        }
+    }
+    
+    /**
+     * 在写锁内检查本实例是否允许写入，以及写入后的条目数量是否超过租户配额
+     * 
+     * @param current 当前快照
+     * @param added 新增的条目数量
+     */
+    private void checkWritable(CatalogSnapshot current, int added) {
+        if (evicted) {
+            throw new IllegalStateException("租户目录已换出，请重试: " + tenantId);
+        }
+        int entries = current.getDataModelCount() + current.getApiInterfaceCount() + added;
+        if (maxEntries > 0 && added > 0 && entries > maxEntries) {
+            throw new IllegalStateException("租户 " + tenantId + " 的目录条目数量超过配额: " + maxEntries);
+        }
+    }
+    
+    /**
+     * 在写锁内对被替换的快照检查写入的前置条件
+     */
+    private static void require(CatalogSnapshot current, Function<CatalogSnapshot, String> check) {
+        String error = check.apply(current);
+        if (error != null) {
+            throw new CatalogConflictException(error);
+        }
+    }
+    
+    /**
+     * 多节点模式下只接受分配给本节点的条目，否则同一条目会出现在多个节点上，按模型转发的查询也找不到它
+     * 
+     * @param id 条目ID
+     * @param partitionKey 决定所属节点的键，规则同 {@link ClusterTopology#ownsApi}
+     */
+    private void checkOwned(String id, String partitionKey) {
+        if (clusterTopology == null || !clusterTopology.isEnabled()) {
+            return;
+        }
+        String owner = clusterTopology.ownerOfModel(partitionKey);
+        if (!owner.equals(clusterTopology.getSelf())) {
+            throw new IllegalStateException("条目 " + id + " 属于节点 " + owner + "，请在该节点上提交");
+        }
+    }
+    
+    /**
+     * 在后台线程中用新的目录数据重建快照和索引，构建完成后原子替换当前快照
+     * <p>
+     * 构建期间读取方继续使用旧快照，不会被阻塞。
+     * 
+     * @param dataModels 新的数据模型全集
+     * @param apiInterfaces 新的API接口全集
+     * @return 新快照的版本号
+     */
+    public CompletableFuture<Long> reloadAsync(Collection<DataModel> dataModels, Collection<ApiInterface> apiInterfaces) {
+        List<DataModel> models = List.copyOf(dataModels);
+        List<ApiInterface> apis = List.copyOf(apiInterfaces);
+        return CompletableFuture.supplyAsync(() -> publish(models, apis).getVersion(), reloadExecutor);
+    }
+    
+    /**
+     * 注册或更新数据模型，只重建增量分段的索引，代价与增量大小相关而与目录总规模无关
+     * 
+     * @param model 数据模型
+     * @return 新快照的版本号
+     */
+    public long putDataModel(DataModel model) {
+        return putDataModel(model, NO_CHECK);
+    }
+    
+    /**
+     * 注册或更新数据模型，更新时未提供关联API列表则保留原有列表
+     * <p>
+     * 前置条件在写锁内对被替换的快照检查，检查与发布之间不会插入其他变更。
+     * 
+     * @param model 数据模型
+     * @param check 前置条件，返回错误消息时放弃写入并抛出 {@link CatalogConflictException}
+     * @return 新快照的版本号
+     */
+    public long putDataModel(DataModel model, Function<CatalogSnapshot, String> check) {
+        checkOwned(model.getId(), model.getId());
+        CompactDataModel compact = CompactDataModel.of(model, keywordDictionary);
+        return apply(current -> {
+            require(current, check);
+            CompactDataModel existing = current.getDataModel(compact.getId());
+            checkWritable(current, existing == null ? 1 : 0);
+            CompactDataModel next = existing != null && compact.getRelatedApiIds() == null
+                    ? compact.withRelatedApiIds(existing.getRelatedApiIds(), keywordDictionary) : compact;
+            return current.withDataModel(current.getVersion() + 1, next);
+        });
+    }
+    
+    /**
+     * 删除数据模型
+     * 
+     * @param modelId 数据模型ID
+     * @return 新快照的版本号
+     */
+    public long removeDataModel(String modelId) {
+        return removeDataModel(modelId, NO_CHECK);
+    }
+    
+    /**
+     * 删除数据模型，前置条件的规则同 {@link #putDataModel(DataModel, Function)}
+     */
+    public long removeDataModel(String modelId, Function<CatalogSnapshot, String> check) {
+        return apply(current -> {
+            require(current, check);
+            checkWritable(current, 0);
+            return current.withoutDataModel(current.getVersion() + 1, modelId);
+        });
+    }
+    
+    /**
+     * 注册或更新API接口，只重建增量分段的索引
+     * <p>
+     * 同一次发布中维护所属数据模型的关联API列表，读取方不会看到接口与模型不一致的中间状态。
+     * 
+     * @param api API接口
+     * @return 新快照的版本号
+     */
+    public long putApiInterface(ApiInterface apiInterface) {
+        return putApiInterface(apiInterface, NO_CHECK);
+    }
+    
+    /**
+     * 注册或更新API接口，前置条件的规则同 {@link #putDataModel(DataModel, Function)}
+     */
+    public long putApiInterface(ApiInterface apiInterface, Function<CatalogSnapshot, String> check) {
+        checkOwned(apiInterface.getId(), apiInterface.getRelatedModelId() != null
+                ? apiInterface.getRelatedModelId() : apiInterface.getId());
+        CompactApiInterface api = CompactApiInterface.of(apiInterface, keywordDictionary);
+        return apply(current -> {
+            require(current, check);
+            long version = current.getVersion() + 1;
+            CatalogSnapshot next = current;
+            CompactApiInterface previous = current.getApiInterface(api.getId());
+            checkWritable(current, previous == null ? 1 : 0);
+            if (previous != null && !Objects.equals(previous.getRelatedModelId(), api.getRelatedModelId())) {
+                next = unlinkApi(next, version, previous);
+            }
+            return linkApi(next.withApiInterface(version, api), version, api);
+        });
+    }
+    
+    /**
+     * 删除API接口，并从所属数据模型的关联API列表中移除
+     * 
+     * @param apiId API接口ID
+     * @return 新快照的版本号
+     */
+    public long removeApiInterface(String apiId) {
+        return removeApiInterface(apiId, NO_CHECK);
+    }
+    
+    /**
+     * 删除API接口，前置条件的规则同 {@link #putDataModel(DataModel, Function)}
+     */
+    public long removeApiInterface(String apiId, Function<CatalogSnapshot, String> check) {
+        return apply(current -> {
+            require(current, check);
+            checkWritable(current, 0);
+            long version = current.getVersion() + 1;
+            CompactApiInterface previous = current.getApiInterface(apiId);
+            CatalogSnapshot next = previous == null ? current : unlinkApi(current, version, previous);
+            return next.withoutApiInterface(version, apiId);
+        });
+    }
+    
+    /**
+     * 将API接口加入所属数据模型的关联API列表
+     */
+    private CatalogSnapshot linkApi(CatalogSnapshot current, long version, CompactApiInterface api) {
+        CompactDataModel model = api.getRelatedModelId() == null ? null : current.getDataModel(api.getRelatedModelId());
+        if (model == null || (model.getRelatedApiIds() != null && model.getRelatedApiIds().contains(api.getId()))) {
+            return current;
+        }
+        List<String> apiIds = model.getRelatedApiIds() == null
+                ? new ArrayList<>() : new ArrayList<>(model.getRelatedApiIds());
+        apiIds.add(api.getId());
+        return current.withDataModel(version, model.withRelatedApiIds(apiIds, keywordDictionary));
+    }
+    
+    /**
+     * 从所属数据模型的关联API列表中移除API接口
+     */
+    private CatalogSnapshot unlinkApi(CatalogSnapshot current, long version, CompactApiInterface api) {
+        CompactDataModel model = api.getRelatedModelId() == null ? null : current.getDataModel(api.getRelatedModelId());
+        if (model == null || model.getRelatedApiIds() == null || !model.getRelatedApiIds().contains(api.getId())) {
+            return current;
+        }
+        List<String> apiIds = new ArrayList<>(model.getRelatedApiIds());
+        apiIds.remove(api.getId());
+        return current.withDataModel(version, model.withRelatedApiIds(apiIds, keywordDictionary));
+    }
+    
+    /**
+     * 基于当前快照生成并发布新快照，增量过多时安排后台合并
+     */
+    private long apply(Function<CatalogSnapshot, CatalogSnapshot> change) {
+        CatalogSnapshot next;
+        synchronized (publishLock) {
+            next = change.apply(snapshot.get());
+            snapshot.set(next);
+        }
+        log.debug("发布数据目录增量快照，版本: {}, 未合并变更: {}", next.getVersion(), next.pendingChanges());
+        if (next.pendingChanges() >= COMPACT_THRESHOLD && compactScheduled.compareAndSet(false, true)
+                && !schedule(this::compact)) {
+            compactScheduled.set(false);
+        }
+        scheduleModelGraph(next);
+        return next.getVersion();
+    }
+    
+    /**
+     * 新快照沿用旧的关系图时，安排在后台为届时的当前快照构建关系图；连续写入只构建最后一个快照的关系图
+     */
+    private void scheduleModelGraph(CatalogSnapshot next) {
+        if (next.isModelGraphStale() && graphScheduled.compareAndSet(false, true)
+                && !schedule(() -> {
+                    graphScheduled.set(false);
+                    CatalogSnapshot current = snapshot.get();
+                    if (current.isModelGraphStale()) {
+                        current.buildModelGraph();
+                    }
+                })) {
+            graphScheduled.set(false);
+        }
+    }
+    
+    /**
+     * 安排后台维护任务，目录已换出或已关闭时放弃
+     * <p>
+     * 调用时写入已经发布，后台线程被 {@link #evict} 或 {@link #shutdown} 关闭后不能再让提交失败；
+     * 在 {@link #evict} 使用的写锁内检查，并兜底处理关闭与提交之间的竞争。
+     * 
+     * @return 是否已安排
+     */
+    private boolean schedule(Runnable task) {
+        synchronized (publishLock) {
+            if (evicted) {
+                return false;
+            }
+            try {
+                reloadExecutor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                log.debug("后台线程已关闭，放弃维护任务: {}", tenantId);
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * 将增量分段合并为新的基础分段
+     * <p>
+     * 全量构建在写锁之外进行，期间的写入照常发布；构建完成后在写锁内把期间发布的变更重放到新的基础分段上再替换，
+     * 写锁只持有与增量大小相关的时间。期间目录被整体替换时放弃本次合并。
+     */
+    private void compact() {
+        compactScheduled.set(false);
+        CatalogSnapshot source = snapshot.get();
+        if (evicted || source.pendingChanges() == 0) {
+            return;
+        }
+        CatalogSnapshot compacted = store(source.compact(source.getVersion()));
+        compacted.warmUpLike(source);
+        synchronized (publishLock) {
+            CatalogSnapshot current = snapshot.get();
+            if (evicted || !current.sharesBase(source)) {
+                return;
+            }
+            CatalogSnapshot next = current.rebase(source, compacted, current.getVersion() + 1);
+            next.inheritModelGraph(current);
+            snapshot.set(next);
+            log.info("合并数据目录增量，版本: {}, 合并变更: {}, 合并期间的变更: {}",
+                    next.getVersion(), source.pendingChanges(), next.pendingChanges());
+        }
+        scheduleModelGraph(snapshot.get());
+    }
+    
+    /**
+     * 在后台线程中把一批数据模型和API接口合并进当前目录，ID相同的条目被替换，然后重建基础分段
+     * <p>
+     * 适用于批量导入。与 {@link #compact} 相同，全量构建在写锁之外进行，读取方和其他写入方不被阻塞；
+     * 构建完成后在写锁内把期间发布的变更重放到新的基础分段上再替换，期间对同一条目的写入优先于导入的内容。
+     * 期间目录被整体替换时基于新目录重新构建。多节点模式下与 {@link #publish} 相同，只保留分配给本节点的条目，
+     * 因此批量导入需要提交到每个节点。
+     * 
+     * @param dataModels 导入的数据模型
+     * @param apiInterfaces 导入的API接口
+     * @return 新快照的版本号
+     */
+    public CompletableFuture<Long> mergeAsync(Collection<DataModel> dataModels, Collection<ApiInterface> apiInterfaces) {
+        List<CompactDataModel> models = ownedModels(dataModels).stream()
+                .map(model -> CompactDataModel.of(model, keywordDictionary)).toList();
+        List<CompactApiInterface> apis = ownedApis(apiInterfaces).stream()
+                .map(api -> CompactApiInterface.of(api, keywordDictionary)).toList();
+        return CompletableFuture.supplyAsync(() -> {
+            while (true) {
+                CatalogSnapshot source = snapshot.get();
+                Map<String, CompactDataModel> mergedModels = new LinkedHashMap<>();
+                source.getAllDataModels().forEach(model -> mergedModels.put(model.getId(), model));
+                models.forEach(model -> mergedModels.put(model.getId(), model));
+                Map<String, CompactApiInterface> mergedApis = new LinkedHashMap<>();
+                source.getAllApiInterfaces().forEach(api -> mergedApis.put(api.getId(), api));
+                apis.forEach(api -> mergedApis.put(api.getId(), api));
+                checkWritable(source, mergedModels.size() + mergedApis.size()
+                        - source.getDataModelCount() - source.getApiInterfaceCount());
+                CatalogSnapshot merged = store(CatalogSnapshot.buildCompact(source.getVersion(),
+                        mergedModels.values(), mergedApis.values(), indexing));
+                synchronized (publishLock) {
+                    CatalogSnapshot current = snapshot.get();
+                    if (!current.sharesBase(source)) {
+                        continue;
+                    }
+                    CatalogSnapshot next = current.rebase(source, merged, current.getVersion() + 1);
+                    checkWritable(current, next.getDataModelCount() + next.getApiInterfaceCount()
+                            - current.getDataModelCount() - current.getApiInterfaceCount());
+                    snapshot.set(next);
+                    log.info("发布数据目录快照，版本: {}, 数据模型: {}, API接口: {}",
+                            next.getVersion(), next.getDataModelCount(), next.getApiInterfaceCount());
+                    return next.getVersion();
+                }
+            }
+        }, reloadExecutor);
+    }
+    
+    /**
+     * 构建并发布新快照
+     */
+    private CatalogSnapshot publish(Collection<DataModel> dataModels, Collection<ApiInterface> apiInterfaces) {
+        dataModels = ownedModels(dataModels);
+        apiInterfaces = ownedApis(apiInterfaces);
+        synchronized (publishLock) {
+            checkWritable(snapshot.get(), 0);
+            CatalogSnapshot next = store(CatalogSnapshot.build(snapshot.get().getVersion() + 1,
+                    dataModels, apiInterfaces, keywordDictionary, indexing));
+            snapshot.set(next);
+            log.info("发布数据目录快照，版本: {}, 数据模型: {}, API接口: {}",
+                    next.getVersion(), next.getDataModelCount(), next.getApiInterfaceCount());
+            return next;
+        }
+    }
+    
+    /**
+     * 多节点模式下分配给本节点的数据模型
+     */
+    private Collection<DataModel> ownedModels(Collection<DataModel> dataModels) {
+        if (clusterTopology == null || !clusterTopology.isEnabled()) {
+            return dataModels;
+        }
+        return dataModels.stream().filter(clusterTopology::ownsModel).toList();
+    }
+    
+    /**
+     * 多节点模式下分配给本节点的API接口
+     */
+    private Collection<ApiInterface> ownedApis(Collection<ApiInterface> apiInterfaces) {
+        if (clusterTopology == null || !clusterTopology.isEnabled()) {
+            return apiInterfaces;
+        }
+        return apiInterfaces.stream().filter(clusterTopology::ownsApi).toList();
+    }
+    
+    /**
+     * 按存储模式处理新构建的全量快照，堆外模式下把基础分段复制到直接缓冲区
+     */
+    private CatalogSnapshot store(CatalogSnapshot built) {
+        return offHeap && !built.isOffHeap() ? CatalogImage.offHeap(built) : built;
+    }
+    
+    /**
+     * 获取当前目录快照，同一次请求中应只获取一次并基于它完成所有查询
+     */
+    public CatalogSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+    
+    /**
+     * 获取当前目录版本号，版本变化说明目录已被替换，相关缓存应失效
+     */
+    public long getCatalogVersion() {
+        return snapshot.get().getVersion();
     }
     
     /**
      * 根据ID获取数据模型
      */
     public DataModel getDataModelById(String id) {
-        return dataModels.get(id);
+        CompactDataModel model = snapshot.get().getDataModel(id);
+        return model == null ? null : model.toDataModel();
     }
     
     /**
      * 获取所有数据模型
      */
     public List<DataModel> getAllDataModels() {
-        return new ArrayList<>(dataModels.values());
+        return snapshot.get().getAllDataModels().stream()
+                .map(CompactDataModel::toDataModel)
+                .collect(Collectors.toList());
     }
     
     /**
      * 根据关键词搜索数据模型
      */
     public List<DataModel> searchDataModelsByKeywords(String keywords) {
-        String[] keywordArray = keywords.toLowerCase().split("\\s+");
-        
-        return dataModels.values().stream()
-                .filter(model -> {
-                    // 检查模型名称、描述和关键词是否匹配搜索关键词
-                    String modelText = model.getName().toLowerCase() + " " + 
-                                      model.getDescription().toLowerCase() + " " + 
-                                      String.join(" ", model.getKeywords()).toLowerCase();
-                    
-                    for (String keyword : keywordArray) {
-                        if (modelText.contains(keyword)) {
-                            return true;
-                        }
-                    }
-                    
-                    return false;
-                })
+        // 检查模型名称、描述和关键词是否匹配搜索关键词，拼写错误的英文词项补充词典中的相近词
+        CatalogSnapshot catalog = snapshot.get();
+        String[] terms = catalog.withFuzzyModelTerms(catalog.normalizeQuery(keywords), fuzzyMaxEditDistance);
+        return catalog.matchDataModels(terms).stream()
+                .map(CompactDataModel::toDataModel)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 按字段条件查找数据模型
+     */
+    public List<FieldIndex.FieldMatch> searchDataModelsByFields(String fieldName, String fieldType, String fieldDescription) {
+        return snapshot.get().searchFields(fieldName, fieldType, fieldDescription);
+    }
+    
+    /**
+     * 获取数据模型关系图
+     */
+    public ModelGraph getModelGraph() {
+        return snapshot.get().getModelGraph();
+    }
+    
     /**
      * 根据ID获取API接口
      */
     public ApiInterface getApiInterfaceById(String id) {
-        return apiInterfaces.get(id);
+        CompactApiInterface api = snapshot.get().getApiInterface(id);
+        return api == null ? null : api.toApiInterface();
     }
     
     /**
      * 获取所有API接口
      */
     public List<ApiInterface> getAllApiInterfaces() {
-        return new ArrayList<>(apiInterfaces.values());
+        return snapshot.get().getAllApiInterfaces().stream()
+                .map(CompactApiInterface::toApiInterface)
+                .collect(Collectors.toList());
     }
     
     /**
      * 根据数据模型ID获取相关的API接口
      */
     public List<ApiInterface> getApiInterfacesByModelId(String modelId) {
-        DataModel model = dataModels.get(modelId);
+        CatalogSnapshot current = snapshot.get();
+        CompactDataModel model = current.getDataModel(modelId);
         if (model == null || model.getRelatedApiIds() == null) {
             return new ArrayList<>();
         }
         
         return model.getRelatedApiIds().stream()
-                .map(apiInterfaces::get)
+                .map(current::getApiInterface)
                 .filter(api -> api != null)
+                .map(CompactApiInterface::toApiInterface)
                 .collect(Collectors.toList());
     }
     
@@ -406,23 +851,18 @@ public class MockDataRepository {
      * 根据关键词搜索API接口
      */
     public List<ApiInterface> searchApiInterfacesByKeywords(String keywords) {
-        String[] keywordArray = keywords.toLowerCase().split("\\s+");
-        
-        return apiInterfaces.values().stream()
-                .filter(api -> {
-                    // 检查API名称、描述和关键词是否匹配搜索关键词
-                    String apiText = api.getName().toLowerCase() + " " + 
-                                    api.getDescription().toLowerCase() + " " + 
-                                    String.join(" ", api.getKeywords()).toLowerCase();
-                    
-                    for (String keyword : keywordArray) {
-                        if (apiText.contains(keyword)) {
-                            return true;
-                        }
-                    }
-                    
-                    return false;
-                })
+        // 检查API名称、描述和关键词是否匹配搜索关键词
+        CatalogSnapshot catalog = snapshot.get();
+        return catalog.matchApiInterfaces(catalog.normalizeQuery(keywords)).stream()
+                .map(CompactApiInterface::toApiInterface)
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * 搜索匹配度最高的K个API接口
+     */
+    public KeywordIndex.TopK<CompactApiInterface> searchApiInterfaces(String[] terms, int k,
+                                                                      Predicate<CompactApiInterface> filter) {
+        return snapshot.get().searchApiInterfaces(terms, k, filter);
+    }
 }
@@ -0,0 +1,199 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.ImageInput;
+import donts.ai.tools.index.ImageOutput;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactApiParameter;
+import donts.ai.tools.model.HttpMethod;
+import donts.ai.tools.model.ParameterLocation;
+import donts.ai.tools.model.ValueType;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * 目录镜像中API接口记录的享元视图，访问方法按固定布局直接从（映射的或直接分配的）缓冲区读取
+ * <p>
+ * 记录布局：ID、名称、小写名称、描述、小写描述、路径、请求方法序号、请求方法原文、响应类型、关联模型ID、
+ * 参数数、关键词数共12个整数，其后依次为每个参数的10个整数（名称、类型序号、类型原文、描述、是否必填、
+ * 位置序号、位置原文、默认值、示例值、对应模型字段），以及每个关键词的原文和小写形式。
+ * 字符串均为字符串表编号，数量为-1表示null。过滤和打分只读取需要的字段，参数列表在访问时按需解码。
+ */
+final class OffHeapApiInterface extends CompactApiInterface {
+
+    private static final int ID = 0;
+    private static final int NAME = 4;
+    private static final int LOWER_NAME = 8;
+    private static final int DESCRIPTION = 12;
+    private static final int LOWER_DESCRIPTION = 16;
+    private static final int PATH = 20;
+    private static final int METHOD = 24;
+    private static final int RAW_METHOD = 28;
+    private static final int RESPONSE_TYPE = 32;
+    private static final int RELATED_MODEL_ID = 36;
+    private static final int PARAMETER_COUNT = 40;
+    private static final int KEYWORD_COUNT = 44;
+    private static final int HEADER_LENGTH = 48;
+    private static final int PARAMETER_LENGTH = 10 * 4;
+
+    private static final ValueType[] VALUE_TYPES = ValueType.values();
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+    private static final ParameterLocation[] LOCATIONS = ParameterLocation.values();
+
+    private final ImageInput block;
+    private final int position;
+
+    OffHeapApiInterface(ImageInput block, int position) {
+        this.block = block;
+        this.position = position;
+    }
+
+    /**
+     * 按本类的布局写入API接口记录
+     */
+    static void write(ImageOutput out, CompactApiInterface api) {
+        List<CompactApiParameter> parameters = api.getParameters();
+        out.writeString(api.getId());
+        out.writeString(api.getName());
+        out.writeString(api.getLowerName());
+        out.writeString(api.getDescription());
+        out.writeString(api.getLowerDescription());
+        out.writeString(api.getPath());
+        CatalogImage.writeEnum(out, api.getMethod());
+        out.writeString(api.getRawMethod());
+        out.writeString(api.getResponseType());
+        out.writeString(api.getRelatedModelId());
+        out.writeInt(parameters == null ? -1 : parameters.size());
+        out.writeInt(api.getKeywords() == null ? -1 : api.keywordCount());
+        if (parameters != null) {
+            for (CompactApiParameter parameter : parameters) {
+                out.writeString(parameter.getName());
+                CatalogImage.writeEnum(out, parameter.getType());
+                out.writeString(parameter.getRawType());
+                out.writeString(parameter.getDescription());
+                out.writeInt(parameter.isRequired() ? 1 : 0);
+                CatalogImage.writeEnum(out, parameter.getLocation());
+                out.writeString(parameter.getRawLocation());
+                out.writeString(parameter.getDefaultValue());
+                out.writeString(parameter.getExampleValue());
+                out.writeString(parameter.getModelFieldName());
+            }
+        }
+        for (int i = 0; i < api.keywordCount(); i++) {
+            out.writeString(api.keyword(i));
+            out.writeString(api.lowerKeyword(i));
+        }
+    }
+
+    @Override
+    public String getId() {
+        return block.stringAt(position + ID);
+    }
+
+    @Override
+    public String getName() {
+        return block.stringAt(position + NAME);
+    }
+
+    @Override
+    public String getLowerName() {
+        return block.stringAt(position + LOWER_NAME);
+    }
+
+    @Override
+    public String getDescription() {
+        return block.stringAt(position + DESCRIPTION);
+    }
+
+    @Override
+    public String getLowerDescription() {
+        return block.stringAt(position + LOWER_DESCRIPTION);
+    }
+
+    @Override
+    public String getPath() {
+        return block.stringAt(position + PATH);
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+        return CatalogImage.enumOf(block.intAt(position + METHOD), HTTP_METHODS);
+    }
+
+    @Override
+    public String getRawMethod() {
+        return block.stringAt(position + RAW_METHOD);
+    }
+
+    @Override
+    public List<CompactApiParameter> getParameters() {
+        int count = block.intAt(position + PARAMETER_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public CompactApiParameter get(int index) {
+                int at = position + HEADER_LENGTH + index * PARAMETER_LENGTH;
+                return new CompactApiParameter(block.stringAt(at),
+                        CatalogImage.enumOf(block.intAt(at + 4), VALUE_TYPES), block.stringAt(at + 8),
+                        block.stringAt(at + 12), block.intAt(at + 16) != 0,
+                        CatalogImage.enumOf(block.intAt(at + 20), LOCATIONS), block.stringAt(at + 24),
+                        block.stringAt(at + 28), block.stringAt(at + 32), block.stringAt(at + 36));
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public String getResponseType() {
+        return block.stringAt(position + RESPONSE_TYPE);
+    }
+
+    @Override
+    public String getRelatedModelId() {
+        return block.stringAt(position + RELATED_MODEL_ID);
+    }
+
+    @Override
+    public List<String> getKeywords() {
+        int count = block.intAt(position + KEYWORD_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return keyword(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public int keywordCount() {
+        return Math.max(block.intAt(position + KEYWORD_COUNT), 0);
+    }
+
+    @Override
+    public String keyword(int i) {
+        return block.stringAt(keywordsPosition() + i * 8);
+    }
+
+    @Override
+    public String lowerKeyword(int i) {
+        return block.stringAt(keywordsPosition() + i * 8 + 4);
+    }
+
+    private int keywordsPosition() {
+        return position + HEADER_LENGTH + Math.max(block.intAt(position + PARAMETER_COUNT), 0) * PARAMETER_LENGTH;
+    }
+}
@@ -0,0 +1,186 @@
+package donts.ai.tools.repository;
+
+import donts.ai.tools.index.ImageInput;
+import donts.ai.tools.index.ImageOutput;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.CompactModelField;
+import donts.ai.tools.model.ValueType;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * 目录镜像中数据模型记录的享元视图，访问方法按固定布局直接从（映射的或直接分配的）缓冲区读取
+ * <p>
+ * 记录布局：ID、名称、小写名称、描述、小写描述、字段数、关联API数、关键词数共8个整数，
+ * 其后依次为每个字段的7个整数（名称、类型序号、类型原文、描述、是否必填、默认值、示例值）、
+ * 关联API ID，以及每个关键词的原文和小写形式。字符串均为字符串表编号，数量为-1表示null。
+ * 视图本身只持有块和位置，字段列表等在访问时按需解码。
+ */
+final class OffHeapDataModel extends CompactDataModel {
+
+    private static final int ID = 0;
+    private static final int NAME = 4;
+    private static final int LOWER_NAME = 8;
+    private static final int DESCRIPTION = 12;
+    private static final int LOWER_DESCRIPTION = 16;
+    private static final int FIELD_COUNT = 20;
+    private static final int RELATED_API_COUNT = 24;
+    private static final int KEYWORD_COUNT = 28;
+    private static final int HEADER_LENGTH = 32;
+    private static final int FIELD_LENGTH = 7 * 4;
+
+    private static final ValueType[] VALUE_TYPES = ValueType.values();
+
+    private final ImageInput block;
+    private final int position;
+
+    OffHeapDataModel(ImageInput block, int position) {
+        this.block = block;
+        this.position = position;
+    }
+
+    /**
+     * 按本类的布局写入数据模型记录
+     */
+    static void write(ImageOutput out, CompactDataModel model) {
+        List<CompactModelField> fields = model.getFields();
+        List<String> relatedApiIds = model.getRelatedApiIds();
+        out.writeString(model.getId());
+        out.writeString(model.getName());
+        out.writeString(model.getLowerName());
+        out.writeString(model.getDescription());
+        out.writeString(model.getLowerDescription());
+        out.writeInt(fields == null ? -1 : fields.size());
+        out.writeInt(relatedApiIds == null ? -1 : relatedApiIds.size());
+        out.writeInt(model.getKeywords() == null ? -1 : model.keywordCount());
+        if (fields != null) {
+            for (CompactModelField field : fields) {
+                out.writeString(field.getName());
+                CatalogImage.writeEnum(out, field.getType());
+                out.writeString(field.getRawType());
+                out.writeString(field.getDescription());
+                out.writeInt(field.isRequired() ? 1 : 0);
+                out.writeString(field.getDefaultValue());
+                out.writeString(field.getExampleValue());
+            }
+        }
+        if (relatedApiIds != null) {
+            relatedApiIds.forEach(out::writeString);
+        }
+        for (int i = 0; i < model.keywordCount(); i++) {
+            out.writeString(model.keyword(i));
+            out.writeString(model.lowerKeyword(i));
+        }
+    }
+
+    @Override
+    public String getId() {
+        return block.stringAt(position + ID);
+    }
+
+    @Override
+    public String getName() {
+        return block.stringAt(position + NAME);
+    }
+
+    @Override
+    public String getLowerName() {
+        return block.stringAt(position + LOWER_NAME);
+    }
+
+    @Override
+    public String getDescription() {
+        return block.stringAt(position + DESCRIPTION);
+    }
+
+    @Override
+    public String getLowerDescription() {
+        return block.stringAt(position + LOWER_DESCRIPTION);
+    }
+
+    @Override
+    public List<CompactModelField> getFields() {
+        int count = block.intAt(position + FIELD_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public CompactModelField get(int index) {
+                int at = position + HEADER_LENGTH + index * FIELD_LENGTH;
+                return new CompactModelField(block.stringAt(at),
+                        CatalogImage.enumOf(block.intAt(at + 4), VALUE_TYPES), block.stringAt(at + 8),
+                        block.stringAt(at + 12), block.intAt(at + 16) != 0, block.stringAt(at + 20),
+                        block.stringAt(at + 24));
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public List<String> getRelatedApiIds() {
+        int count = block.intAt(position + RELATED_API_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        int start = relatedApisPosition();
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return block.stringAt(start + index * 4);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public List<String> getKeywords() {
+        int count = block.intAt(position + KEYWORD_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return keyword(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public int keywordCount() {
+        return Math.max(block.intAt(position + KEYWORD_COUNT), 0);
+    }
+
+    @Override
+    public String keyword(int i) {
+        return block.stringAt(keywordsPosition() + i * 8);
+    }
+
+    @Override
+    public String lowerKeyword(int i) {
+        return block.stringAt(keywordsPosition() + i * 8 + 4);
+    }
+
+    private int relatedApisPosition() {
+        return position + HEADER_LENGTH + Math.max(block.intAt(position + FIELD_COUNT), 0) * FIELD_LENGTH;
+    }
+
+    private int keywordsPosition() {
+        return relatedApisPosition() + Math.max(block.intAt(position + RELATED_API_COUNT), 0) * 4;
+    }
+}
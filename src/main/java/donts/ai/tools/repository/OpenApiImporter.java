@@ -0,0 +1,417 @@
+package donts.ai.tools.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ModelField;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OpenAPI 3 文档导入器，将接口操作转换为 {@link ApiInterface}，将组件中的对象模式转换为 {@link DataModel}
+ * <p>
+ * 文档分两遍流式读取：第一遍跳过 {@code paths}，只把 {@code components} 读入内存供 {@code $ref} 随机访问；
+ * 第二遍每次只读入一个路径项并立即转换，处理大型文档时内存占用与单个路径项大小相关。
+ * {@code $ref} 的解析结果按引用字符串缓存，同一个模式被成百上千个操作引用时只解析一次。
+ */
+@Slf4j
+public class OpenApiImporter {
+
+    private static final List<String> HTTP_METHODS = List.of("get", "post", "put", "patch", "delete");
+
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+
+    /**
+     * 导入OpenAPI文档
+     *
+     * @param resource 文档资源，需要读取两遍，格式由扩展名决定（.json、.yml、.yaml）
+     * @return 转换得到的目录数据
+     */
+    public CatalogLoader.CatalogData importSpec(Resource resource) {
+        String filename = resource.getFilename() == null ? "" : resource.getFilename().toLowerCase(Locale.ROOT);
+        return importSpec(resource, filename.endsWith(".json"));
+    }
+
+    /**
+     * 导入指定格式的OpenAPI文档
+     *
+     * @param resource 文档资源，需要读取两遍
+     * @param json 是否为JSON，否则按YAML解析
+     * @return 转换得到的目录数据
+     */
+    public CatalogLoader.CatalogData importSpec(Resource resource, boolean json) {
+        long start = System.currentTimeMillis();
+        ObjectMapper mapper = new ObjectMapper(json ? new JsonFactory() : new YAMLFactory());
+
+        try {
+            Conversion conversion = new Conversion(readComponents(resource, mapper));
+            readPaths(resource, mapper, conversion);
+            CatalogLoader.CatalogData data = conversion.result();
+            log.info("导入OpenAPI文档: {}, 数据模型: {}, API接口: {}, 耗时: {}ms", resource.getFilename(),
+                    data.dataModels().size(), data.apiInterfaces().size(), System.currentTimeMillis() - start);
+            return data;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("导入OpenAPI文档失败: " + resource.getFilename() + ", " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 第一遍：只读取 components，其余顶层字段直接跳过
+     */
+    private JsonNode readComponents(Resource resource, ObjectMapper mapper) throws IOException {
+        try (InputStream in = resource.getInputStream(); JsonParser parser = mapper.createParser(in)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("components".equals(field)) {
+                    return mapper.readTree(parser);
+                }
+                parser.skipChildren();
+            }
+        }
+        return JsonNodeFactory.instance.objectNode();
+    }
+
+    /**
+     * 第二遍：逐个读取路径项并转换其中的操作
+     */
+    private void readPaths(Resource resource, ObjectMapper mapper, Conversion conversion) throws IOException {
+        try (InputStream in = resource.getInputStream(); JsonParser parser = mapper.createParser(in)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!"paths".equals(field) || token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String path = parser.currentName();
+                    parser.nextToken();
+                    conversion.addPathItem(path, mapper.readTree(parser));
+                }
+            }
+        }
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("文档顶层不是对象");
+        }
+    }
+
+    /**
+     * 一次导入过程中的转换状态
+     */
+    private static final class Conversion {
+
+        private final JsonNode components;
+
+        /**
+         * 引用解析缓存，键为 $ref 字符串
+         */
+        private final Map<String, JsonNode> resolvedRefs = new HashMap<>();
+
+        /**
+         * 按模式名存放的数据模型
+         */
+        private final Map<String, DataModel> models = new LinkedHashMap<>();
+
+        private final Map<String, Set<String>> modelApiIds = new HashMap<>();
+        private final Map<String, ApiInterface> apis = new LinkedHashMap<>();
+
+        Conversion(JsonNode components) {
+            this.components = components;
+            JsonNode schemas = components.path("schemas");
+            for (Iterator<String> names = schemas.fieldNames(); names.hasNext(); ) {
+                String name = names.next();
+                JsonNode schema = resolve(schemas.get(name));
+                if (schema.has("properties")) {
+                    models.put(name, toDataModel(name, schema));
+                }
+            }
+        }
+
+        /**
+         * 转换一个路径项下的全部操作
+         */
+        void addPathItem(String path, JsonNode pathItem) {
+            pathItem = resolve(pathItem);
+            for (String method : HTTP_METHODS) {
+                JsonNode operation = pathItem.get(method);
+                if (operation != null) {
+                    ApiInterface api = toApiInterface(path, method, pathItem.path("parameters"), operation);
+                    apis.put(api.getId(), api);
+                    if (api.getRelatedModelId() != null) {
+                        modelApiIds.computeIfAbsent(api.getRelatedModelId(), id -> new LinkedHashSet<>()).add(api.getId());
+                    }
+                }
+            }
+        }
+
+        CatalogLoader.CatalogData result() {
+            List<DataModel> dataModels = new ArrayList<>();
+            for (DataModel model : models.values()) {
+                Set<String> apiIds = modelApiIds.get(model.getId());
+                model.setRelatedApiIds(apiIds == null ? List.of() : List.copyOf(apiIds));
+                dataModels.add(model);
+            }
+            return new CatalogLoader.CatalogData(dataModels, new ArrayList<>(apis.values()));
+        }
+
+        private DataModel toDataModel(String name, JsonNode schema) {
+            Set<String> required = requiredNames(schema);
+            List<ModelField> fields = new ArrayList<>();
+            schema.path("properties").fields().forEachRemaining(property -> {
+                JsonNode propertySchema = resolve(property.getValue());
+                fields.add(new ModelField(property.getKey(), typeOf(property.getValue()),
+                        text(propertySchema, "description"), required.contains(property.getKey()),
+                        text(propertySchema, "default"), text(propertySchema, "example")));
+            });
+
+            String title = text(schema, "title");
+            List<String> keywords = new ArrayList<>();
+            keywords.add(name.toLowerCase(Locale.ROOT));
+            if (title != null) {
+                keywords.add(title);
+            }
+            return new DataModel(modelId(name), title != null ? title : name, text(schema, "description"),
+                    fields, List.of(), List.copyOf(keywords));
+        }
+
+        private ApiInterface toApiInterface(String path, String method, JsonNode sharedParameters, JsonNode operation) {
+            // 优先使用请求体的模式确定所属模型，其次使用成功响应的模式
+            JsonNode bodySchema = requestBodySchema(operation);
+            JsonNode responseSchema = responseSchema(operation);
+            String modelName = schemaName(bodySchema);
+            if (modelName == null) {
+                modelName = schemaName(responseSchema);
+            }
+            DataModel model = modelName == null ? null : models.get(modelName);
+
+            List<ApiParameter> parameters = new ArrayList<>();
+            Map<String, JsonNode> declared = new LinkedHashMap<>();
+            for (JsonNode parameter : sharedParameters) {
+                parameter = resolve(parameter);
+                declared.put(parameter.path("in").asText() + ":" + parameter.path("name").asText(), parameter);
+            }
+            for (JsonNode parameter : operation.path("parameters")) {
+                parameter = resolve(parameter);
+                declared.put(parameter.path("in").asText() + ":" + parameter.path("name").asText(), parameter);
+            }
+            for (JsonNode parameter : declared.values()) {
+                JsonNode schema = resolve(parameter.path("schema"));
+                String name = parameter.path("name").asText();
+                String example = parameter.has("example") ? text(parameter, "example") : text(schema, "example");
+                parameters.add(new ApiParameter(name, typeOf(parameter.path("schema")), text(parameter, "description"),
+                        parameter.path("required").asBoolean(false), parameter.path("in").asText(),
+                        text(schema, "default"), example, modelFieldName(name, model, modelName)));
+            }
+
+            if (bodySchema != null) {
+                JsonNode resolvedBody = resolve(bodySchema);
+                boolean bodyRequired = resolve(operation.path("requestBody")).path("required").asBoolean(false);
+                Set<String> required = requiredNames(resolvedBody);
+                resolvedBody.path("properties").fields().forEachRemaining(property -> {
+                    JsonNode schema = resolve(property.getValue());
+                    parameters.add(new ApiParameter(property.getKey(), typeOf(property.getValue()),
+                            text(schema, "description"), bodyRequired && required.contains(property.getKey()), "body",
+                            text(schema, "default"), text(schema, "example"),
+                            model != null && bodySchema.has("$ref") ? property.getKey() : null));
+                });
+            }
+
+            String operationId = text(operation, "operationId");
+            String id = operationId != null ? "api_" + snakeCase(operationId)
+                    : "api_" + method + "_" + snakeCase(path.replaceAll("[{}]", "").replace('/', '_'));
+            String summary = text(operation, "summary");
+            String name = summary != null ? summary : (operationId != null ? operationId : method.toUpperCase(Locale.ROOT) + " " + path);
+            String description = text(operation, "description");
+
+            Set<String> keywords = new LinkedHashSet<>();
+            operation.path("tags").forEach(tag -> keywords.add(tag.asText()));
+            if (operationId != null) {
+                keywords.add(operationId.toLowerCase(Locale.ROOT));
+            }
+            keywords.add(method);
+
+            return new ApiInterface(id, name, description != null ? description : name, path,
+                    method.toUpperCase(Locale.ROOT), parameters, responseSchema == null ? null : typeOf(responseSchema),
+                    model == null ? null : model.getId(), List.copyOf(keywords));
+        }
+
+        /**
+         * 取 application/json 请求体的模式
+         */
+        private JsonNode requestBodySchema(JsonNode operation) {
+            JsonNode body = resolve(operation.path("requestBody"));
+            JsonNode schema = body.path("content").path("application/json").path("schema");
+            return schema.isMissingNode() ? null : schema;
+        }
+
+        /**
+         * 取第一个2xx响应或default响应中 application/json 内容的模式
+         */
+        private JsonNode responseSchema(JsonNode operation) {
+            JsonNode responses = operation.path("responses");
+            List<String> codes = new ArrayList<>();
+            responses.fieldNames().forEachRemaining(codes::add);
+            codes.sort(null);
+            for (String code : codes) {
+                if (code.startsWith("2") || "default".equals(code)) {
+                    JsonNode schema = resolve(responses.get(code)).path("content").path("application/json").path("schema");
+                    if (!schema.isMissingNode()) {
+                        return schema;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 模式引用的组件名，数组取元素的组件名
+         */
+        private String schemaName(JsonNode schema) {
+            if (schema == null) {
+                return null;
+            }
+            String ref = text(schema, "$ref");
+            if (ref != null && ref.startsWith(SCHEMA_REF_PREFIX)) {
+                return ref.substring(SCHEMA_REF_PREFIX.length());
+            }
+            return "array".equals(text(schema, "type")) ? schemaName(schema.get("items")) : null;
+        }
+
+        /**
+         * 将OpenAPI类型映射为目录中使用的类型名
+         */
+        private String typeOf(JsonNode schema) {
+            String name = schemaName(schema);
+            if (name != null) {
+                return "array".equals(text(schema, "type")) ? "List<" + name + ">" : name;
+            }
+            JsonNode resolved = resolve(schema);
+            String type = text(resolved, "type");
+            String format = text(resolved, "format");
+            if (type == null) {
+                return "Object";
+            }
+            return switch (type) {
+                case "string" -> "date".equals(format) || "date-time".equals(format) ? "Date" : "String";
+                case "integer" -> "int64".equals(format) ? "Long" : "Integer";
+                case "number" -> "Double";
+                case "boolean" -> "Boolean";
+                case "array" -> "List<" + typeOf(resolved.path("items")) + ">";
+                default -> "Object";
+            };
+        }
+
+        /**
+         * 参数对应的模型字段：同名字段优先，其次把 {@code <实体名>Id} 形式的参数对应到 id 字段
+         */
+        private String modelFieldName(String parameterName, DataModel model, String modelName) {
+            if (model == null) {
+                return null;
+            }
+            for (ModelField field : model.getFields()) {
+                if (field.getName().equals(parameterName)) {
+                    return field.getName();
+                }
+            }
+            return parameterName.equalsIgnoreCase(modelName + "id") ? "id" : null;
+        }
+
+        /**
+         * 解析 $ref 并合并 allOf，结果按引用缓存；没有引用的节点原样返回
+         */
+        private JsonNode resolve(JsonNode node) {
+            if (node == null || node.isMissingNode()) {
+                return node;
+            }
+            String ref = text(node, "$ref");
+            if (ref != null) {
+                JsonNode cached = resolvedRefs.get(ref);
+                if (cached != null) {
+                    return cached;
+                }
+                // 先放入占位节点，自引用的模式不会无限递归
+                resolvedRefs.put(ref, JsonNodeFactory.instance.objectNode());
+                JsonNode target = ref.startsWith("#/components/")
+                        ? components.at(ref.substring("#/components".length()))
+                        : JsonNodeFactory.instance.objectNode();
+                JsonNode resolved = resolve(target);
+                resolvedRefs.put(ref, resolved);
+                return resolved;
+            }
+            if (node.has("allOf")) {
+                return mergeAllOf(node);
+            }
+            return node;
+        }
+
+        private JsonNode mergeAllOf(JsonNode node) {
+            ObjectNode merged = node.deepCopy();
+            merged.remove("allOf");
+            ObjectNode properties = JsonNodeFactory.instance.objectNode();
+            Set<String> required = new LinkedHashSet<>();
+            for (JsonNode part : node.get("allOf")) {
+                JsonNode resolved = resolve(part);
+                if (resolved.has("properties")) {
+                    properties.setAll((ObjectNode) resolved.get("properties"));
+                }
+                required.addAll(requiredNames(resolved));
+            }
+            if (node.has("properties")) {
+                properties.setAll((ObjectNode) node.get("properties"));
+            }
+            required.addAll(requiredNames(node));
+            merged.set("properties", properties);
+            merged.set("required", merged.arrayNode().addAll(required.stream()
+                    .map(JsonNodeFactory.instance::textNode).toList()));
+            return merged;
+        }
+
+        private Set<String> requiredNames(JsonNode schema) {
+            Set<String> required = new LinkedHashSet<>();
+            schema.path("required").forEach(name -> required.add(name.asText()));
+            return required;
+        }
+
+        private static String modelId(String schemaName) {
+            return "model_" + snakeCase(schemaName);
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node == null ? null : node.get(field);
+            return value == null || value.isNull() || value.isContainerNode() ? null : value.asText();
+        }
+
+        private static String snakeCase(String value) {
+            return value.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                    .replaceAll("[^A-Za-z0-9]+", "_")
+                    .replaceAll("^_+|_+$", "")
+                    .toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package donts.ai.tools.repository;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.crypto.SecureUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 各租户独立的目录
+ * <p>
+ * 每个租户持有自己的 {@link MockDataRepository} 实例，快照、索引和写锁都与其他租户隔离。新租户以共享目录的当前快照为初始内容，
+ * 快照不可变，继承的部分不复制，租户修改后只在自己的增量分段中重建索引。
+ * <p>
+ * 常驻内存的租户数量超过上限时，最久未访问的租户被换出：目录在后台线程上合并增量并写成与目录镜像相同格式的文件，
+ * 再次访问时直接映射该文件，索引不重建且位于堆外。文件写完之前再次访问的租户直接使用换出时的快照；
+ * 载入后没有修改过的租户换出时不写文件。镜像指纹在每次启动时随机生成，上次运行遗留的文件不会被读取。
+ */
+@Slf4j
+class TenantCatalogs {
+
+    /**
+     * 共享目录，即默认租户的目录
+     */
+    private final MockDataRepository shared;
+
+    /**
+     * 新租户是否以共享目录为初始内容
+     */
+    private final boolean inheritShared;
+
+    /**
+     * 常驻内存的租户数量上限
+     */
+    private final int maxResident;
+
+    /**
+     * 换出文件所在目录
+     */
+    private final Path spillDir;
+
+    /**
+     * 换出目录是否为本实例创建的临时目录，关闭时删除
+     */
+    private final boolean temporaryDir;
+
+    /**
+     * 本次运行写入的换出文件的指纹
+     */
+    private final long fingerprint = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * 按访问顺序排列的租户，最久未访问的在前
+     */
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 按换出顺序写文件的线程，同一租户先后两次换出的文件不会乱序覆盖
+     */
+    private final ExecutorService spillExecutor =
+            Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("tenant-spill-", true));
+
+    /**
+     * 常驻内存的租户数量
+     */
+    private int resident;
+
+    /**
+     * @param shared 共享目录
+     * @param inheritShared 新租户是否以共享目录为初始内容
+     * @param maxResident 常驻内存的租户数量上限
+     * @param spillDir 换出文件所在目录，为null时创建临时目录
+     */
+    TenantCatalogs(MockDataRepository shared, boolean inheritShared, int maxResident, Path spillDir) throws IOException {
+        this.shared = shared;
+        this.inheritShared = inheritShared;
+        this.maxResident = Math.max(1, maxResident);
+        this.temporaryDir = spillDir == null;
+        this.spillDir = spillDir == null
+                ? Files.createTempDirectory("tenant-catalogs-") : Files.createDirectories(spillDir);
+    }
+
+    /**
+     * 获取租户的目录，换出的租户重新载入，必要时换出其他最久未访问的租户
+     *
+     * @param tenantId 租户
+     * @return 租户的目录
+     */
+    synchronized MockDataRepository catalog(String tenantId) {
+        Tenant tenant = tenants.computeIfAbsent(tenantId,
+                id -> new Tenant(id, spillDir.resolve(SecureUtil.md5(id) + ".img")));
+        if (tenant.catalog == null) {
+            tenant.catalog = load(tenant);
+            resident++;
+            evictColdTenants(tenant);
+        }
+        return tenant.catalog;
+    }
+
+    /**
+     * 常驻内存的各租户的当前快照，不载入换出的租户，也不改变租户的访问顺序
+     */
+    synchronized Map<String, CatalogSnapshot> residentSnapshots() {
+        Map<String, CatalogSnapshot> snapshots = new HashMap<>();
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.catalog != null) {
+                snapshots.put(tenant.id, tenant.catalog.getSnapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 常驻内存的租户数量
+     */
+    synchronized int residentCount() {
+        return resident;
+    }
+
+    /**
+     * 停止换出线程，删除本实例创建的临时目录
+     */
+    void close() {
+        spillExecutor.shutdownNow();
+        if (temporaryDir) {
+            FileUtil.del(spillDir.toFile());
+        }
+    }
+
+    /**
+     * 按租户的状态确定初始快照并创建目录实例
+     */
+    private MockDataRepository load(Tenant tenant) {
+        CatalogSnapshot initial;
+        if (tenant.spilling != null) {
+            initial = tenant.spilling;
+        } else if (tenant.spilled) {
+            initial = CatalogImage.open(tenant.file, fingerprint, tenant.spilledVersion, shared.getIndexing());
+            if (initial == null) {
+                throw new IllegalStateException("无法读取换出的租户目录: " + tenant.id);
+            }
+            log.debug("载入换出的租户目录: {}, 版本: {}", tenant.id, initial.getVersion());
+        } else {
+            initial = inheritShared ? shared.getSnapshot() : CatalogSnapshot.buildCompact(0, List.of(), List.of(), shared.getIndexing());
+        }
+        tenant.loaded = initial;
+        return shared.newTenantCatalog(tenant.id, initial);
+    }
+
+    /**
+     * 常驻租户超过上限时，从最久未访问的租户开始换出，刚访问的租户除外
+     */
+    private void evictColdTenants(Tenant keep) {
+        for (Tenant tenant : tenants.values()) {
+            if (resident <= maxResident) {
+                return;
+            }
+            if (tenant == keep || tenant.catalog == null) {
+                continue;
+            }
+            CatalogSnapshot snapshot = tenant.catalog.evict();
+            tenant.catalog = null;
+            resident--;
+            if (snapshot != tenant.loaded) {
+                tenant.spilling = snapshot;
+                spillExecutor.execute(() -> spill(tenant, snapshot));
+            }
+            log.info("换出租户目录: {}, 版本: {}", tenant.id, snapshot.getVersion());
+        }
+    }
+
+    /**
+     * 把换出的快照写入文件，写入失败时快照继续保留在内存中
+     */
+    private void spill(Tenant tenant, CatalogSnapshot snapshot) {
+        try {
+            CatalogSnapshot base = snapshot.pendingChanges() > 0 ? snapshot.compact(snapshot.getVersion()) : snapshot;
+            CatalogImage.write(tenant.file, fingerprint, base);
+            synchronized (this) {
+                // 写入期间再次换出的较新快照会在之后写入，此时保留其状态
+                if (tenant.spilling == snapshot) {
+                    tenant.spilling = null;
+                    tenant.spilled = true;
+                    tenant.spilledVersion = snapshot.getVersion();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("写入换出的租户目录失败，目录保留在内存中: {}", tenant.id, e);
+        }
+    }
+
+    /**
+     * 租户目录的状态，字段在 {@link TenantCatalogs} 的锁内访问
+     */
+    private static final class Tenant {
+
+        private final String id;
+
+        /**
+         * 换出文件
+         */
+        private final Path file;
+
+        /**
+         * 常驻内存时的目录，换出后为null
+         */
+        private MockDataRepository catalog;
+
+        /**
+         * 载入时的快照，换出时快照未变化则不写文件
+         */
+        private CatalogSnapshot loaded;
+
+        /**
+         * 正在写入文件的快照
+         */
+        private CatalogSnapshot spilling;
+
+        /**
+         * 换出文件中是否有该租户的目录
+         */
+        private boolean spilled;
+
+        /**
+         * 换出文件中目录的版本号
+         */
+        private long spilledVersion;
+
+        private Tenant(String id, Path file) {
+            this.id = id;
+            this.file = file;
+        }
+    }
+}
@@ -37,4 +37,19 @@ public class ApiExecutorRequest extends BaseRequest {
      * 是否返回详细响应
      */
     private boolean detailedResponse;
+    
+    /**
+     * 是否自动拉取所有分页（仅对带page/size参数的列表接口生效）
+     */
+    private boolean fetchAllPages;
+    
+    /**
+     * 自动分页时的最大并发页数，小于等于0时使用默认值
+     */
+    private int maxConcurrency;
+    
+    /**
+     * 自动分页时最多返回的记录数，小于等于0时使用默认值
+     */
+    private int maxRecords;
 }
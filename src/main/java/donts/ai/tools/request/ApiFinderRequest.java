@@ -35,4 +35,14 @@ public class ApiFinderRequest extends BaseRequest {
      * 操作类型过滤（如：查询、创建、更新、删除）
      */
     private String operationType;
+    
+    /**
+     * 是否返回每个结果的分数说明（命中的词项、各项加分和热度加分），用于排查排序问题
+     */
+    private boolean explain;
+    
+    /**
+     * 续页游标，取自上一页响应的nextCursor；其余查询条件需与上一页一致
+     */
+    private String cursor;
 }
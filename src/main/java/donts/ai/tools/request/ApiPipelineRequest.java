@@ -0,0 +1,55 @@
+package donts.ai.tools.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+/**
+ * 一站式解析并执行API工具的请求类
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ApiPipelineRequest extends BaseRequest {
+    
+    /**
+     * 用户描述，用于查找匹配的数据模型
+     */
+    private String description;
+    
+    /**
+     * 操作类型（如：查询、创建、更新、删除）
+     */
+    private String operationType;
+    
+    /**
+     * 用户输入的参数映射（参数名 -> 参数值）
+     */
+    private Map<String, Object> parameters;
+    
+    /**
+     * 直接执行所需的最低置信度（0-100），小于等于0时使用默认值
+     */
+    private int minConfidence;
+    
+    /**
+     * 置信度不足时返回的候选数量，小于等于0时使用默认值
+     */
+    private int maxCandidates;
+    
+    /**
+     * 是否验证参数
+     */
+    private boolean validateParameters;
+    
+    /**
+     * 是否返回详细响应
+     */
+    private boolean detailedResponse;
+}
@@ -0,0 +1,48 @@
+package donts.ai.tools.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 全局API接口搜索工具的请求类
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ApiSearchRequest extends BaseRequest {
+    
+    /**
+     * 搜索文本，如"取消订单"
+     */
+    private String query;
+    
+    /**
+     * 操作类型过滤（如：查询、创建、更新、删除）
+     */
+    private String operationType;
+    
+    /**
+     * 最大返回结果数量
+     */
+    private int maxResults;
+    
+    /**
+     * 是否包含详细信息
+     */
+    private boolean includeDetails;
+    
+    /**
+     * 是否返回每个结果的分数说明（命中的词项、各项加分和热度加分），用于排查排序问题
+     */
+    private boolean explain;
+    
+    /**
+     * 续页游标，取自上一页响应的nextCursor；其余查询条件需与上一页一致
+     */
+    private String cursor;
+}
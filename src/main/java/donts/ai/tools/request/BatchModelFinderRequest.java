@@ -0,0 +1,35 @@
+package donts.ai.tools.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * 批量数据模型查找工具的请求类
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BatchModelFinderRequest extends BaseRequest {
+    
+    /**
+     * 多个用户描述，每个描述独立查找匹配的数据模型
+     */
+    private List<String> descriptions;
+    
+    /**
+     * 每个描述的最大返回结果数量
+     */
+    private int maxResults;
+    
+    /**
+     * 是否包含详细信息
+     */
+    private boolean includeDetails;
+}
@@ -0,0 +1,41 @@
+package donts.ai.tools.request;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.springframework.core.io.Resource;
+
+/**
+ * 数据目录管理请求类，用于在运行时注册、更新和删除数据模型及API接口
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class CatalogAdminRequest extends BaseRequest {
+    
+    /**
+     * 目标条目ID，更新和删除时使用
+     */
+    private String id;
+    
+    /**
+     * 要注册或更新的数据模型
+     */
+    private DataModel dataModel;
+    
+    /**
+     * 要注册或更新的API接口
+     */
+    private ApiInterface apiInterface;
+    
+    /**
+     * OpenAPI文档（JSON或YAML），导入时使用；导入器读取两遍，须能重复打开
+     */
+    private Resource openApiSpec;
+}
@@ -30,4 +30,29 @@ public class ModelFinderRequest extends BaseRequest {
      * 是否包含详细信息
      */
     private boolean includeDetails;
+    
+    /**
+     * 字段查询模式：字段名（精确匹配，忽略大小写）
+     */
+    private String fieldName;
+    
+    /**
+     * 字段查询模式：字段类型（精确匹配，忽略大小写），如String、Date
+     */
+    private String fieldType;
+    
+    /**
+     * 字段查询模式：字段描述（子串匹配），如"邮箱"
+     */
+    private String fieldDescription;
+    
+    /**
+     * 是否返回每个结果的分数说明（命中的词项、各项加分和热度加分），用于排查排序问题
+     */
+    private boolean explain;
+    
+    /**
+     * 续页游标，取自上一页响应的nextCursor；其余查询条件需与上一页一致
+     */
+    private String cursor;
 }
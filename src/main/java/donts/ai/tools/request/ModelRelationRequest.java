@@ -0,0 +1,33 @@
+package donts.ai.tools.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 数据模型关系查找工具的请求类
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ModelRelationRequest extends BaseRequest {
+    
+    /**
+     * 起点数据模型ID
+     */
+    private String modelId;
+    
+    /**
+     * 目标数据模型ID（可选），指定时只返回到达该模型的路径
+     */
+    private String targetModelId;
+    
+    /**
+     * 最大跳数，小于等于0时使用默认值
+     */
+    private int maxDepth;
+}
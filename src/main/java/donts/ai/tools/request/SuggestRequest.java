@@ -0,0 +1,28 @@
+package donts.ai.tools.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 输入补全工具的请求类
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SuggestRequest extends BaseRequest {
+    
+    /**
+     * 已输入的前缀
+     */
+    private String prefix;
+    
+    /**
+     * 最大结果数量，小于等于0时使用默认值
+     */
+    private int maxResults;
+}
@@ -0,0 +1,95 @@
+package donts.ai.tools.response;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 一站式解析并执行API工具的响应类
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiPipelineResponse {
+    
+    /**
+     * 请求ID
+     */
+    private String requestId;
+    
+    /**
+     * 是否成功
+     */
+    private boolean success;
+    
+    /**
+     * 错误消息（如果有）
+     */
+    private String errorMessage;
+    
+    /**
+     * 是否已解析出唯一的模型和接口并完成执行；为false时请根据候选列表选择后再调用executeApi
+     */
+    private boolean executed;
+    
+    /**
+     * 选中的数据模型ID
+     */
+    private String modelId;
+    
+    /**
+     * 选中的API接口ID
+     */
+    private String apiId;
+    
+    /**
+     * 数据模型匹配度（0-100）
+     */
+    private int modelScore;
+    
+    /**
+     * API接口匹配度（0-100）
+     */
+    private int apiScore;
+    
+    /**
+     * 综合置信度（0-100）
+     */
+    private int confidence;
+    
+    /**
+     * 置信度不足的原因（如果有）
+     */
+    private String lowConfidenceReason;
+    
+    /**
+     * API执行结果（仅在executed为true时存在）
+     */
+    private ApiExecutorResponse result;
+    
+    /**
+     * 候选数据模型列表（置信度不足时返回）
+     */
+    private List<DataModel> candidateModels;
+    
+    /**
+     * 候选数据模型的匹配度分数
+     */
+    private List<Integer> candidateModelScores;
+    
+    /**
+     * 候选API接口列表（置信度不足时返回）
+     */
+    private List<ApiInterface> candidateApis;
+    
+    /**
+     * 候选API接口的匹配度分数
+     */
+    private List<Integer> candidateApiScores;
+}
@@ -0,0 +1,38 @@
+package donts.ai.tools.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量数据模型查找工具的响应类
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchModelFinderResponse {
+    
+    /**
+     * 请求ID
+     */
+    private String requestId;
+    
+    /**
+     * 是否成功
+     */
+    private boolean success;
+    
+    /**
+     * 错误消息（如果有）
+     */
+    private String errorMessage;
+    
+    /**
+     * 每个描述的查找结果，顺序与请求中的描述一致
+     */
+    private List<ModelFinderResponse> results;
+}
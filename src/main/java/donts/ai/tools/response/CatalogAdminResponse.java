@@ -0,0 +1,51 @@
+package donts.ai.tools.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 数据目录管理响应类
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogAdminResponse {
+    
+    /**
+     * 请求ID
+     */
+    private String requestId;
+    
+    /**
+     * 是否成功
+     */
+    private boolean success;
+    
+    /**
+     * 错误消息（如果有）
+     */
+    private String errorMessage;
+    
+    /**
+     * 被操作的条目ID
+     */
+    private String id;
+    
+    /**
+     * 变更生效后的目录版本号
+     */
+    private long catalogVersion;
+    
+    /**
+     * 导入的数据模型数量
+     */
+    private int dataModelCount;
+    
+    /**
+     * 导入的API接口数量
+     */
+    private int apiInterfaceCount;
+}
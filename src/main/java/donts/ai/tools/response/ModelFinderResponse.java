@@ -1,6 +1,7 @@
 package donts.ai.tools.response;
 
 import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ScoreExplanation;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -46,4 +47,24 @@ public class ModelFinderResponse {
      * 总结果数
      */
     private int totalResults;
+    
+    /**
+     * 下一页游标，没有更多结果时为null
+     */
+    private String nextCursor;
+    
+    /**
+     * 多节点模式下是否有节点超时或失败，为true时结果只来自其余节点
+     */
+    private boolean partial;
+    
+    /**
+     * 超时或失败的节点ID
+     */
+    private List<String> unavailableNodes;
+    
+    /**
+     * 与结果一一对应的分数说明，只在请求说明时返回
+     */
+    private List<ScoreExplanation> explanations;
 }
@@ -0,0 +1,44 @@
+package donts.ai.tools.response;
+
+import donts.ai.tools.model.ModelRelation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 数据模型关系查找工具的响应类
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelRelationResponse {
+    
+    /**
+     * 请求ID
+     */
+    private String requestId;
+    
+    /**
+     * 是否成功
+     */
+    private boolean success;
+    
+    /**
+     * 错误消息（如果有）
+     */
+    private String errorMessage;
+    
+    /**
+     * 起点数据模型ID
+     */
+    private String modelId;
+    
+    /**
+     * 可达的数据模型及到达路径，按跳数升序排列
+     */
+    private List<ModelRelation> relations;
+}
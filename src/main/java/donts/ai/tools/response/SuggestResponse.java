@@ -0,0 +1,39 @@
+package donts.ai.tools.response;
+
+import donts.ai.tools.model.Suggestion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 输入补全工具的响应类
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestResponse {
+    
+    /**
+     * 请求ID
+     */
+    private String requestId;
+    
+    /**
+     * 是否成功
+     */
+    private boolean success;
+    
+    /**
+     * 错误消息（如果有）
+     */
+    private String errorMessage;
+    
+    /**
+     * 补全建议，按权重降序排列
+     */
+    private List<Suggestion> suggestions;
+}
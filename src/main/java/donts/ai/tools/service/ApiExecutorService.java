@@ -1,18 +1,37 @@
 package donts.ai.tools.service;
 
-import donts.ai.tools.model.ApiInterface;
-import donts.ai.tools.model.ApiParameter;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.json.JSONUtil;
+import donts.ai.tools.cache.BinaryCodec;
+import donts.ai.tools.cache.ResultCaches;
+import donts.ai.tools.cache.TwoTierCache;
+import donts.ai.tools.cache.ValueCodec;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactApiParameter;
+import donts.ai.tools.model.ContentDigest;
+import donts.ai.tools.model.HttpMethod;
 import donts.ai.tools.repository.MockDataRepository;
 import donts.ai.tools.request.ApiExecutorRequest;
 import donts.ai.tools.response.ApiExecutorResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -22,11 +41,81 @@ import java.util.stream.Collectors;
 @Service
 public class ApiExecutorService {
 
+    /**
+     * 分页参数名
+     */
+    private static final String PAGE_PARAM = "page";
+    
+    /**
+     * 自动分页的默认并发页数
+     */
+    private static final int DEFAULT_PAGE_CONCURRENCY = 4;
+    
+    /**
+     * 自动分页的最大并发页数，同时也是分页线程池的大小
+     */
+    private static final int MAX_PAGE_CONCURRENCY = 16;
+    
+    /**
+     * 自动分页默认最多返回的记录数
+     */
+    private static final int DEFAULT_MAX_RECORDS = 1000;
+    
+    /**
+     * 每个租户本地保存的执行结果数量上限
+     */
+    private static final int CACHED_RESULTS_SIZE = 128;
+
+    /**
+     * 保留执行结果缓存的租户数量上限
+     */
+    private static final int CACHED_TENANTS = 64;
+
     @Autowired
     private MockDataRepository dataRepository;
     
+    @Autowired
+    private ApiUsageService apiUsageService;
+    
+    @Autowired(required = false)
+    private ResultCaches resultCaches;
+    
+    /**
+     * GET接口执行结果的缓存有效期（秒），为0时不缓存
+     */
+    @Value("${cache.executor.ttl-seconds:0}")
+    private long executorCacheTtlSeconds = 0;
+    
+    /**
+     * GET接口的执行结果，未启用时为null
+     * <p>
+     * 按租户、接口定义和参数为键，配置了远程缓存时同一租户的多个实例共享；其他请求方法有副作用，总是实际执行。
+     */
+    private TwoTierCache<Execution> cachedResults;
+    
+    /**
+     * 自动分页时并发拉取后续页面的线程池
+     */
+    private final ExecutorService pageFetchExecutor =
+            Executors.newFixedThreadPool(MAX_PAGE_CONCURRENCY, ThreadUtil.newNamedThreadFactory("api-page-fetch-", true));
+    
+    @PostConstruct
+    public void init() {
+        if (resultCaches != null && executorCacheTtlSeconds > 0) {
+            cachedResults = resultCaches.create("api-results", CACHED_TENANTS, CACHED_RESULTS_SIZE,
+                    executorCacheTtlSeconds * 1000, Execution.CODEC);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pageFetchExecutor.shutdownNow();
+    }
+    
     /**
      * 执行API接口调用
+     * <p>
+     * 直接读取目录快照中的API接口紧凑表示（堆外存储时为享元视图），参数定义按需解码，不创建完整的模型类。
      * 
      * @param request 执行请求
      * @return 执行响应
@@ -38,7 +127,8 @@ public class ApiExecutorService {
 
         try {
             // 检查API接口是否存在
-            ApiInterface api = dataRepository.getApiInterfaceById(request.getApiId());
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            CompactApiInterface api = repository.getSnapshot().getApiInterface(request.getApiId());
             if (api == null) {
                 return ApiExecutorResponse.builder()
                         .requestId(request.getRequestId())
@@ -64,16 +154,44 @@ public class ApiExecutorService {
             // 构造API调用参数
             Map<String, Object> apiParams = constructApiParameters(api, request.getParameters());
 
-            // 模拟API调用
-            Object responseData = mockApiCall(api, apiParams);
+            // 相同接口定义和参数的GET请求直接返回缓存的结果
+            String cacheKey = cachedResults != null && api.getMethod() == HttpMethod.GET
+                    ? executionKey(repository.getTenantId(), api, apiParams, request) : null;
+            Execution cached = cacheKey == null ? null : cachedResults.get(repository.getTenantId(), cacheKey);
+            if (cached != null) {
+                apiUsageService.recordSelection(repository.getTenantId(), api);
+                Map<String, Object> metadata = new HashMap<>(cached.metadata());
+                metadata.put("cached", true);
+                return ApiExecutorResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(true)
+                        .apiId(request.getApiId())
+                        .responseData(cached.responseData())
+                        .metadata(metadata)
+                        .executionTime(System.currentTimeMillis() - startTime)
+                        .build();
+            }
+
+            // 模拟API调用，列表接口可以一次拉取所有分页
+            Object responseData = request.isFetchAllPages() && isPaginatedApi(api)
+                    ? fetchAllPages(api, apiParams, request.getMaxConcurrency(), request.getMaxRecords())
+                    : mockApiCall(api, apiParams);
+
+            // 记录实际执行的接口，作为后续查找排序的热度先验
+            apiUsageService.recordSelection(repository.getTenantId(), api);
 
             // 构造元数据
             Map<String, Object> metadata = new HashMap<>();
             metadata.put("apiName", api.getName());
             metadata.put("apiPath", api.getPath());
-            metadata.put("apiMethod", api.getMethod());
+            metadata.put("apiMethod", api.getMethodName());
             metadata.put("timestamp", System.currentTimeMillis());
             metadata.put("responseType", api.getResponseType());
+            if (request.isFetchAllPages() && responseData instanceof Map<?, ?> pageData
+                    && pageData.containsKey("pagesFetched")) {
+                metadata.put("pagesFetched", pageData.get("pagesFetched"));
+                metadata.put("truncated", pageData.get("truncated"));
+            }
 
             // 如果需要详细响应，添加更多元数据
             if (request.isDetailedResponse()) {
@@ -81,6 +199,11 @@ public class ApiExecutorService {
                 metadata.put("relatedModelId", api.getRelatedModelId());
             }
 
+            if (cacheKey != null) {
+                cachedResults.put(repository.getTenantId(), cacheKey,
+                        new Execution(responseData, new HashMap<>(metadata)));
+            }
+
             return ApiExecutorResponse.builder()
                     .requestId(request.getRequestId())
                     .success(true)
@@ -102,6 +225,17 @@ public class ApiExecutorService {
         }
     }
     
+    /**
+     * 执行结果的缓存键，包含接口定义的内容摘要，接口更新后不会命中旧结果，其他实例上相同的定义得到相同的键；
+     * 包含租户，不同租户即使注册了相同的接口也不共享执行结果；分页拉取的并发数不影响结果，不计入键
+     */
+    private String executionKey(String tenantId, CompactApiInterface api, Map<String, Object> apiParams,
+                                ApiExecutorRequest request) {
+        return tenantId + ":" + api.getId() + ":" + ContentDigest.of(api).toHex() + ":"
+                + JSONUtil.toJsonStr(new TreeMap<>(apiParams)) + ":" + request.isFetchAllPages() + ":"
+                + request.getMaxRecords() + ":" + request.isDetailedResponse();
+    }
+    
     /**
      * 验证用户提供的参数是否符合API接口要求
      * 
@@ -109,9 +243,9 @@ public class ApiExecutorService {
      * @param parameters 用户提供的参数
      * @return 验证错误信息，如果验证通过则返回null
      */
-    private String validateParameters(ApiInterface api, Map<String, Object> parameters) {
+    private String validateParameters(CompactApiInterface api, Map<String, Object> parameters) {
         // 检查必填参数
-        for (ApiParameter param : api.getParameters()) {
+        for (CompactApiParameter param : api.getParameters()) {
             if (param.isRequired()) {
                 if (!parameters.containsKey(param.getName()) || parameters.get(param.getName()) == null) {
                     return "缺少必填参数: " + param.getName();
@@ -125,7 +259,7 @@ public class ApiExecutorService {
             Object paramValue = entry.getValue();
             
             // 查找对应的API参数定义
-            ApiParameter paramDef = api.getParameters().stream()
+            CompactApiParameter paramDef = api.getParameters().stream()
                     .filter(p -> p.getName().equals(paramName))
                     .findFirst()
                     .orElse(null);
@@ -137,7 +271,7 @@ public class ApiExecutorService {
             
             // 检查参数类型
             if (paramValue != null) {
-                String paramType = paramDef.getType();
+                String paramType = paramDef.getTypeName();
                 boolean typeValid = checkParameterType(paramValue, paramType);
                 if (!typeValid) {
                     return "参数类型错误: " + paramName + " 应为 " + paramType + " 类型";
@@ -188,11 +322,11 @@ public class ApiExecutorService {
      * @param userParams 用户提供的参数
      * @return 构造后的API参数
      */
-    private Map<String, Object> constructApiParameters(ApiInterface api, Map<String, Object> userParams) {
+    private Map<String, Object> constructApiParameters(CompactApiInterface api, Map<String, Object> userParams) {
         Map<String, Object> apiParams = new HashMap<>();
         
         // 处理每个API参数
-        for (ApiParameter paramDef : api.getParameters()) {
+        for (CompactApiParameter paramDef : api.getParameters()) {
             String paramName = paramDef.getName();
             
             // 如果用户提供了参数值，使用用户提供的值
@@ -200,17 +334,17 @@ public class ApiExecutorService {
                 Object paramValue = userParams.get(paramName);
                 
                 // 转换参数类型
-                Object convertedValue = convertParameterValue(paramValue, paramDef.getType());
+                Object convertedValue = convertParameterValue(paramValue, paramDef.getTypeName());
                 apiParams.put(paramName, convertedValue);
             } 
             // 如果用户未提供参数值，但参数有默认值，使用默认值
             else if (paramDef.getDefaultValue() != null && !paramDef.getDefaultValue().isEmpty()) {
-                Object defaultValue = convertParameterValue(paramDef.getDefaultValue(), paramDef.getType());
+                Object defaultValue = convertParameterValue(paramDef.getDefaultValue(), paramDef.getTypeName());
                 apiParams.put(paramName, defaultValue);
             }
             // 如果是必填参数但没有值，使用示例值
             else if (paramDef.isRequired() && paramDef.getExampleValue() != null) {
-                Object exampleValue = convertParameterValue(paramDef.getExampleValue(), paramDef.getType());
+                Object exampleValue = convertParameterValue(paramDef.getExampleValue(), paramDef.getTypeName());
                 apiParams.put(paramName, exampleValue);
             }
         }
@@ -268,6 +402,113 @@ public class ApiExecutorService {
         return value;  // 如果转换失败，返回原值
     }
     
+    /**
+     * 判断API接口是否为支持page参数的分页列表接口
+     * 
+     * @param api API接口
+     * @return 是否为分页接口
+     */
+    private boolean isPaginatedApi(CompactApiInterface api) {
+        return api.getParameters() != null && api.getParameters().stream()
+                .anyMatch(p -> PAGE_PARAM.equals(p.getName()));
+    }
+    
+    /**
+     * 拉取分页接口的所有页面并按页码顺序合并
+     * <p>
+     * 先同步请求起始页并读取totalPages，然后以滑动窗口的方式并发请求后续页面：
+     * 在途请求数不超过maxConcurrency，结果按页码顺序依次合并，达到maxRecords后停止提交并取消剩余请求。
+     * 这样N个页面只需要约N/maxConcurrency轮往返，而不是N次串行调用。
+     * 
+     * @param api API接口
+     * @param apiParams 起始页的API参数
+     * @param maxConcurrency 最大并发页数
+     * @param maxRecords 最多返回的记录数
+     * @return 合并后的分页响应，如果起始页不是分页响应则原样返回
+     */
+    private Object fetchAllPages(CompactApiInterface api, Map<String, Object> apiParams, int maxConcurrency, int maxRecords) {
+        int concurrency = maxConcurrency > 0 ? Math.min(maxConcurrency, MAX_PAGE_CONCURRENCY) : DEFAULT_PAGE_CONCURRENCY;
+        int recordLimit = maxRecords > 0 ? maxRecords : DEFAULT_MAX_RECORDS;
+        
+        // 先请求起始页，从中读取总页数
+        Object firstResponse = mockApiCall(api, apiParams);
+        if (!isPageResponse(firstResponse)) {
+            return firstResponse;
+        }
+        Map<?, ?> firstPage = (Map<?, ?>) firstResponse;
+        List<Object> records = new ArrayList<>((List<?>) firstPage.get("content"));
+        
+        int startPage = parseInt(apiParams.get(PAGE_PARAM), 1);
+        int totalPages = parseInt(firstPage.get("totalPages"), startPage);
+        int pageSize = Math.max(records.size(), 1);
+        int nextPage = startPage + 1;
+        int pagesFetched = 1;
+        
+        log.info("自动分页拉取: {}, 起始页: {}, 总页数: {}, 并发数: {}, 记录上限: {}",
+                api.getId(), startPage, totalPages, concurrency, recordLimit);
+        
+        Deque<CompletableFuture<Object>> inFlight = new ArrayDeque<>();
+        try {
+            while (records.size() < recordLimit && (nextPage <= totalPages || !inFlight.isEmpty())) {
+                // 补满滑动窗口，已经在途的页面足以凑满记录上限时不再提交新请求
+                while (inFlight.size() < concurrency && nextPage <= totalPages
+                        && records.size() + (long) inFlight.size() * pageSize < recordLimit) {
+                    Map<String, Object> pageParams = new HashMap<>(apiParams);
+                    pageParams.put(PAGE_PARAM, nextPage++);
+                    inFlight.addLast(CompletableFuture.supplyAsync(() -> mockApiCall(api, pageParams), pageFetchExecutor));
+                }
+                
+                // 按页码顺序合并最早提交的页面
+                Object pageResponse = inFlight.pollFirst().join();
+                pagesFetched++;
+                if (isPageResponse(pageResponse)) {
+                    records.addAll((List<?>) ((Map<?, ?>) pageResponse).get("content"));
+                }
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        
+        boolean truncated = records.size() > recordLimit || startPage + pagesFetched - 1 < totalPages;
+        if (records.size() > recordLimit) {
+            records = new ArrayList<>(records.subList(0, recordLimit));
+        }
+        
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("content", records);
+        merged.put("page", startPage);
+        merged.put("size", pageSize);
+        merged.put("pagesFetched", pagesFetched);
+        merged.put("totalPages", totalPages);
+        merged.put("totalElements", firstPage.get("totalElements"));
+        merged.put("truncated", truncated);
+        return merged;
+    }
+    
+    /**
+     * 判断响应是否为包含content列表的分页响应
+     */
+    private boolean isPageResponse(Object response) {
+        return response instanceof Map<?, ?> map && map.get("content") instanceof List<?>;
+    }
+    
+    /**
+     * 将数字或字符串形式的值解析为整数
+     */
+    private int parseInt(Object value, int defaultValue) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                // 忽略解析错误
+            }
+        }
+        return defaultValue;
+    }
+    
     /**
      * 模拟API调用
      * 
@@ -275,39 +516,41 @@ public class ApiExecutorService {
      * @param parameters API参数
      * @return 模拟的响应数据
      */
-    private Object mockApiCall(ApiInterface api, Map<String, Object> parameters) {
+    private Object mockApiCall(CompactApiInterface api, Map<String, Object> parameters) {
         log.info("模拟调用API: {}, 参数: {}", api.getName(), parameters);
         
         // 根据API类型生成不同的模拟响应
-        switch (api.getMethod().toUpperCase()) {
-            case "GET":
+        HttpMethod method = api.getMethod();
+        if (method == null) {
+            return Map.of("message", "不支持的HTTP方法: " + api.getMethodName());
+        }
+        switch (method) {
+            case GET:
                 return mockGetResponse(api, parameters);
-            case "POST":
+            case POST:
                 return mockPostResponse(api, parameters);
-            case "PUT":
+            case PUT:
                 return mockPutResponse(api, parameters);
-            case "DELETE":
+            case DELETE:
                 return mockDeleteResponse(api, parameters);
             default:
-                return Map.of("message", "不支持的HTTP方法: " + api.getMethod());
+                return Map.of("message", "不支持的HTTP方法: " + api.getMethodName());
         }
     }
     
     /**
      * 模拟GET请求响应
      */
-    private Object mockGetResponse(ApiInterface api, Map<String, Object> parameters) {
+    private Object mockGetResponse(CompactApiInterface api, Map<String, Object> parameters) {
         // 根据API路径判断响应类型
         if (api.getPath().contains("/users/")) {
             return mockUserResponse(parameters);
         } else if (api.getPath().contains("/orders/")) {
             return mockOrderResponse(parameters);
+        } else if (api.getPath().endsWith("/products")) {
+            return mockProductListResponse(parameters);
         } else if (api.getPath().contains("/products/")) {
-            if (!api.getPath().endsWith("/products")) {
-                return mockProductResponse(parameters);
-            } else {
-                return mockProductListResponse(parameters);
-            }
+            return mockProductResponse(parameters);
         }
         
         // 默认响应
@@ -322,7 +565,7 @@ public class ApiExecutorService {
     /**
      * 模拟POST请求响应
      */
-    private Object mockPostResponse(ApiInterface api, Map<String, Object> parameters) {
+    private Object mockPostResponse(CompactApiInterface api, Map<String, Object> parameters) {
         // 生成一个新ID
         String newId = UUID.randomUUID().toString().substring(0, 8);
         
@@ -339,7 +582,7 @@ public class ApiExecutorService {
     /**
      * 模拟PUT请求响应
      */
-    private Object mockPutResponse(ApiInterface api, Map<String, Object> parameters) {
+    private Object mockPutResponse(CompactApiInterface api, Map<String, Object> parameters) {
         // 提取ID参数
         String id = null;
         for (Map.Entry<String, Object> entry : parameters.entrySet()) {
@@ -366,7 +609,7 @@ public class ApiExecutorService {
     /**
      * 模拟DELETE请求响应
      */
-    private Object mockDeleteResponse(ApiInterface api, Map<String, Object> parameters) {
+    private Object mockDeleteResponse(CompactApiInterface api, Map<String, Object> parameters) {
         return Map.of(
             "success", true,
             "message", "删除成功",
@@ -481,4 +724,32 @@ public class ApiExecutorService {
             "totalPages", 10 + (System.currentTimeMillis() % 10)
         );
     }
+    
+    /**
+     * 缓存的执行结果，远程缓存中按 {@link BinaryCodec} 的值树编码
+     *
+     * @param responseData 响应数据
+     * @param metadata 响应元数据
+     */
+    private record Execution(Object responseData, Map<String, Object> metadata) {
+
+        static final ValueCodec<Execution> CODEC = new ValueCodec<>() {
+
+            @Override
+            public byte[] encode(Execution value) {
+                return new BinaryCodec.Writer()
+                        .writeValue(value.responseData())
+                        .writeValue(value.metadata())
+                        .toByteArray();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Execution decode(byte[] bytes) {
+                BinaryCodec.Reader reader = new BinaryCodec.Reader(bytes);
+                Object responseData = reader.readValue();
+                return new Execution(responseData, (Map<String, Object>) reader.readValue());
+            }
+        };
+    }
 }
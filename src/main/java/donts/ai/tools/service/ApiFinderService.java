@@ -1,17 +1,37 @@
 package donts.ai.tools.service;
 
+import donts.ai.tools.cache.RankedPages;
+import donts.ai.tools.cache.RankedResult;
+import donts.ai.tools.cache.ResultCaches;
+import donts.ai.tools.cache.TenantCaches;
+import donts.ai.tools.cache.TwoTierCache;
+import donts.ai.tools.cluster.CatalogCluster;
+import donts.ai.tools.cluster.ShardHits;
+import donts.ai.tools.cluster.ShardQuery;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ScoreExplainer;
+import donts.ai.tools.index.SynonymDictionary;
 import donts.ai.tools.model.ApiInterface;
-import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.HttpMethod;
+import donts.ai.tools.model.ScoreContribution;
+import donts.ai.tools.model.ScoreExplanation;
+import donts.ai.tools.repository.CatalogSnapshot;
 import donts.ai.tools.repository.MockDataRepository;
 import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.request.ApiSearchRequest;
 import donts.ai.tools.response.ApiFinderResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,8 +44,49 @@ public class ApiFinderService {
     @Autowired
     private MockDataRepository dataRepository;
     
+    @Autowired
+    private ApiUsageService apiUsageService;
+    
+    @Autowired
+    private CatalogCluster catalogCluster;
+    
+    @Autowired(required = false)
+    private ResultCaches resultCaches;
+    
+    /**
+     * 共享排序结果的有效期（秒），为0时不使用共享缓存
+     */
+    @Value("${cache.finder.ttl-seconds:600}")
+    private long finderCacheTtlSeconds = 600;
+    
+    /**
+     * 全局搜索为续页保存的页数，超出部分需要调整搜索条件
+     */
+    private static final int SEARCH_WINDOW_PAGES = 10;
+    
     /**
-     * 根据数据模型ID查找相关的API接口
+     * 各租户供续页游标读取的排序结果
+     */
+    private final TenantCaches<RankedPages<CompactApiInterface>> rankedApis =
+            new TenantCaches<>(64, () -> new RankedPages<>(256, 5 * 60 * 1000));
+    
+    /**
+     * 跨实例共享的全局搜索排序结果，未启用时为null
+     * <p>
+     * 以目录内容散列和查询条件为键，配置了远程缓存时多个实例共享。
+     */
+    private TwoTierCache<RankedResult> sharedRankings;
+    
+    @PostConstruct
+    public void init() {
+        if (resultCaches != null && finderCacheTtlSeconds > 0) {
+            sharedRankings = resultCaches.create("api-rankings", 64, 256, finderCacheTtlSeconds * 1000,
+                    RankedResult.CODEC);
+        }
+    }
+    
+    /**
+     * 根据数据模型ID查找相关的API接口，多节点模式下转发到模型所属的节点
      * 
      * @param request 查找请求
      * @return 查找响应
@@ -33,9 +94,25 @@ public class ApiFinderService {
     public ApiFinderResponse findApisByModelId(ApiFinderRequest request) {
         log.info("根据数据模型ID查找API接口: {}", request.getModelId());
         
+        if (clustered() && request.getModelId() != null && !catalogCluster.isLocalModel(request.getModelId())) {
+            return catalogCluster.forwardFindApis(request);
+        }
+        return findApisByModelIdLocally(request);
+    }
+    
+    /**
+     * 在本节点的目录分片上根据数据模型ID查找API接口，不转发到其他节点
+     * 
+     * @param request 查找请求
+     * @return 查找响应
+     */
+    public ApiFinderResponse findApisByModelIdLocally(ApiFinderRequest request) {
         try {
             // 检查数据模型是否存在
-            DataModel model = dataRepository.getDataModelById(request.getModelId());
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            RankedPages<CompactApiInterface> pages = rankedApis.get(repository.getTenantId());
+            CatalogSnapshot catalog = repository.getSnapshot();
+            CompactDataModel model = catalog.getDataModel(request.getModelId());
             if (model == null) {
                 return ApiFinderResponse.builder()
                         .requestId(request.getRequestId())
@@ -44,8 +121,19 @@ public class ApiFinderService {
                         .build();
             }
             
+            String pageQuery = "model:" + request.getModelId() + "|" + request.getOperationType();
+            if (request.getCursor() != null && !request.getCursor().isBlank()) {
+                return nextPage(pages, request.getRequestId(), request.getCursor(), catalog.getVersion(), pageQuery,
+                        request.getMaxResults(), request.isIncludeDetails(), request.getModelId(),
+                        request.isExplain() ? api -> explainModelApi(repository.getTenantId(), api, model) : null);
+            }
+            
             // 获取与数据模型相关的API接口
-            List<ApiInterface> relatedApis = dataRepository.getApiInterfacesByModelId(request.getModelId());
+            List<CompactApiInterface> relatedApis = model.getRelatedApiIds() == null ? new ArrayList<>()
+                    : model.getRelatedApiIds().stream()
+                            .map(catalog::getApiInterface)
+                            .filter(api -> api != null)
+                            .collect(Collectors.toList());
             
             // 如果指定了操作类型，进行过滤
             if (request.getOperationType() != null && !request.getOperationType().isEmpty()) {
@@ -53,44 +141,253 @@ public class ApiFinderService {
             }
             
             // 计算匹配度分数
-            List<Integer> matchScores = calculateMatchScores(relatedApis, model);
+            List<Integer> matchScores = calculateMatchScores(repository.getTenantId(), relatedApis, model);
             
             // 根据匹配度排序
-            List<ApiInterface> sortedApis = sortApisByScore(relatedApis, matchScores);
+            List<CompactApiInterface> sortedApis = sortApisByScore(relatedApis, matchScores);
             
-            // 限制返回结果数量
-            int maxResults = request.getMaxResults() > 0 ? request.getMaxResults() : 10;
-            List<ApiInterface> resultApis = sortedApis.stream()
-                    .limit(maxResults)
+            // 计算对应的分数（排序后与结果一一对应）
+            List<Integer> sortedScores = matchScores.stream()
+                    .sorted(Comparator.reverseOrder())
                     .collect(Collectors.toList());
             
-            // 如果不需要详细信息，则简化API接口信息
-            if (!request.isIncludeDetails()) {
-                resultApis = resultApis.stream()
-                        .map(this::simplifyApi)
-                        .collect(Collectors.toList());
-            }
-            
-            // 计算对应的分数
-            List<Integer> resultScores = matchScores.subList(0, Math.min(matchScores.size(), maxResults));
+            // 限制返回结果数量，有更多结果时保存完整的排序结果并生成续页游标
+            int end = Math.min(pageSize(request.getMaxResults()), sortedApis.size());
+            String nextCursor = pages.save(catalog.getVersion(), pageQuery, sortedApis, sortedScores,
+                    relatedApis.size(), end);
+            return toResponse(request.getRequestId(), sortedApis.subList(0, end), sortedScores.subList(0, end),
+                    relatedApis.size(), nextCursor, request.isIncludeDetails(), request.getModelId(),
+                    request.isExplain() ? api -> explainModelApi(repository.getTenantId(), api, model) : null);
             
+        } catch (Exception e) {
+            log.error("查找API接口时发生错误", e);
             return ApiFinderResponse.builder()
                     .requestId(request.getRequestId())
-                    .success(true)
-                    .apis(resultApis)
-                    .matchScores(resultScores)
-                    .totalResults(relatedApis.size())
-                    .modelId(request.getModelId())
+                    .success(false)
+                    .errorMessage("查找API接口时发生错误: " + e.getMessage())
                     .build();
+        }
+    }
+    
+    /**
+     * 在全部API接口中按文本搜索，不需要先确定数据模型
+     * <p>
+     * 基于 {@link KeywordIndex} 的倒排表生成候选，使用预先计算的词项向量打分，并用小顶堆选出前K个结果。
+     * 只保存排在前面的若干页供续页使用。多节点模式下分发到各节点后合并，此时不支持续页游标和分数说明。
+     * 
+     * @param request 搜索请求
+     * @return 搜索响应
+     */
+    public ApiFinderResponse searchApis(ApiSearchRequest request) {
+        log.info("全局搜索API接口: {}", request.getQuery());
+        
+        try {
+            if (request.getQuery() == null || request.getQuery().isBlank()) {
+                return ApiFinderResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(false)
+                        .errorMessage("搜索文本不能为空")
+                        .build();
+            }
+            
+            if (clustered()) {
+                return searchApisAcrossNodes(request);
+            }
+            
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            RankedPages<CompactApiInterface> pages = rankedApis.get(repository.getTenantId());
+            CatalogSnapshot catalog = repository.getSnapshot();
+            String[] terms = catalog.normalizeQuery(request.getQuery().trim());
+            String opType = request.getOperationType() == null ? "" : request.getOperationType().toLowerCase();
+            int maxResults = pageSize(request.getMaxResults());
+            Function<CompactApiInterface, ScoreExplanation> explainer =
+                    request.isExplain() ? api -> explainSearchHit(repository, api, terms) : null;
+            
+            // 保存的结果数量取决于页面大小，页面大小不同的查询分别保存
+            String pageQuery = "search:" + request.getQuery().trim() + "|" + opType + "|" + maxResults;
+            if (request.getCursor() != null && !request.getCursor().isBlank()) {
+                return nextPage(pages, request.getRequestId(), request.getCursor(), catalog.getVersion(), pageQuery,
+                        maxResults, request.isIncludeDetails(), null, explainer);
+            }
+            
+            // 其他实例或租户在内容相同的目录上已经选出的结果，按ID取回本实例的接口
+            String rankingKey = sharedRankings == null ? null : catalog.contentDigest().toHex() + ":"
+                    + Long.toHexString(catalog.getSynonyms().fingerprint()) + ":"
+                    + apiUsageService.boostDigest(repository.getTenantId()) + ":" + String.join(" ", terms)
+                    + "|" + opType + "|" + maxResults;
+            RankedResult shared = rankingKey == null ? null : sharedRankings.get(repository.getTenantId(), rankingKey);
+            List<CompactApiInterface> sharedHits = shared == null ? null : resolve(catalog, shared.ids());
+            if (sharedHits != null) {
+                return firstPage(pages, request, catalog.getVersion(), pageQuery, sharedHits, shared.scores(),
+                        shared.total(), explainer);
+            }
+            
+            // 一次选出前若干页的结果，第一页之后的部分保存给续页使用
+            KeywordIndex.TopK<CompactApiInterface> topK = catalog.searchApiInterfaces(terms,
+                    maxResults * SEARCH_WINDOW_PAGES, api -> opType.isEmpty() || matchesOperationType(api, opType),
+                    api -> apiUsageService.apiBoost(repository.getTenantId(), api.getId()));
+            
+            List<CompactApiInterface> rankedHits = topK.hits().stream()
+                    .map(KeywordIndex.Hit::document)
+                    .collect(Collectors.toList());
+            List<Integer> rankedScores = topK.hits().stream()
+                    .map(KeywordIndex.Hit::score)
+                    .collect(Collectors.toList());
+            if (rankingKey != null) {
+                sharedRankings.put(repository.getTenantId(), rankingKey, new RankedResult(rankedHits.stream()
+                        .map(CompactApiInterface::getId)
+                        .toList(), List.copyOf(rankedScores), topK.totalHits()));
+            }
+            
+            return firstPage(pages, request, catalog.getVersion(), pageQuery, rankedHits, rankedScores,
+                    topK.totalHits(), explainer);
             
         } catch (Exception e) {
-            log.error("查找API接口时发生错误", e);
+            log.error("搜索API接口时发生错误", e);
             return ApiFinderResponse.builder()
                     .requestId(request.getRequestId())
                     .success(false)
-                    .errorMessage("查找API接口时发生错误: " + e.getMessage())
+                    .errorMessage("搜索API接口时发生错误: " + e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * 把全局搜索分发到所有节点，合并各节点的前若干个结果
+     */
+    private ApiFinderResponse searchApisAcrossNodes(ApiSearchRequest request) {
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            return ApiFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("多节点模式不支持续页游标")
+                    .build();
+        }
+        ShardQuery query = ShardQuery.builder()
+                .userId(request.getUserId())
+                .query(request.getQuery())
+                .operationType(request.getOperationType())
+                .limit(pageSize(request.getMaxResults()))
+                .includeDetails(request.isIncludeDetails())
+                .build();
+        CatalogCluster.Gathered<ApiInterface> gathered = catalogCluster.gather(node -> node.searchApis(query),
+                query.getLimit());
+        if (gathered.allUnavailable()) {
+            return ApiFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("所有节点均不可用")
+                    .unavailableNodes(gathered.unavailableNodes())
+                    .build();
+        }
+        return ApiFinderResponse.builder()
+                .requestId(request.getRequestId())
+                .success(true)
+                .apis(gathered.items())
+                .matchScores(gathered.scores())
+                .totalResults(gathered.totalHits())
+                .partial(gathered.partial())
+                .unavailableNodes(gathered.unavailableNodes())
+                .build();
+    }
+    
+    /**
+     * 在本节点的目录分片上全局搜索API接口，返回匹配度最高的若干个，供多节点模式合并
+     * 
+     * @param query 分片查询
+     * @return 本节点的查询结果
+     */
+    public ShardHits<ApiInterface> searchShard(ShardQuery query) {
+        MockDataRepository repository = dataRepository.forTenant(query.getUserId());
+        CatalogSnapshot catalog = repository.getSnapshot();
+        String[] terms = catalog.normalizeQuery(query.getQuery().trim());
+        String opType = query.getOperationType() == null ? "" : query.getOperationType().toLowerCase();
+        KeywordIndex.TopK<CompactApiInterface> topK = catalog.searchApiInterfaces(terms, query.getLimit(),
+                api -> opType.isEmpty() || matchesOperationType(api, opType),
+                api -> apiUsageService.apiBoost(repository.getTenantId(), api.getId()));
+        return ShardHits.<ApiInterface>builder()
+                .items(topK.hits().stream()
+                        .map(hit -> hit.document().toApiInterface(query.isIncludeDetails()))
+                        .collect(Collectors.toList()))
+                .scores(topK.hits().stream().map(KeywordIndex.Hit::score).collect(Collectors.toList()))
+                .totalHits(topK.totalHits())
+                .build();
+    }
+    
+    /**
+     * 截取全局搜索结果的第一页，有更多结果时保存排序结果并生成续页游标
+     */
+    private ApiFinderResponse firstPage(RankedPages<CompactApiInterface> pages, ApiSearchRequest request,
+                                        long version, String pageQuery, List<CompactApiInterface> rankedHits,
+                                        List<Integer> rankedScores, int total,
+                                        Function<CompactApiInterface, ScoreExplanation> explainer) {
+        int end = Math.min(pageSize(request.getMaxResults()), rankedHits.size());
+        String nextCursor = pages.save(version, pageQuery, rankedHits, rankedScores, total, end);
+        return toResponse(request.getRequestId(), rankedHits.subList(0, end), rankedScores.subList(0, end),
+                total, nextCursor, request.isIncludeDetails(), null, explainer);
+    }
+    
+    /**
+     * 按ID取回目录中的接口，有接口不存在时返回null
+     */
+    private List<CompactApiInterface> resolve(CatalogSnapshot catalog, List<String> ids) {
+        List<CompactApiInterface> apis = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CompactApiInterface api = catalog.getApiInterface(id);
+            if (api == null) {
+                return null;
+            }
+            apis.add(api);
+        }
+        return apis;
+    }
+    
+    private boolean clustered() {
+        return catalogCluster != null && catalogCluster.isEnabled();
+    }
+    
+    /**
+     * 根据续页游标读取保存的排序结果，构造下一页的响应
+     */
+    private ApiFinderResponse nextPage(RankedPages<CompactApiInterface> pages, String requestId, String cursor,
+                                       long version, String pageQuery, int maxResults, boolean includeDetails,
+                                       String modelId, Function<CompactApiInterface, ScoreExplanation> explainer) {
+        RankedPages.Page<CompactApiInterface> page = pages.page(cursor, version, pageQuery, pageSize(maxResults));
+        if (page == null) {
+            return ApiFinderResponse.builder()
+                    .requestId(requestId)
+                    .success(false)
+                    .errorMessage("游标无效或已过期，请重新查找")
                     .build();
         }
+        return toResponse(requestId, page.items(), page.scores(), page.total(), page.nextCursor(),
+                includeDetails, modelId, explainer);
+    }
+    
+    /**
+     * 构造一页响应，只有本页的接口转换为 {@link ApiInterface}，如果不需要详细信息，则简化API接口信息
+     */
+    private ApiFinderResponse toResponse(String requestId, List<CompactApiInterface> apis, List<Integer> scores,
+                                         int total, String nextCursor, boolean includeDetails, String modelId,
+                                         Function<CompactApiInterface, ScoreExplanation> explainer) {
+        List<ApiInterface> resultApis = apis.stream()
+                .map(api -> api.toApiInterface(includeDetails))
+                .collect(Collectors.toList());
+        
+        return ApiFinderResponse.builder()
+                .requestId(requestId)
+                .success(true)
+                .apis(resultApis)
+                .matchScores(new ArrayList<>(scores))
+                .totalResults(total)
+                .nextCursor(nextCursor)
+                .modelId(modelId)
+                .explanations(explainer == null ? null : apis.stream().map(explainer).collect(Collectors.toList()))
+                .build();
+    }
+    
+    private int pageSize(int maxResults) {
+        return maxResults > 0 ? maxResults : 10;
     }
     
     /**
@@ -100,104 +397,130 @@ public class ApiFinderService {
      * @param operationType 操作类型
      * @return 过滤后的API接口列表
      */
-    private List<ApiInterface> filterApisByOperationType(List<ApiInterface> apis, String operationType) {
+    private List<CompactApiInterface> filterApisByOperationType(List<CompactApiInterface> apis, String operationType) {
         String opType = operationType.toLowerCase();
         
         return apis.stream()
-                .filter(api -> {
-                    // 根据API名称和关键词判断操作类型
-                    String apiName = api.getName().toLowerCase();
-                    List<String> keywords = api.getKeywords();
-                    
-                    // 查询操作
-                    if (opType.contains("查询") || opType.contains("获取") || 
-                        opType.contains("query") || opType.contains("get")) {
-                        return apiName.contains("获取") || apiName.contains("查询") || 
-                               apiName.contains("get") || apiName.contains("query") || 
-                               api.getMethod().equalsIgnoreCase("GET") ||
-                               keywords.stream().anyMatch(k -> k.contains("获取") || k.contains("查询") || 
-                                                             k.contains("get") || k.contains("query"));
-                    }
-                    
-                    // 创建操作
-                    if (opType.contains("创建") || opType.contains("新建") || 
-                        opType.contains("create") || opType.contains("add")) {
-                        return apiName.contains("创建") || apiName.contains("新建") || 
-                               apiName.contains("添加") || apiName.contains("create") || 
-                               apiName.contains("add") || api.getMethod().equalsIgnoreCase("POST") ||
-                               keywords.stream().anyMatch(k -> k.contains("创建") || k.contains("新建") || 
-                                                             k.contains("添加") || k.contains("create") || 
-                                                             k.contains("add"));
-                    }
-                    
-                    // 更新操作
-                    if (opType.contains("更新") || opType.contains("修改") || 
-                        opType.contains("update") || opType.contains("edit")) {
-                        return apiName.contains("更新") || apiName.contains("修改") || 
-                               apiName.contains("编辑") || apiName.contains("update") || 
-                               apiName.contains("edit") || api.getMethod().equalsIgnoreCase("PUT") ||
-                               keywords.stream().anyMatch(k -> k.contains("更新") || k.contains("修改") || 
-                                                             k.contains("编辑") || k.contains("update") || 
-                                                             k.contains("edit"));
-                    }
-                    
-                    // 删除操作
-                    if (opType.contains("删除") || opType.contains("移除") || 
-                        opType.contains("delete") || opType.contains("remove")) {
-                        return apiName.contains("删除") || apiName.contains("移除") || 
-                               apiName.contains("delete") || apiName.contains("remove") || 
-                               api.getMethod().equalsIgnoreCase("DELETE") ||
-                               keywords.stream().anyMatch(k -> k.contains("删除") || k.contains("移除") || 
-                                                             k.contains("delete") || k.contains("remove"));
-                    }
-                    
-                    return true;
-                })
+                .filter(api -> matchesOperationType(api, opType))
                 .collect(Collectors.toList());
     }
     
     /**
-     * 计算API接口与数据模型的匹配度分数
+     * 判断API接口是否符合操作类型
      * 
+     * @param api API接口
+     * @param opType 小写的操作类型
+     * @return 是否符合
+     */
+    private boolean matchesOperationType(CompactApiInterface api, String opType) {
+        // 根据API名称和关键词判断操作类型，名称使用预先计算的小写形式
+        String apiName = api.getLowerName();
+        
+        // 查询操作
+        if (opType.contains("查询") || opType.contains("获取") || 
+            opType.contains("query") || opType.contains("get")) {
+            return containsAny(apiName, "获取", "查询", "get", "query") ||
+                   api.getMethod() == HttpMethod.GET ||
+                   anyKeywordContains(api, "获取", "查询", "get", "query");
+        }
+        
+        // 创建操作
+        if (opType.contains("创建") || opType.contains("新建") || 
+            opType.contains("create") || opType.contains("add")) {
+            return containsAny(apiName, "创建", "新建", "添加", "create", "add") ||
+                   api.getMethod() == HttpMethod.POST ||
+                   anyKeywordContains(api, "创建", "新建", "添加", "create", "add");
+        }
+        
+        // 更新操作
+        if (opType.contains("更新") || opType.contains("修改") || 
+            opType.contains("update") || opType.contains("edit")) {
+            return containsAny(apiName, "更新", "修改", "编辑", "update", "edit") ||
+                   api.getMethod() == HttpMethod.PUT ||
+                   anyKeywordContains(api, "更新", "修改", "编辑", "update", "edit");
+        }
+        
+        // 删除操作
+        if (opType.contains("删除") || opType.contains("移除") || 
+            opType.contains("delete") || opType.contains("remove")) {
+            return containsAny(apiName, "删除", "移除", "delete", "remove") ||
+                   api.getMethod() == HttpMethod.DELETE ||
+                   anyKeywordContains(api, "删除", "移除", "delete", "remove");
+        }
+        
+        return true;
+    }
+    
+    /**
+     * 判断API接口的任一关键词是否包含任一片段，关键词按原文比较
+     */
+    private boolean anyKeywordContains(CompactApiInterface api, String... parts) {
+        for (int i = 0; i < api.keywordCount(); i++) {
+            if (containsAny(api.keyword(i), parts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean containsAny(String text, String... parts) {
+        for (String part : parts) {
+            if (text.contains(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 计算API接口与数据模型的匹配度分数，匹配度加上 {@link ApiUsageService} 统计的热度加分
+     * 
+     * @param tenantId 租户，决定热度加分
      * @param apis API接口列表
      * @param model 数据模型
      * @return 匹配度分数列表
      */
-    private List<Integer> calculateMatchScores(List<ApiInterface> apis, DataModel model) {
+    private List<Integer> calculateMatchScores(String tenantId, List<CompactApiInterface> apis, CompactDataModel model) {
         List<Integer> scores = new ArrayList<>();
+        String modelName = model.getLowerName();
         
-        for (ApiInterface api : apis) {
+        for (CompactApiInterface api : apis) {
             int score = 60;  // 基础分数
             
             // 检查API名称是否包含模型名称
-            if (api.getName().toLowerCase().contains(model.getName().toLowerCase())) {
+            if (api.getLowerName().contains(modelName)) {
                 score += 10;
             }
             
             // 检查API描述是否包含模型名称
-            if (api.getDescription().toLowerCase().contains(model.getName().toLowerCase())) {
+            if (api.getLowerDescription().contains(modelName)) {
                 score += 10;
             }
             
             // 根据HTTP方法调整分数
-            switch (api.getMethod().toUpperCase()) {
-                case "GET":
-                    score += 5;  // 查询接口略微提高权重
-                    break;
-                case "POST":
-                    score += 5;  // 创建接口略微提高权重
-                    break;
-                case "PUT":
-                case "PATCH":
-                    score += 0;  // 更新接口保持原权重
-                    break;
-                case "DELETE":
-                    score -= 5;  // 删除接口略微降低权重
-                    break;
-                default:
-                    break;
+            if (api.getMethod() != null) {
+                switch (api.getMethod()) {
+                    case GET:
+                        score += 5;  // 查询接口略微提高权重
+                        break;
+                    case POST:
+                        score += 5;  // 创建接口略微提高权重
+                        break;
+                    case PUT:
+                    case PATCH:
+                        score += 0;  // 更新接口保持原权重
+                        break;
+                    case DELETE:
+                        score -= 5;  // 删除接口略微降低权重
+                        break;
+                    default:
+                        break;
+                }
             }
             
+            // 热度加分
+            score += apiUsageService.apiBoost(tenantId, api.getId());
+            
             // 限制分数上限为100
             scores.add(Math.min(score, 100));
         }
@@ -205,6 +528,65 @@ public class ApiFinderService {
         return scores;
     }
     
+    /**
+     * 计算按数据模型查找时API接口的分数说明，规则与 {@link #calculateMatchScores} 一致
+     * 
+     * @param tenantId 租户，决定热度加分
+     * @param api API接口
+     * @param model 数据模型
+     * @return 分数说明
+     */
+    private ScoreExplanation explainModelApi(String tenantId, CompactApiInterface api, CompactDataModel model) {
+        String modelName = model.getLowerName();
+        List<ScoreContribution> contributions = new ArrayList<>();
+        contributions.add(new ScoreContribution("base", null, null, 60));
+        if (api.getLowerName().contains(modelName)) {
+            contributions.add(new ScoreContribution("name", modelName, null, 10));
+        }
+        if (api.getLowerDescription().contains(modelName)) {
+            contributions.add(new ScoreContribution("description", modelName, null, 10));
+        }
+        if (api.getMethod() != null) {
+            int points = switch (api.getMethod()) {
+                case GET, POST -> 5;
+                case DELETE -> -5;
+                default -> 0;
+            };
+            if (points != 0) {
+                contributions.add(new ScoreContribution("method", null, api.getMethod().name(), points));
+            }
+        }
+        return explanation(tenantId, api, contributions);
+    }
+    
+    /**
+     * 计算全局搜索时API接口的分数说明，规则与索引打分一致
+     * 
+     * @param repository 所在租户的目录，决定同义词词典和热度加分
+     * @param api API接口
+     * @param terms 小写词项
+     * @return 分数说明
+     */
+    private ScoreExplanation explainSearchHit(MockDataRepository repository, CompactApiInterface api, String[] terms) {
+        SynonymDictionary synonyms = repository.getIndexing().synonyms();
+        List<ScoreContribution> contributions = ScoreExplainer.explain(api.getLowerName(), api.getLowerDescription(),
+                synonyms.canonicalize(api.lowerKeywords()), terms, synonyms.canonicalTerms(terms));
+        return explanation(repository.getTenantId(), api, contributions);
+    }
+    
+    private ScoreExplanation explanation(String tenantId, CompactApiInterface api, List<ScoreContribution> contributions) {
+        int total = ScoreExplainer.total(contributions);
+        int boost = apiUsageService.apiBoost(tenantId, api.getId());
+        return ScoreExplanation.builder()
+                .id(api.getId())
+                .matchedTerms(ScoreExplainer.matchedTerms(contributions))
+                .contributions(contributions)
+                .usageBoost(boost)
+                .rawScore(total + boost)
+                .score(Math.min(total + boost, 100))
+                .build();
+    }
+    
     /**
      * 根据匹配度分数对API接口进行排序
      * 
@@ -212,7 +594,7 @@ public class ApiFinderService {
      * @param scores 匹配度分数列表
      * @return 排序后的API接口列表
      */
-    private List<ApiInterface> sortApisByScore(List<ApiInterface> apis, List<Integer> scores) {
+    private List<CompactApiInterface> sortApisByScore(List<CompactApiInterface> apis, List<Integer> scores) {
         // 创建API和分数的配对
         List<ApiScorePair> pairs = new ArrayList<>();
         for (int i = 0; i < apis.size(); i++) {
@@ -228,37 +610,19 @@ public class ApiFinderService {
                 .collect(Collectors.toList());
     }
     
-    /**
-     * 简化API接口，移除详细参数信息
-     * 
-     * @param api 原始API接口
-     * @return 简化后的API接口
-     */
-    private ApiInterface simplifyApi(ApiInterface api) {
-        return ApiInterface.builder()
-                .id(api.getId())
-                .name(api.getName())
-                .description(api.getDescription())
-                .path(api.getPath())
-                .method(api.getMethod())
-                .responseType(api.getResponseType())
-                .relatedModelId(api.getRelatedModelId())
-                .build();
-    }
-    
     /**
      * API接口和匹配度分数的配对类
      */
     private static class ApiScorePair {
-        private final ApiInterface api;
+        private final CompactApiInterface api;
         private final int score;
         
-        public ApiScorePair(ApiInterface api, int score) {
+        public ApiScorePair(CompactApiInterface api, int score) {
             this.api = api;
             this.score = score;
         }
         
-        public ApiInterface getApi() {
+        public CompactApiInterface getApi() {
             return api;
         }
         
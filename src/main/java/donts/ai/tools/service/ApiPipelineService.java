@@ -0,0 +1,219 @@
+package donts.ai.tools.service;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.request.ApiExecutorRequest;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.request.ApiPipelineRequest;
+import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.ApiExecutorResponse;
+import donts.ai.tools.response.ApiFinderResponse;
+import donts.ai.tools.response.ApiPipelineResponse;
+import donts.ai.tools.response.ModelFinderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 一站式解析并执行服务，在服务端完成 findModel -> findApi -> executeApi 的完整流程
+ */
+@Slf4j
+@Service
+public class ApiPipelineService {
+
+    /**
+     * 默认的直接执行最低置信度
+     */
+    private static final int DEFAULT_MIN_CONFIDENCE = 60;
+    
+    /**
+     * 默认返回的候选数量
+     */
+    private static final int DEFAULT_MAX_CANDIDATES = 3;
+
+    @Autowired
+    private ModelFinderService modelFinderService;
+    
+    @Autowired
+    private ApiFinderService apiFinderService;
+    
+    @Autowired
+    private ApiExecutorService apiExecutorService;
+    
+    /**
+     * 根据用户描述解析最匹配的数据模型和API接口并执行
+     * <p>
+     * 置信度不足（分数低于阈值或排名第一的候选与第二名分数相同）时不执行，而是返回候选列表供调用方选择。
+     * 
+     * @param request 请求参数
+     * @return 解析和执行结果
+     */
+    public ApiPipelineResponse resolveAndExecute(ApiPipelineRequest request) {
+        log.info("一站式解析并执行API: {}, 操作类型: {}", request.getDescription(), request.getOperationType());
+        
+        try {
+            int minConfidence = request.getMinConfidence() > 0 ? request.getMinConfidence() : DEFAULT_MIN_CONFIDENCE;
+            int maxCandidates = request.getMaxCandidates() > 0 ? request.getMaxCandidates() : DEFAULT_MAX_CANDIDATES;
+            Map<String, Object> parameters = request.getParameters() != null ? request.getParameters() : Map.of();
+            
+            // 1. 解析数据模型
+            ModelFinderResponse modelResponse = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                    .requestId(request.getRequestId())
+                    .userId(request.getUserId())
+                    .timestamp(request.getTimestamp())
+                    .description(request.getDescription())
+                    .maxResults(maxCandidates)
+                    .includeDetails(false)
+                    .build());
+            if (!modelResponse.isSuccess()) {
+                return failure(request, modelResponse.getErrorMessage());
+            }
+            if (modelResponse.getModels().isEmpty()) {
+                return ApiPipelineResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(true)
+                        .executed(false)
+                        .lowConfidenceReason("未找到匹配的数据模型")
+                        .candidateModels(List.of())
+                        .candidateModelScores(List.of())
+                        .build();
+            }
+            
+            DataModel model = modelResponse.getModels().get(0);
+            int modelScore = modelResponse.getMatchScores().get(0);
+            
+            // 2. 解析API接口，结合用户已提供的参数对候选接口重新打分
+            ApiFinderResponse apiResponse = apiFinderService.findApisByModelId(ApiFinderRequest.builder()
+                    .requestId(request.getRequestId())
+                    .userId(request.getUserId())
+                    .timestamp(request.getTimestamp())
+                    .modelId(model.getId())
+                    .operationType(request.getOperationType())
+                    .maxResults(Integer.MAX_VALUE)
+                    .includeDetails(true)
+                    .build());
+            if (!apiResponse.isSuccess()) {
+                return failure(request, apiResponse.getErrorMessage());
+            }
+            
+            List<ApiCandidate> apiCandidates = new ArrayList<>();
+            for (int i = 0; i < apiResponse.getApis().size(); i++) {
+                ApiInterface api = apiResponse.getApis().get(i);
+                apiCandidates.add(new ApiCandidate(api, adjustScoreByParameters(api, apiResponse.getMatchScores().get(i), parameters)));
+            }
+            apiCandidates.sort(Comparator.comparingInt(ApiCandidate::score).reversed());
+            
+            // 3. 判断置信度
+            String lowConfidenceReason = null;
+            int apiScore = apiCandidates.isEmpty() ? 0 : apiCandidates.get(0).score();
+            int confidence = Math.min(modelScore, apiScore);
+            
+            if (apiCandidates.isEmpty()) {
+                lowConfidenceReason = "数据模型 " + model.getId() + " 下未找到匹配的API接口";
+            } else if (isAmbiguous(modelResponse.getMatchScores())) {
+                lowConfidenceReason = "存在多个匹配度相同的数据模型";
+            } else if (isAmbiguous(apiCandidates.stream().map(ApiCandidate::score).collect(Collectors.toList()))) {
+                lowConfidenceReason = "存在多个匹配度相同的API接口，请指定操作类型或补充参数";
+            } else if (confidence < minConfidence) {
+                lowConfidenceReason = "置信度 " + confidence + " 低于阈值 " + minConfidence;
+            }
+            
+            if (lowConfidenceReason != null) {
+                List<ApiCandidate> topApis = apiCandidates.subList(0, Math.min(apiCandidates.size(), maxCandidates));
+                return ApiPipelineResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(true)
+                        .executed(false)
+                        .modelId(model.getId())
+                        .modelScore(modelScore)
+                        .apiScore(apiScore)
+                        .confidence(confidence)
+                        .lowConfidenceReason(lowConfidenceReason)
+                        .candidateModels(modelResponse.getModels())
+                        .candidateModelScores(modelResponse.getMatchScores())
+                        .candidateApis(topApis.stream().map(ApiCandidate::api).collect(Collectors.toList()))
+                        .candidateApiScores(topApis.stream().map(ApiCandidate::score).collect(Collectors.toList()))
+                        .build();
+            }
+            
+            // 4. 执行API接口
+            ApiInterface api = apiCandidates.get(0).api();
+            ApiExecutorResponse result = apiExecutorService.executeApi(ApiExecutorRequest.builder()
+                    .requestId(request.getRequestId())
+                    .userId(request.getUserId())
+                    .timestamp(request.getTimestamp())
+                    .apiId(api.getId())
+                    .parameters(parameters)
+                    .validateParameters(request.isValidateParameters())
+                    .detailedResponse(request.isDetailedResponse())
+                    .build());
+            
+            return ApiPipelineResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(result.isSuccess())
+                    .errorMessage(result.getErrorMessage())
+                    .executed(true)
+                    .modelId(model.getId())
+                    .apiId(api.getId())
+                    .modelScore(modelScore)
+                    .apiScore(apiScore)
+                    .confidence(confidence)
+                    .result(result)
+                    .build();
+            
+        } catch (Exception e) {
+            log.error("一站式解析并执行API时发生错误", e);
+            return failure(request, "一站式解析并执行API时发生错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 根据用户已提供的参数调整API接口的匹配度：
+     * 必填参数齐全的接口加分，缺少必填参数或提供了接口不接受的参数则扣分
+     * 
+     * @param api API接口
+     * @param score 原始匹配度
+     * @param parameters 用户提供的参数
+     * @return 调整后的匹配度（0-100）
+     */
+    private int adjustScoreByParameters(ApiInterface api, int score, Map<String, Object> parameters) {
+        List<ApiParameter> apiParams = api.getParameters() != null ? api.getParameters() : List.of();
+        
+        long missingRequired = apiParams.stream()
+                .filter(p -> p.isRequired() && parameters.get(p.getName()) == null)
+                .count();
+        long unknownProvided = parameters.keySet().stream()
+                .filter(name -> apiParams.stream().noneMatch(p -> p.getName().equals(name)))
+                .count();
+        
+        int adjusted = score + (missingRequired == 0 ? 10 : (int) (-10 * missingRequired)) - (int) (5 * unknownProvided);
+        return Math.max(0, Math.min(adjusted, 100));
+    }
+    
+    /**
+     * 判断排名前两位的分数是否相同
+     */
+    private boolean isAmbiguous(List<Integer> sortedScores) {
+        return sortedScores.size() > 1 && sortedScores.get(0).equals(sortedScores.get(1));
+    }
+    
+    private ApiPipelineResponse failure(ApiPipelineRequest request, String errorMessage) {
+        return ApiPipelineResponse.builder()
+                .requestId(request.getRequestId())
+                .success(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+    
+    /**
+     * API接口和调整后匹配度的配对
+     */
+    private record ApiCandidate(ApiInterface api, int score) {}
+}
@@ -0,0 +1,398 @@
+package donts.ai.tools.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.crypto.SecureUtil;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.repository.CatalogSnapshot;
+import donts.ai.tools.repository.MockDataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * API使用统计服务，记录查找之后实际执行的API接口，作为查找结果排序的热度先验
+ * <p>
+ * 统计按租户分开，一个租户的使用不影响其他租户的排序。每次执行API接口时在 {@link LongAdder} 计数器上累加，计数路径无锁。
+ * 后台线程定期把计数器清零并并入随时间衰减的热度分数，同时换算为不可变的加分表整体发布；查找服务排序时只读加分表，
+ * 不访问计数器，也不分配对象。热度分数衰减到阈值以下或条目已从租户目录中删除时，分数和计数器一并丢弃，
+ * 一个周期内没有使用的计数器也被移除，统计规模跟随各租户目录中仍在使用的条目。
+ * 配置了统计文件时每次发布后写入文件，重启后加载，热度不会因重启丢失。
+ */
+@Slf4j
+@Service
+public class ApiUsageService {
+
+    private static final String API = "api";
+    private static final String MODEL = "model";
+
+    /**
+     * 热度分数低于该值时丢弃，避免长期不用的条目一直保留
+     */
+    private static final double MIN_SCORE = 0.01;
+
+    /**
+     * 热度分数的半衰期（小时）
+     */
+    @Value("${ranking.usage.half-life-hours:72}")
+    private double halfLifeHours = 72;
+
+    /**
+     * 计数器并入热度分数并发布加分表的间隔（秒）
+     */
+    @Value("${ranking.usage.snapshot-interval-seconds:60}")
+    private long snapshotIntervalSeconds = 60;
+
+    /**
+     * 最热门的条目获得的加分，其他条目按热度分数的对数比例递减
+     */
+    @Value("${ranking.usage.max-boost:10}")
+    private int maxBoost = 10;
+
+    /**
+     * 统计文件路径，为空时不持久化
+     */
+    @Value("${ranking.usage.file:}")
+    private String usageFile = "";
+
+    /**
+     * 用于丢弃已删除条目的统计，未注入时只按热度分数丢弃
+     */
+    @Autowired(required = false)
+    private MockDataRepository dataRepository;
+
+    /**
+     * 各租户的计数器
+     */
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 当前发布的热度快照
+     */
+    private volatile Usage usage = Usage.EMPTY;
+
+    private ScheduledExecutorService snapshotExecutor;
+
+    @PostConstruct
+    public void init() {
+        load();
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadUtil.newNamedThreadFactory("api-usage-snapshot-", true));
+        snapshotExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                log.warn("发布API使用统计失败", e);
+            }
+        }, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+        }
+        snapshot();
+    }
+
+    /**
+     * 记录一次API接口被选中执行，同时计入其关联的数据模型
+     *
+     * @param tenantId 执行所在的租户
+     * @param api API接口
+     */
+    public void recordSelection(String tenantId, CompactApiInterface api) {
+        Counters tenant = counters.computeIfAbsent(tenantId, id -> new Counters());
+        tenant.apis().computeIfAbsent(api.getId(), id -> new LongAdder()).increment();
+        if (api.getRelatedModelId() != null) {
+            tenant.models().computeIfAbsent(api.getRelatedModelId(), id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * API接口在租户中的热度加分，没有使用记录时为0
+     */
+    public int apiBoost(String tenantId, String apiId) {
+        return usage.of(tenantId).apiBoosts().getOrDefault(apiId, 0);
+    }
+
+    /**
+     * 数据模型在租户中的热度加分，由其关联API接口的使用次数累计，没有使用记录时为0
+     */
+    public int modelBoost(String tenantId, String modelId) {
+        return usage.of(tenantId).modelBoosts().getOrDefault(modelId, 0);
+    }
+
+    /**
+     * 租户当前加分表的摘要，没有加分时为空串
+     * <p>
+     * 只由加分表的内容决定，加分表相同的租户和实例得到相同的摘要，可以作为共享排序结果的键的一部分。
+     */
+    public String boostDigest(String tenantId) {
+        return usage.of(tenantId).digest();
+    }
+
+    /**
+     * 把计数器清零并入热度分数，丢弃过低的分数和已删除条目的分数，发布新的加分表；配置了统计文件时写入文件
+     */
+    public void snapshot() {
+        Usage next;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Usage current = usage;
+            double decay = decay(current.timestamp(), now);
+            Map<String, CatalogSnapshot> catalogs = dataRepository == null
+                    ? Map.of() : dataRepository.residentSnapshots();
+            Set<String> tenantIds = new HashSet<>(current.tenants().keySet());
+            tenantIds.addAll(counters.keySet());
+            Map<String, TenantUsage> tenants = new HashMap<>();
+            for (String tenantId : tenantIds) {
+                TenantUsage previous = current.of(tenantId);
+                Counters recorded = counters.getOrDefault(tenantId, Counters.NONE);
+                // 换出的租户不载入，只按热度分数丢弃
+                CatalogSnapshot catalog = catalogs.get(tenantId);
+                Map<String, Double> apiScores = merge(previous.apiScores(), decay, recorded.apis(),
+                        catalog == null ? id -> true : id -> catalog.getApiInterface(id) != null);
+                Map<String, Double> modelScores = merge(previous.modelScores(), decay, recorded.models(),
+                        catalog == null ? id -> true : id -> catalog.getDataModel(id) != null);
+                if (recorded.apis().isEmpty() && recorded.models().isEmpty()) {
+                    counters.remove(tenantId, recorded);
+                }
+                if (!apiScores.isEmpty() || !modelScores.isEmpty()) {
+                    tenants.put(tenantId, tenantUsage(apiScores, modelScores));
+                }
+            }
+            next = new Usage(now, Map.copyOf(tenants));
+            usage = next;
+        }
+        save(next);
+    }
+
+    /**
+     * 从上次发布到现在的衰减系数
+     */
+    private double decay(long from, long to) {
+        if (from <= 0 || to <= from || halfLifeHours <= 0) {
+            return 1;
+        }
+        double hours = (to - from) / 3_600_000.0;
+        return Math.pow(0.5, hours / halfLifeHours);
+    }
+
+    /**
+     * 衰减后的分数加上计数器的累计值，丢弃低于阈值或条目已不存在的分数
+     * <p>
+     * 累计值为0的计数器同时移除；移除前恰好有一次计数落在该计数器上时这一次计数会丢失，对热度先验没有影响。
+     */
+    private static Map<String, Double> merge(Map<String, Double> scores, double decay,
+                                             ConcurrentMap<String, LongAdder> counters, Predicate<String> exists) {
+        Map<String, Double> merged = new HashMap<>();
+        scores.forEach((id, score) -> merged.put(id, score * decay));
+        counters.forEach((id, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                merged.merge(id, (double) count, Double::sum);
+            } else {
+                counters.remove(id, counter);
+            }
+        });
+        merged.entrySet().removeIf(entry -> entry.getValue() < MIN_SCORE || !exists.test(entry.getKey()));
+        return Map.copyOf(merged);
+    }
+
+    private TenantUsage tenantUsage(Map<String, Double> apiScores, Map<String, Double> modelScores) {
+        Map<String, Integer> apiBoosts = boosts(apiScores);
+        Map<String, Integer> modelBoosts = boosts(modelScores);
+        return new TenantUsage(Map.copyOf(apiScores), Map.copyOf(modelScores), apiBoosts, modelBoosts,
+                digest(apiBoosts, modelBoosts));
+    }
+
+    /**
+     * 热度分数换算为加分：按 log(1 + 分数) 相对最高分的比例取整
+     */
+    private Map<String, Integer> boosts(Map<String, Double> scores) {
+        double max = 0;
+        for (double score : scores.values()) {
+            max = Math.max(max, score);
+        }
+        if (max <= 0 || maxBoost <= 0) {
+            return Map.of();
+        }
+        double scale = maxBoost / Math.log1p(max);
+        Map<String, Integer> boosts = new HashMap<>();
+        scores.forEach((id, score) -> {
+            int boost = (int) Math.round(Math.log1p(score) * scale);
+            if (boost > 0) {
+                boosts.put(id, boost);
+            }
+        });
+        return Map.copyOf(boosts);
+    }
+
+    /**
+     * 按ID排序后的加分表的SHA-256摘要
+     */
+    private static String digest(Map<String, Integer> apiBoosts, Map<String, Integer> modelBoosts) {
+        if (apiBoosts.isEmpty() && modelBoosts.isEmpty()) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        new TreeMap<>(apiBoosts).forEach((id, boost) -> text.append(API).append('\t').append(id)
+                .append('\t').append(boost).append('\n'));
+        new TreeMap<>(modelBoosts).forEach((id, boost) -> text.append(MODEL).append('\t').append(id)
+                .append('\t').append(boost).append('\n'));
+        return SecureUtil.sha256(text.toString());
+    }
+
+    /**
+     * 加载统计文件，第一行为发布时间，之后每行为 类型、租户、ID、热度分数，以制表符分隔；
+     * 没有租户一列的旧格式记入默认租户
+     */
+    private void load() {
+        Path file = file();
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty()) {
+                return;
+            }
+            long timestamp = Long.parseLong(lines.get(0).trim());
+            Map<String, Map<String, Double>> apiScores = new HashMap<>();
+            Map<String, Map<String, Double>> modelScores = new HashMap<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] parts = line.split("\t");
+                if (parts.length != 3 && parts.length != 4) {
+                    continue;
+                }
+                String tenantId = parts.length == 4 ? parts[1] : MockDataRepository.DEFAULT_TENANT;
+                (API.equals(parts[0]) ? apiScores : modelScores)
+                        .computeIfAbsent(tenantId, id -> new HashMap<>())
+                        .put(parts[parts.length - 2], Double.parseDouble(parts[parts.length - 1]));
+            }
+            Set<String> tenantIds = new HashSet<>(apiScores.keySet());
+            tenantIds.addAll(modelScores.keySet());
+            Map<String, TenantUsage> tenants = new HashMap<>();
+            for (String tenantId : tenantIds) {
+                tenants.put(tenantId, tenantUsage(apiScores.getOrDefault(tenantId, Map.of()),
+                        modelScores.getOrDefault(tenantId, Map.of())));
+            }
+            synchronized (this) {
+                usage = new Usage(timestamp, Map.copyOf(tenants));
+            }
+            log.info("加载API使用统计: {}, 租户: {}", file, tenants.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("加载API使用统计失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 先写入临时文件再原子替换，写入失败不影响排序；ID中含有制表符或换行的条目无法按行保存，不写入
+     */
+    private void save(Usage snapshot) {
+        Path file = file();
+        if (file == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(String.valueOf(snapshot.timestamp()));
+        snapshot.tenants().forEach((tenantId, tenant) -> {
+            if (!savable(tenantId)) {
+                return;
+            }
+            tenant.apiScores().forEach((id, score) -> {
+                if (savable(id)) {
+                    lines.add(API + "\t" + tenantId + "\t" + id + "\t" + score);
+                }
+            });
+            tenant.modelScores().forEach((id, score) -> {
+                if (savable(id)) {
+                    lines.add(MODEL + "\t" + tenantId + "\t" + id + "\t" + score);
+                }
+            });
+        });
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("写入API使用统计失败: {}", file, e);
+        }
+    }
+
+    private static boolean savable(String value) {
+        return value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+    }
+
+    private Path file() {
+        return usageFile == null || usageFile.isBlank() ? null : Path.of(usageFile);
+    }
+
+    /**
+     * 一个租户的计数器
+     *
+     * @param apis API接口的计数器
+     * @param models 数据模型的计数器
+     */
+    private record Counters(ConcurrentMap<String, LongAdder> apis, ConcurrentMap<String, LongAdder> models) {
+
+        static final Counters NONE = new Counters(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+        Counters() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 热度快照
+     *
+     * @param timestamp 发布时间，0表示尚未发布
+     * @param tenants 各租户的热度，没有热度的租户不包含在内
+     */
+    private record Usage(long timestamp, Map<String, TenantUsage> tenants) {
+
+        static final Usage EMPTY = new Usage(0, Map.of());
+
+        TenantUsage of(String tenantId) {
+            return tenants.getOrDefault(tenantId, TenantUsage.EMPTY);
+        }
+    }
+
+    /**
+     * 一个租户的热度
+     *
+     * @param apiScores API接口的热度分数
+     * @param modelScores 数据模型的热度分数
+     * @param apiBoosts API接口的加分
+     * @param modelBoosts 数据模型的加分
+     * @param digest 加分表的摘要，没有加分时为空串
+     */
+    private record TenantUsage(Map<String, Double> apiScores, Map<String, Double> modelScores,
+                               Map<String, Integer> apiBoosts, Map<String, Integer> modelBoosts, String digest) {
+
+        static final TenantUsage EMPTY = new TenantUsage(Map.of(), Map.of(), Map.of(), Map.of(), "");
+    }
+}
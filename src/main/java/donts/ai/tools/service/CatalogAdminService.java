@@ -0,0 +1,352 @@
+package donts.ai.tools.service;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.CatalogConflictException;
+import donts.ai.tools.repository.CatalogLoader;
+import donts.ai.tools.repository.CatalogSnapshot;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.repository.OpenApiImporter;
+import donts.ai.tools.request.CatalogAdminRequest;
+import donts.ai.tools.response.CatalogAdminResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 数据目录管理服务，在运行时注册、更新和删除数据模型及API接口
+ * <p>
+ * 每次变更只重建目录增量分段的索引，完成后立即对所有查找工具可见。
+ * 变更作用于请求用户所属租户的目录，超过租户的条目配额时拒绝新增。
+ * 条目是否存在等检查作为写入的前置条件，在发布新快照时对被替换的快照执行，并发的变更不会同时通过检查。
+ */
+@Slf4j
+@Service
+public class CatalogAdminService {
+
+    @Autowired
+    private MockDataRepository dataRepository;
+
+    /**
+     * 注册新的数据模型
+     *
+     * @param request 管理请求，dataModel为要注册的数据模型
+     * @return 管理响应
+     */
+    public CatalogAdminResponse registerDataModel(CatalogAdminRequest request) {
+        DataModel model = request.getDataModel();
+        log.info("注册数据模型: {}", model == null ? null : model.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            String error = validateDataModel(model);
+            if (error != null) {
+                return failure(request, model == null ? null : model.getId(), error);
+            }
+
+            long version = repository.putDataModel(model, current -> current.getDataModel(model.getId()) != null
+                    ? "数据模型已存在: " + model.getId() : null);
+            return success(request, model.getId(), version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, model.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("注册数据模型时发生错误", e);
+            return failure(request, model == null ? null : model.getId(), "注册数据模型时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 更新已有的数据模型，未提供关联API列表时保留原有列表
+     *
+     * @param request 管理请求，id为要更新的模型ID，dataModel为新的模型定义
+     * @return 管理响应
+     */
+    public CatalogAdminResponse updateDataModel(CatalogAdminRequest request) {
+        log.info("更新数据模型: {}", request.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            DataModel model = request.getDataModel();
+            String error = validateDataModel(model);
+            if (error != null) {
+                return failure(request, request.getId(), error);
+            }
+            if (request.getId() != null && !request.getId().equals(model.getId())) {
+                return failure(request, request.getId(), "数据模型ID与请求路径不一致: " + model.getId());
+            }
+
+            long version = repository.putDataModel(model, current -> current.getDataModel(model.getId()) == null
+                    ? "未找到指定的数据模型: " + model.getId() : null);
+            return success(request, model.getId(), version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, request.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("更新数据模型时发生错误", e);
+            return failure(request, request.getId(), "更新数据模型时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除数据模型，模型仍有关联的API接口时拒绝删除
+     *
+     * @param request 管理请求，id为要删除的模型ID
+     * @return 管理响应
+     */
+    public CatalogAdminResponse removeDataModel(CatalogAdminRequest request) {
+        log.info("删除数据模型: {}", request.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            String modelId = request.getId();
+            long version = repository.removeDataModel(modelId, current -> {
+                CompactDataModel model = current.getDataModel(modelId);
+                if (model == null) {
+                    return "未找到指定的数据模型: " + modelId;
+                }
+                if (model.getRelatedApiIds() != null
+                        && model.getRelatedApiIds().stream().anyMatch(apiId -> current.getApiInterface(apiId) != null)) {
+                    return "数据模型仍有关联的API接口，请先删除这些接口: " + modelId;
+                }
+                return null;
+            });
+            return success(request, modelId, version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, request.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("删除数据模型时发生错误", e);
+            return failure(request, request.getId(), "删除数据模型时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 注册新的API接口，并加入所属数据模型的关联API列表
+     *
+     * @param request 管理请求，apiInterface为要注册的API接口
+     * @return 管理响应
+     */
+    public CatalogAdminResponse registerApiInterface(CatalogAdminRequest request) {
+        ApiInterface api = request.getApiInterface();
+        log.info("注册API接口: {}", api == null ? null : api.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            String error = validateApiInterface(api);
+            if (error != null) {
+                return failure(request, api == null ? null : api.getId(), error);
+            }
+
+            long version = repository.putApiInterface(api, current -> {
+                String missing = checkRelatedModel(current, api);
+                if (missing != null) {
+                    return missing;
+                }
+                return current.getApiInterface(api.getId()) != null ? "API接口已存在: " + api.getId() : null;
+            });
+            return success(request, api.getId(), version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, api.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("注册API接口时发生错误", e);
+            return failure(request, api == null ? null : api.getId(), "注册API接口时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 更新已有的API接口，所属数据模型变化时同步调整两个模型的关联API列表
+     *
+     * @param request 管理请求，id为要更新的接口ID，apiInterface为新的接口定义
+     * @return 管理响应
+     */
+    public CatalogAdminResponse updateApiInterface(CatalogAdminRequest request) {
+        log.info("更新API接口: {}", request.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            ApiInterface api = request.getApiInterface();
+            String error = validateApiInterface(api);
+            if (error != null) {
+                return failure(request, request.getId(), error);
+            }
+            if (request.getId() != null && !request.getId().equals(api.getId())) {
+                return failure(request, request.getId(), "API接口ID与请求路径不一致: " + api.getId());
+            }
+
+            long version = repository.putApiInterface(api, current -> {
+                String missing = checkRelatedModel(current, api);
+                if (missing != null) {
+                    return missing;
+                }
+                return current.getApiInterface(api.getId()) == null ? "未找到指定的API接口: " + api.getId() : null;
+            });
+            return success(request, api.getId(), version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, request.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("更新API接口时发生错误", e);
+            return failure(request, request.getId(), "更新API接口时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除API接口，并从所属数据模型的关联API列表中移除
+     *
+     * @param request 管理请求，id为要删除的接口ID
+     * @return 管理响应
+     */
+    public CatalogAdminResponse removeApiInterface(CatalogAdminRequest request) {
+        log.info("删除API接口: {}", request.getId());
+
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            String apiId = request.getId();
+            long version = repository.removeApiInterface(apiId, current -> current.getApiInterface(apiId) == null
+                    ? "未找到指定的API接口: " + apiId : null);
+            return success(request, apiId, version);
+
+        } catch (CatalogConflictException e) {
+            return failure(request, request.getId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("删除API接口时发生错误", e);
+            return failure(request, request.getId(), "删除API接口时发生错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 导入OpenAPI文档，转换得到的数据模型和API接口合并进目录后重建索引
+     * <p>
+     * 文档由请求直接提供，服务端不按调用方给出的位置读取本地文件或访问URL。
+     * 文档以流的方式读取，不整体读入内存；格式按第一个非空白字符判断，为 { 时按JSON解析，否则按YAML解析。
+     *
+     * 解析在调用线程中完成，合并和重建索引在目录的后台线程中进行，不阻塞调用线程。
+     *
+     * @param request 管理请求，openApiSpec为文档
+     * @return 合并发布后完成的管理响应，包含导入的条目数量
+     */
+    public CompletableFuture<CatalogAdminResponse> importOpenApi(CatalogAdminRequest request) {
+        Resource spec = request.getOpenApiSpec();
+        log.info("导入OpenAPI文档: {}", spec == null ? null : spec.getDescription());
+
+        CatalogLoader.CatalogData data;
+        CompletableFuture<Long> merged;
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            int first = spec == null ? -1 : firstNonBlank(spec);
+            if (first < 0) {
+                return CompletableFuture.completedFuture(failure(request, null, "OpenAPI文档内容不能为空"));
+            }
+
+            data = new OpenApiImporter().importSpec(spec, first == '{');
+            merged = repository.mergeAsync(data.dataModels(), data.apiInterfaces());
+
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(importFailure(request, e));
+        }
+        return merged.handle((version, error) -> error != null ? importFailure(request, error)
+                : CatalogAdminResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(true)
+                        .catalogVersion(version)
+                        .dataModelCount(data.dataModels().size())
+                        .apiInterfaceCount(data.apiInterfaces().size())
+                        .build());
+    }
+
+    private CatalogAdminResponse importFailure(CatalogAdminRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.error("导入OpenAPI文档时发生错误", cause);
+        return failure(request, null, "导入OpenAPI文档时发生错误: " + cause.getMessage());
+    }
+
+    /**
+     * 文档的第一个非空白字节，文档为空或只有空白时返回-1
+     */
+    private int firstNonBlank(Resource spec) throws IOException {
+        try (InputStream in = new BufferedInputStream(spec.getInputStream())) {
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (!Character.isWhitespace(b)) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 校验数据模型的必填项
+     *
+     * @return 错误消息，校验通过时返回null
+     */
+    private String validateDataModel(DataModel model) {
+        if (model == null) {
+            return "数据模型不能为空";
+        }
+        if (isBlank(model.getId()) || isBlank(model.getName())) {
+            return "数据模型的ID和名称不能为空";
+        }
+        return null;
+    }
+
+    /**
+     * 校验API接口的必填项
+     *
+     * @return 错误消息，校验通过时返回null
+     */
+    private String validateApiInterface(ApiInterface api) {
+        if (api == null) {
+            return "API接口不能为空";
+        }
+        if (isBlank(api.getId()) || isBlank(api.getName()) || isBlank(api.getPath()) || isBlank(api.getMethod())) {
+            return "API接口的ID、名称、路径和请求方法不能为空";
+        }
+        return null;
+    }
+
+    /**
+     * 检查API接口所属的数据模型在快照中是否存在
+     *
+     * @return 错误消息，检查通过时返回null
+     */
+    private String checkRelatedModel(CatalogSnapshot current, ApiInterface api) {
+        if (!isBlank(api.getRelatedModelId()) && current.getDataModel(api.getRelatedModelId()) == null) {
+            return "API接口所属的数据模型不存在: " + api.getRelatedModelId();
+        }
+        return null;
+    }
+
+    private CatalogAdminResponse success(CatalogAdminRequest request, String id, long version) {
+        return CatalogAdminResponse.builder()
+                .requestId(request.getRequestId())
+                .success(true)
+                .id(id)
+                .catalogVersion(version)
+                .build();
+    }
+
+    private CatalogAdminResponse failure(CatalogAdminRequest request, String id, String errorMessage) {
+        return CatalogAdminResponse.builder()
+                .requestId(request.getRequestId())
+                .success(false)
+                .errorMessage(errorMessage)
+                .id(id)
+                .catalogVersion(dataRepository.forTenant(request.getUserId()).getCatalogVersion())
+                .build();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,17 +1,40 @@
 package donts.ai.tools.service;
 
+import donts.ai.tools.cache.LruCache;
+import donts.ai.tools.cache.RankedPages;
+import donts.ai.tools.cache.RankedResult;
+import donts.ai.tools.cache.ResultCaches;
+import donts.ai.tools.cache.TenantCaches;
+import donts.ai.tools.cache.TwoTierCache;
+import donts.ai.tools.cluster.CatalogCluster;
+import donts.ai.tools.cluster.ShardHits;
+import donts.ai.tools.cluster.ShardQuery;
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ScoreExplainer;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.CompactDataModel;
 import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ScoreContribution;
+import donts.ai.tools.model.ScoreExplanation;
+import donts.ai.tools.repository.CatalogSnapshot;
 import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.BatchModelFinderRequest;
 import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.BatchModelFinderResponse;
 import donts.ai.tools.response.ModelFinderResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 数据模型查找服务，根据用户描述查找匹配的数据模型
@@ -20,11 +43,82 @@ import java.util.stream.Collectors;
 @Service
 public class ModelFinderService {
 
+    /**
+     * 未命中缓存的容量
+     */
+    private static final int MISS_CACHE_SIZE = 1024;
+    
+    /**
+     * 保存的排序结果数量上限
+     */
+    private static final int RANKED_PAGES_SIZE = 256;
+    
+    /**
+     * 排序结果的保存时间，超过后游标失效
+     */
+    private static final long RANKED_PAGES_TTL_MILLIS = 5 * 60 * 1000;
+    
+    /**
+     * 保留缓存的租户数量上限
+     */
+    private static final int CACHED_TENANTS = 64;
+    
+    /**
+     * 共享缓存中每个排序结果保存的模型数量上限，超出部分不能续页
+     */
+    private static final int SHARED_RANKING_LIMIT = 1000;
+    
+    /**
+     * 每个租户本地保存的共享排序结果数量上限
+     */
+    private static final int SHARED_RANKINGS_SIZE = 256;
+
     @Autowired
     private MockDataRepository dataRepository;
     
+    @Autowired
+    private ApiUsageService apiUsageService;
+    
+    @Autowired
+    private CatalogCluster catalogCluster;
+    
+    @Autowired(required = false)
+    private ResultCaches resultCaches;
+    
+    /**
+     * 共享排序结果的有效期（秒），为0时不使用共享缓存
+     */
+    @Value("${cache.finder.ttl-seconds:600}")
+    private long finderCacheTtlSeconds = 600;
+    
+    /**
+     * 各租户的未命中缓存和排序结果，按租户分别保存，各租户的容量互不挤占
+     */
+    private final TenantCaches<FinderCaches> tenantCaches = new TenantCaches<>(CACHED_TENANTS, FinderCaches::new);
+    
+    /**
+     * 跨实例共享的按描述查找的排序结果，未启用时为null
+     * <p>
+     * 以目录内容散列、同义词词典和规范化查询为键，配置了远程缓存时多个实例共享。命中时按ID取回本实例的模型，
+     * 续页游标和分数说明仍在本实例生成，热度加分在缓存有效期内保持不变。
+     */
+    private TwoTierCache<RankedResult> sharedRankings;
+    
+    @PostConstruct
+    public void init() {
+        if (resultCaches != null && finderCacheTtlSeconds > 0) {
+            sharedRankings = resultCaches.create("model-rankings", CACHED_TENANTS, SHARED_RANKINGS_SIZE,
+                    finderCacheTtlSeconds * 1000, RankedResult.CODEC);
+        }
+    }
+    
     /**
      * 根据用户描述查找匹配的数据模型
+     * <p>
+     * 查询文本经 {@link CatalogSnapshot#normalizeQuery} 做全角转半角和拼音补充，拼写错误的英文词项（如"prodcut"）
+     * 通过 {@link CatalogSnapshot#withFuzzyModelTerms} 补充词典中的相近词作为候选。匹配度加上 {@link ApiUsageService}
+     * 统计的热度加分。第一页之后的页面由续页游标读取第一页保存的排序结果，没有任何匹配的查询记入未命中缓存，
+     * 同一目录版本内再次查询时直接返回空结果。多节点模式下分发到各节点，此时不支持续页游标和分数说明。
      * 
      * @param request 查找请求
      * @return 查找响应
@@ -32,39 +126,76 @@ public class ModelFinderService {
     public ModelFinderResponse findModelsByDescription(ModelFinderRequest request) {
         log.info("根据描述查找数据模型: {}", request.getDescription());
         
+        if (catalogCluster != null && catalogCluster.isEnabled()) {
+            return findModelsAcrossNodes(request);
+        }
+        
         try {
-            // 根据用户描述搜索匹配的数据模型
-            List<DataModel> matchedModels = dataRepository.searchDataModelsByKeywords(request.getDescription());
-            
-            // 计算匹配度分数
-            List<Integer> matchScores = calculateMatchScores(matchedModels, request.getDescription());
+            // 根据用户描述搜索匹配的数据模型，同时计算匹配度分数
+            // 拼写错误的英文词项补充词典中的相近词作为候选
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            FinderCaches caches = tenantCaches.get(repository.getTenantId());
+            CatalogSnapshot catalog = repository.getSnapshot();
+            String[] normalized = catalog.normalizeQuery(request.getDescription());
+            int maxEditDistance = repository.getFuzzyMaxEditDistance();
+            PageKey pageKey = descriptionPageKey(repository.getTenantId(), catalog, request.getDescription());
             
-            // 根据匹配度排序
-            List<DataModel> sortedModels = sortModelsByScore(matchedModels, matchScores);
+            // 续页直接读取第一页保存的排序结果
+            if (!isBlank(request.getCursor())) {
+                String[] terms = catalog.withFuzzyModelTerms(normalized, maxEditDistance);
+                return nextPage(request, pageKey, request.isExplain() ? model -> explain(repository, model, terms) : null);
+            }
             
-            // 限制返回结果数量
-            int maxResults = request.getMaxResults() > 0 ? request.getMaxResults() : 10;
-            List<DataModel> resultModels = sortedModels.stream()
-                    .limit(maxResults)
-                    .collect(Collectors.toList());
+            // 同一目录版本内已确认没有匹配的查询直接返回
+            MissKey missKey = new MissKey(catalog.getVersion(), String.join(" ", normalized), maxEditDistance);
+            if (isKnownMiss(caches, missKey)) {
+                return ModelFinderResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(true)
+                        .models(List.of())
+                        .matchScores(List.of())
+                        .totalResults(0)
+                        .explanations(request.isExplain() ? List.of() : null)
+                        .build();
+            }
             
-            // 如果不需要详细信息，则清除字段信息
-            if (!request.isIncludeDetails()) {
-                resultModels = resultModels.stream()
-                        .map(this::simplifyModel)
-                        .collect(Collectors.toList());
+            // 其他实例或租户在内容相同的目录上已经排好序的查询，按ID取回本实例的模型
+            String rankingKey = sharedRankings == null ? null
+                    : rankingKey(repository.getTenantId(), catalog, missKey.query(), maxEditDistance);
+            RankedResult shared = rankingKey == null ? null : sharedRankings.get(repository.getTenantId(), rankingKey);
+            List<CompactDataModel> sharedModels = shared == null ? null : resolve(catalog, shared.ids());
+            if (sharedModels != null) {
+                String[] terms = catalog.withFuzzyModelTerms(normalized, maxEditDistance);
+                Function<CompactDataModel, ScoreExplanation> explainer = request.isExplain()
+                        ? model -> explain(repository, model, terms) : null;
+                return pageResponse(request.getRequestId(), sharedModels, shared.scores(), shared.total(),
+                        request.getMaxResults(), request.isIncludeDetails(), explainer, pageKey);
             }
             
-            // 计算对应的分数
-            List<Integer> resultScores = matchScores.subList(0, Math.min(matchScores.size(), maxResults));
+            String[] terms = catalog.withFuzzyModelTerms(normalized, maxEditDistance);
+            List<KeywordIndex.Hit<CompactDataModel>> hits = catalog.matchDataModelHits(terms);
+            if (hits.isEmpty()) {
+                caches.missCache.put(missKey, Boolean.TRUE);
+            }
+            List<CompactDataModel> matchedModels = hits.stream()
+                    .map(KeywordIndex.Hit::document)
+                    .collect(Collectors.toList());
+            List<Integer> matchScores = hits.stream()
+                    .map(hit -> withUsageBoost(repository.getTenantId(), hit.document(), hit.score()))
+                    .collect(Collectors.toList());
             
-            return ModelFinderResponse.builder()
-                    .requestId(request.getRequestId())
-                    .success(true)
-                    .models(resultModels)
-                    .matchScores(resultScores)
-                    .totalResults(matchedModels.size())
-                    .build();
+            List<CompactDataModel> sortedModels = sortModelsByScore(matchedModels, matchScores);
+            List<Integer> sortedScores = sortScores(matchScores);
+            if (rankingKey != null && !hits.isEmpty()) {
+                int end = Math.min(SHARED_RANKING_LIMIT, sortedModels.size());
+                sharedRankings.put(repository.getTenantId(), rankingKey, new RankedResult(sortedModels.subList(0, end).stream()
+                        .map(CompactDataModel::getId)
+                        .toList(), List.copyOf(sortedScores.subList(0, end)), matchedModels.size()));
+            }
+            Function<CompactDataModel, ScoreExplanation> explainer = request.isExplain()
+                    ? model -> explain(repository, model, terms) : null;
+            return pageResponse(request.getRequestId(), sortedModels, sortedScores, matchedModels.size(),
+                    request.getMaxResults(), request.isIncludeDetails(), explainer, pageKey);
             
         } catch (Exception e) {
             log.error("查找数据模型时发生错误", e);
@@ -77,48 +208,351 @@ public class ModelFinderService {
     }
     
     /**
-     * 计算数据模型与用户描述的匹配度分数
+     * 把按描述查找分发到所有节点，合并各节点的前若干个结果
+     */
+    private ModelFinderResponse findModelsAcrossNodes(ModelFinderRequest request) {
+        if (!isBlank(request.getCursor())) {
+            return ModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("多节点模式不支持续页游标")
+                    .build();
+        }
+        ShardQuery query = ShardQuery.builder()
+                .userId(request.getUserId())
+                .query(request.getDescription())
+                .limit(pageSize(request.getMaxResults()))
+                .includeDetails(request.isIncludeDetails())
+                .build();
+        CatalogCluster.Gathered<DataModel> gathered = catalogCluster.gather(node -> node.searchModels(query),
+                query.getLimit());
+        if (gathered.allUnavailable()) {
+            return ModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("所有节点均不可用")
+                    .unavailableNodes(gathered.unavailableNodes())
+                    .build();
+        }
+        return ModelFinderResponse.builder()
+                .requestId(request.getRequestId())
+                .success(true)
+                .models(gathered.items())
+                .matchScores(gathered.scores())
+                .totalResults(gathered.totalHits())
+                .partial(gathered.partial())
+                .unavailableNodes(gathered.unavailableNodes())
+                .build();
+    }
+    
+    /**
+     * 在本节点的目录分片上按描述查找数据模型，返回匹配度最高的若干个，供多节点模式合并
      * 
-     * @param models 数据模型列表
-     * @param description 用户描述
-     * @return 匹配度分数列表
+     * @param query 分片查询
+     * @return 本节点的查询结果
      */
-    private List<Integer> calculateMatchScores(List<DataModel> models, String description) {
-        List<Integer> scores = new ArrayList<>();
-        String[] keywords = description.toLowerCase().split("\\s+");
+    public ShardHits<DataModel> searchShard(ShardQuery query) {
+        MockDataRepository repository = dataRepository.forTenant(query.getUserId());
+        CatalogSnapshot catalog = repository.getSnapshot();
+        String[] terms = catalog.withFuzzyModelTerms(catalog.normalizeQuery(query.getQuery()),
+                repository.getFuzzyMaxEditDistance());
+        List<KeywordIndex.Hit<CompactDataModel>> hits = catalog.matchDataModelHits(terms);
+        List<CompactDataModel> matchedModels = hits.stream()
+                .map(KeywordIndex.Hit::document)
+                .collect(Collectors.toList());
+        List<Integer> matchScores = hits.stream()
+                .map(hit -> withUsageBoost(repository.getTenantId(), hit.document(), hit.score()))
+                .collect(Collectors.toList());
         
-        for (DataModel model : models) {
-            int score = 0;
-            
-            // 检查模型名称匹配
-            for (String keyword : keywords) {
-                if (model.getName().toLowerCase().contains(keyword)) {
-                    score += 30;  // 名称匹配权重高
-                }
+        int end = Math.min(query.getLimit(), matchedModels.size());
+        return ShardHits.<DataModel>builder()
+                .items(sortModelsByScore(matchedModels, matchScores).subList(0, end).stream()
+                        .map(model -> model.toDataModel(query.isIncludeDetails()))
+                        .collect(Collectors.toList()))
+                .scores(matchScores.stream().sorted(Comparator.reverseOrder()).limit(end).collect(Collectors.toList()))
+                .totalHits(matchedModels.size())
+                .build();
+    }
+    
+    /**
+     * 根据字段条件查找数据模型，如"有email字段的模型"、"有名为createTime的Date字段的模型"
+     * <p>
+     * 基于 {@link FieldIndex} 查询，字段名、字段类型和字段描述中给出的条件必须由同一个字段同时满足。
+     * 满足条件的模型匹配度均为100，命中字段多的模型排在前面。
+     * 
+     * @param request 查找请求，使用其中的fieldName、fieldType和fieldDescription
+     * @return 查找响应
+     */
+    public ModelFinderResponse findModelsByFields(ModelFinderRequest request) {
+        log.info("根据字段查找数据模型: name={}, type={}, description={}",
+                request.getFieldName(), request.getFieldType(), request.getFieldDescription());
+        
+        try {
+            if (isBlank(request.getFieldName()) && isBlank(request.getFieldType()) && isBlank(request.getFieldDescription())) {
+                return ModelFinderResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(false)
+                        .errorMessage("字段名、字段类型和字段描述至少需要指定一个")
+                        .build();
             }
             
-            // 检查模型描述匹配
-            for (String keyword : keywords) {
-                if (model.getDescription().toLowerCase().contains(keyword)) {
-                    score += 20;  // 描述匹配权重中等
-                }
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            PageKey pageKey = new PageKey(repository.getTenantId(), repository.getCatalogVersion(),
+                    "fields:" + request.getFieldName()
+                    + "|" + request.getFieldType() + "|" + request.getFieldDescription());
+            if (!isBlank(request.getCursor())) {
+                return nextPage(request, pageKey, null);
             }
             
-            // 检查模型关键词匹配
-            for (String modelKeyword : model.getKeywords()) {
-                for (String keyword : keywords) {
-                    if (modelKeyword.toLowerCase().contains(keyword) || 
-                        keyword.contains(modelKeyword.toLowerCase())) {
-                        score += 25;  // 关键词匹配权重较高
-                    }
-                }
+            List<FieldIndex.FieldMatch> matches = new ArrayList<>(repository.searchDataModelsByFields(
+                    request.getFieldName(), request.getFieldType(), request.getFieldDescription()));
+            matches.sort(Comparator.comparingInt(FieldIndex.FieldMatch::matchedFields).reversed());
+            
+            List<CompactDataModel> matchedModels = matches.stream()
+                    .map(FieldIndex.FieldMatch::model)
+                    .collect(Collectors.toList());
+            List<Integer> matchScores = matches.stream()
+                    .map(match -> 100)
+                    .collect(Collectors.toList());
+            
+            return buildResponse(request.getRequestId(), matchedModels, matchScores,
+                    request.getMaxResults(), request.isIncludeDetails(), null, pageKey);
+            
+        } catch (Exception e) {
+            log.error("根据字段查找数据模型时发生错误", e);
+            return ModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("根据字段查找数据模型时发生错误: " + e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * 批量根据用户描述查找匹配的数据模型
+     * <p>
+     * 所有描述的词项一起在关键词索引上查找，批次内相同的词项只查找一次倒排表，每个描述只对自己命中的模型打分，
+     * 结果与逐个描述单独查找相同；之后各描述并行地排序并构造响应。
+     * 
+     * @param request 批量查找请求
+     * @return 批量查找响应，结果顺序与请求中的描述一致
+     */
+    public BatchModelFinderResponse findModelsByDescriptions(BatchModelFinderRequest request) {
+        List<String> descriptions = request.getDescriptions() != null ? request.getDescriptions() : List.of();
+        log.info("批量根据描述查找数据模型: {}", descriptions);
+        
+        try {
+            // 统一分词并补充模糊匹配的相近词
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            CatalogSnapshot catalog = repository.getSnapshot();
+            List<String[]> termGroups = new ArrayList<>(descriptions.size());
+            for (String description : descriptions) {
+                termGroups.add(catalog.withFuzzyModelTerms(catalog.normalizeQuery(description),
+                        repository.getFuzzyMaxEditDistance()));
             }
+            List<List<KeywordIndex.Hit<CompactDataModel>>> groupHits = catalog.matchDataModelHits(termGroups);
+            
+            // 各描述并行排序并构造响应
+            List<ModelFinderResponse> results = IntStream.range(0, descriptions.size())
+                    .parallel()
+                    .mapToObj(d -> {
+                        List<KeywordIndex.Hit<CompactDataModel>> hits = groupHits.get(d);
+                        List<CompactDataModel> matchedModels = new ArrayList<>(hits.size());
+                        List<Integer> matchScores = new ArrayList<>(hits.size());
+                        for (KeywordIndex.Hit<CompactDataModel> hit : hits) {
+                            matchedModels.add(hit.document());
+                            matchScores.add(withUsageBoost(repository.getTenantId(), hit.document(), hit.score()));
+                        }
+                        return buildResponse(request.getRequestId(), matchedModels, matchScores,
+                                request.getMaxResults(), request.isIncludeDetails(), null,
+                                descriptionPageKey(repository.getTenantId(), catalog, descriptions.get(d)));
+                    })
+                    .collect(Collectors.toList());
+            
+            return BatchModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(true)
+                    .results(results)
+                    .build();
             
-            // 限制分数上限为100
-            scores.add(Math.min(score, 100));
+        } catch (Exception e) {
+            log.error("批量查找数据模型时发生错误", e);
+            return BatchModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("批量查找数据模型时发生错误: " + e.getMessage())
+                    .build();
         }
+    }
+    
+    /**
+     * 对匹配的模型排序、截断并构造查找响应，只有返回的模型转换为模型类
+     * 
+     * @param requestId 请求ID
+     * @param matchedModels 匹配的数据模型
+     * @param matchScores 与模型一一对应的匹配度分数
+     * @param maxResults 最大返回结果数量
+     * @param includeDetails 是否包含详细信息
+     * @param explainer 分数说明的计算函数，不需要说明时为null
+     * @param pageKey 保存排序结果供续页使用的租户、目录版本和查询条件，不支持续页时为null
+     * @return 查找响应
+     */
+    private ModelFinderResponse buildResponse(String requestId, List<CompactDataModel> matchedModels,
+                                              List<Integer> matchScores, int maxResults, boolean includeDetails,
+                                              Function<CompactDataModel, ScoreExplanation> explainer, PageKey pageKey) {
+        // 根据匹配度排序
+        List<CompactDataModel> sortedModels = sortModelsByScore(matchedModels, matchScores);
+        
+        // 计算对应的分数（排序后与结果一一对应）
+        List<Integer> sortedScores = sortScores(matchScores);
         
-        return scores;
+        return pageResponse(requestId, sortedModels, sortedScores, matchedModels.size(), maxResults, includeDetails,
+                explainer, pageKey);
+    }
+    
+    /**
+     * 截取排好序的结果的第一页并构造查找响应，有更多结果时保存排序结果并生成续页游标
+     * 
+     * @param total 结果总数，排序结果只包含排在前面的部分时大于结果数量
+     */
+    private ModelFinderResponse pageResponse(String requestId, List<CompactDataModel> sortedModels,
+                                             List<Integer> sortedScores, int total, int maxResults,
+                                             boolean includeDetails,
+                                             Function<CompactDataModel, ScoreExplanation> explainer, PageKey pageKey) {
+        int end = Math.min(pageSize(maxResults), sortedModels.size());
+        String nextCursor = pageKey == null ? null
+                : tenantCaches.get(pageKey.tenantId()).rankedModels.save(pageKey.version(), pageKey.query(),
+                        sortedModels, sortedScores, total, end);
+        return toResponse(requestId, sortedModels.subList(0, end), sortedScores.subList(0, end),
+                total, nextCursor, includeDetails, explainer);
+    }
+    
+    private List<Integer> sortScores(List<Integer> matchScores) {
+        return matchScores.stream()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 共享排序结果的键，包含决定排序的全部输入：目录内容、同义词词典、租户的热度加分表、规范化的查询词项和模糊匹配的编辑距离
+     */
+    private String rankingKey(String tenantId, CatalogSnapshot catalog, String query, int maxEditDistance) {
+        return catalog.contentDigest().toHex() + ":"
+                + Long.toHexString(catalog.getSynonyms().fingerprint()) + ":"
+                + apiUsageService.boostDigest(tenantId) + ":" + maxEditDistance + ":" + query;
+    }
+    
+    /**
+     * 按ID取回目录中的模型，有模型不存在时返回null
+     */
+    private List<CompactDataModel> resolve(CatalogSnapshot catalog, List<String> ids) {
+        List<CompactDataModel> models = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CompactDataModel model = catalog.getDataModel(id);
+            if (model == null) {
+                return null;
+            }
+            models.add(model);
+        }
+        return models;
+    }
+    
+    private PageKey descriptionPageKey(String tenantId, CatalogSnapshot catalog, String description) {
+        return new PageKey(tenantId, catalog.getVersion(), "description:" + description);
+    }
+    
+    /**
+     * 根据续页游标读取保存的排序结果，构造下一页的查找响应
+     */
+    private ModelFinderResponse nextPage(ModelFinderRequest request, PageKey pageKey,
+                                         Function<CompactDataModel, ScoreExplanation> explainer) {
+        RankedPages.Page<CompactDataModel> page = tenantCaches.get(pageKey.tenantId()).rankedModels
+                .page(request.getCursor(), pageKey.version(), pageKey.query(), pageSize(request.getMaxResults()));
+        if (page == null) {
+            return ModelFinderResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("游标无效或已过期，请重新查找")
+                    .build();
+        }
+        return toResponse(request.getRequestId(), page.items(), page.scores(), page.total(), page.nextCursor(),
+                request.isIncludeDetails(), explainer);
+    }
+    
+    /**
+     * 构造一页查找响应，只有本页的模型转换为模型类，如果不需要详细信息，则清除字段信息
+     */
+    private ModelFinderResponse toResponse(String requestId, List<CompactDataModel> models, List<Integer> scores,
+                                           int total, String nextCursor, boolean includeDetails,
+                                           Function<CompactDataModel, ScoreExplanation> explainer) {
+        List<DataModel> resultModels = models.stream()
+                .map(model -> model.toDataModel(includeDetails))
+                .collect(Collectors.toList());
+        
+        return ModelFinderResponse.builder()
+                .requestId(requestId)
+                .success(true)
+                .models(resultModels)
+                .matchScores(new ArrayList<>(scores))
+                .totalResults(total)
+                .nextCursor(nextCursor)
+                .explanations(explainer == null ? null : models.stream().map(explainer).collect(Collectors.toList()))
+                .build();
+    }
+    
+    private int pageSize(int maxResults) {
+        return maxResults > 0 ? maxResults : 10;
+    }
+    
+    /**
+     * 计算数据模型的分数说明，规则与索引打分和热度加分一致
+     * <p>
+     * 只为最终返回的模型计算，不请求说明时查找没有额外开销。
+     * 
+     * @param repository 所在租户的目录，决定同义词词典和热度加分
+     * @param model 数据模型
+     * @param terms 查找使用的小写词项（含模糊匹配补充的相近词）
+     * @return 分数说明
+     */
+    private ScoreExplanation explain(MockDataRepository repository, CompactDataModel model, String[] terms) {
+        String tenantId = repository.getTenantId();
+        SynonymDictionary synonyms = repository.getIndexing().synonyms();
+        List<ScoreContribution> contributions = ScoreExplainer.explain(model.getLowerName(),
+                model.getLowerDescription(), synonyms.canonicalize(model.lowerKeywords()), terms,
+                synonyms.canonicalTerms(terms));
+        int termScore = ScoreExplainer.total(contributions);
+        int boost = apiUsageService.modelBoost(tenantId, model.getId());
+        return ScoreExplanation.builder()
+                .id(model.getId())
+                .matchedTerms(ScoreExplainer.matchedTerms(contributions))
+                .contributions(contributions)
+                .usageBoost(boost)
+                .rawScore(termScore + boost)
+                .score(withUsageBoost(tenantId, model, Math.min(termScore, 100)))
+                .build();
+    }
+    
+    /**
+     * 查询是否已确认没有匹配；目录版本变化时先清空缓存
+     */
+    private boolean isKnownMiss(FinderCaches caches, MissKey key) {
+        if (key.version() != caches.missCacheVersion) {
+            synchronized (caches.missCache) {
+                if (key.version() != caches.missCacheVersion) {
+                    caches.missCache.clear();
+                    caches.missCacheVersion = key.version();
+                }
+            }
+            return false;
+        }
+        return caches.missCache.get(key) != null;
+    }
+    
+    /**
+     * 匹配度加上模型的热度加分，上限100
+     */
+    private int withUsageBoost(String tenantId, CompactDataModel model, int score) {
+        return Math.min(score + apiUsageService.modelBoost(tenantId, model.getId()), 100);
     }
     
     /**
@@ -128,7 +562,7 @@ public class ModelFinderService {
      * @param scores 匹配度分数列表
      * @return 排序后的数据模型列表
      */
-    private List<DataModel> sortModelsByScore(List<DataModel> models, List<Integer> scores) {
+    private List<CompactDataModel> sortModelsByScore(List<CompactDataModel> models, List<Integer> scores) {
         // 创建模型和分数的配对
         List<ModelScorePair> pairs = new ArrayList<>();
         for (int i = 0; i < models.size(); i++) {
@@ -144,35 +578,63 @@ public class ModelFinderService {
                 .collect(Collectors.toList());
     }
     
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
     /**
-     * 简化数据模型，移除详细字段信息
-     * 
-     * @param model 原始数据模型
-     * @return 简化后的数据模型
+     * 排序结果的保存条件
+     *
+     * @param tenantId 租户
+     * @param version 目录版本
+     * @param query 查询条件，续页请求的条件必须与第一页一致
      */
-    private DataModel simplifyModel(DataModel model) {
-        return DataModel.builder()
-                .id(model.getId())
-                .name(model.getName())
-                .description(model.getDescription())
-                .keywords(model.getKeywords())
-                .relatedApiIds(model.getRelatedApiIds())
-                .build();
+    private record PageKey(String tenantId, long version, String query) {}
+    
+    /**
+     * 未命中缓存的键
+     *
+     * @param version 目录版本
+     * @param query 规范化后以空格连接的词项
+     * @param maxEditDistance 模糊匹配的编辑距离上限，不同的上限可能得到不同的候选
+     */
+    private record MissKey(long version, String query, int maxEditDistance) {}
+    
+    /**
+     * 单个租户的缓存
+     */
+    private static final class FinderCaches {
+        
+        /**
+         * 没有任何匹配的查询，键中包含目录版本，目录替换后旧条目不再命中
+         */
+        private final LruCache<MissKey, Boolean> missCache = new LruCache<>(MISS_CACHE_SIZE);
+        
+        /**
+         * 未命中缓存中条目对应的目录版本，版本变化时清空缓存
+         */
+        private volatile long missCacheVersion;
+        
+        /**
+         * 供续页游标读取的排序结果
+         */
+        private final RankedPages<CompactDataModel> rankedModels =
+                new RankedPages<>(RANKED_PAGES_SIZE, RANKED_PAGES_TTL_MILLIS);
     }
     
     /**
      * 数据模型和匹配度分数的配对类
      */
     private static class ModelScorePair {
-        private final DataModel model;
+        private final CompactDataModel model;
         private final int score;
         
-        public ModelScorePair(DataModel model, int score) {
+        public ModelScorePair(CompactDataModel model, int score) {
             this.model = model;
             this.score = score;
         }
         
-        public DataModel getModel() {
+        public CompactDataModel getModel() {
             return model;
         }
         
@@ -0,0 +1,80 @@
+package donts.ai.tools.service;
+
+import donts.ai.tools.model.ModelRelation;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ModelRelationRequest;
+import donts.ai.tools.response.ModelRelationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 数据模型关系服务，基于预先计算的关系图查找关联模型及模型之间的API调用路径
+ */
+@Slf4j
+@Service
+public class ModelRelationService {
+
+    /**
+     * 默认最大跳数
+     */
+    private static final int DEFAULT_MAX_DEPTH = 2;
+    
+    /**
+     * 最大跳数上限
+     */
+    private static final int MAX_DEPTH_LIMIT = 5;
+
+    @Autowired
+    private MockDataRepository dataRepository;
+    
+    /**
+     * 查找与数据模型在N跳以内关联的模型，以及从起点模型到达它们的路径
+     * 
+     * @param request 查找请求
+     * @return 查找响应
+     */
+    public ModelRelationResponse findRelatedModels(ModelRelationRequest request) {
+        log.info("查找关联数据模型: {} -> {}, 最大跳数: {}",
+                request.getModelId(), request.getTargetModelId(), request.getMaxDepth());
+        
+        try {
+            MockDataRepository repository = dataRepository.forTenant(request.getUserId());
+            if (repository.getDataModelById(request.getModelId()) == null) {
+                return ModelRelationResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(false)
+                        .errorMessage("未找到指定的数据模型: " + request.getModelId())
+                        .build();
+            }
+            
+            int maxDepth = request.getMaxDepth() > 0 ? Math.min(request.getMaxDepth(), MAX_DEPTH_LIMIT) : DEFAULT_MAX_DEPTH;
+            List<ModelRelation> relations = repository.getModelGraph().traverse(request.getModelId(), maxDepth);
+            
+            // 指定了目标模型时只保留到达目标的路径
+            if (request.getTargetModelId() != null && !request.getTargetModelId().isEmpty()) {
+                relations = relations.stream()
+                        .filter(relation -> relation.getModelId().equals(request.getTargetModelId()))
+                        .collect(Collectors.toList());
+            }
+            
+            return ModelRelationResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(true)
+                    .modelId(request.getModelId())
+                    .relations(relations)
+                    .build();
+            
+        } catch (Exception e) {
+            log.error("查找关联数据模型时发生错误", e);
+            return ModelRelationResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("查找关联数据模型时发生错误: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package donts.ai.tools.service;
+
+import donts.ai.tools.index.CompletionTrie;
+import donts.ai.tools.model.Suggestion;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.SuggestRequest;
+import donts.ai.tools.response.SuggestResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 输入补全服务，根据已输入的前缀给出模型名称、API名称和关键词的补全建议
+ * <p>
+ * 基于目录快照的 {@link CompletionTrie} 查询，每个前缀节点预存了权重最高的补全，不需要扫描目录，适合每次按键调用。
+ */
+@Slf4j
+@Service
+public class SuggestService {
+
+    /**
+     * 默认返回数量
+     */
+    private static final int DEFAULT_MAX_RESULTS = 10;
+
+    @Autowired
+    private MockDataRepository dataRepository;
+    
+    /**
+     * 查找以前缀开头的补全建议
+     * 
+     * @param request 补全请求
+     * @return 补全响应
+     */
+    public SuggestResponse suggest(SuggestRequest request) {
+        log.debug("查找补全建议: {}", request.getPrefix());
+        
+        try {
+            if (request.getPrefix() == null || request.getPrefix().isBlank()) {
+                return SuggestResponse.builder()
+                        .requestId(request.getRequestId())
+                        .success(false)
+                        .errorMessage("前缀不能为空")
+                        .build();
+            }
+            
+            int maxResults = request.getMaxResults() > 0
+                    ? Math.min(request.getMaxResults(), CompletionTrie.MAX_COMPLETIONS) : DEFAULT_MAX_RESULTS;
+            List<Suggestion> suggestions = dataRepository.forTenant(request.getUserId()).getSnapshot()
+                    .complete(request.getPrefix(), maxResults).stream()
+                    .map(entry -> new Suggestion(entry.text(), entry.type(), entry.id(), entry.weight()))
+                    .collect(Collectors.toList());
+            
+            return SuggestResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(true)
+                    .suggestions(suggestions)
+                    .build();
+            
+        } catch (Exception e) {
+            log.error("查找补全建议时发生错误", e);
+            return SuggestResponse.builder()
+                    .requestId(request.getRequestId())
+                    .success(false)
+                    .errorMessage("查找补全建议时发生错误: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package donts.ai.admin;
+
+import donts.ai.tools.controller.CatalogAdminController;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.response.CatalogAdminResponse;
+import donts.ai.tools.service.CatalogAdminService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogAdminControllerTest {
+
+    private AnnotationConfigApplicationContext context;
+    private MockDataRepository repository;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(WebFluxConfig.class);
+        context.registerBean(MockDataRepository.class);
+        context.registerBean(CatalogAdminService.class);
+        context.registerBean(CatalogAdminController.class);
+        context.refresh();
+        repository = context.getBean(MockDataRepository.class);
+        client = WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void specLargerThanCodecBufferIsImported() throws Exception {
+        // 超过编解码器默认的256KB缓冲上限
+        String spec = new ClassPathResource("openapi/shop.yaml").getContentAsString(StandardCharsets.UTF_8)
+                + "\n# " + "x".repeat(1024 * 1024) + "\n";
+        CatalogAdminResponse response = client.post().uri("/admin/catalog/openapi")
+                .contentType(MediaType.parseMediaType("application/yaml"))
+                .bodyValue(spec.getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CatalogAdminResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(response);
+        assertTrue(response.isSuccess());
+        assertEquals(3, response.getDataModelCount());
+        assertEquals("会员", repository.getDataModelById("model_member").getName());
+    }
+
+    @Test
+    void specOverSizeLimitIsRejected() throws Exception {
+        ReflectionTestUtils.setField(context.getBean(CatalogAdminController.class), "openApiMaxSizeMb", 1L);
+        String spec = new ClassPathResource("openapi/shop.yaml").getContentAsString(StandardCharsets.UTF_8)
+                + "\n# " + "x".repeat(2 * 1024 * 1024) + "\n";
+        CatalogAdminResponse response = client.post().uri("/admin/catalog/openapi")
+                .contentType(MediaType.parseMediaType("application/yaml"))
+                .bodyValue(spec.getBytes(StandardCharsets.UTF_8))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE)
+                .expectBody(CatalogAdminResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(response);
+        assertFalse(response.isSuccess());
+        assertNull(repository.getDataModelById("model_member"));
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class WebFluxConfig {
+    }
+}
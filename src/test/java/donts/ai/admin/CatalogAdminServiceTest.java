@@ -0,0 +1,190 @@
+package donts.ai.admin;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ModelField;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.CatalogAdminRequest;
+import donts.ai.tools.response.CatalogAdminResponse;
+import donts.ai.tools.service.CatalogAdminService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogAdminServiceTest {
+
+    private MockDataRepository repository;
+    private CatalogAdminService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockDataRepository();
+        repository.init();
+        service = new CatalogAdminService();
+        ReflectionTestUtils.setField(service, "dataRepository", repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void registeredEntriesAreSearchableAndLinked() {
+        long version = repository.getCatalogVersion();
+        CatalogAdminResponse model = service.registerDataModel(CatalogAdminRequest.builder()
+                .dataModel(warehouseModel("仓库")).build());
+        CatalogAdminResponse api = service.registerApiInterface(CatalogAdminRequest.builder()
+                .apiInterface(warehouseApi("model_warehouse")).build());
+
+        assertTrue(model.isSuccess());
+        assertTrue(api.isSuccess());
+        assertEquals(version + 2, api.getCatalogVersion());
+        assertEquals(List.of("model_warehouse"), repository.searchDataModelsByKeywords("仓库").stream()
+                .map(DataModel::getId).toList());
+        assertEquals(1, repository.searchDataModelsByFields("capacity", null, null).size());
+        assertEquals("api_warehouse_get", repository.getApiInterfacesByModelId("model_warehouse").get(0).getId());
+        assertEquals("api_warehouse_get", repository.searchApiInterfaces(new String[]{"仓库"}, 3, a -> true)
+                .hits().get(0).document().getId());
+
+        // 重复注册被拒绝
+        assertFalse(service.registerDataModel(CatalogAdminRequest.builder()
+                .dataModel(warehouseModel("仓库")).build()).isSuccess());
+    }
+
+    @Test
+    void updateAndRemoveShadowBaseEntries() {
+        DataModel user = repository.getDataModelById("model_user");
+        DataModel renamed = new DataModel(user.getId(), "会员档案", user.getDescription(), user.getFields(),
+                null, List.of("档案"));
+        assertTrue(service.updateDataModel(CatalogAdminRequest.builder()
+                .id("model_user").dataModel(renamed).build()).isSuccess());
+
+        assertEquals(user.getRelatedApiIds(), repository.getDataModelById("model_user").getRelatedApiIds());
+        assertEquals(List.of("model_user"), repository.searchDataModelsByKeywords("档案").stream()
+                .map(DataModel::getId).toList());
+        assertEquals(3, repository.getAllDataModels().size());
+        assertEquals("model_user", repository.getAllDataModels().get(0).getId());
+
+        // 仍有关联接口的模型不能删除
+        assertFalse(service.removeDataModel(CatalogAdminRequest.builder().id("model_product").build()).isSuccess());
+        for (String apiId : repository.getDataModelById("model_product").getRelatedApiIds()) {
+            assertTrue(service.removeApiInterface(CatalogAdminRequest.builder().id(apiId).build()).isSuccess());
+        }
+        assertTrue(repository.getDataModelById("model_product").getRelatedApiIds().isEmpty());
+        assertTrue(service.removeDataModel(CatalogAdminRequest.builder().id("model_product").build()).isSuccess());
+
+        assertNull(repository.getDataModelById("model_product"));
+        assertTrue(repository.searchDataModelsByKeywords("商品").isEmpty());
+        assertTrue(repository.searchApiInterfacesByKeywords("商品").isEmpty());
+        assertEquals(2, repository.getAllDataModels().size());
+    }
+
+    @Test
+    void movingApiBetweenModelsUpdatesBothModels() {
+        service.registerDataModel(CatalogAdminRequest.builder().dataModel(warehouseModel("仓库")).build());
+        service.registerApiInterface(CatalogAdminRequest.builder().apiInterface(warehouseApi("model_warehouse")).build());
+
+        assertTrue(service.updateApiInterface(CatalogAdminRequest.builder()
+                .id("api_warehouse_get").apiInterface(warehouseApi("model_product")).build()).isSuccess());
+
+        assertTrue(repository.getApiInterfacesByModelId("model_warehouse").isEmpty());
+        assertTrue(repository.getDataModelById("model_product").getRelatedApiIds().contains("api_warehouse_get"));
+    }
+
+    @Test
+    void concurrentDuplicateRegistrationsHaveOneWinner() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CatalogAdminResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String name = "仓库" + i;
+            responses.add(executor.submit(() -> {
+                start.await();
+                return service.registerDataModel(CatalogAdminRequest.builder().dataModel(warehouseModel(name)).build());
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<CatalogAdminResponse> response : responses) {
+            if (response.get().isSuccess()) {
+                succeeded++;
+            } else {
+                assertEquals("数据模型已存在: model_warehouse", response.get().getErrorMessage());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, succeeded);
+        assertEquals(4, repository.getAllDataModels().size());
+    }
+
+    @Test
+    void manyRegistrationsSurviveCompaction() throws Exception {
+        int count = 1500;
+        for (int i = 0; i < count; i++) {
+            DataModel model = warehouseModel("仓库" + i);
+            model.setId("model_warehouse_" + i);
+            assertTrue(service.registerDataModel(CatalogAdminRequest.builder().dataModel(model).build()).isSuccess());
+        }
+        assertEquals(count + 3, repository.getAllDataModels().size());
+
+        // 后台线程按提交顺序执行，重新加载完成时合并任务已经执行过
+        repository.reloadAsync(repository.getAllDataModels(), repository.getAllApiInterfaces()).get();
+
+        assertEquals(count + 3, repository.getAllDataModels().size());
+        assertEquals(List.of("model_warehouse_1234"), repository.searchDataModelsByKeywords("仓库1234").stream()
+                .map(DataModel::getId).toList());
+    }
+
+    @Test
+    void openApiSpecIsImportedFromRequestContent() throws Exception {
+        CatalogAdminResponse response = service.importOpenApi(CatalogAdminRequest.builder()
+                .openApiSpec(new ClassPathResource("openapi/shop.yaml")).build()).join();
+
+        assertTrue(response.isSuccess());
+        assertEquals(3, response.getDataModelCount());
+        assertEquals("会员", repository.getDataModelById("model_member").getName());
+
+        // 文档内容不是文件位置
+        assertFalse(service.importOpenApi(CatalogAdminRequest.builder()
+                .openApiSpec(text("file:/etc/passwd")).build()).join().isSuccess());
+        assertFalse(service.importOpenApi(CatalogAdminRequest.builder().openApiSpec(text(" \n")).build()).join().isSuccess());
+    }
+
+    private ByteArrayResource text(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private DataModel warehouseModel(String name) {
+        return new DataModel("model_warehouse", name, "仓储中心数据模型",
+                List.of(new ModelField("id", "String", "仓库ID", true, null, "w1"),
+                        new ModelField("capacity", "Integer", "库容", false, null, "1000")),
+                null, List.of(name, "warehouse"));
+    }
+
+    private ApiInterface warehouseApi(String modelId) {
+        return new ApiInterface("api_warehouse_get", "获取仓库信息", "根据仓库ID获取仓库详细信息",
+                "/api/warehouses/{warehouseId}", "GET",
+                List.of(new ApiParameter("warehouseId", "String", "仓库ID", true, "path", null, "w1", "id")),
+                "WarehouseDTO", modelId, List.of("获取", "仓库", "warehouse"));
+    }
+}
@@ -0,0 +1,172 @@
+package donts.ai.bench;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.HttpMethod;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.model.ModelField;
+import donts.ai.tools.repository.CatalogImage;
+import donts.ai.tools.repository.CatalogIndexing;
+import donts.ai.tools.repository.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比目录在堆内和堆外存储模式下的内存占用和查询延迟
+ * <p>
+ * 构建合成目录（每个数据模型8个字段、10个API接口，每个API接口3个参数）后，在设置阶段打印目录的堆内占用和堆外缓冲区大小，
+ * 再测量全局API搜索、按ID读取API接口参数（执行服务的路径）以及数据模型描述匹配的延迟。
+ * 使用 {@link #main} 运行，附带GC分析器以对比每次查询的分配量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:+UseG1GC"})
+public class CatalogStorageBenchmark {
+
+    private static final String[] TYPES = {"String", "Integer", "Long", "Double", "Date", "Boolean"};
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final String[] LOCATIONS = {"path", "query", "body"};
+    private static final int APIS_PER_MODEL = 10;
+
+    @Param({"heap", "off-heap"})
+    public String storage;
+
+    @Param({"100000"})
+    public int apiCount;
+
+    private CatalogSnapshot snapshot;
+    private String[][] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        long before = usedHeap();
+        CatalogSnapshot built = CatalogSnapshot.build(1, dataModels(), apiInterfaces(), new KeywordDictionary(), CatalogIndexing.DEFAULT);
+        snapshot = "off-heap".equals(storage) ? CatalogImage.offHeap(built) : built;
+        // 堆外模式下堆内构建的快照不再需要，释放后再统计占用
+        built = null;
+        long after = usedHeap();
+        System.out.printf("%n[%s] 目录堆内占用: %.1f MB, 直接缓冲区: %.1f MB%n", storage,
+                (after - before) / 1048576.0, directMemory() / 1048576.0);
+
+        int models = apiCount / APIS_PER_MODEL;
+        queries = new String[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = KeywordIndex.tokenize("model" + (i * 7919 % models) + " op" + (i % APIS_PER_MODEL));
+        }
+    }
+
+    /**
+     * 全局API搜索，过滤条件读取请求方法
+     */
+    @Benchmark
+    public void searchApis(Blackhole blackhole) {
+        String[] terms = queries[ThreadLocalRandom.current().nextInt(queries.length)];
+        blackhole.consume(snapshot.searchApiInterfaces(terms, 10, api -> api.getMethod() == HttpMethod.GET));
+    }
+
+    /**
+     * 按ID读取API接口并遍历参数定义，对应执行服务的参数校验
+     */
+    @Benchmark
+    public void readApiParameters(Blackhole blackhole) {
+        int m = ThreadLocalRandom.current().nextInt(apiCount / APIS_PER_MODEL);
+        CompactApiInterface api = snapshot.getApiInterface("api_" + m + "_" + (m % APIS_PER_MODEL));
+        for (CompactApiParameter parameter : api.getParameters()) {
+            blackhole.consume(parameter.isRequired() ? parameter.getName() : parameter.getTypeName());
+        }
+    }
+
+    /**
+     * 数据模型描述匹配
+     */
+    @Benchmark
+    public void matchModels(Blackhole blackhole) {
+        String[] terms = queries[ThreadLocalRandom.current().nextInt(queries.length)];
+        blackhole.consume(snapshot.matchDataModelHits(terms));
+    }
+
+    private List<DataModel> dataModels() {
+        List<DataModel> models = new ArrayList<>();
+        for (int m = 0; m < apiCount / APIS_PER_MODEL; m++) {
+            List<ModelField> fields = new ArrayList<>();
+            for (int f = 0; f < 8; f++) {
+                fields.add(new ModelField("field" + f, TYPES[f % TYPES.length], "字段" + f, f == 0, null, "ex" + m));
+            }
+            List<String> apiIds = new ArrayList<>();
+            for (int i = 0; i < APIS_PER_MODEL; i++) {
+                apiIds.add("api_" + m + "_" + i);
+            }
+            models.add(new DataModel("model_" + m, "Model" + m, "Description of Model" + m + " 模型描述", fields,
+                    apiIds, List.of("模型", "Entity", "kw" + (m % 50))));
+        }
+        return models;
+    }
+
+    private List<ApiInterface> apiInterfaces() {
+        List<ApiInterface> apis = new ArrayList<>();
+        for (int m = 0; m < apiCount / APIS_PER_MODEL; m++) {
+            for (int i = 0; i < APIS_PER_MODEL; i++) {
+                List<ApiParameter> parameters = new ArrayList<>();
+                for (int p = 0; p < 3; p++) {
+                    parameters.add(new ApiParameter("param" + p, TYPES[p], "参数" + p, p == 0, LOCATIONS[p],
+                            null, null, "field" + p));
+                }
+                apis.add(new ApiInterface("api_" + m + "_" + i, "Get Model" + m + " op" + i,
+                        "Operation " + i + " on Model" + m, "/api/m" + m + "/op" + i, METHODS[i % METHODS.length],
+                        parameters, "ModelDTO", "model_" + m, List.of("获取", "Query", "kw" + (m % 50))));
+            }
+        }
+        return apis;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogStorageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
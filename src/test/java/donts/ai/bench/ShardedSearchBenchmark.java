@@ -0,0 +1,121 @@
+package donts.ai.bench;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.KeywordDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量关键词索引分片数量和并行度对单次查询延迟的影响
+ * <p>
+ * 在合成的API接口目录上按分片数量构建 {@link ShardedIndex}，分片查询在指定并行度的 {@link ForkJoinPool} 上执行；
+ * 分片数量为1时在调用线程上直接查询，作为基线。测量全局搜索前10个结果以及返回全部命中的匹配两种查询。
+ * 并行度超过机器核数时结果没有意义，运行前按实际核数调整参数。使用 {@link #main} 运行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:+UseG1GC"})
+public class ShardedSearchBenchmark {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final int APIS_PER_MODEL = 10;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    @Param({"2", "4", "8"})
+    public int parallelism;
+
+    @Param({"200000"})
+    public int apiCount;
+
+    private ForkJoinPool pool;
+    private ShardedIndex<CompactApiInterface> index;
+    private String[][] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        index = ShardedIndex.build(apiInterfaces(), CompactApiInterface::getLowerName,
+                CompactApiInterface::getLowerDescription, CompactApiInterface::lowerKeywords,
+                SynonymDictionary.EMPTY, new ShardedIndex.Partitioning(shards, 0, pool));
+        System.out.printf("%n[shards=%d, parallelism=%d, cores=%d] 实际分片: %d%n", shards, parallelism,
+                Runtime.getRuntime().availableProcessors(), index.shardCount());
+
+        int models = apiCount / APIS_PER_MODEL;
+        queries = new String[64][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = KeywordIndex.tokenize("model" + (i * 7919 % models) + " op" + (i % APIS_PER_MODEL));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 全局搜索前10个结果，每个分片各自选出前10个后归并
+     */
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        String[] terms = queries[ThreadLocalRandom.current().nextInt(queries.length)];
+        blackhole.consume(index.search(terms, 10, api -> true, api -> 0));
+    }
+
+    /**
+     * 返回全部命中并打分，对应数据模型描述匹配的路径
+     */
+    @Benchmark
+    public void matchAnyHits(Blackhole blackhole) {
+        String[] terms = queries[ThreadLocalRandom.current().nextInt(queries.length)];
+        blackhole.consume(index.matchAnyHits(terms));
+    }
+
+    private List<CompactApiInterface> apiInterfaces() {
+        List<CompactApiInterface> apis = new ArrayList<>(apiCount);
+        KeywordDictionary keywords = new KeywordDictionary();
+        for (int m = 0; m < apiCount / APIS_PER_MODEL; m++) {
+            for (int i = 0; i < APIS_PER_MODEL; i++) {
+                apis.add(CompactApiInterface.of(new ApiInterface("api_" + m + "_" + i, "Get Model" + m + " op" + i,
+                        "Operation " + i + " on Model" + m, "/api/m" + m + "/op" + i, METHODS[i % METHODS.length],
+                        List.of(), "ModelDTO", "model_" + m, List.of("获取", "Query", "kw" + (m % 50))), keywords));
+            }
+        }
+        return apis;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShardedSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,427 @@
+package donts.ai.cache;
+
+import donts.ai.tools.cache.BinaryCodec;
+import donts.ai.tools.cache.RankedResult;
+import donts.ai.tools.cache.RedisRemoteCache;
+import donts.ai.tools.cache.ResultCaches;
+import donts.ai.tools.cache.TwoTierCache;
+import donts.ai.tools.model.ContentDigest;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ApiExecutorRequest;
+import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.ApiExecutorResponse;
+import donts.ai.tools.response.ModelFinderResponse;
+import donts.ai.tools.service.ApiExecutorService;
+import donts.ai.tools.service.ApiUsageService;
+import donts.ai.tools.service.ModelFinderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+
+    private RespServer server;
+
+    private final List<ResultCaches> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new RespServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(ResultCaches::shutdown);
+        server.close();
+    }
+
+    @Test
+    void rankingComputedOnOneInstanceIsReusedByAnother() {
+        ResultCaches firstCaches = newCaches("127.0.0.1:" + server.port());
+        ResultCaches secondCaches = newCaches("127.0.0.1:" + server.port());
+        ModelFinderService first = newFinder(firstCaches);
+        ModelFinderService second = newFinder(secondCaches);
+
+        ModelFinderResponse computed = first.findModelsByDescription(request("订单 用户", null));
+        assertTrue(computed.isSuccess());
+        assertNotNull(computed.getNextCursor());
+        assertTrue(firstCaches.flush(5000));
+        assertTrue(server.keys().stream().anyMatch(key -> key.startsWith("donts:model-rankings:")));
+
+        // 本地未命中时不等待远程，远程的排序结果在后台填入本地
+        int hitsBefore = server.hits.get();
+        ModelFinderResponse reused = second.findModelsByDescription(request("订单 用户", null));
+        assertEquals(computed, reused);
+        awaitTrue(() -> server.hits.get() == hitsBefore + 1);
+
+        // 续页游标由本实例生成，在本实例上继续翻页
+        ModelFinderResponse nextPage = second.findModelsByDescription(request("订单 用户", reused.getNextCursor()));
+        assertTrue(nextPage.isSuccess());
+        assertEquals(first.findModelsByDescription(request("订单 用户", computed.getNextCursor())), nextPage);
+    }
+
+    @Test
+    void contentDigestFollowsContentNotVersion() {
+        MockDataRepository first = newRepository();
+        MockDataRepository second = newRepository();
+        ContentDigest original = first.getSnapshot().contentDigest();
+        assertEquals(original, second.getSnapshot().contentDigest());
+
+        first.putDataModel(new DataModel("model_coupon", "优惠券", "优惠券信息", List.of(), List.of(), List.of("优惠券")));
+        assertNotEquals(original, first.getSnapshot().contentDigest());
+
+        first.removeDataModel("model_coupon");
+        assertNotEquals(second.getCatalogVersion(), first.getCatalogVersion());
+        assertEquals(original, first.getSnapshot().contentDigest());
+    }
+
+    @Test
+    void codecsRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("id", "p_1");
+        value.put("count", 3);
+        value.put("createdAt", 1_700_000_000_000L);
+        value.put("price", -12.5);
+        value.put("active", true);
+        value.put("note", null);
+        value.put("tags", List.of("新品", "热销"));
+        value.put("nested", Map.of("page", 2));
+        byte[] bytes = new BinaryCodec.Writer().writeValue(value).toByteArray();
+        BinaryCodec.Reader reader = new BinaryCodec.Reader(bytes);
+        assertEquals(value, reader.readValue());
+        assertTrue(reader.isExhausted());
+
+        RankedResult ranking = new RankedResult(List.of("model_order", "model_user"), List.of(95, -3), 7);
+        assertEquals(ranking, RankedResult.CODEC.decode(RankedResult.CODEC.encode(ranking)));
+    }
+
+    @Test
+    void unreachableRemoteFallsBackToLocalCache() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        ResultCaches caches = newCaches("127.0.0.1:" + closedPort);
+        TwoTierCache<RankedResult> cache = caches.create("rankings", 4, 16, 60_000, RankedResult.CODEC);
+        TwoTierCache<RankedResult> other = caches.create("rankings", 4, 16, 60_000, RankedResult.CODEC);
+        RankedResult ranking = new RankedResult(List.of("model_order"), List.of(80), 1);
+
+        long start = System.currentTimeMillis();
+        cache.put("alice", "query", ranking);
+        assertTrue(caches.flush(5000));
+        assertEquals(ranking, cache.get("alice", "query"));
+        assertNull(other.get("alice", "query"));
+        assertNull(other.get("alice", "query"));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    void localMissDoesNotWaitForRemote() {
+        ResultCaches firstCaches = newCaches("127.0.0.1:" + server.port());
+        ResultCaches secondCaches = newCaches("127.0.0.1:" + server.port());
+        TwoTierCache<RankedResult> cache = firstCaches.create("rankings", 4, 16, 60_000, RankedResult.CODEC);
+        TwoTierCache<RankedResult> other = secondCaches.create("rankings", 4, 16, 60_000, RankedResult.CODEC);
+        RankedResult ranking = new RankedResult(List.of("model_order"), List.of(80), 1);
+        cache.put("alice", "query", ranking);
+        assertTrue(firstCaches.flush(5000));
+
+        server.delayMillis = 300;
+        long start = System.currentTimeMillis();
+        assertNull(other.get("alice", "query"));
+        assertTrue(System.currentTimeMillis() - start < 200);
+        awaitTrue(() -> ranking.equals(other.get("alice", "query")));
+    }
+
+    @Test
+    void flushReturnsOnceAcceptedWritesDrain() {
+        server.writeDelayMillis = 100;
+        ResultCaches caches = new ResultCaches();
+        ReflectionTestUtils.setField(caches, "remoteAddress", "127.0.0.1:" + server.port());
+        ReflectionTestUtils.setField(caches, "remoteTimeoutMillis", 500);
+        ReflectionTestUtils.setField(caches, "writeBehindQueue", 1);
+        caches.init();
+        created.add(caches);
+        TwoTierCache<RankedResult> cache = caches.create("rankings", 4, 16, 60_000, RankedResult.CODEC);
+        RankedResult ranking = new RankedResult(List.of("model_order"), List.of(80), 1);
+
+        // 一个写入在执行、一个在排队，其余被拒绝；队列已满时flush不会等到超时
+        for (int i = 0; i < 5; i++) {
+            cache.put("alice", "query" + i, ranking);
+        }
+        long start = System.currentTimeMillis();
+        assertTrue(caches.flush(5000));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(2, server.keys().size());
+        assertEquals(ranking, cache.get("alice", "query4"));
+    }
+
+    @Test
+    void localTierIsBoundedPerTenant() {
+        ResultCaches caches = newCaches("");
+        TwoTierCache<RankedResult> cache = caches.create("rankings", 4, 2, 60_000, RankedResult.CODEC);
+        RankedResult ranking = new RankedResult(List.of("model_order"), List.of(80), 1);
+
+        cache.put("alice", "query", ranking);
+        for (int i = 0; i < 10; i++) {
+            cache.put("bob", "query" + i, ranking);
+        }
+
+        // 其他租户写满自己的份额不会淘汰本租户的条目
+        assertEquals(ranking, cache.get("alice", "query"));
+        assertNull(cache.get("bob", "query0"));
+        assertEquals(ranking, cache.get("bob", "query9"));
+        assertNull(cache.get("carol", "query"));
+    }
+
+    @Test
+    void malformedReplyIsMissAndBacksOff() {
+        server.malformed = true;
+        RedisRemoteCache remote = RedisRemoteCache.of("127.0.0.1:" + server.port(), "", 500, 4);
+        try {
+            assertNull(remote.get("query"));
+            int commands = server.commands.get();
+            assertNull(remote.get("query"));
+            assertEquals(commands, server.commands.get());
+        } finally {
+            remote.close();
+        }
+    }
+
+    @Test
+    void executionResultsAreNotSharedAcrossTenants() {
+        ApiExecutorService first = newExecutor(newCaches("127.0.0.1:" + server.port()));
+        ApiExecutorService second = newExecutor(newCaches("127.0.0.1:" + server.port()));
+
+        // 两个租户的同一接口定义和参数相同，远程缓存中仍然各自保存
+        assertTrue(first.executeApi(execution("alice")).isSuccess());
+        ApiExecutorResponse other = second.executeApi(execution("bob"));
+        assertTrue(other.isSuccess());
+        assertNull(other.getMetadata().get("cached"));
+        created.forEach(caches -> assertTrue(caches.flush(5000)));
+        assertEquals(2, server.keys().stream().filter(key -> key.startsWith("donts:api-results:")).count());
+        first.shutdown();
+        second.shutdown();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private ResultCaches newCaches(String address) {
+        ResultCaches caches = new ResultCaches();
+        ReflectionTestUtils.setField(caches, "remoteAddress", address);
+        ReflectionTestUtils.setField(caches, "remoteTimeoutMillis", 500);
+        caches.init();
+        created.add(caches);
+        return caches;
+    }
+
+    private ModelFinderService newFinder(ResultCaches caches) {
+        ModelFinderService service = new ModelFinderService();
+        ReflectionTestUtils.setField(service, "dataRepository", newRepository());
+        ReflectionTestUtils.setField(service, "apiUsageService", new ApiUsageService());
+        ReflectionTestUtils.setField(service, "resultCaches", caches);
+        service.init();
+        return service;
+    }
+
+    private ApiExecutorService newExecutor(ResultCaches caches) {
+        MockDataRepository repository = new MockDataRepository();
+        ReflectionTestUtils.setField(repository, "tenantsEnabled", true);
+        repository.init();
+        ApiExecutorService service = new ApiExecutorService();
+        ReflectionTestUtils.setField(service, "dataRepository", repository);
+        ReflectionTestUtils.setField(service, "apiUsageService", new ApiUsageService());
+        ReflectionTestUtils.setField(service, "resultCaches", caches);
+        ReflectionTestUtils.setField(service, "executorCacheTtlSeconds", 60L);
+        service.init();
+        return service;
+    }
+
+    private ApiExecutorRequest execution(String userId) {
+        return ApiExecutorRequest.builder()
+                .requestId("test")
+                .userId(userId)
+                .apiId("api_product_list")
+                .parameters(Map.of("size", 10))
+                .build();
+    }
+
+    private MockDataRepository newRepository() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        return repository;
+    }
+
+    private ModelFinderRequest request(String description, String cursor) {
+        return ModelFinderRequest.builder()
+                .requestId("test")
+                .description(description)
+                .maxResults(1)
+                .cursor(cursor)
+                .build();
+    }
+
+    /**
+     * 进程内的 Redis 协议替身，支持 GET、SET ... PX 和 PING，记录命中次数和命令次数，可以改为返回格式错误的回复或延迟回复 GET、SET
+     */
+    private static final class RespServer {
+
+        private final ServerSocket socket;
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger commands = new AtomicInteger();
+        private volatile boolean malformed;
+        private volatile long delayMillis;
+        private volatile long writeDelayMillis;
+
+        RespServer() throws IOException {
+            socket = new ServerSocket(0);
+            Thread acceptor = new Thread(this::accept, "resp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        List<String> keys() {
+            return new ArrayList<>(values.keySet());
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 测试结束
+            }
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    Thread handler = new Thread(() -> serve(client), "resp-stand-in-client");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (client) {
+                InputStream in = new BufferedInputStream(client.getInputStream());
+                OutputStream out = new BufferedOutputStream(client.getOutputStream());
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    commands.incrementAndGet();
+                    String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+                    String key = command.size() > 1 ? new String(command.get(1), StandardCharsets.UTF_8) : "";
+                    switch (name) {
+                        case "GET" -> {
+                            pause(delayMillis);
+                            byte[] value = values.get(key);
+                            if (malformed) {
+                                out.write("$abc\r\n".getBytes(StandardCharsets.UTF_8));
+                            } else if (value == null) {
+                                out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+                            } else {
+                                hits.incrementAndGet();
+                                out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+                                out.write(value);
+                                out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+                            }
+                        }
+                        case "SET" -> {
+                            pause(writeDelayMillis);
+                            values.put(key, command.get(2));
+                            out.write("+OK\r\n".getBytes(StandardCharsets.UTF_8));
+                        }
+                        case "PING" -> out.write("+PONG\r\n".getBytes(StandardCharsets.UTF_8));
+                        default -> out.write("-ERR unknown command\r\n".getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // 客户端断开
+            }
+        }
+
+        private void pause(long millis) {
+            if (millis > 0) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private List<byte[]> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                args.add(in.readNBytes(length));
+                in.readNBytes(2);
+            }
+            return args;
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b < 0) {
+                    return null;
+                }
+                line.append((char) b);
+            }
+            in.read();
+            return line.toString();
+        }
+    }
+}
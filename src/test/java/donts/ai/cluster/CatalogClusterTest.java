@@ -0,0 +1,231 @@
+package donts.ai.cluster;
+
+import donts.ai.tools.cluster.CatalogCluster;
+import donts.ai.tools.cluster.CatalogNode;
+import donts.ai.tools.cluster.ClusterTopology;
+import donts.ai.tools.cluster.LocalCatalogNode;
+import donts.ai.tools.cluster.ShardHits;
+import donts.ai.tools.cluster.ShardQuery;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ApiFinderRequest;
+import donts.ai.tools.request.ApiSearchRequest;
+import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.ApiFinderResponse;
+import donts.ai.tools.response.ModelFinderResponse;
+import donts.ai.tools.service.ApiFinderService;
+import donts.ai.tools.service.ApiUsageService;
+import donts.ai.tools.service.ModelFinderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 同一进程内的三个实例组成集群，与保存全部目录的单节点实例对比查询结果
+ */
+class CatalogClusterTest {
+
+    private static final List<String> NODE_IDS = List.of("a", "b", "c");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Instance> nodes = new LinkedHashMap<>();
+    private Instance single;
+
+    @BeforeEach
+    void setUp() {
+        single = instance(null);
+        NODE_IDS.forEach(id -> nodes.put(id, instance(id)));
+        nodes.values().forEach(node -> node.cluster().configure(node.topology(), localNodes(), 1000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void eachNodeHoldsItsOwnPartition() {
+        int models = nodes.values().stream().mapToInt(node -> node.repository().getSnapshot().getDataModelCount()).sum();
+        int apis = nodes.values().stream().mapToInt(node -> node.repository().getSnapshot().getApiInterfaceCount()).sum();
+        assertEquals(single.repository().getSnapshot().getDataModelCount(), models);
+        assertEquals(single.repository().getSnapshot().getApiInterfaceCount(), apis);
+    }
+
+    @Test
+    void scatterGatherMatchesSingleNode() {
+        for (Instance node : nodes.values()) {
+            for (String description : List.of("订单", "用户 订单 商品", "order")) {
+                ModelFinderResponse expected = findModels(single, description);
+                ModelFinderResponse actual = findModels(node, description);
+                assertTrue(actual.isSuccess());
+                assertFalse(actual.isPartial());
+                assertEquals(expected.getTotalResults(), actual.getTotalResults());
+                assertEquals(scored(expected.getModels().stream().map(DataModel::getId).toList(), expected.getMatchScores()),
+                        scored(actual.getModels().stream().map(DataModel::getId).toList(), actual.getMatchScores()));
+            }
+
+            ApiFinderResponse expected = searchApis(single, "取消订单");
+            ApiFinderResponse actual = searchApis(node, "取消订单");
+            assertEquals(expected.getTotalResults(), actual.getTotalResults());
+            assertEquals(expected.getApis().get(0).getId(), actual.getApis().get(0).getId());
+            assertEquals(scored(expected.getApis().stream().map(ApiInterface::getId).toList(), expected.getMatchScores()),
+                    scored(actual.getApis().stream().map(ApiInterface::getId).toList(), actual.getMatchScores()));
+        }
+    }
+
+    @Test
+    void findApisIsRoutedToOwner() {
+        for (DataModel model : single.repository().getAllDataModels()) {
+            ApiFinderResponse expected = findApis(single, model.getId());
+            for (Instance node : nodes.values()) {
+                ApiFinderResponse actual = findApis(node, model.getId());
+                assertTrue(actual.isSuccess());
+                assertEquals(expected.getApis().stream().map(ApiInterface::getId).toList(),
+                        actual.getApis().stream().map(ApiInterface::getId).toList());
+            }
+        }
+    }
+
+    @Test
+    void writesAreAcceptedOnlyByOwner() throws Exception {
+        DataModel coupon = new DataModel("model_coupon", "优惠券", "优惠券信息", List.of(), List.of(), List.of("优惠券"));
+        String owner = nodes.get("a").topology().ownerOfModel(coupon.getId());
+        for (Map.Entry<String, Instance> node : nodes.entrySet()) {
+            if (node.getKey().equals(owner)) {
+                node.getValue().repository().putDataModel(coupon);
+            } else {
+                assertThrows(IllegalStateException.class, () -> node.getValue().repository().putDataModel(coupon));
+                node.getValue().repository().mergeAsync(List.of(coupon), List.of()).get();
+                assertNull(node.getValue().repository().getDataModelById(coupon.getId()));
+            }
+        }
+
+        ModelFinderResponse response = findModels(nodes.get("a"), "优惠券");
+        assertEquals(List.of("model_coupon"), response.getModels().stream().map(DataModel::getId).toList());
+    }
+
+    @Test
+    void slowNodeYieldsPartialResult() {
+        Instance coordinator = nodes.get("a");
+        List<CatalogNode> withHangingNode = new ArrayList<>(localNodes().subList(0, 2));
+        withHangingNode.add(new HangingNode("c"));
+        coordinator.cluster().configure(coordinator.topology(), withHangingNode, 200);
+
+        ModelFinderResponse response = findModels(coordinator, "用户 订单 商品");
+        assertTrue(response.isSuccess());
+        assertTrue(response.isPartial());
+        assertEquals(List.of("c"), response.getUnavailableNodes());
+        ClusterTopology topology = coordinator.topology();
+        response.getModels().forEach(model -> assertFalse("c".equals(topology.ownerOfModel(model.getId()))));
+
+        long expected = single.repository().getAllDataModels().stream()
+                .filter(model -> !"c".equals(topology.ownerOfModel(model.getId())))
+                .filter(model -> findModels(single, "用户 订单 商品").getModels().stream()
+                        .anyMatch(found -> found.getId().equals(model.getId())))
+                .count();
+        assertEquals(expected, response.getModels().size());
+    }
+
+    private ModelFinderResponse findModels(Instance instance, String description) {
+        return instance.modelFinder().findModelsByDescription(ModelFinderRequest.builder()
+                .requestId("test")
+                .description(description)
+                .maxResults(100)
+                .build());
+    }
+
+    private ApiFinderResponse searchApis(Instance instance, String query) {
+        return instance.apiFinder().searchApis(ApiSearchRequest.builder()
+                .requestId("test")
+                .query(query)
+                .maxResults(100)
+                .build());
+    }
+
+    private ApiFinderResponse findApis(Instance instance, String modelId) {
+        return instance.apiFinder().findApisByModelId(ApiFinderRequest.builder()
+                .requestId("test")
+                .modelId(modelId)
+                .maxResults(100)
+                .build());
+    }
+
+    /**
+     * 结果与分数配对后排序，分数相同的结果在单节点和集群中的先后可以不同
+     */
+    private List<String> scored(List<String> ids, List<Integer> scores) {
+        return IntStream.range(0, ids.size()).mapToObj(i -> scores.get(i) + ":" + ids.get(i)).sorted().toList();
+    }
+
+    private List<CatalogNode> localNodes() {
+        return nodes.entrySet().stream()
+                .map(entry -> (CatalogNode) new LocalCatalogNode(entry.getKey(), entry.getValue().modelFinder(),
+                        entry.getValue().apiFinder(), executor))
+                .toList();
+    }
+
+    private Instance instance(String nodeId) {
+        ClusterTopology topology = nodeId == null ? null : ClusterTopology.of(nodeId, NODE_IDS, 64);
+        MockDataRepository repository = new MockDataRepository();
+        ReflectionTestUtils.setField(repository, "clusterTopology", topology);
+        repository.init();
+
+        ApiUsageService usage = new ApiUsageService();
+        CatalogCluster cluster = new CatalogCluster();
+        ModelFinderService modelFinder = new ModelFinderService();
+        ReflectionTestUtils.setField(modelFinder, "dataRepository", repository);
+        ReflectionTestUtils.setField(modelFinder, "apiUsageService", usage);
+        ReflectionTestUtils.setField(modelFinder, "catalogCluster", cluster);
+        ApiFinderService apiFinder = new ApiFinderService();
+        ReflectionTestUtils.setField(apiFinder, "dataRepository", repository);
+        ReflectionTestUtils.setField(apiFinder, "apiUsageService", usage);
+        ReflectionTestUtils.setField(apiFinder, "catalogCluster", cluster);
+        return new Instance(topology, repository, modelFinder, apiFinder, cluster);
+    }
+
+    private record Instance(ClusterTopology topology, MockDataRepository repository, ModelFinderService modelFinder,
+                            ApiFinderService apiFinder, CatalogCluster cluster) {}
+
+    /**
+     * 始终不响应的节点
+     */
+    private record HangingNode(String id) implements CatalogNode {
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public CompletableFuture<ShardHits<DataModel>> searchModels(ShardQuery query) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletableFuture<ShardHits<ApiInterface>> searchApis(ShardQuery query) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletableFuture<ApiFinderResponse> findApis(ApiFinderRequest request) {
+            return new CompletableFuture<>();
+        }
+    }
+}
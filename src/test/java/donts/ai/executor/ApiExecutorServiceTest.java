@@ -0,0 +1,47 @@
+package donts.ai.executor;
+
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ApiExecutorRequest;
+import donts.ai.tools.response.ApiExecutorResponse;
+import donts.ai.tools.service.ApiExecutorService;
+import donts.ai.tools.service.ApiUsageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiExecutorServiceTest {
+
+    @Test
+    void fetchAllPagesMergesPagesInOrder() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        ApiExecutorService service = new ApiExecutorService();
+        ReflectionTestUtils.setField(service, "dataRepository", repository);
+        ReflectionTestUtils.setField(service, "apiUsageService", new ApiUsageService());
+
+        ApiExecutorRequest request = ApiExecutorRequest.builder()
+                .requestId("test")
+                .apiId("api_product_list")
+                .parameters(Map.of("size", 10))
+                .fetchAllPages(true)
+                .maxConcurrency(3)
+                .maxRecords(35)
+                .build();
+        ApiExecutorResponse response = service.executeApi(request);
+        service.shutdown();
+
+        assertTrue(response.isSuccess());
+        Map<?, ?> data = (Map<?, ?>) response.getResponseData();
+        List<?> content = (List<?>) data.get("content");
+        assertEquals(35, content.size());
+        assertEquals(true, data.get("truncated"));
+        for (int i = 0; i < content.size(); i++) {
+            assertEquals("p" + (10 + i), ((Map<?, ?>) content.get(i)).get("id"));
+        }
+    }
+}
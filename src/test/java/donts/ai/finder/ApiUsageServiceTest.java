@@ -0,0 +1,97 @@
+package donts.ai.finder;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.service.ApiUsageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiUsageServiceTest {
+
+    private static final String TENANT = "tenant_a";
+
+    @Test
+    void selectionsBecomeBoostsAfterSnapshotAndSurviveRestart(@TempDir Path dir) {
+        String file = dir.resolve("usage.txt").toString();
+        ApiUsageService usage = new ApiUsageService();
+        ReflectionTestUtils.setField(usage, "usageFile", file);
+
+        CompactApiInterface get = api("api_order_get");
+        CompactApiInterface delete = api("api_order_delete");
+        for (int i = 0; i < 20; i++) {
+            usage.recordSelection(TENANT, get);
+        }
+        usage.recordSelection(TENANT, delete);
+
+        // 计数只在发布快照后才影响排序
+        assertEquals(0, usage.apiBoost(TENANT, "api_order_get"));
+        usage.snapshot();
+        assertEquals(10, usage.apiBoost(TENANT, "api_order_get"));
+        assertTrue(usage.apiBoost(TENANT, "api_order_delete") > 0);
+        assertTrue(usage.apiBoost(TENANT, "api_order_delete") < usage.apiBoost(TENANT, "api_order_get"));
+        assertEquals(10, usage.modelBoost(TENANT, "model_order"));
+        assertEquals(0, usage.apiBoost(TENANT, "api_user_get"));
+
+        ApiUsageService restarted = new ApiUsageService();
+        ReflectionTestUtils.setField(restarted, "usageFile", file);
+        restarted.init();
+        restarted.shutdown();
+        assertEquals(usage.apiBoost(TENANT, "api_order_get"), restarted.apiBoost(TENANT, "api_order_get"));
+        assertEquals(usage.apiBoost(TENANT, "api_order_delete"), restarted.apiBoost(TENANT, "api_order_delete"));
+    }
+
+    @Test
+    void usageIsKeptPerTenantAndDroppedWithRemovedOrDecayedEntries(@TempDir Path dir) throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        Path file = dir.resolve("usage.txt");
+        ApiUsageService usage = new ApiUsageService();
+        ReflectionTestUtils.setField(usage, "dataRepository", repository);
+        ReflectionTestUtils.setField(usage, "usageFile", file.toString());
+        String tenant = repository.getTenantId();
+
+        for (int i = 0; i < 5; i++) {
+            usage.recordSelection(tenant, api("api_order_get"));
+        }
+        usage.recordSelection(tenant, api("api_order_cancel"));
+        usage.snapshot();
+
+        // 其他租户的使用不影响本租户的排序
+        assertTrue(usage.apiBoost(tenant, "api_order_get") > 0);
+        assertEquals(0, usage.apiBoost("tenant_b", "api_order_get"));
+        assertNotEquals("", usage.boostDigest(tenant));
+        assertEquals("", usage.boostDigest("tenant_b"));
+
+        // 已从目录中删除的条目在下次发布时丢弃
+        repository.removeApiInterface("api_order_cancel");
+        usage.snapshot();
+        assertEquals(0, usage.apiBoost(tenant, "api_order_cancel"));
+        assertTrue(usage.apiBoost(tenant, "api_order_get") > 0);
+
+        // 衰减到阈值以下的分数丢弃，统计文件中也不再保留
+        ReflectionTestUtils.setField(usage, "halfLifeHours", 1e-9);
+        Thread.sleep(5);
+        usage.snapshot();
+        repository.shutdown();
+        assertEquals(0, usage.apiBoost(tenant, "api_order_get"));
+        assertEquals(0, usage.modelBoost(tenant, "model_order"));
+        assertEquals("", usage.boostDigest(tenant));
+        assertEquals(1, Files.readAllLines(file).size());
+    }
+
+    private CompactApiInterface api(String id) {
+        return CompactApiInterface.of(new ApiInterface(id, id, id, "/orders", "get", List.of(), "Order",
+                "model_order", List.of()), new KeywordDictionary());
+    }
+}
@@ -0,0 +1,193 @@
+package donts.ai.finder;
+
+import donts.ai.tools.index.ScoreExplainer;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ScoreExplanation;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.BatchModelFinderRequest;
+import donts.ai.tools.request.ModelFinderRequest;
+import donts.ai.tools.response.BatchModelFinderResponse;
+import donts.ai.tools.response.ModelFinderResponse;
+import donts.ai.tools.service.ApiUsageService;
+import donts.ai.tools.service.ModelFinderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelFinderServiceTest {
+
+    private ModelFinderService modelFinderService;
+
+    @BeforeEach
+    void setUp() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        modelFinderService = new ModelFinderService();
+        ReflectionTestUtils.setField(modelFinderService, "dataRepository", repository);
+        ReflectionTestUtils.setField(modelFinderService, "apiUsageService", new ApiUsageService());
+    }
+
+    @Test
+    void batchLookupMatchesSingleLookups() {
+        List<String> descriptions = List.of("用户", "订单 order", "商品 产品", "不存在");
+        BatchModelFinderResponse batch = modelFinderService.findModelsByDescriptions(BatchModelFinderRequest.builder()
+                .requestId("test")
+                .descriptions(descriptions)
+                .maxResults(3)
+                .build());
+
+        assertTrue(batch.isSuccess());
+        assertEquals(descriptions.size(), batch.getResults().size());
+        for (int i = 0; i < descriptions.size(); i++) {
+            ModelFinderResponse single = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                    .requestId("test")
+                    .description(descriptions.get(i))
+                    .maxResults(3)
+                    .build());
+            assertEquals(single, batch.getResults().get(i));
+        }
+    }
+
+    @Test
+    void misspelledEnglishKeywordsMatchByEditDistance() {
+        assertEquals("model_product", describe("prodcut").get(0));
+        assertEquals("model_user", describe("custmer").get(0));
+
+        ReflectionTestUtils.setField(ReflectionTestUtils.getField(modelFinderService, "dataRepository"),
+                "fuzzyMaxEditDistance", 0);
+        assertTrue(describe("prodcut").isEmpty());
+    }
+
+    private List<String> describe(String description) {
+        ModelFinderResponse response = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                .requestId("test")
+                .description(description)
+                .build());
+        assertTrue(response.isSuccess());
+        return response.getModels().stream().map(model -> model.getId()).toList();
+    }
+
+    @Test
+    void findModelsByFieldRequiresSameFieldToMatch() {
+        assertEquals(List.of("model_user"), fieldSearch("email", null, null));
+        assertEquals(List.of("model_user"), fieldSearch(null, null, "邮箱"));
+        assertEquals(List.of("model_order", "model_user"), fieldSearch("createTime", "date", null).stream().sorted().toList());
+        assertTrue(fieldSearch("email", "Date", null).isEmpty());
+    }
+
+    private List<String> fieldSearch(String fieldName, String fieldType, String fieldDescription) {
+        ModelFinderResponse response = modelFinderService.findModelsByFields(ModelFinderRequest.builder()
+                .requestId("test")
+                .fieldName(fieldName)
+                .fieldType(fieldType)
+                .fieldDescription(fieldDescription)
+                .build());
+        assertTrue(response.isSuccess());
+        return response.getModels().stream().map(model -> model.getId()).toList();
+    }
+
+    @Test
+    void explainAccountsForEveryScore() {
+        assertNull(modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                .requestId("test")
+                .description("用户 订单")
+                .build()).getExplanations());
+
+        ModelFinderResponse response = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                .requestId("test")
+                .description("用户 订单")
+                .explain(true)
+                .build());
+        assertEquals(response.getModels().size(), response.getExplanations().size());
+        for (int i = 0; i < response.getModels().size(); i++) {
+            ScoreExplanation explanation = response.getExplanations().get(i);
+            assertEquals(response.getModels().get(i).getId(), explanation.getId());
+            assertEquals(response.getMatchScores().get(i).intValue(), explanation.getScore());
+            assertEquals(Math.min(ScoreExplainer.total(explanation.getContributions()), 100), explanation.getScore());
+            assertFalse(explanation.getMatchedTerms().isEmpty());
+        }
+    }
+
+    @Test
+    void missesAreCachedUntilCatalogChanges() {
+        MockDataRepository repository = (MockDataRepository) ReflectionTestUtils.getField(modelFinderService, "dataRepository");
+        assertTrue(describe("发票").isEmpty());
+        assertTrue(describe("  发票 ").isEmpty());
+
+        // 目录变化后版本号递增，之前未命中的查询重新计算
+        repository.putDataModel(new DataModel("model_invoice", "发票", "发票信息", List.of(), List.of(), List.of("发票")));
+        assertEquals(List.of("model_invoice"), describe("发票"));
+    }
+
+    @Test
+    void cursorPagesFollowTheFirstRanking() {
+        ModelFinderResponse all = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                .requestId("test")
+                .description("用户 订单 商品")
+                .maxResults(100)
+                .build());
+        assertNull(all.getNextCursor());
+        assertTrue(all.getModels().size() > 1);
+
+        List<String> paged = new ArrayList<>();
+        List<Integer> pagedScores = new ArrayList<>();
+        String cursor = null;
+        do {
+            ModelFinderResponse page = modelFinderService.findModelsByDescription(ModelFinderRequest.builder()
+                    .requestId("test")
+                    .description("用户 订单 商品")
+                    .maxResults(1)
+                    .cursor(cursor)
+                    .build());
+            assertTrue(page.isSuccess());
+            assertEquals(all.getTotalResults(), page.getTotalResults());
+            page.getModels().forEach(model -> paged.add(model.getId()));
+            pagedScores.addAll(page.getMatchScores());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(all.getModels().stream().map(model -> model.getId()).toList(), paged);
+        assertEquals(all.getMatchScores(), pagedScores);
+    }
+
+    @Test
+    void cursorIsRejectedAfterCatalogChangesOrQueryDiffers() {
+        MockDataRepository repository = (MockDataRepository) ReflectionTestUtils.getField(modelFinderService, "dataRepository");
+        ModelFinderResponse first = modelFinderService.findModelsByFields(ModelFinderRequest.builder()
+                .requestId("test")
+                .fieldName("createTime")
+                .maxResults(1)
+                .build());
+        String cursor = first.getNextCursor();
+        assertNotNull(cursor);
+
+        assertFalse(modelFinderService.findModelsByFields(ModelFinderRequest.builder()
+                .requestId("test")
+                .fieldName("email")
+                .maxResults(1)
+                .cursor(cursor)
+                .build()).isSuccess());
+        assertFalse(modelFinderService.findModelsByFields(ModelFinderRequest.builder()
+                .requestId("test")
+                .fieldName("createTime")
+                .maxResults(1)
+                .cursor("not-a-cursor")
+                .build()).isSuccess());
+
+        repository.putDataModel(new DataModel("model_invoice", "发票", "发票信息", List.of(), List.of(), List.of("发票")));
+        assertFalse(modelFinderService.findModelsByFields(ModelFinderRequest.builder()
+                .requestId("test")
+                .fieldName("createTime")
+                .maxResults(1)
+                .cursor(cursor)
+                .build()).isSuccess());
+    }
+}
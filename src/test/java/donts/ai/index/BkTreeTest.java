@@ -0,0 +1,54 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.BkTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BkTreeTest {
+
+    @Test
+    void searchAgreesWithBruteForce() {
+        Random random = new Random(7);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            words.add(randomWord(random, 3 + random.nextInt(6)));
+        }
+        BkTree tree = BkTree.build(words);
+        assertEquals(new TreeSet<>(words).size(), tree.size());
+
+        for (int q = 0; q < 200; q++) {
+            String query = randomWord(random, 3 + random.nextInt(6));
+            int maxDistance = random.nextInt(3);
+            List<BkTree.Match> expected = new TreeSet<>(words).stream()
+                    .map(word -> new BkTree.Match(word, BkTree.distance(word, query)))
+                    .filter(match -> match.distance() <= maxDistance)
+                    .sorted(Comparator.comparingInt(BkTree.Match::distance).thenComparing(BkTree.Match::term))
+                    .toList();
+            assertEquals(expected, tree.search(query, maxDistance), query);
+        }
+    }
+
+    @Test
+    void distanceCountsInsertDeleteAndSubstitute() {
+        assertEquals(0, BkTree.distance("product", "product"));
+        assertEquals(1, BkTree.distance("custmer", "customer"));
+        assertEquals(2, BkTree.distance("prodcut", "product"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(4, BkTree.distance("", "item"));
+    }
+
+    private String randomWord(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.CompletionTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionTrieTest {
+
+    @Test
+    void completionsRankedByAccumulatedWeight() {
+        CompletionTrie trie = CompletionTrie.build(List.of(
+                new CompletionTrie.Entry("订单", "model", "model_order", 3),
+                new CompletionTrie.Entry("订单", "keyword", null, 1),
+                new CompletionTrie.Entry("订单创建", "api", "api_order_create", 2),
+                new CompletionTrie.Entry("订阅", "keyword", null, 1),
+                new CompletionTrie.Entry("Ｏｒｄｅｒ", "keyword", null, 1)));
+
+        assertEquals(4, trie.size());
+        assertEquals(List.of("订单", "订单创建", "订阅"), texts(trie.complete("订", 10)));
+        assertEquals(new CompletionTrie.Entry("订单", "model", "model_order", 4), trie.complete("订单", 1).get(0));
+        assertEquals(List.of("Ｏｒｄｅｒ"), texts(trie.complete("OR", 10)));
+        assertTrue(trie.complete("订购", 10).isEmpty());
+    }
+
+    @Test
+    void completeAgreesWithBruteForce() {
+        Random random = new Random(11);
+        List<CompletionTrie.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 1 + random.nextInt(6); j > 0; j--) {
+                text.append((char) ('a' + random.nextInt(3)));
+            }
+            entries.add(new CompletionTrie.Entry(text.toString(), "keyword", null, 1 + random.nextInt(5)));
+        }
+        CompletionTrie trie = CompletionTrie.build(entries);
+
+        for (String prefix : List.of("", "a", "ab", "cab", "bbb", "abcab")) {
+            assertEquals(bruteForce(entries, prefix), trie.complete(prefix, 5), prefix);
+        }
+    }
+
+    private List<CompletionTrie.Entry> bruteForce(List<CompletionTrie.Entry> entries, String prefix) {
+        Map<String, Integer> weights = new TreeMap<>();
+        entries.forEach(entry -> weights.merge(entry.text(), entry.weight(), Integer::sum));
+        return weights.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                        .thenComparingInt(entry -> entry.getKey().length())
+                        .thenComparing(Map.Entry::getKey))
+                .limit(5)
+                .map(entry -> new CompletionTrie.Entry(entry.getKey(), "keyword", null, entry.getValue()))
+                .toList();
+    }
+
+    private List<String> texts(List<CompletionTrie.Entry> entries) {
+        return entries.stream().map(CompletionTrie.Entry::text).toList();
+    }
+}
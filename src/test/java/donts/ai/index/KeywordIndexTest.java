@@ -0,0 +1,58 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordIndexTest {
+
+    @Test
+    void matchAnyAgreesWithContainsScan() {
+        Random random = new Random(42);
+        String alphabet = "abc订单用户";
+        List<String[]> docs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            docs.add(new String[]{randomText(random, alphabet, 6), randomText(random, alphabet, 12), randomText(random, alphabet, 3)});
+        }
+        KeywordIndex<String[]> index = KeywordIndex.build(docs, d -> d[0], d -> d[1], d -> new String[]{d[2]});
+
+        for (int q = 0; q < 200; q++) {
+            String[] terms = {randomText(random, alphabet, 1 + random.nextInt(4))};
+            List<String[]> expected = docs.stream()
+                    .filter(d -> (d[0] + " " + d[1] + " " + d[2]).contains(terms[0]))
+                    .toList();
+            assertEquals(expected, index.matchAny(terms));
+        }
+    }
+
+    @Test
+    void searchRanksCrossModelApis() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        KeywordIndex<CompactApiInterface> index = KeywordIndex.build(repository.getSnapshot().getAllApiInterfaces(),
+                CompactApiInterface::getLowerName, CompactApiInterface::getLowerDescription,
+                CompactApiInterface::lowerKeywords);
+
+        KeywordIndex.TopK<CompactApiInterface> exact = index.search(KeywordIndex.tokenize("取消订单"), 3, api -> true);
+        assertEquals("api_order_cancel", exact.hits().get(0).document().getId());
+
+        KeywordIndex.TopK<CompactApiInterface> sentence = index.search(KeywordIndex.tokenize("我要取消订单"), 3, api -> true);
+        assertEquals("api_order_cancel", sentence.hits().get(0).document().getId());
+        assertEquals(3, sentence.hits().size());
+    }
+
+    private String randomText(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
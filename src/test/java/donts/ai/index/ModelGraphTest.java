@@ -0,0 +1,42 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.ModelGraph;
+import donts.ai.tools.model.ModelRelation;
+import donts.ai.tools.model.RelationHop;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelGraphTest {
+
+    @Test
+    void traversesForeignKeysInBothDirections() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        ModelGraph graph = repository.getModelGraph();
+
+        List<ModelRelation> fromOrder = graph.traverse("model_order", 2);
+        assertEquals(1, fromOrder.size());
+        RelationHop toUser = fromOrder.get(0).getPath().get(0);
+        assertEquals("model_user", toUser.getToModelId());
+        assertEquals("userId", toUser.getFieldName());
+        assertTrue(toUser.isForward());
+        assertEquals("api_user_get", toUser.getApiId());
+        assertEquals("userId", toUser.getApiParameter());
+
+        List<ModelRelation> fromUser = graph.traverse("model_user", 2);
+        assertEquals("model_order", fromUser.get(0).getModelId());
+        RelationHop toOrder = fromUser.get(0).getPath().get(0);
+        assertFalse(toOrder.isForward());
+        assertEquals("model_order", toOrder.getFieldModelId());
+        assertNull(toOrder.getApiId());
+
+        assertTrue(graph.traverse("model_product", 3).isEmpty());
+    }
+}
@@ -0,0 +1,57 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.PinyinIndex;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.model.TextNormalizer;
+import donts.ai.tools.repository.CatalogIndexing;
+import donts.ai.tools.repository.CatalogSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PinyinIndexTest {
+
+    @Test
+    void foldConvertsFullWidthAndCase() {
+        assertEquals("user id", TextNormalizer.fold("ＵＳＥＲ　ＩＤ"));
+        assertEquals("订单(1)", TextNormalizer.fold("订单（１）"));
+        String plain = "order";
+        assertSame(plain, TextNormalizer.fold(plain));
+        assertArrayEquals(new String[]{"user", "订单"}, KeywordIndex.tokenize(" Ｕｓｅｒ  订单 "));
+        assertEquals("yonghu", TextNormalizer.pinyin("用户"));
+    }
+
+    @Test
+    void lookupFindsWordsWhosePinyinIsContained() {
+        PinyinIndex index = PinyinIndex.build(List.of("用户", "订单", "取消", "user", "单"));
+        // 不含汉字或拼音过短的词不参与索引
+        assertEquals(3, index.size());
+        assertEquals(List.of("用户"), index.lookup("yonghu"));
+        assertEquals(List.of("取消", "订单"), index.lookup("quxiaodingdan"));
+        assertTrue(index.lookup("用户").isEmpty());
+        assertTrue(index.lookup("dan").isEmpty());
+    }
+
+    @Test
+    void snapshotNormalizesPinyinAndFullWidthQueries() {
+        DataModel user = new DataModel("model_user", "用户", "用户信息", List.of(), List.of(), List.of("用户", "user"));
+        DataModel order = new DataModel("model_order", "订单", "订单信息", List.of(), List.of(), List.of("订单"));
+        CatalogSnapshot snapshot = CatalogSnapshot.build(1, List.of(user, order), List.<ApiInterface>of(),
+                new KeywordDictionary(), CatalogIndexing.DEFAULT);
+
+        String[] terms = snapshot.normalizeQuery("Yonghu");
+        assertArrayEquals(new String[]{"yonghu", "用户"}, terms);
+        // 相同的查询文本直接返回缓存的结果
+        assertSame(terms, snapshot.normalizeQuery("Yonghu"));
+        assertEquals(1, snapshot.matchDataModels(snapshot.normalizeQuery("ＵＳＥＲ")).size());
+        assertEquals("model_order", snapshot.matchDataModels(snapshot.normalizeQuery("dingdan")).get(0).getId());
+    }
+}
@@ -0,0 +1,70 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardedIndexTest {
+
+    @Test
+    void shardedQueriesMatchSingleIndex() {
+        Random random = new Random(7);
+        String alphabet = "abc订单用户";
+        List<String[]> docs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            docs.add(new String[]{randomText(random, alphabet, 6), randomText(random, alphabet, 12), randomText(random, alphabet, 3)});
+        }
+        KeywordIndex<String[]> single = KeywordIndex.build(docs, d -> d[0], d -> d[1], d -> new String[]{d[2]});
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ShardedIndex<String[]> sharded = ShardedIndex.build(docs, d -> d[0], d -> d[1], d -> new String[]{d[2]},
+                    SynonymDictionary.EMPTY, new ShardedIndex.Partitioning(7, 100, pool));
+            assertEquals(7, sharded.shardCount());
+            assertEquals(docs.size(), sharded.size());
+
+            List<String[]> batch = new ArrayList<>();
+            List<List<KeywordIndex.Hit<String[]>>> expected = new ArrayList<>();
+            for (int q = 0; q < 200; q++) {
+                String[] terms = {randomText(random, alphabet, 1 + random.nextInt(3)),
+                        randomText(random, alphabet, 1 + random.nextInt(3))};
+                batch.add(terms);
+                expected.add(single.matchAnyHits(terms));
+                assertEquals(single.matchAny(terms), sharded.matchAny(terms));
+                assertEquals(single.matchAnyHits(terms), sharded.matchAnyHits(terms));
+                assertEquals(single.search(terms, 10, d -> d[2].contains("a"), d -> d[0].length() % 3),
+                        sharded.search(terms, 10, d -> d[2].contains("a"), d -> d[0].length() % 3));
+            }
+
+            // 批量查找的每组结果与单独查找相同，批次内重复的词项只查找一次
+            assertEquals(expected, single.matchAnyHits(batch));
+            assertEquals(expected, sharded.matchAnyHits(batch));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void smallCatalogStaysInOneShard() {
+        List<String> docs = List.of("订单", "用户", "商品");
+        ShardedIndex<String> index = ShardedIndex.build(docs, d -> d, d -> "", d -> new String[0],
+                SynonymDictionary.EMPTY, new ShardedIndex.Partitioning(8, 100, ForkJoinPool.commonPool()));
+        assertEquals(1, index.shardCount());
+        assertEquals(List.of("订单"), index.matchAny(new String[]{"订单"}));
+    }
+
+    private String randomText(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
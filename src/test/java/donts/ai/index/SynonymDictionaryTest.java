@@ -0,0 +1,78 @@
+package donts.ai.index;
+
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.index.ShardedIndex;
+import donts.ai.tools.index.SynonymDictionary;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.repository.CatalogIndexing;
+import donts.ai.tools.repository.CatalogSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SynonymDictionaryTest {
+
+    private final SynonymDictionary synonyms = SynonymDictionary.of(List.of(
+            List.of("用户", "客户", "Customer"),
+            List.of("订单", "order", "客户")));
+
+    @Test
+    void groupsMapToFirstWord() {
+        assertEquals(2, synonyms.size());
+        assertEquals("用户", synonyms.canonical("customer"));
+        // 同一个词出现在多个组中时以先出现的组为准
+        assertEquals("用户", synonyms.canonical("客户"));
+        assertEquals("商品", synonyms.canonical("商品"));
+
+        String[] plain = {"商品", "goods"};
+        assertSame(plain, synonyms.canonicalize(plain));
+        assertArrayEquals(new String[]{"用户", "vip"}, synonyms.canonicalize(new String[]{"客户", "vip", "customer", "用户"}));
+    }
+
+    @Test
+    void canonicalTermsIncludeContainedSynonyms() {
+        assertArrayEquals(new String[]{"用户", "订单"}, synonyms.canonicalTerms(new String[]{"我的客户", "order"}));
+        assertArrayEquals(new String[0], synonyms.canonicalTerms(new String[]{"用户"}));
+        assertArrayEquals(new String[0], SynonymDictionary.EMPTY.canonicalTerms(new String[]{"客户"}));
+    }
+
+    @Test
+    void indexMatchesAnySynonymThroughCanonicalKeyword() {
+        List<String[]> docs = List.of(
+                new String[]{"会员", "会员信息", "customer"},
+                new String[]{"商品", "商品信息", "goods"});
+        KeywordIndex<String[]> index = KeywordIndex.build(docs, d -> d[0], d -> d[1], d -> new String[]{d[2]}, synonyms);
+
+        assertEquals(docs.subList(0, 1), index.matchAny(new String[]{"客户"}));
+        assertEquals(docs.subList(0, 1), index.matchAny(new String[]{"用户"}));
+        assertTrue(index.matchAny(new String[]{"cust"}).isEmpty());
+
+        // 规范词只与关键词计分，名称和描述仍按原文匹配
+        assertEquals(KeywordIndex.KEYWORD_SCORE, index.score(0, new String[]{"客户"}));
+        assertEquals(KeywordIndex.NAME_SCORE + KeywordIndex.DESCRIPTION_SCORE, index.score(0, new String[]{"会员"}));
+        assertEquals(docs.get(0), index.search(new String[]{"找客户"}, 1, d -> true).hits().get(0).document());
+    }
+
+    @Test
+    void eachCatalogUsesItsOwnSynonyms() {
+        List<DataModel> models = List.of(
+                new DataModel("model_member", "会员", "会员信息", List.of(), List.of(), List.of("customer")));
+        CatalogSnapshot withSynonyms = CatalogSnapshot.build(1, models, List.<ApiInterface>of(), new KeywordDictionary(),
+                new CatalogIndexing(synonyms, ShardedIndex.Partitioning.NONE));
+        CatalogSnapshot plain = CatalogSnapshot.build(1, models, List.<ApiInterface>of(), new KeywordDictionary(),
+                CatalogIndexing.DEFAULT);
+
+        // 两个目录同时存在，同义词只作用于配置了它的目录
+        assertEquals(1, withSynonyms.matchDataModels(new String[]{"客户"}).size());
+        assertTrue(plain.matchDataModels(new String[]{"客户"}).isEmpty());
+        assertSame(synonyms, withSynonyms.getSynonyms());
+        assertSame(SynonymDictionary.EMPTY, plain.getSynonyms());
+    }
+}
@@ -0,0 +1,51 @@
+package donts.ai.mcp;
+
+import donts.ai.tools.mcp.SuggestMcpServer;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.service.SuggestService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestMcpServerTest {
+
+    private MockDataRepository repository;
+    private SuggestMcpServer server;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockDataRepository();
+        ReflectionTestUtils.setField(repository, "tenantsEnabled", true);
+        repository.init();
+        repository.forTenant("alice").putDataModel(new DataModel("model_coupon", "优惠券", "优惠券信息",
+                List.of(), List.of(), List.of("优惠券")));
+
+        SuggestService suggestService = new SuggestService();
+        ReflectionTestUtils.setField(suggestService, "dataRepository", repository);
+        server = new SuggestMcpServer();
+        ReflectionTestUtils.setField(server, "suggestService", suggestService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void eachCallIsServedFromTheTenantItNames() {
+        assertTrue(server.suggest(new SuggestMcpServer.SuggestToolRequest("优惠", 5, "alice")).contains("优惠券"));
+        assertFalse(server.suggest(new SuggestMcpServer.SuggestToolRequest("优惠", 5, "bob")).contains("优惠券"));
+
+        // 未指定用户ID时使用配置的默认用户
+        assertFalse(server.suggest(new SuggestMcpServer.SuggestToolRequest("优惠", 5, null)).contains("优惠券"));
+        ReflectionTestUtils.setField(server, "defaultUserId", "alice");
+        assertTrue(server.suggest(new SuggestMcpServer.SuggestToolRequest("优惠", 5, null)).contains("优惠券"));
+    }
+}
@@ -0,0 +1,114 @@
+package donts.ai.model;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.CompactDataModel;
+import donts.ai.tools.model.ContentDigest;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.HttpMethod;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.model.ModelField;
+import donts.ai.tools.model.ParameterLocation;
+import donts.ai.tools.model.ValueType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CompactModelTest {
+
+    private final KeywordDictionary keywords = new KeywordDictionary();
+
+    @Test
+    void compactFormRoundTripsToBeans() {
+        DataModel model = new DataModel("model_account", "Account", "用户Account信息",
+                List.of(new ModelField("id", "String", "账号ID", true, null, "a1"),
+                        new ModelField("profile", "UserDTO", "资料", false, null, null)),
+                List.of("api_account_get"), List.of("账号", "Account"));
+        ApiInterface api = new ApiInterface("api_account_get", "获取账号", "根据账号ID获取Account", "/accounts/{id}",
+                "get", List.of(new ApiParameter("id", "string", "账号ID", true, "Path", null, "a1", "id"),
+                        new ApiParameter("verbose", "Boolean", "详细信息", false, "query", "false", null, null)),
+                "Account", "model_account", List.of("账号", "获取"));
+
+        CompactDataModel compactModel = CompactDataModel.of(model, keywords);
+        CompactApiInterface compactApi = CompactApiInterface.of(api, keywords);
+
+        // 转换回模型类时保留原始写法，包括大小写不同的请求方法、类型和位置以及无法识别的类型
+        assertEquals(model, compactModel.toDataModel());
+        assertEquals(api, compactApi.toApiInterface());
+        assertEquals(HttpMethod.GET, compactApi.getMethod());
+        assertEquals(ValueType.STRING, compactApi.getParameters().get(0).getType());
+        assertEquals(ParameterLocation.PATH, compactApi.getParameters().get(0).getLocation());
+        assertNull(compactModel.getFields().get(1).getType());
+
+        // 小写形式预先计算，相同的关键词共享同一个实例
+        assertEquals("account", compactModel.getLowerName());
+        assertEquals("用户account信息", compactModel.getLowerDescription());
+        assertEquals("account", compactModel.lowerKeyword(1));
+        assertSame(compactModel.keyword(0), compactApi.keyword(0));
+
+        // 不需要详细信息时去掉字段、参数和关键词
+        DataModel simple = compactModel.toDataModel(false);
+        assertNull(simple.getFields());
+        assertEquals(model.getRelatedApiIds(), simple.getRelatedApiIds());
+        ApiInterface simpleApi = compactApi.toApiInterface(false);
+        assertNull(simpleApi.getParameters());
+        assertNull(simpleApi.getKeywords());
+        assertEquals("get", simpleApi.getMethod());
+    }
+
+    @Test
+    void contentDigestIsFixedByContentAlone() {
+        ApiInterface api = new ApiInterface("api_user_get", "获取用户", "根据ID获取用户", "/users/{id}", "GET",
+                List.of(new ApiParameter("id", "string", "用户ID", true, "path", null, "u1", "id")),
+                "User", "model_user", List.of("用户"));
+        DataModel model = new DataModel("model_user", "用户", "用户信息",
+                List.of(new ModelField("id", "String", "用户ID", true, null, "u1")),
+                List.of("api_user_get"), List.of("用户"));
+
+        // 摘要只由规范编码决定，枚举按名称编码，任何进程上都得到这些值
+        ContentDigest apiDigest = ContentDigest.of(CompactApiInterface.of(api, keywords));
+        ContentDigest modelDigest = ContentDigest.of(CompactDataModel.of(model, keywords));
+        assertEquals("ea818b9841b0eaecb82bba51eadf8e2a", apiDigest.toHex());
+        assertEquals("e80f4517af7b80faf04c96f3fb8e902a", modelDigest.toHex());
+
+        // 按128位整数相加合并，减去即可撤销
+        ContentDigest sum = apiDigest.plus(modelDigest);
+        assertEquals("d290d0aff12c6be7a8785145e66e1e54", sum.toHex());
+        assertEquals(apiDigest, sum.minus(modelDigest));
+        assertEquals(ContentDigest.ZERO, sum.minus(apiDigest).minus(modelDigest));
+
+        // 任何内容变化都改变摘要
+        api.setMethod("POST");
+        assertNotEquals(apiDigest, ContentDigest.of(CompactApiInterface.of(api, keywords)));
+    }
+
+    @Test
+    void keywordsAreSharedPerDictionaryAndReleasedWithTheirEntries() throws InterruptedException {
+        DataModel model = new DataModel("model_tag", "标签", "标签", List.of(), List.of(), List.of("标签", "Tag"));
+        CompactDataModel first = CompactDataModel.of(model, keywords);
+        CompactDataModel second = CompactDataModel.of(model, keywords);
+        assertSame(first.keyword(1), second.keyword(1));
+        assertEquals(2, keywords.size());
+
+        // 其他目录的字典各自登记，不计入本字典
+        KeywordDictionary other = new KeywordDictionary();
+        CompactDataModel.of(new DataModel("model_x", "X", "X", List.of(), List.of(), List.of("其他")), other);
+        assertEquals(2, keywords.size());
+
+        // 条目不再被引用后关键词随之回收，字典不会只增不减
+        first = null;
+        second = null;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (keywords.size() > 0 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, keywords.size());
+    }
+}
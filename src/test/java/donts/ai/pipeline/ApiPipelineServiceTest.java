@@ -0,0 +1,74 @@
+package donts.ai.pipeline;
+
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.request.ApiPipelineRequest;
+import donts.ai.tools.response.ApiPipelineResponse;
+import donts.ai.tools.service.ApiExecutorService;
+import donts.ai.tools.service.ApiFinderService;
+import donts.ai.tools.service.ApiPipelineService;
+import donts.ai.tools.service.ApiUsageService;
+import donts.ai.tools.service.ModelFinderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiPipelineServiceTest {
+
+    private ApiPipelineService pipelineService;
+
+    @BeforeEach
+    void setUp() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        ApiUsageService apiUsageService = new ApiUsageService();
+        ModelFinderService modelFinderService = new ModelFinderService();
+        ReflectionTestUtils.setField(modelFinderService, "dataRepository", repository);
+        ReflectionTestUtils.setField(modelFinderService, "apiUsageService", apiUsageService);
+        ApiFinderService apiFinderService = new ApiFinderService();
+        ReflectionTestUtils.setField(apiFinderService, "dataRepository", repository);
+        ReflectionTestUtils.setField(apiFinderService, "apiUsageService", apiUsageService);
+        ApiExecutorService apiExecutorService = new ApiExecutorService();
+        ReflectionTestUtils.setField(apiExecutorService, "dataRepository", repository);
+        ReflectionTestUtils.setField(apiExecutorService, "apiUsageService", apiUsageService);
+
+        pipelineService = new ApiPipelineService();
+        ReflectionTestUtils.setField(pipelineService, "modelFinderService", modelFinderService);
+        ReflectionTestUtils.setField(pipelineService, "apiFinderService", apiFinderService);
+        ReflectionTestUtils.setField(pipelineService, "apiExecutorService", apiExecutorService);
+    }
+
+    @Test
+    void resolvesApiByProvidedParameters() {
+        ApiPipelineResponse byId = pipelineService.resolveAndExecute(request("商品", "查询", Map.of("productId", "p1")));
+        assertTrue(byId.isExecuted());
+        assertEquals("model_product", byId.getModelId());
+        assertEquals("api_product_get", byId.getApiId());
+
+        ApiPipelineResponse byCategory = pipelineService.resolveAndExecute(request("商品", "查询", Map.of("category", "图书")));
+        assertTrue(byCategory.isExecuted());
+        assertEquals("api_product_list", byCategory.getApiId());
+    }
+
+    @Test
+    void returnsCandidatesWhenNothingMatches() {
+        ApiPipelineResponse response = pipelineService.resolveAndExecute(request("不存在的东西", "查询", Map.of()));
+        assertTrue(response.isSuccess());
+        assertFalse(response.isExecuted());
+        assertTrue(response.getCandidateModels().isEmpty());
+    }
+
+    private ApiPipelineRequest request(String description, String operationType, Map<String, Object> parameters) {
+        return ApiPipelineRequest.builder()
+                .requestId("test")
+                .description(description)
+                .operationType(operationType)
+                .parameters(parameters)
+                .build();
+    }
+}
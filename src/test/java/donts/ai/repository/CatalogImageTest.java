@@ -0,0 +1,135 @@
+package donts.ai.repository;
+
+import donts.ai.tools.index.FieldIndex;
+import donts.ai.tools.index.KeywordIndex;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.CompactApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.KeywordDictionary;
+import donts.ai.tools.repository.CatalogImage;
+import donts.ai.tools.repository.CatalogIndexing;
+import donts.ai.tools.repository.CatalogLoader;
+import donts.ai.tools.repository.CatalogSnapshot;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogImageTest {
+
+    @Test
+    void mappedImageAnswersQueriesLikeHeapSnapshot(@TempDir Path dir) throws Exception {
+        CatalogLoader.CatalogData data = new CatalogLoader().load(MockDataRepository.DEFAULT_CATALOG_LOCATION);
+        CatalogSnapshot heap = CatalogSnapshot.build(1, data.dataModels(), data.apiInterfaces(), new KeywordDictionary(), CatalogIndexing.DEFAULT);
+        Path file = dir.resolve("catalog.img");
+
+        CatalogImage.write(file, 42L, heap);
+        CatalogSnapshot mapped = CatalogImage.open(file, 42L, 1, CatalogIndexing.DEFAULT);
+
+        assertNotNull(mapped);
+        assertTrue(mapped.isOffHeap());
+        assertFalse(heap.isOffHeap());
+        assertEquals(heap.getAllDataModels(), mapped.getAllDataModels());
+        assertEquals(heap.getAllApiInterfaces(), mapped.getAllApiInterfaces());
+        assertEquals(heap.getDataModel("model_order"), mapped.getDataModel("model_order"));
+        assertNull(mapped.getApiInterface("api_missing"));
+
+        for (String query : List.of("用户", "订单 查询", "product", "创建 商品")) {
+            String[] terms = KeywordIndex.tokenize(query);
+            assertEquals(heap.matchDataModels(terms), mapped.matchDataModels(terms), query);
+            assertEquals(heap.matchApiInterfaces(terms), mapped.matchApiInterfaces(terms), query);
+            assertEquals(heap.searchApiInterfaces(terms, 3, api -> true),
+                    mapped.searchApiInterfaces(terms, 3, api -> true), query);
+        }
+        List<FieldIndex.FieldMatch> heapFields = heap.searchFields("id", null, null);
+        assertFalse(heapFields.isEmpty());
+        assertEquals(heapFields, mapped.searchFields("id", null, null));
+        assertEquals(heap.searchFields(null, "Integer", "数量"), mapped.searchFields(null, "Integer", "数量"));
+    }
+
+    @Test
+    void staleOrCorruptImageIsRejected(@TempDir Path dir) throws Exception {
+        CatalogLoader.CatalogData data = new CatalogLoader().load(MockDataRepository.DEFAULT_CATALOG_LOCATION);
+        Path file = dir.resolve("catalog.img");
+        CatalogImage.write(file, 42L, CatalogSnapshot.build(1, data.dataModels(), data.apiInterfaces(), new KeywordDictionary(), CatalogIndexing.DEFAULT));
+
+        assertNull(CatalogImage.open(file, 43L, 1, CatalogIndexing.DEFAULT));
+        assertNull(CatalogImage.open(dir.resolve("missing.img"), 42L, 1, CatalogIndexing.DEFAULT));
+
+        // 翻转正文中间的一个字节，校验和不再匹配
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = channel.size() / 2;
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) ~buffer.get(0)).rewind();
+            channel.write(buffer, position);
+        }
+        assertNull(CatalogImage.open(file, 42L, 1, CatalogIndexing.DEFAULT));
+    }
+
+    @Test
+    void offHeapRepositoryAnswersLikeHeapRepository() {
+        MockDataRepository heap = new MockDataRepository();
+        heap.init();
+        MockDataRepository offHeap = new MockDataRepository();
+        ReflectionTestUtils.setField(offHeap, "offHeap", true);
+        offHeap.init();
+
+        assertTrue(offHeap.getSnapshot().isOffHeap());
+        assertEquals(heap.getSnapshot().getAllApiInterfaces(), offHeap.getSnapshot().getAllApiInterfaces());
+        assertEquals(heap.getAllDataModels(), offHeap.getAllDataModels());
+        assertEquals(heap.getSnapshot().contentDigest(), offHeap.getSnapshot().contentDigest());
+        String[] terms = KeywordIndex.tokenize("取消订单");
+        assertEquals(heap.searchApiInterfaces(terms, 3, api -> true), offHeap.searchApiInterfaces(terms, 3, api -> true));
+
+        // 享元视图与堆内对象按内容相等，可以用相同的方式读取参数和关键词
+        CompactApiInterface api = offHeap.getSnapshot().getApiInterface("api_user_get");
+        assertEquals(heap.getSnapshot().getApiInterface("api_user_get"), api);
+        assertEquals(heap.getApiInterfaceById("api_user_get"), api.toApiInterface());
+        assertEquals("model_user", api.getRelatedModelId());
+        offHeap.shutdown();
+        heap.shutdown();
+    }
+
+    @Test
+    void repositoryWritesImageThenMapsItOnNextStart(@TempDir Path dir) {
+        Path file = dir.resolve("catalog.img");
+
+        MockDataRepository first = new MockDataRepository();
+        ReflectionTestUtils.setField(first, "snapshotFile", file.toString());
+        first.init();
+        first.shutdown();
+        assertFalse(first.getSnapshot().isOffHeap());
+        assertTrue(Files.isRegularFile(file));
+
+        MockDataRepository second = new MockDataRepository();
+        ReflectionTestUtils.setField(second, "snapshotFile", file.toString());
+        second.init();
+        assertTrue(second.getSnapshot().isOffHeap());
+        assertEquals(first.getAllDataModels(), second.getAllDataModels());
+        assertEquals(first.searchDataModelsByKeywords("订单"), second.searchDataModelsByKeywords("订单"));
+
+        // 映射的快照上仍然可以注册新条目
+        DataModel tag = new DataModel("model_tag", "标签", "标签模型", List.of(), List.of(), List.of("标签"));
+        second.putDataModel(tag);
+        second.shutdown();
+        assertEquals(tag, second.getDataModelById("model_tag"));
+        assertEquals(List.of(tag), second.searchDataModelsByKeywords("标签"));
+        ApiInterface api = second.getApiInterfaceById("api_user_get");
+        assertNotNull(api);
+        assertEquals("model_user", api.getRelatedModelId());
+    }
+}
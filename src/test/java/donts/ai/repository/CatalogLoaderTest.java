@@ -0,0 +1,128 @@
+package donts.ai.repository;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.CatalogLoader;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogLoaderTest {
+
+    @Test
+    void sampleCatalogLoadsInFileOrderWithSharedStrings() {
+        CatalogLoader.CatalogData data = new CatalogLoader().load(MockDataRepository.DEFAULT_CATALOG_LOCATION);
+
+        assertEquals(List.of("model_user", "model_order", "model_product"),
+                data.dataModels().stream().map(DataModel::getId).toList());
+        assertEquals(12, data.apiInterfaces().size());
+        assertEquals("api_user_get", data.apiInterfaces().get(0).getId());
+
+        // 不同文件中的相同类型字符串共享同一个实例
+        String userType = data.dataModels().get(0).getFields().get(0).getType();
+        String productType = data.dataModels().get(2).getFields().get(0).getType();
+        assertSame(userType, productType);
+    }
+
+    @Test
+    void yamlAndJsonProduceSameModels() throws Exception {
+        String json = """
+                {"dataModels": [{"id": "model_tag", "name": "标签", "description": "标签模型",
+                  "fields": [{"name": "id", "type": "String", "description": "标签ID", "required": true}],
+                  "relatedApiIds": ["api_tag_get"], "keywords": ["标签", "tag"], "extra": {"ignored": [1, 2]}}],
+                 "apiInterfaces": [{"id": "api_tag_get", "name": "获取标签", "description": "获取标签", "path": "/api/tags/{tagId}",
+                  "method": "GET", "parameters": [{"name": "tagId", "type": "String", "description": "标签ID",
+                  "required": true, "location": "path", "modelFieldName": "id"}],
+                  "responseType": "TagDTO", "relatedModelId": "model_tag", "keywords": ["获取", "tag"]}]}
+                """;
+        String yaml = """
+                dataModels:
+                  - id: model_tag
+                    name: 标签
+                    description: 标签模型
+                    fields:
+                      - name: id
+                        type: String
+                        description: 标签ID
+                        required: true
+                    relatedApiIds: [api_tag_get]
+                    keywords: [标签, tag]
+                    extra:
+                      ignored: [1, 2]
+                apiInterfaces:
+                  - id: api_tag_get
+                    name: 获取标签
+                    description: 获取标签
+                    path: /api/tags/{tagId}
+                    method: GET
+                    parameters:
+                      - name: tagId
+                        type: String
+                        description: 标签ID
+                        required: true
+                        location: path
+                        modelFieldName: id
+                    responseType: TagDTO
+                    relatedModelId: model_tag
+                    keywords: [获取, tag]
+                """;
+        CatalogLoader loader = new CatalogLoader();
+        CatalogLoader.CatalogData fromJson = loader.parse(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "tag.json");
+        CatalogLoader.CatalogData fromYaml = loader.parse(
+                new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)), "tag.yaml");
+
+        assertEquals(fromJson, fromYaml);
+        assertEquals("id", fromYaml.apiInterfaces().get(0).getParameters().get(0).getModelFieldName());
+    }
+
+    @Test
+    void loadsLargeCatalogAcrossFiles(@TempDir Path dir) throws Exception {
+        int files = 20;
+        int apisPerFile = 2500;
+        for (int f = 0; f < files; f++) {
+            StringBuilder content = new StringBuilder("{\"apiInterfaces\": [");
+            for (int i = 0; i < apisPerFile; i++) {
+                if (i > 0) {
+                    content.append(',');
+                }
+                content.append("{\"id\": \"api_").append(f).append('_').append(i)
+                        .append("\", \"name\": \"接口").append(i).append("\", \"path\": \"/api/items/").append(i)
+                        .append("\", \"method\": \"GET\", \"parameters\": [{\"name\": \"itemId\", \"type\": \"String\", ")
+                        .append("\"location\": \"path\", \"required\": true}], \"keywords\": [\"获取\", \"item\"]}");
+            }
+            content.append("]}");
+            Files.writeString(dir.resolve(String.format("part-%02d.json", f)), content.toString());
+        }
+        Files.writeString(dir.resolve("README.txt"), "非目录文件会被忽略");
+
+        CatalogLoader.CatalogData data = new CatalogLoader().load("file:" + dir.toAbsolutePath() + "/*");
+
+        assertEquals(files * apisPerFile, data.apiInterfaces().size());
+        ApiInterface first = data.apiInterfaces().get(0);
+        ApiInterface last = data.apiInterfaces().get(data.apiInterfaces().size() - 1);
+        assertEquals("api_0_0", first.getId());
+        assertEquals("api_19_2499", last.getId());
+        assertSame(first.getParameters().get(0).getLocation(), last.getParameters().get(0).getLocation());
+    }
+
+    @Test
+    void malformedFileFailsWithFileName(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("broken.json"), "[1, 2, 3]");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new CatalogLoader().load("file:" + dir.toAbsolutePath() + "/*"));
+        assertTrue(error.getMessage().contains("broken.json"));
+    }
+}
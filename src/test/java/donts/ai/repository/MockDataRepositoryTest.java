@@ -0,0 +1,138 @@
+package donts.ai.repository;
+
+import donts.ai.tools.index.CompletionTrie;
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.CatalogSnapshot;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MockDataRepositoryTest {
+
+    @Test
+    void reloadPublishesNewSnapshotWithoutTouchingOldOne() throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        CatalogSnapshot before = repository.getSnapshot();
+        long version = repository.getCatalogVersion();
+
+        List<DataModel> models = new ArrayList<>(repository.getAllDataModels());
+        models.removeIf(model -> model.getId().equals("model_product"));
+        List<ApiInterface> apis = new ArrayList<>(repository.getAllApiInterfaces());
+        apis.removeIf(api -> api.getRelatedModelId().equals("model_product"));
+
+        long newVersion = repository.reloadAsync(models, apis).get();
+        repository.shutdown();
+
+        assertEquals(version + 1, newVersion);
+        assertEquals(newVersion, repository.getCatalogVersion());
+        assertNull(repository.getDataModelById("model_product"));
+        assertTrue(repository.searchDataModelsByKeywords("商品").isEmpty());
+
+        // 旧快照保持不变，持有它的读取方不受影响
+        assertNotNull(before.getDataModel("model_product"));
+        assertEquals(1, before.matchDataModels(new String[]{"商品"}).size());
+    }
+
+    @Test
+    void incrementalWritesReachFuzzyTermsCompletionsAndRelations() throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        CatalogSnapshot before = repository.getSnapshot();
+        before.complete("商", 5);
+        before.withFuzzyModelTerms(new String[]{"ordr"}, 2);
+        assertFalse(repository.getModelGraph().traverse("model_user", 2).isEmpty());
+
+        repository.putDataModel(new DataModel("model_coupon", "优惠券", "优惠券信息", List.of(), List.of(),
+                List.of("coupon")));
+        repository.removeDataModel("model_order");
+        CatalogSnapshot after = repository.getSnapshot();
+
+        assertTrue(List.of(after.withFuzzyModelTerms(new String[]{"coupom"}, 2)).contains("coupon"));
+        assertEquals("model_coupon", after.complete("优惠", 5).get(0).id());
+        assertTrue(after.complete("订单", 5).stream().map(CompletionTrie.Entry::id).noneMatch("model_order"::equals));
+
+        // 关系图在后台按新快照重建，重建完成之前沿用旧图
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!repository.getModelGraph().traverse("model_user", 2).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(repository.getModelGraph().traverse("model_user", 2).isEmpty());
+        repository.shutdown();
+    }
+
+    @Test
+    void writesDuringCompactionAreKept() throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        int count = 3000;
+        for (int i = 0; i < count; i++) {
+            repository.putDataModel(new DataModel("model_tag_" + i, "标签" + i, "标签", List.of(), List.of(),
+                    List.of("标签" + i)));
+            if (i % 3 == 0) {
+                repository.removeDataModel("model_tag_" + i);
+            }
+        }
+        repository.removeDataModel("model_product");
+
+        // 后台线程按提交顺序执行，合并完成时已执行过之前安排的合并
+        repository.mergeAsync(List.of(), List.of()).get();
+        repository.shutdown();
+
+        assertEquals(count - count / 3 + 2, repository.getAllDataModels().size());
+        assertNull(repository.getDataModelById("model_tag_0"));
+        assertNull(repository.getDataModelById("model_product"));
+        assertEquals("标签2999", repository.getDataModelById("model_tag_2999").getName());
+    }
+
+    @Test
+    void writesDuringMergeAreKept() throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        List<DataModel> imported = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            imported.add(new DataModel("model_import_" + i, "导入" + i, "导入", List.of(), List.of(), List.of()));
+        }
+        imported.add(new DataModel("model_product", "导入的商品", "导入", List.of(), List.of(), List.of()));
+
+        // 全量构建不持有写锁，合并期间的写入不被阻塞，合并发布后也不会丢失
+        var merged = repository.mergeAsync(imported, List.of());
+        for (int i = 0; i < 200; i++) {
+            repository.putDataModel(new DataModel("model_tag_" + i, "标签" + i, "标签", List.of(), List.of(),
+                    List.of("标签" + i)));
+        }
+        merged.get();
+        repository.shutdown();
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals("标签" + i, repository.getDataModelById("model_tag_" + i).getName());
+        }
+        assertEquals("导入19999", repository.getDataModelById("model_import_19999").getName());
+        assertEquals("导入的商品", repository.getDataModelById("model_product").getName());
+        assertNotNull(repository.getDataModelById("model_order"));
+    }
+
+    @Test
+    void writesAfterBackgroundThreadStopsStillSucceed() {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        repository.getModelGraph();
+        repository.shutdown();
+
+        // 写入已发布，后台线程关闭后不再安排重建关系图，但不会让写入报告失败
+        long version = repository.getCatalogVersion();
+        assertEquals(version + 1, repository.putDataModel(new DataModel("model_coupon", "优惠券", "优惠券信息",
+                List.of(), List.of(), List.of("coupon"))));
+        assertEquals("优惠券", repository.getDataModelById("model_coupon").getName());
+    }
+}
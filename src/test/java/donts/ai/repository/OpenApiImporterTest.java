@@ -0,0 +1,102 @@
+package donts.ai.repository;
+
+import donts.ai.tools.model.ApiInterface;
+import donts.ai.tools.model.ApiParameter;
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.model.ModelField;
+import donts.ai.tools.repository.CatalogLoader;
+import donts.ai.tools.repository.MockDataRepository;
+import donts.ai.tools.repository.OpenApiImporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenApiImporterTest {
+
+    private final CatalogLoader.CatalogData data =
+            new OpenApiImporter().importSpec(new ClassPathResource("openapi/shop.yaml"));
+
+    @Test
+    void schemasBecomeDataModels() {
+        Map<String, DataModel> models = data.dataModels().stream()
+                .collect(Collectors.toMap(DataModel::getId, Function.identity()));
+        assertEquals(List.of("model_entity", "model_member", "model_purchase_order"),
+                data.dataModels().stream().map(DataModel::getId).toList());
+
+        // allOf 合并父模式的字段和必填项，自引用字段不会无限展开
+        DataModel member = models.get("model_member");
+        assertEquals("会员", member.getName());
+        assertEquals(List.of("id", "nickname", "birthday", "referrer"),
+                member.getFields().stream().map(ModelField::getName).toList());
+        ModelField nickname = member.getFields().get(1);
+        assertTrue(nickname.isRequired());
+        assertEquals("小王", nickname.getExampleValue());
+        assertEquals("Date", member.getFields().get(2).getType());
+        assertEquals("Member", member.getFields().get(3).getType());
+        assertEquals(List.of("api_get_user", "api_update_user"), member.getRelatedApiIds());
+
+        DataModel order = models.get("model_purchase_order");
+        assertEquals("List<Long>", order.getFields().get(3).getType());
+        assertEquals("Double", order.getFields().get(2).getType());
+    }
+
+    @Test
+    void operationsBecomeApiInterfaces() {
+        Map<String, ApiInterface> apis = data.apiInterfaces().stream()
+                .collect(Collectors.toMap(ApiInterface::getId, Function.identity()));
+
+        ApiInterface getUser = apis.get("api_get_user");
+        assertEquals("GET", getUser.getMethod());
+        assertEquals("model_member", getUser.getRelatedModelId());
+        assertEquals("Member", getUser.getResponseType());
+        ApiParameter userId = getUser.getParameters().get(0);
+        assertEquals("path", userId.getLocation());
+        assertTrue(userId.isRequired());
+        assertEquals("m1001", userId.getExampleValue());
+        assertTrue(getUser.getKeywords().contains("会员"));
+
+        // 路径级参数、请求体字段和 $ref 响应
+        ApiInterface updateUser = apis.get("api_update_user");
+        assertEquals(List.of("userId", "id", "nickname", "birthday", "referrer"),
+                updateUser.getParameters().stream().map(ApiParameter::getName).toList());
+        ApiParameter nickname = updateUser.getParameters().get(2);
+        assertEquals("body", nickname.getLocation());
+        assertTrue(nickname.isRequired());
+        assertFalse(updateUser.getParameters().get(3).isRequired());
+        assertEquals("nickname", nickname.getModelFieldName());
+        assertEquals("Member", updateUser.getResponseType());
+
+        ApiInterface listOrders = apis.get("api_list_orders");
+        assertEquals("model_purchase_order", listOrders.getRelatedModelId());
+        assertEquals("List<PurchaseOrder>", listOrders.getResponseType());
+        ApiParameter page = listOrders.getParameters().get(1);
+        assertEquals("query", page.getLocation());
+        assertEquals("Integer", page.getType());
+        assertEquals("1", page.getDefaultValue());
+        assertEquals("memberId", listOrders.getParameters().get(0).getModelFieldName());
+    }
+
+    @Test
+    void importedEntriesAreMergedIntoRepository() throws Exception {
+        MockDataRepository repository = new MockDataRepository();
+        repository.init();
+        long version = repository.mergeAsync(data.dataModels(), data.apiInterfaces()).get();
+        repository.shutdown();
+
+        assertEquals(version, repository.getCatalogVersion());
+        assertEquals(6, repository.getAllDataModels().size());
+        assertEquals("model_user", repository.getAllDataModels().get(0).getId());
+        assertEquals("api_update_user", repository.searchApiInterfaces(new String[]{"更新会员"}, 1, api -> true)
+                .hits().get(0).document().getId());
+        assertNull(repository.getApiInterfaceById("api_missing"));
+    }
+}
@@ -0,0 +1,129 @@
+package donts.ai.repository;
+
+import donts.ai.tools.model.DataModel;
+import donts.ai.tools.repository.MockDataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantCatalogTest {
+
+    @TempDir
+    Path spillDir;
+
+    private MockDataRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void tenantChangesStayInTheirOwnCatalog() {
+        repository = newRepository(16, 0);
+        MockDataRepository alice = repository.forTenant("alice");
+        MockDataRepository bob = repository.forTenant("bob");
+
+        assertSame(repository, repository.forTenant(null));
+        assertSame(repository, repository.forTenant(MockDataRepository.DEFAULT_TENANT));
+        assertSame(alice, repository.forTenant("alice"));
+        assertNotNull(alice.getDataModelById("model_user"));
+
+        alice.putDataModel(model("model_coupon", "优惠券"));
+        bob.removeDataModel("model_product");
+
+        assertEquals(1, alice.searchDataModelsByKeywords("优惠券").size());
+        assertTrue(bob.searchDataModelsByKeywords("优惠券").isEmpty());
+        assertTrue(repository.searchDataModelsByKeywords("优惠券").isEmpty());
+        assertNull(bob.getDataModelById("model_product"));
+        assertNotNull(alice.getDataModelById("model_product"));
+        assertNotNull(repository.getDataModelById("model_product"));
+    }
+
+    @Test
+    void coldTenantIsSpilledToDiskAndMappedBack() throws Exception {
+        repository = newRepository(1, 0);
+        MockDataRepository alice = repository.forTenant("alice");
+        alice.putDataModel(model("model_coupon", "优惠券"));
+        long version = alice.getCatalogVersion();
+
+        repository.forTenant("bob");
+        assertThrows(IllegalStateException.class, () -> alice.putDataModel(model("model_gift", "礼品卡")));
+
+        MockDataRepository reloaded = awaitMapped("alice", "bob");
+        assertNotSame(alice, reloaded);
+        assertEquals(version, reloaded.getCatalogVersion());
+        assertEquals(List.of("model_coupon"), reloaded.searchDataModelsByKeywords("优惠券").stream()
+                .map(DataModel::getId).toList());
+        assertNull(reloaded.getDataModelById("model_gift"));
+
+        // 换回后的目录继续接受修改
+        reloaded.putDataModel(model("model_gift", "礼品卡"));
+        assertNotNull(reloaded.getDataModelById("model_gift"));
+    }
+
+    @Test
+    void quotaRejectsNewEntriesButAllowsUpdates() {
+        repository = newRepository(16, 0);
+        int shared = repository.getSnapshot().getDataModelCount() + repository.getSnapshot().getApiInterfaceCount();
+        repository.shutdown();
+        repository = newRepository(16, shared + 1);
+
+        MockDataRepository alice = repository.forTenant("alice");
+        alice.putDataModel(model("model_coupon", "优惠券"));
+        assertThrows(IllegalStateException.class, () -> alice.putDataModel(model("model_gift", "礼品卡")));
+        alice.putDataModel(model("model_coupon", "优惠券模板"));
+        assertEquals("优惠券模板", alice.getDataModelById("model_coupon").getName());
+
+        // 配额只作用于租户目录
+        repository.putDataModel(model("model_gift", "礼品卡"));
+        assertNotNull(repository.getDataModelById("model_gift"));
+    }
+
+    private MockDataRepository newRepository(int maxResident, int maxEntries) {
+        MockDataRepository created = new MockDataRepository();
+        ReflectionTestUtils.setField(created, "tenantsEnabled", true);
+        ReflectionTestUtils.setField(created, "maxResidentTenants", maxResident);
+        ReflectionTestUtils.setField(created, "tenantMaxEntries", maxEntries);
+        ReflectionTestUtils.setField(created, "tenantSpillDir", spillDir.toString());
+        created.init();
+        return created;
+    }
+
+    /**
+     * 换出文件在后台写入，写完之前再次访问的租户使用内存中的快照；交替访问两个租户直到换回的目录来自映射文件
+     */
+    private MockDataRepository awaitMapped(String tenant, String other) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            MockDataRepository catalog = repository.forTenant(tenant);
+            if (catalog.getSnapshot().isOffHeap()) {
+                try (Stream<Path> files = Files.list(spillDir)) {
+                    assertEquals(1, files.filter(file -> file.toString().endsWith(".img")).count());
+                }
+                return catalog;
+            }
+            Thread.sleep(10);
+            repository.forTenant(other);
+        }
+        throw new AssertionError("租户目录未换出到文件: " + tenant);
+    }
+
+    private DataModel model(String id, String name) {
+        return new DataModel(id, name, name + "信息", List.of(), List.of(), List.of(name));
+    }
+}